@@ -0,0 +1,83 @@
+package logia.quanlyso.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.gargoylesoftware.htmlunit.html.HtmlPage;
+import com.gargoylesoftware.htmlunit.html.HtmlSelect;
+import com.gargoylesoftware.htmlunit.html.HtmlTable;
+import com.gargoylesoftware.htmlunit.html.HtmlTableCell;
+import com.gargoylesoftware.htmlunit.html.HtmlTableRow;
+
+/**
+ * Reads results pages in full HtmlUnit browsers, scripts and styles included, taken from a
+ * {@link WebClientPool}.
+ * <p>
+ * Kept as a fallback of {@link HttpLotteryPageCrawler}, should the site start rendering results
+ * with scripts.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+public class HtmlUnitLotteryPageCrawler implements LotteryPageCrawler, AutoCloseable {
+
+	/** The pool of web clients. */
+	private final WebClientPool webClientPool;
+
+	/**
+	 * Instantiates a new html unit lottery page crawler.
+	 *
+	 * @param __webClientPool the pool of web clients, closed with the crawler
+	 */
+	public HtmlUnitLotteryPageCrawler(WebClientPool __webClientPool) {
+		this.webClientPool = __webClientPool;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see logia.quanlyso.client.LotteryPageCrawler#crawl(java.lang.String)
+	 */
+	@Override
+	public LotteryPage crawl(String __url) throws Exception {
+		try (HttpUnitRequest _httpUnitRequest = new HttpUnitRequest(this.webClientPool, __url);) {
+			HtmlPage _page = _httpUnitRequest.crawl();
+
+			String _openDate = null;
+			List<HtmlSelect> _selectTags = _page.getByXPath("//*[@id=\"box_kqxs_ngay\"]");
+			if (_selectTags.size() > 0) {
+				_openDate = _selectTags.get(0).getSelectedOptions().get(0).getValueAttribute();
+			}
+
+			// KQXS mien nam
+			List<HtmlTable> _tableTags = _page.getByXPath("/html/body/div[2]/div[1]/div/div[2]/table");
+			if (_tableTags.size() == 0) {
+				// KQXS mien bac
+				_tableTags = _page.getByXPath("/html/body/div[2]/div/div[2]/table");
+			}
+
+			List<LotteryPrize> _prizes = new ArrayList<>();
+			for (HtmlTable _tableTag : _tableTags) {
+				for (HtmlTableRow _rowTag : _tableTag.getRows()) {
+					for (HtmlTableCell _cell : _rowTag.getCells()) {
+						String _tier = LotteryPageParser.tierOf(_cell.getAttribute("class"));
+						if (_tier != null && !_cell.hasAttribute("nowrap")) {
+							_prizes.add(new LotteryPrize(_tier, LotteryPageParser.splitCodes(_cell.asText())));
+						}
+					}
+				}
+			}
+			return new LotteryPage(_openDate, _prizes);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() throws Exception {
+		this.webClientPool.close();
+	}
+}
@@ -0,0 +1,88 @@
+package logia.quanlyso.client;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads results pages over pooled HTTP connections, parsing them as they are received.
+ * <p>
+ * No browser is started: the page is fetched as is, without running its scripts, and read by
+ * {@link LotteryPageParser}. Connections are kept alive and shared between crawl threads.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+public class HttpLotteryPageCrawler implements LotteryPageCrawler, AutoCloseable {
+
+	/** The log. */
+	private final Logger				log	= LoggerFactory.getLogger(HttpLotteryPageCrawler.class);
+
+	/** The http client. */
+	private final CloseableHttpClient	httpClient;
+
+	/**
+	 * Instantiates a new http lottery page crawler.
+	 *
+	 * @param __maxConnections the maximum number of connections to the site
+	 * @param __timeout the connection and read timeout in milliseconds, 0 for none
+	 */
+	public HttpLotteryPageCrawler(int __maxConnections, int __timeout) {
+		PoolingHttpClientConnectionManager _connectionManager = new PoolingHttpClientConnectionManager();
+		_connectionManager.setMaxTotal(Math.max(1, __maxConnections));
+		_connectionManager.setDefaultMaxPerRoute(Math.max(1, __maxConnections));
+		RequestConfig _requestConfig = RequestConfig.custom().setConnectionRequestTimeout(__timeout)
+		        .setConnectTimeout(__timeout).setSocketTimeout(__timeout).build();
+		this.httpClient = HttpClients.custom().setConnectionManager(_connectionManager)
+		        .setDefaultRequestConfig(_requestConfig).build();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.client.LotteryPageCrawler#crawl(java.lang.String)
+	 */
+	@Override
+	public LotteryPage crawl(String __url) throws Exception {
+		try (CloseableHttpResponse _response = this.httpClient.execute(new HttpGet(__url))) {
+			int _status = _response.getStatusLine().getStatusCode();
+			HttpEntity _entity = _response.getEntity();
+			if (_status != HttpStatus.SC_OK || _entity == null) {
+				throw new IOException("Unexpected status " + _status + " from " + __url);
+			}
+			Charset _charset = ContentType.getOrDefault(_entity).getCharset();
+			try (Reader _reader = new InputStreamReader(_entity.getContent(),
+			        _charset != null ? _charset : StandardCharsets.UTF_8)) {
+				return LotteryPageParser.parse(_reader);
+			}
+		}
+		catch (Exception __ex) {
+			this.log.error("Error when crawl data from " + __url, __ex);
+			throw __ex;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		this.httpClient.close();
+	}
+}
@@ -3,6 +3,7 @@ package logia.quanlyso.client;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Timer;
 import com.gargoylesoftware.htmlunit.BrowserVersion;
 import com.gargoylesoftware.htmlunit.WebClient;
 import com.gargoylesoftware.htmlunit.html.HtmlPage;
@@ -23,6 +24,9 @@ public final class HttpUnitRequest implements AutoCloseable {
 	/** The web. */
 	private WebClient		web;
 
+	/** The pool the web client was borrowed from, null if owned. */
+	private WebClientPool	pool;
+
 	/**
 	 * Instantiates a new http unit request.
 	 *
@@ -31,13 +35,49 @@ public final class HttpUnitRequest implements AutoCloseable {
 	public HttpUnitRequest(String __url) {
 		super();
 		this.URL = __url;
-		this.web = new WebClient(BrowserVersion.CHROME);
-		this.web.getOptions().setThrowExceptionOnScriptError(false);
-		this.web.getOptions().setThrowExceptionOnFailingStatusCode(false);
-		this.web.getOptions().setJavaScriptEnabled(true);
-		this.web.getOptions().setCssEnabled(true);
-		this.web.getOptions().setRedirectEnabled(true);
-		this.web.getOptions().setDoNotTrackEnabled(true);
+		this.web = HttpUnitRequest.newWebClient();
+	}
+
+	/**
+	 * Instantiates a new http unit request.
+	 *
+	 * @param __url the url
+	 * @param __timeout the connection and read timeout in milliseconds, 0 for none
+	 */
+	public HttpUnitRequest(String __url, int __timeout) {
+		this(__url);
+		this.web.getOptions().setTimeout(__timeout);
+	}
+
+	/**
+	 * Instantiates a new http unit request on a web client borrowed from a pool, given back on
+	 * close.
+	 *
+	 * @param __pool the pool
+	 * @param __url the url
+	 * @throws Exception if no web client was released in time
+	 */
+	public HttpUnitRequest(WebClientPool __pool, String __url) throws Exception {
+		super();
+		this.URL = __url;
+		this.web = __pool.borrow();
+		this.pool = __pool;
+	}
+
+	/**
+	 * Create a web client configured for crawling.
+	 *
+	 * @return the web client
+	 */
+	static WebClient newWebClient() {
+		WebClient _web = new WebClient(BrowserVersion.CHROME);
+		_web.getOptions().setThrowExceptionOnScriptError(false);
+		_web.getOptions().setThrowExceptionOnFailingStatusCode(false);
+		_web.getOptions().setJavaScriptEnabled(true);
+		_web.getOptions().setCssEnabled(true);
+		_web.getOptions().setRedirectEnabled(true);
+		_web.getOptions().setDoNotTrackEnabled(true);
+		return _web;
 	}
 
 	/*
@@ -47,7 +87,12 @@ public final class HttpUnitRequest implements AutoCloseable {
 	 */
 	@Override
 	public void close() throws Exception {
-		this.web.close();
+		if (this.pool != null) {
+			this.pool.release(this.web);
+		}
+		else {
+			this.web.close();
+		}
 	}
 
 	/**
@@ -57,6 +102,7 @@ public final class HttpUnitRequest implements AutoCloseable {
 	 * @throws Exception the exception
 	 */
 	public HtmlPage crawl() throws Exception {
+		Timer.Context _fetch = this.pool != null ? this.pool.timeFetch() : null;
 		try {
 			return this.web.getPage(this.URL);
 		}
@@ -64,6 +110,11 @@ public final class HttpUnitRequest implements AutoCloseable {
 			this.LOGGER.error("Error when crawl data from " + this.URL, __ex);
 			throw __ex;
 		}
+		finally {
+			if (_fetch != null) {
+				_fetch.stop();
+			}
+		}
 	}
 
 	/**
@@ -0,0 +1,61 @@
+package logia.quanlyso.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The results of a draw as read from a results page.
+ *
+ * @author Dai Mai
+ */
+public final class LotteryPage {
+
+	/** The selected draw date, dd-MM-yyyy, null if the page has no date box. */
+	private final String				openDate;
+
+	/** The prizes, in page order. */
+	private final List<LotteryPrize>	prizes;
+
+	/**
+	 * Instantiates a new lottery page.
+	 *
+	 * @param __openDate the selected draw date, null if the page has no date box
+	 * @param __prizes the prizes
+	 */
+	public LotteryPage(String __openDate, List<LotteryPrize> __prizes) {
+		this.openDate = __openDate;
+		this.prizes = Collections.unmodifiableList(__prizes);
+	}
+
+	/**
+	 * Gets the selected draw date.
+	 *
+	 * @return the draw date, dd-MM-yyyy, null if the page has no date box
+	 */
+	public String getOpenDate() {
+		return this.openDate;
+	}
+
+	/**
+	 * Gets the prizes.
+	 *
+	 * @return the prizes, in page order
+	 */
+	public List<LotteryPrize> getPrizes() {
+		return this.prizes;
+	}
+
+	/**
+	 * Gets the numbers of all prizes.
+	 *
+	 * @return the numbers, in page order
+	 */
+	public List<String> getCodes() {
+		List<String> _codes = new ArrayList<>();
+		for (LotteryPrize _prize : this.prizes) {
+			_codes.addAll(_prize.getCodes());
+		}
+		return _codes;
+	}
+}
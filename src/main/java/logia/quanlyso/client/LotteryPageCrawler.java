@@ -0,0 +1,18 @@
+package logia.quanlyso.client;
+
+/**
+ * Fetches and reads a results page.
+ *
+ * @author Dai Mai
+ */
+public interface LotteryPageCrawler {
+
+	/**
+	 * Crawl a results page.
+	 *
+	 * @param __url the url
+	 * @return the lottery page
+	 * @throws Exception if the page cannot be fetched or read
+	 */
+	LotteryPage crawl(String __url) throws Exception;
+}
@@ -0,0 +1,552 @@
+package logia.quanlyso.client;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads the results of a draw from a results page in one pass, without building a DOM.
+ * <p>
+ * The page is tokenized as it is read: only the date box and the prize cells are kept, the rest
+ * of the markup is skipped, scripts and styles included. A prize cell is a {@code td} whose class
+ * contains {@code giai} and which is not {@code nowrap}, the same cells the browser crawler reads.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+public final class LotteryPageParser {
+
+	/** The id of the select holding the draw dates. */
+	private static final String			DATE_BOX_ID		= "box_kqxs_ngay";
+
+	/** The class of prize cells. */
+	private static final String			PRIZE_CLASS		= "giai";
+
+	/** The end of input. */
+	private static final int			EOF				= -1;
+
+	/** No character pushed back. */
+	private static final int			NONE			= -2;
+
+	/** The size of the read buffer. */
+	private static final int			BUFFER_SIZE		= 8192;
+
+	/** The reader. */
+	private final Reader				reader;
+
+	/** The read buffer. */
+	private final char[]				buffer			= new char[LotteryPageParser.BUFFER_SIZE];
+
+	/** The position of the next character in the buffer. */
+	private int							position;
+
+	/** The number of characters in the buffer. */
+	private int							limit;
+
+	/** The prizes read so far. */
+	private final List<LotteryPrize>	prizes			= new ArrayList<>();
+
+	/** The character pushed back, NONE if none. */
+	private int							pushedBack		= LotteryPageParser.NONE;
+
+	/** Whether the date box is open. */
+	private boolean						inDateBox;
+
+	/** The value of the selected date option. */
+	private String						selectedDate;
+
+	/** The value of the first date option, selected when no option is. */
+	private String						firstDate;
+
+	/** The tier of the open prize cell. */
+	private String						cellTier;
+
+	/** The text of the open prize cell, null if no cell is open. */
+	private StringBuilder				cellText;
+
+	/** The tables nested in the open prize cell. */
+	private int							nestedTables;
+
+	/**
+	 * Instantiates a new lottery page parser.
+	 *
+	 * @param __reader the reader
+	 */
+	private LotteryPageParser(Reader __reader) {
+		this.reader = __reader;
+	}
+
+	/**
+	 * Read a results page.
+	 *
+	 * @param __reader the page, not closed
+	 * @return the lottery page
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static LotteryPage parse(Reader __reader) throws IOException {
+		return new LotteryPageParser(__reader).parse();
+	}
+
+	/**
+	 * The prize tier named by a class attribute.
+	 *
+	 * @param __classes the class attribute, may be null
+	 * @return the first class naming a prize, lower case, null if none does
+	 */
+	static String tierOf(String __classes) {
+		if (__classes == null) {
+			return null;
+		}
+		for (String _class : __classes.trim().split("\\s+")) {
+			String _tier = _class.toLowerCase(Locale.ROOT);
+			if (_tier.contains(LotteryPageParser.PRIZE_CLASS)) {
+				return _tier;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Split the text of a prize cell in numbers.
+	 *
+	 * @param __text the text
+	 * @return the numbers, blanks left out
+	 */
+	static List<String> splitCodes(String __text) {
+		List<String> _codes = new ArrayList<>();
+		for (String _code : __text.replace('\u00a0', ' ').split("-")) {
+			_code = _code.trim();
+			if (!_code.isEmpty()) {
+				_codes.add(_code);
+			}
+		}
+		return _codes;
+	}
+
+	/**
+	 * Parse.
+	 *
+	 * @return the lottery page
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private LotteryPage parse() throws IOException {
+		int _c;
+		while ((_c = this.read()) != LotteryPageParser.EOF) {
+			if (_c == '<') {
+				this.readMarkup();
+			}
+			else if (this.cellText != null) {
+				this.cellText.append((char) _c);
+			}
+		}
+		this.closeCell();
+		return new LotteryPage(this.selectedDate != null ? this.selectedDate : this.firstDate,
+		        this.prizes);
+	}
+
+	/**
+	 * Read the markup following a '&lt;'.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void readMarkup() throws IOException {
+		int _c = this.read();
+		if (_c == '!') {
+			if (this.read() == '-' && this.peek() == '-') {
+				this.skipPast("-->");
+			}
+			else {
+				this.skipPast(">");
+			}
+		}
+		else if (_c == '?') {
+			this.skipPast(">");
+		}
+		else if (_c == '/') {
+			String _name = this.readName();
+			this.skipPast(">");
+			this.endTag(_name);
+		}
+		else if (Character.isLetter(_c)) {
+			this.unread(_c);
+			String _name = this.readName();
+			this.startTag(_name, this.readAttributes());
+		}
+		else {
+			// A lone '<' is text
+			this.unread(_c);
+			if (this.cellText != null) {
+				this.cellText.append('<');
+			}
+		}
+	}
+
+	/**
+	 * Handle a start tag.
+	 *
+	 * @param __name the tag name, lower case
+	 * @param __attributes the attributes, names in lower case
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void startTag(String __name, Map<String, String> __attributes) throws IOException {
+		switch (__name) {
+			case "script":
+			case "style":
+				this.skipRawText(__name);
+				return;
+			case "select":
+				if (LotteryPageParser.DATE_BOX_ID.equals(__attributes.get("id"))) {
+					this.inDateBox = true;
+				}
+				return;
+			case "option":
+				if (this.inDateBox) {
+					String _value = __attributes.get("value");
+					if (this.firstDate == null) {
+						this.firstDate = _value;
+					}
+					if (this.selectedDate == null && __attributes.containsKey("selected")) {
+						this.selectedDate = _value;
+					}
+				}
+				return;
+			case "table":
+				if (this.cellText != null) {
+					this.nestedTables++;
+				}
+				return;
+			case "td":
+			case "th":
+				if (this.cellText != null) {
+					if (this.nestedTables > 0) {
+						this.cellText.append(' ');
+						return;
+					}
+					// The open cell was not closed
+					this.closeCell();
+				}
+				String _tier = LotteryPageParser.tierOf(__attributes.get("class"));
+				if ("td".equals(__name) && _tier != null && !__attributes.containsKey("nowrap")) {
+					this.cellTier = _tier;
+					this.cellText = new StringBuilder();
+				}
+				return;
+			default:
+				if (this.cellText != null) {
+					this.cellText.append(' ');
+				}
+		}
+	}
+
+	/**
+	 * Handle an end tag.
+	 *
+	 * @param __name the tag name, lower case
+	 */
+	private void endTag(String __name) {
+		switch (__name) {
+			case "select":
+				this.inDateBox = false;
+				return;
+			case "td":
+			case "th":
+			case "tr":
+				if (this.nestedTables == 0) {
+					this.closeCell();
+				}
+				else if (this.cellText != null) {
+					this.cellText.append(' ');
+				}
+				return;
+			case "table":
+				if (this.nestedTables > 0) {
+					this.nestedTables--;
+				}
+				else {
+					this.closeCell();
+				}
+				return;
+			default:
+				if (this.cellText != null) {
+					this.cellText.append(' ');
+				}
+		}
+	}
+
+	/**
+	 * Close the open prize cell, if any.
+	 */
+	private void closeCell() {
+		if (this.cellText != null) {
+			this.prizes.add(new LotteryPrize(this.cellTier,
+			        LotteryPageParser.splitCodes(LotteryPageParser.decode(this.cellText))));
+			this.cellText = null;
+			this.cellTier = null;
+			this.nestedTables = 0;
+		}
+	}
+
+	/**
+	 * Read a tag or attribute name.
+	 *
+	 * @return the name, lower case
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private String readName() throws IOException {
+		StringBuilder _name = new StringBuilder();
+		int _c;
+		while ((_c = this.read()) != LotteryPageParser.EOF) {
+			if (Character.isWhitespace(_c) || _c == '>' || _c == '/' || _c == '=') {
+				this.unread(_c);
+				break;
+			}
+			_name.append((char) _c);
+		}
+		return _name.toString().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Read the attributes of a start tag, up to and including the closing '&gt;'.
+	 *
+	 * @return the attributes, names in lower case, the first of a repeated name kept
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private Map<String, String> readAttributes() throws IOException {
+		Map<String, String> _attributes = new HashMap<>();
+		while (true) {
+			this.skipWhitespace();
+			int _c = this.read();
+			if (_c == '>' || _c == LotteryPageParser.EOF) {
+				return _attributes;
+			}
+			if (_c == '/' || _c == '=') {
+				continue;
+			}
+			this.unread(_c);
+			String _name = this.readName();
+			if (_name.isEmpty()) {
+				// Never stall on a stray character
+				this.read();
+				continue;
+			}
+			this.skipWhitespace();
+			String _value = "";
+			if (this.peek() == '=') {
+				this.read();
+				this.skipWhitespace();
+				_value = this.readValue();
+			}
+			_attributes.putIfAbsent(_name, _value);
+		}
+	}
+
+	/**
+	 * Read an attribute value, quoted or not.
+	 *
+	 * @return the value
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private String readValue() throws IOException {
+		StringBuilder _value = new StringBuilder();
+		int _c = this.read();
+		if (_c == '"' || _c == '\'') {
+			int _quote = _c;
+			while ((_c = this.read()) != LotteryPageParser.EOF && _c != _quote) {
+				_value.append((char) _c);
+			}
+		}
+		else {
+			while (_c != LotteryPageParser.EOF && !Character.isWhitespace(_c) && _c != '>') {
+				_value.append((char) _c);
+				_c = this.read();
+			}
+			this.unread(_c);
+		}
+		return LotteryPageParser.decode(_value);
+	}
+
+	/**
+	 * Skip the content of a raw text element, up to and including its end tag.
+	 *
+	 * @param __name the element name
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void skipRawText(String __name) throws IOException {
+		int _c;
+		while ((_c = this.read()) != LotteryPageParser.EOF) {
+			if (_c == '<' && this.peek() == '/') {
+				this.read();
+				if (this.readName().equals(__name)) {
+					this.skipPast(">");
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Skip past a delimiter.
+	 *
+	 * @param __delimiter the delimiter
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void skipPast(String __delimiter) throws IOException {
+		StringBuilder _tail = new StringBuilder(__delimiter.length());
+		int _c;
+		while ((_c = this.read()) != LotteryPageParser.EOF) {
+			if (_tail.length() == __delimiter.length()) {
+				_tail.deleteCharAt(0);
+			}
+			_tail.append((char) _c);
+			if (_tail.length() == __delimiter.length() && __delimiter.contentEquals(_tail)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Skip whitespace.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void skipWhitespace() throws IOException {
+		int _c;
+		while ((_c = this.read()) != LotteryPageParser.EOF && Character.isWhitespace(_c)) {
+			// Skip
+		}
+		this.unread(_c);
+	}
+
+	/**
+	 * Read a character.
+	 *
+	 * @return the character, EOF at the end of input
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private int read() throws IOException {
+		if (this.pushedBack != LotteryPageParser.NONE) {
+			int _c = this.pushedBack;
+			this.pushedBack = LotteryPageParser.NONE;
+			return _c;
+		}
+		if (this.position == this.limit) {
+			int _read = this.reader.read(this.buffer);
+			if (_read <= 0) {
+				return LotteryPageParser.EOF;
+			}
+			this.position = 0;
+			this.limit = _read;
+		}
+		return this.buffer[this.position++];
+	}
+
+	/**
+	 * Peek at the next character.
+	 *
+	 * @return the character, EOF at the end of input
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private int peek() throws IOException {
+		int _c = this.read();
+		this.unread(_c);
+		return _c;
+	}
+
+	/**
+	 * Push back a character.
+	 *
+	 * @param __c the character
+	 */
+	private void unread(int __c) {
+		this.pushedBack = __c;
+	}
+
+	/**
+	 * Decode the character references of a text.
+	 *
+	 * @param __text the text
+	 * @return the decoded text
+	 */
+	private static String decode(CharSequence __text) {
+		StringBuilder _decoded = new StringBuilder(__text.length());
+		int _i = 0;
+		while (_i < __text.length()) {
+			char _c = __text.charAt(_i);
+			int _end = _c == '&' ? LotteryPageParser.indexOf(__text, ';', _i, 10) : -1;
+			if (_end < 0) {
+				_decoded.append(_c);
+				_i++;
+				continue;
+			}
+			String _entity = __text.subSequence(_i + 1, _end).toString();
+			Character _character = LotteryPageParser.character(_entity);
+			if (_character == null) {
+				_decoded.append(_c);
+				_i++;
+				continue;
+			}
+			_decoded.append(_character.charValue());
+			_i = _end + 1;
+		}
+		return _decoded.toString();
+	}
+
+	/**
+	 * The character of a reference.
+	 *
+	 * @param __entity the reference, without '&amp;' and ';'
+	 * @return the character, null if unknown
+	 */
+	private static Character character(String __entity) {
+		switch (__entity) {
+			case "nbsp":
+				return ' ';
+			case "amp":
+				return '&';
+			case "lt":
+				return '<';
+			case "gt":
+				return '>';
+			case "quot":
+				return '"';
+			case "apos":
+				return '\'';
+			default:
+				if (__entity.length() < 2 || __entity.charAt(0) != '#') {
+					return null;
+				}
+				try {
+					int _code = __entity.charAt(1) == 'x' || __entity.charAt(1) == 'X'
+					        ? Integer.parseInt(__entity.substring(2), 16)
+					        : Integer.parseInt(__entity.substring(1));
+					return _code <= Character.MAX_VALUE ? Character.valueOf((char) _code) : null;
+				}
+				catch (NumberFormatException __ex) {
+					return null;
+				}
+		}
+	}
+
+	/**
+	 * Find a character within a distance.
+	 *
+	 * @param __text the text
+	 * @param __c the character
+	 * @param __from the index to search from
+	 * @param __distance the maximum distance
+	 * @return the index, -1 if not found
+	 */
+	private static int indexOf(CharSequence __text, char __c, int __from, int __distance) {
+		int _to = Math.min(__text.length(), __from + __distance);
+		for (int _i = __from; _i < _to; _i++) {
+			if (__text.charAt(_i) == __c) {
+				return _i;
+			}
+		}
+		return -1;
+	}
+}
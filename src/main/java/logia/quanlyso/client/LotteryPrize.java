@@ -0,0 +1,57 @@
+package logia.quanlyso.client;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A prize cell of a results page: the tier, as named by the cell class, and its numbers.
+ *
+ * @author Dai Mai
+ */
+public final class LotteryPrize {
+
+	/** The tier, such as giaidb or giai8. */
+	private final String		tier;
+
+	/** The numbers, in page order. */
+	private final List<String>	codes;
+
+	/**
+	 * Instantiates a new lottery prize.
+	 *
+	 * @param __tier the tier
+	 * @param __codes the numbers
+	 */
+	public LotteryPrize(String __tier, List<String> __codes) {
+		this.tier = __tier;
+		this.codes = Collections.unmodifiableList(__codes);
+	}
+
+	/**
+	 * Gets the tier.
+	 *
+	 * @return the tier
+	 */
+	public String getTier() {
+		return this.tier;
+	}
+
+	/**
+	 * Gets the numbers.
+	 *
+	 * @return the numbers
+	 */
+	public List<String> getCodes() {
+		return this.codes;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "LotteryPrize{tier=" + this.tier + ", codes=" + this.codes + "}";
+	}
+}
@@ -0,0 +1,135 @@
+package logia.quanlyso.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.StatusLine;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+
+import com.gargoylesoftware.htmlunit.BrowserVersion;
+import com.gargoylesoftware.htmlunit.WebConnection;
+import com.gargoylesoftware.htmlunit.WebRequest;
+import com.gargoylesoftware.htmlunit.WebResponse;
+import com.gargoylesoftware.htmlunit.WebResponseData;
+import com.gargoylesoftware.htmlunit.util.NameValuePair;
+
+/**
+ * A web connection sending the requests of a {@link com.gargoylesoftware.htmlunit.WebClient}
+ * through a shared http client, so that pooled web clients share their connections.
+ * <p>
+ * Redirects are left to HtmlUnit. Cookies are neither sent nor stored: results pages are public.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+final class SharedHttpWebConnection implements WebConnection {
+
+	/** The shared http client. */
+	private final CloseableHttpClient	httpClient;
+
+	/** The browser version, whose user agent is sent. */
+	private final BrowserVersion		browserVersion;
+
+	/**
+	 * Instantiates a new shared http web connection.
+	 *
+	 * @param __httpClient the shared http client, redirects and cookies disabled
+	 * @param __browserVersion the browser version
+	 */
+	SharedHttpWebConnection(CloseableHttpClient __httpClient, BrowserVersion __browserVersion) {
+		this.httpClient = __httpClient;
+		this.browserVersion = __browserVersion;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.gargoylesoftware.htmlunit.WebConnection#getResponse(com.gargoylesoftware.htmlunit.
+	 * WebRequest)
+	 */
+	@Override
+	public WebResponse getResponse(WebRequest __request) throws IOException {
+		long _start = System.currentTimeMillis();
+		HttpRequestBase _method = SharedHttpWebConnection.newMethod(__request);
+		_method.setHeader(HttpHeaders.USER_AGENT, this.browserVersion.getUserAgent());
+		for (Map.Entry<String, String> _header : __request.getAdditionalHeaders().entrySet()) {
+			_method.setHeader(_header.getKey(), _header.getValue());
+		}
+		try (CloseableHttpResponse _response = this.httpClient.execute(_method)) {
+			HttpEntity _entity = _response.getEntity();
+			byte[] _body = _entity == null ? new byte[0] : EntityUtils.toByteArray(_entity);
+			List<NameValuePair> _headers = new ArrayList<>();
+			for (Header _header : _response.getAllHeaders()) {
+				_headers.add(new NameValuePair(_header.getName(), _header.getValue()));
+			}
+			StatusLine _status = _response.getStatusLine();
+			return new WebResponse(
+			        new WebResponseData(_body, _status.getStatusCode(), _status.getReasonPhrase(), _headers),
+			        __request, System.currentTimeMillis() - _start);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() {
+		// The http client is shared, closed by its pool
+	}
+
+	/**
+	 * Build the http request of a web request.
+	 *
+	 * @param __request the web request
+	 * @return the http request
+	 * @throws IOException if the url or the method is not supported
+	 */
+	private static HttpRequestBase newMethod(WebRequest __request) throws IOException {
+		URI _uri;
+		try {
+			_uri = __request.getUrl().toURI();
+		}
+		catch (URISyntaxException __ex) {
+			throw new IOException("Invalid url " + __request.getUrl(), __ex);
+		}
+		switch (__request.getHttpMethod()) {
+			case GET:
+				return new HttpGet(_uri);
+			case HEAD:
+				return new HttpHead(_uri);
+			case POST:
+				HttpPost _post = new HttpPost(_uri);
+				if (__request.getRequestBody() != null) {
+					_post.setEntity(new StringEntity(__request.getRequestBody(), __request.getCharset()));
+				}
+				else {
+					List<org.apache.http.NameValuePair> _parameters = new ArrayList<>();
+					for (NameValuePair _parameter : __request.getRequestParameters()) {
+						_parameters.add(new BasicNameValuePair(_parameter.getName(), _parameter.getValue()));
+					}
+					_post.setEntity(new UrlEncodedFormEntity(_parameters, __request.getCharset()));
+				}
+				return _post;
+			default:
+				throw new IOException("Unsupported method " + __request.getHttpMethod());
+		}
+	}
+}
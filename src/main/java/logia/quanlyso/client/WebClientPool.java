@@ -0,0 +1,193 @@
+package logia.quanlyso.client;
+
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.gargoylesoftware.htmlunit.TopLevelWindow;
+import com.gargoylesoftware.htmlunit.WebClient;
+
+/**
+ * A fixed pool of HtmlUnit web clients, created up front and reused between crawls.
+ * <p>
+ * The clients share one pooled http client. A released client has its cookies cleared and its
+ * windows closed before being lent again. The pool size, the idle clients, the wait for a client
+ * and the fetch latency are published to the metric registry.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+public class WebClientPool implements AutoCloseable {
+
+	/** The log. */
+	private final Logger					log	= LoggerFactory.getLogger(WebClientPool.class);
+
+	/** The idle clients. */
+	private final BlockingQueue<WebClient>	idle;
+
+	/** The http client shared by the clients. */
+	private final CloseableHttpClient		httpClient;
+
+	/** The number of clients. */
+	private final int						size;
+
+	/** The connection and read timeout in milliseconds. */
+	private final int						timeout;
+
+	/** The milliseconds to wait for an idle client. */
+	private final long						maxWait;
+
+	/** The metric registry. */
+	private final MetricRegistry			metricRegistry;
+
+	/** The wait for an idle client. */
+	private final Timer						waitTimer;
+
+	/** The fetch latency. */
+	private final Timer						fetchTimer;
+
+	/** Whether the pool is closed. */
+	private volatile boolean				closed;
+
+	/**
+	 * Instantiates a new web client pool.
+	 *
+	 * @param __size the number of clients
+	 * @param __timeout the connection and read timeout in milliseconds, 0 for none
+	 * @param __maxWait the milliseconds to wait for an idle client
+	 * @param __metricRegistry the metric registry
+	 */
+	public WebClientPool(int __size, int __timeout, long __maxWait, MetricRegistry __metricRegistry) {
+		this.size = Math.max(1, __size);
+		this.timeout = __timeout;
+		this.maxWait = __maxWait;
+		this.metricRegistry = __metricRegistry;
+
+		PoolingHttpClientConnectionManager _connectionManager = new PoolingHttpClientConnectionManager();
+		_connectionManager.setMaxTotal(this.size);
+		_connectionManager.setDefaultMaxPerRoute(this.size);
+		RequestConfig _requestConfig = RequestConfig.custom().setConnectionRequestTimeout(__timeout)
+		        .setConnectTimeout(__timeout).setSocketTimeout(__timeout).build();
+		this.httpClient = HttpClients.custom().setConnectionManager(_connectionManager)
+		        .setDefaultRequestConfig(_requestConfig).disableRedirectHandling().disableCookieManagement()
+		        .build();
+
+		this.idle = new ArrayBlockingQueue<>(this.size);
+		for (int _i = 0; _i < this.size; _i++) {
+			this.idle.add(this.newWebClient());
+		}
+
+		this.waitTimer = __metricRegistry.timer(MetricRegistry.name(WebClientPool.class, "wait"));
+		this.fetchTimer = __metricRegistry.timer(MetricRegistry.name(WebClientPool.class, "fetch"));
+		this.register("size", () -> this.size);
+		this.register("idle", this.idle::size);
+	}
+
+	/**
+	 * Borrow an idle client, to be given back with {@link #release(WebClient)}.
+	 *
+	 * @return the web client
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws TimeoutException if no client was released in time
+	 */
+	public WebClient borrow() throws InterruptedException, TimeoutException {
+		if (this.closed) {
+			throw new IllegalStateException("Web client pool closed");
+		}
+		WebClient _webClient;
+		try (Timer.Context _wait = this.waitTimer.time()) {
+			_webClient = this.idle.poll(this.maxWait, TimeUnit.MILLISECONDS);
+		}
+		if (_webClient == null) {
+			throw new TimeoutException("No web client released within " + this.maxWait + " ms");
+		}
+		return _webClient;
+	}
+
+	/**
+	 * Give back a borrowed client, reset for the next crawl.
+	 *
+	 * @param __webClient the web client
+	 */
+	public void release(WebClient __webClient) {
+		WebClient _webClient = __webClient;
+		if (!this.closed) {
+			try {
+				_webClient.getCookieManager().clearCookies();
+				for (TopLevelWindow _window : new ArrayList<>(_webClient.getTopLevelWindows())) {
+					_window.close();
+				}
+			}
+			catch (RuntimeException __ex) {
+				this.log.warn("Cannot reset web client, replacing it", __ex);
+				_webClient.close();
+				_webClient = this.newWebClient();
+			}
+		}
+		if (this.closed || !this.idle.offer(_webClient)) {
+			_webClient.close();
+		}
+	}
+
+	/**
+	 * Time a fetch.
+	 *
+	 * @return the timer context, to be stopped when the fetch is done
+	 */
+	public Timer.Context timeFetch() {
+		return this.fetchTimer.time();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() throws Exception {
+		this.closed = true;
+		WebClient _webClient;
+		while ((_webClient = this.idle.poll()) != null) {
+			_webClient.close();
+		}
+		this.httpClient.close();
+		this.metricRegistry.removeMatching(
+		        (__name, __metric) -> __name.startsWith(WebClientPool.class.getName() + "."));
+	}
+
+	/**
+	 * Create a client sending its requests through the shared http client.
+	 *
+	 * @return the web client
+	 */
+	private WebClient newWebClient() {
+		WebClient _webClient = HttpUnitRequest.newWebClient();
+		_webClient.getOptions().setTimeout(this.timeout);
+		_webClient.setWebConnection(new SharedHttpWebConnection(this.httpClient, _webClient.getBrowserVersion()));
+		return _webClient;
+	}
+
+	/**
+	 * Register a gauge, replacing the one of a previous pool.
+	 *
+	 * @param __name the name
+	 * @param __gauge the gauge
+	 */
+	private void register(String __name, Gauge<Integer> __gauge) {
+		String _name = MetricRegistry.name(WebClientPool.class, __name);
+		this.metricRegistry.remove(_name);
+		this.metricRegistry.register(_name, __gauge);
+	}
+}
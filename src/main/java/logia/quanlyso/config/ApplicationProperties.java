@@ -1,10 +1,15 @@
 package logia.quanlyso.config;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
  * Properties specific to JHipster.
- * 
+ *
  * <p>
  * Properties are configured in the application.yml file.
  * </p>
@@ -14,4 +19,713 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
 
+	/** The settlement. */
+	private final Settlement	settlement	= new Settlement();
+
+	/** The crawler. */
+	private final Crawler		crawler		= new Crawler();
+
+	/** The archive. */
+	private final Archive		archive		= new Archive();
+
+	/** The history. */
+	private final History		history		= new History();
+
+	/**
+	 * Gets the settlement.
+	 *
+	 * @return the settlement
+	 */
+	public Settlement getSettlement() {
+		return this.settlement;
+	}
+
+	/**
+	 * Gets the crawler.
+	 *
+	 * @return the crawler
+	 */
+	public Crawler getCrawler() {
+		return this.crawler;
+	}
+
+	/**
+	 * Gets the archive.
+	 *
+	 * @return the archive
+	 */
+	public Archive getArchive() {
+		return this.archive;
+	}
+
+	/**
+	 * Gets the history.
+	 *
+	 * @return the history
+	 */
+	public History getHistory() {
+		return this.history;
+	}
+
+	/**
+	 * The Class Archive.
+	 */
+	public static class Archive {
+
+		/** Whether old draws are moved to the archive every night. */
+		private boolean	enabled		= true;
+
+		/** The number of days draws stay in the code table. */
+		private int		horizonDays	= 90;
+
+		/**
+		 * Checks if is enabled.
+		 *
+		 * @return true, if is enabled
+		 */
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		/**
+		 * Sets the enabled.
+		 *
+		 * @param enabled the new enabled
+		 */
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		/**
+		 * Gets the horizon days.
+		 *
+		 * @return the horizon days
+		 */
+		public int getHorizonDays() {
+			return this.horizonDays;
+		}
+
+		/**
+		 * Sets the horizon days.
+		 *
+		 * @param horizonDays the new horizon days
+		 */
+		public void setHorizonDays(int horizonDays) {
+			this.horizonDays = horizonDays;
+		}
+	}
+
+	/**
+	 * The Class History.
+	 */
+	public static class History {
+
+		/** Whether the results file is exported again every night. */
+		private boolean	enabled	= true;
+
+		/** The path of the results file. */
+		private String	file	= "data/results.dat";
+
+		/**
+		 * Checks if is enabled.
+		 *
+		 * @return true, if is enabled
+		 */
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		/**
+		 * Sets the enabled.
+		 *
+		 * @param enabled the new enabled
+		 */
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		/**
+		 * Gets the file.
+		 *
+		 * @return the file
+		 */
+		public String getFile() {
+			return this.file;
+		}
+
+		/**
+		 * Sets the file.
+		 *
+		 * @param file the new file
+		 */
+		public void setFile(String file) {
+			this.file = file;
+		}
+	}
+
+	/**
+	 * The Class Settlement.
+	 */
+	public static class Settlement {
+
+		/** The number of threads settling large batches. */
+		private int	parallelism			= Runtime.getRuntime().availableProcessors();
+
+		/** The number of details from which a batch is settled in parallel. */
+		private int	parallelThreshold	= 2000;
+
+		/** The number of stored transactions settled per page. */
+		private int	chunkSize			= 500;
+
+		/**
+		 * Gets the parallelism.
+		 *
+		 * @return the parallelism
+		 */
+		public int getParallelism() {
+			return this.parallelism;
+		}
+
+		/**
+		 * Sets the parallelism.
+		 *
+		 * @param parallelism the new parallelism
+		 */
+		public void setParallelism(int parallelism) {
+			this.parallelism = parallelism;
+		}
+
+		/**
+		 * Gets the parallel threshold.
+		 *
+		 * @return the parallel threshold
+		 */
+		public int getParallelThreshold() {
+			return this.parallelThreshold;
+		}
+
+		/**
+		 * Sets the parallel threshold.
+		 *
+		 * @param parallelThreshold the new parallel threshold
+		 */
+		public void setParallelThreshold(int parallelThreshold) {
+			this.parallelThreshold = parallelThreshold;
+		}
+
+		/**
+		 * Gets the chunk size.
+		 *
+		 * @return the chunk size
+		 */
+		public int getChunkSize() {
+			return this.chunkSize;
+		}
+
+		/**
+		 * Sets the chunk size.
+		 *
+		 * @param chunkSize the new chunk size
+		 */
+		public void setChunkSize(int chunkSize) {
+			this.chunkSize = chunkSize;
+		}
+	}
+
+	/**
+	 * The Class Crawler.
+	 */
+	public static class Crawler {
+
+		/**
+		 * The ways of reading results pages.
+		 */
+		public enum Mode {
+
+			/** Plain pooled HTTP requests, pages parsed as they are received. */
+			HTTP,
+
+			/** A full HtmlUnit browser, running the scripts of the pages. */
+			HTMLUNIT
+		}
+
+		/** The way results pages are read. */
+		private Mode	mode			= Mode.HTTP;
+
+		/** The url of the results pages. */
+		private String	baseUrl			= "http://www.minhngoc.net.vn/getkqxs";
+
+		/** The number of channels crawled at the same time. */
+		private int	parallelism		= 4;
+
+		/** The number of channels waiting for a crawl thread. */
+		private int	queueCapacity	= 100;
+
+		/** The number of crawl jobs waiting for their channels at the same time. */
+		private int	jobs			= 2;
+
+		/** The seconds a channel may take to be crawled and saved. */
+		private int	timeoutSeconds	= 120;
+
+		/** The HtmlUnit mode. */
+		private final HtmlUnit	htmlUnit		= new HtmlUnit();
+
+		/** The schedule. */
+		private final Schedule	schedule		= new Schedule();
+
+		/** The backfill. */
+		private final Backfill	backfill		= new Backfill();
+
+		/**
+		 * Gets the HtmlUnit mode.
+		 *
+		 * @return the HtmlUnit mode
+		 */
+		public HtmlUnit getHtmlUnit() {
+			return this.htmlUnit;
+		}
+
+		/**
+		 * Gets the schedule.
+		 *
+		 * @return the schedule
+		 */
+		public Schedule getSchedule() {
+			return this.schedule;
+		}
+
+		/**
+		 * Gets the backfill.
+		 *
+		 * @return the backfill
+		 */
+		public Backfill getBackfill() {
+			return this.backfill;
+		}
+
+		/**
+		 * Gets the mode.
+		 *
+		 * @return the mode
+		 */
+		public Mode getMode() {
+			return this.mode;
+		}
+
+		/**
+		 * Sets the mode.
+		 *
+		 * @param mode the new mode
+		 */
+		public void setMode(Mode mode) {
+			this.mode = mode;
+		}
+
+		/**
+		 * Gets the base url.
+		 *
+		 * @return the base url
+		 */
+		public String getBaseUrl() {
+			return this.baseUrl;
+		}
+
+		/**
+		 * Sets the base url.
+		 *
+		 * @param baseUrl the new base url
+		 */
+		public void setBaseUrl(String baseUrl) {
+			this.baseUrl = baseUrl;
+		}
+
+		/**
+		 * Gets the parallelism.
+		 *
+		 * @return the parallelism
+		 */
+		public int getParallelism() {
+			return this.parallelism;
+		}
+
+		/**
+		 * Sets the parallelism.
+		 *
+		 * @param parallelism the new parallelism
+		 */
+		public void setParallelism(int parallelism) {
+			this.parallelism = parallelism;
+		}
+
+		/**
+		 * Gets the queue capacity.
+		 *
+		 * @return the queue capacity
+		 */
+		public int getQueueCapacity() {
+			return this.queueCapacity;
+		}
+
+		/**
+		 * Sets the queue capacity.
+		 *
+		 * @param queueCapacity the new queue capacity
+		 */
+		public void setQueueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		/**
+		 * Gets the jobs.
+		 *
+		 * @return the jobs
+		 */
+		public int getJobs() {
+			return this.jobs;
+		}
+
+		/**
+		 * Sets the jobs.
+		 *
+		 * @param jobs the new jobs
+		 */
+		public void setJobs(int jobs) {
+			this.jobs = jobs;
+		}
+
+		/**
+		 * Gets the timeout seconds.
+		 *
+		 * @return the timeout seconds
+		 */
+		public int getTimeoutSeconds() {
+			return this.timeoutSeconds;
+		}
+
+		/**
+		 * Sets the timeout seconds.
+		 *
+		 * @param timeoutSeconds the new timeout seconds
+		 */
+		public void setTimeoutSeconds(int timeoutSeconds) {
+			this.timeoutSeconds = timeoutSeconds;
+		}
+
+		/**
+		 * The Class HtmlUnit.
+		 */
+		public static class HtmlUnit {
+
+			/** The number of pooled web clients. */
+			private int	poolSize		= 4;
+
+			/** The seconds to wait for a pooled web client. */
+			private int	maxWaitSeconds	= 30;
+
+			/**
+			 * Gets the pool size.
+			 *
+			 * @return the pool size
+			 */
+			public int getPoolSize() {
+				return this.poolSize;
+			}
+
+			/**
+			 * Sets the pool size.
+			 *
+			 * @param poolSize the new pool size
+			 */
+			public void setPoolSize(int poolSize) {
+				this.poolSize = poolSize;
+			}
+
+			/**
+			 * Gets the max wait seconds.
+			 *
+			 * @return the max wait seconds
+			 */
+			public int getMaxWaitSeconds() {
+				return this.maxWaitSeconds;
+			}
+
+			/**
+			 * Sets the max wait seconds.
+			 *
+			 * @param maxWaitSeconds the new max wait seconds
+			 */
+			public void setMaxWaitSeconds(int maxWaitSeconds) {
+				this.maxWaitSeconds = maxWaitSeconds;
+			}
+		}
+
+		/**
+		 * The Class Backfill.
+		 */
+		public static class Backfill {
+
+			/** The number of channels backfilled at the same time. */
+			private int		threads				= 4;
+
+			/** The maximum number of pages fetched per second, all channels together. */
+			private double	permitsPerSecond	= 2;
+
+			/** The number of days walked between two checkpoints. */
+			private int		batchDays			= 30;
+
+			/**
+			 * Gets the threads.
+			 *
+			 * @return the threads
+			 */
+			public int getThreads() {
+				return this.threads;
+			}
+
+			/**
+			 * Sets the threads.
+			 *
+			 * @param threads the new threads
+			 */
+			public void setThreads(int threads) {
+				this.threads = threads;
+			}
+
+			/**
+			 * Gets the permits per second.
+			 *
+			 * @return the permits per second
+			 */
+			public double getPermitsPerSecond() {
+				return this.permitsPerSecond;
+			}
+
+			/**
+			 * Sets the permits per second.
+			 *
+			 * @param permitsPerSecond the new permits per second
+			 */
+			public void setPermitsPerSecond(double permitsPerSecond) {
+				this.permitsPerSecond = permitsPerSecond;
+			}
+
+			/**
+			 * Gets the batch days.
+			 *
+			 * @return the batch days
+			 */
+			public int getBatchDays() {
+				return this.batchDays;
+			}
+
+			/**
+			 * Sets the batch days.
+			 *
+			 * @param batchDays the new batch days
+			 */
+			public void setBatchDays(int batchDays) {
+				this.batchDays = batchDays;
+			}
+		}
+
+		/**
+		 * The Class Schedule.
+		 */
+		public static class Schedule {
+
+			/** Whether channels are polled after their draw. */
+			private boolean				enabled				= false;
+
+			/** The seconds before the second poll, doubled after each poll. */
+			private int					initialDelaySeconds	= 15;
+
+			/** The maximum seconds between two polls. */
+			private int					maxDelaySeconds		= 120;
+
+			/** The minutes after the draw time when polling stops. */
+			private int					giveUpMinutes		= 240;
+
+			/** The regions, by name. */
+			private Map<String, Region>	regions				= new LinkedHashMap<>();
+
+			/**
+			 * Checks if is enabled.
+			 *
+			 * @return true, if is enabled
+			 */
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			/**
+			 * Sets the enabled.
+			 *
+			 * @param enabled the new enabled
+			 */
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			/**
+			 * Gets the initial delay seconds.
+			 *
+			 * @return the initial delay seconds
+			 */
+			public int getInitialDelaySeconds() {
+				return this.initialDelaySeconds;
+			}
+
+			/**
+			 * Sets the initial delay seconds.
+			 *
+			 * @param initialDelaySeconds the new initial delay seconds
+			 */
+			public void setInitialDelaySeconds(int initialDelaySeconds) {
+				this.initialDelaySeconds = initialDelaySeconds;
+			}
+
+			/**
+			 * Gets the max delay seconds.
+			 *
+			 * @return the max delay seconds
+			 */
+			public int getMaxDelaySeconds() {
+				return this.maxDelaySeconds;
+			}
+
+			/**
+			 * Sets the max delay seconds.
+			 *
+			 * @param maxDelaySeconds the new max delay seconds
+			 */
+			public void setMaxDelaySeconds(int maxDelaySeconds) {
+				this.maxDelaySeconds = maxDelaySeconds;
+			}
+
+			/**
+			 * Gets the give up minutes.
+			 *
+			 * @return the give up minutes
+			 */
+			public int getGiveUpMinutes() {
+				return this.giveUpMinutes;
+			}
+
+			/**
+			 * Sets the give up minutes.
+			 *
+			 * @param giveUpMinutes the new give up minutes
+			 */
+			public void setGiveUpMinutes(int giveUpMinutes) {
+				this.giveUpMinutes = giveUpMinutes;
+			}
+
+			/**
+			 * Gets the regions.
+			 *
+			 * @return the regions
+			 */
+			public Map<String, Region> getRegions() {
+				return this.regions;
+			}
+
+			/**
+			 * Sets the regions.
+			 *
+			 * @param regions the regions
+			 */
+			public void setRegions(Map<String, Region> regions) {
+				this.regions = regions;
+			}
+
+			/**
+			 * The region of a channel: the region listing it, else the first region listing no
+			 * channel.
+			 *
+			 * @param channelCode the channel code
+			 * @return the region, null if none
+			 */
+			public Region regionOf(String channelCode) {
+				Region fallback = null;
+				for (Region region : this.regions.values()) {
+					if (region.getChannels().contains(channelCode)) {
+						return region;
+					}
+					if (fallback == null && region.getChannels().isEmpty()) {
+						fallback = region;
+					}
+				}
+				return fallback;
+			}
+		}
+
+		/**
+		 * The Class Region.
+		 */
+		public static class Region {
+
+			/** The draw time, HH:mm. */
+			private String			drawTime;
+
+			/** The number of numbers of complete results. */
+			private int				codes;
+
+			/** The channel codes, empty for the channels of no other region. */
+			private List<String>	channels	= new ArrayList<>();
+
+			/**
+			 * Gets the draw time.
+			 *
+			 * @return the draw time
+			 */
+			public String getDrawTime() {
+				return this.drawTime;
+			}
+
+			/**
+			 * Sets the draw time.
+			 *
+			 * @param drawTime the new draw time
+			 */
+			public void setDrawTime(String drawTime) {
+				this.drawTime = drawTime;
+			}
+
+			/**
+			 * Gets the codes.
+			 *
+			 * @return the codes
+			 */
+			public int getCodes() {
+				return this.codes;
+			}
+
+			/**
+			 * Sets the codes.
+			 *
+			 * @param codes the new codes
+			 */
+			public void setCodes(int codes) {
+				this.codes = codes;
+			}
+
+			/**
+			 * Gets the channels.
+			 *
+			 * @return the channels
+			 */
+			public List<String> getChannels() {
+				return this.channels;
+			}
+
+			/**
+			 * Sets the channels.
+			 *
+			 * @param channels the new channels
+			 */
+			public void setChannels(List<String> channels) {
+				this.channels = channels;
+			}
+		}
+	}
 }
@@ -12,6 +12,7 @@ import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import io.github.jhipster.async.ExceptionHandlingAsyncTaskExecutor;
 import io.github.jhipster.config.JHipsterProperties;
@@ -32,13 +33,19 @@ public class AsyncConfiguration implements AsyncConfigurer {
 	/** The j hipster properties. */
 	private final JHipsterProperties	jHipsterProperties;
 
+	/** The application properties. */
+	private final ApplicationProperties	applicationProperties;
+
 	/**
 	 * Instantiates a new async configuration.
 	 *
 	 * @param jHipsterProperties the j hipster properties
+	 * @param applicationProperties the application properties
 	 */
-	public AsyncConfiguration(JHipsterProperties jHipsterProperties) {
+	public AsyncConfiguration(JHipsterProperties jHipsterProperties,
+	        ApplicationProperties applicationProperties) {
 		this.jHipsterProperties = jHipsterProperties;
+		this.applicationProperties = applicationProperties;
 	}
 
 	/*
@@ -58,6 +65,72 @@ public class AsyncConfiguration implements AsyncConfigurer {
 		return new ExceptionHandlingAsyncTaskExecutor(executor);
 	}
 
+	/**
+	 * The executor crawling channels, kept apart from the async executor so that a slow site cannot
+	 * starve the other asynchronous tasks.
+	 *
+	 * @return the crawl executor
+	 */
+	@Bean(name = "crawlExecutor")
+	public ThreadPoolTaskExecutor crawlExecutor() {
+		this.log.debug("Creating Crawl Task Executor");
+		ApplicationProperties.Crawler crawler = this.applicationProperties.getCrawler();
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(Math.max(1, crawler.getParallelism()));
+		executor.setMaxPoolSize(Math.max(1, crawler.getParallelism()));
+		executor.setQueueCapacity(crawler.getQueueCapacity());
+		executor.setThreadNamePrefix("quanlyso-Crawl-");
+		return executor;
+	}
+
+	/**
+	 * The executor running crawl jobs, each blocked until its channels are crawled, kept apart from
+	 * the async executor so that waiting jobs cannot hold back settlements and mails.
+	 *
+	 * @return the crawl job executor
+	 */
+	@Bean(name = "crawlJobExecutor")
+	public ThreadPoolTaskExecutor crawlJobExecutor() {
+		this.log.debug("Creating Crawl Job Task Executor");
+		ApplicationProperties.Crawler crawler = this.applicationProperties.getCrawler();
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(Math.max(1, crawler.getJobs()));
+		executor.setMaxPoolSize(Math.max(1, crawler.getJobs()));
+		executor.setQueueCapacity(crawler.getQueueCapacity());
+		executor.setThreadNamePrefix("quanlyso-CrawlJob-");
+		return executor;
+	}
+
+	/**
+	 * The executor backfilling the history of channels, one channel per thread.
+	 *
+	 * @return the backfill executor
+	 */
+	@Bean(name = "backfillExecutor")
+	public ThreadPoolTaskExecutor backfillExecutor() {
+		this.log.debug("Creating Backfill Task Executor");
+		int threads = Math.max(1, this.applicationProperties.getCrawler().getBackfill().getThreads());
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(threads);
+		executor.setMaxPoolSize(threads);
+		executor.setThreadNamePrefix("quanlyso-Backfill-");
+		return executor;
+	}
+
+	/**
+	 * The scheduler polling channels after their draw, also running the scheduled tasks.
+	 *
+	 * @return the crawl scheduler
+	 */
+	@Bean(name = "crawlScheduler")
+	public ThreadPoolTaskScheduler crawlScheduler() {
+		this.log.debug("Creating Crawl Task Scheduler");
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setPoolSize(Math.max(1, this.applicationProperties.getCrawler().getParallelism()));
+		scheduler.setThreadNamePrefix("quanlyso-Schedule-");
+		return scheduler;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -0,0 +1,66 @@
+package logia.quanlyso.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.codahale.metrics.MetricRegistry;
+
+import logia.quanlyso.client.HtmlUnitLotteryPageCrawler;
+import logia.quanlyso.client.HttpLotteryPageCrawler;
+import logia.quanlyso.client.LotteryPageCrawler;
+import logia.quanlyso.client.WebClientPool;
+
+/**
+ * The Class CrawlerConfiguration.
+ *
+ * @author Dai Mai
+ */
+@Configuration
+public class CrawlerConfiguration {
+
+	/** The log. */
+	private final Logger				log	= LoggerFactory.getLogger(CrawlerConfiguration.class);
+
+	/** The application properties. */
+	private final ApplicationProperties	applicationProperties;
+
+	/** The metric registry. */
+	private final MetricRegistry		metricRegistry;
+
+	/**
+	 * Instantiates a new crawler configuration.
+	 *
+	 * @param applicationProperties the application properties
+	 * @param metricRegistry the metric registry
+	 */
+	public CrawlerConfiguration(ApplicationProperties applicationProperties,
+	        MetricRegistry metricRegistry) {
+		this.applicationProperties = applicationProperties;
+		this.metricRegistry = metricRegistry;
+	}
+
+	/**
+	 * The crawler reading results pages, as selected by application.crawler.mode.
+	 *
+	 * @return the lottery page crawler
+	 */
+	@Bean
+	public LotteryPageCrawler lotteryPageCrawler() {
+		ApplicationProperties.Crawler crawler = this.applicationProperties.getCrawler();
+		int timeout = (int) TimeUnit.SECONDS.toMillis(crawler.getTimeoutSeconds());
+		this.log.debug("Creating {} Lottery Page Crawler", crawler.getMode());
+		switch (crawler.getMode()) {
+			case HTMLUNIT:
+				ApplicationProperties.Crawler.HtmlUnit htmlUnit = crawler.getHtmlUnit();
+				return new HtmlUnitLotteryPageCrawler(new WebClientPool(htmlUnit.getPoolSize(), timeout,
+				        TimeUnit.SECONDS.toMillis(htmlUnit.getMaxWaitSeconds()), this.metricRegistry));
+			case HTTP:
+			default:
+				return new HttpLotteryPageCrawler(crawler.getParallelism(), timeout);
+		}
+	}
+}
@@ -0,0 +1,180 @@
+package logia.quanlyso.config.liquibase;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.SetupException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+import logia.quanlyso.domain.Channel;
+import logia.quanlyso.domain.Factor;
+import logia.quanlyso.domain.PnlRollup;
+import logia.quanlyso.domain.Style;
+import logia.quanlyso.domain.TransactionDetails;
+import logia.quanlyso.domain.Transactions;
+import logia.quanlyso.domain.Types;
+import logia.quanlyso.domain.User;
+import logia.quanlyso.repository.PnlRollupRepository;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Seeds the daily P&amp;L rollups with the transactions saved so far.
+ * <p>
+ * Each detail is rolled up by {@link PnlRollup#of(Transactions, TransactionDetails, int)}, as when
+ * it is saved, so that its day is the day of its transaction in the system zone, whatever the zone
+ * of the database session. The sums are kept by key while the details are read, one row per key is
+ * then added.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+public class PnlRollupSeed implements CustomTaskChange {
+
+	/** The Constant SELECT_DETAILS. */
+	private static final String	SELECT_DETAILS	= "select t.open_date, t.users_id, d.channels_id, d.factors_id,"
+	        + " d.styles_id, d.types_id, d.amount, d.profit, d.costs"
+	        + " from transaction_details d join transactions t on t.id = d.transactions_id"
+	        + " where t.open_date is not null";
+
+	/** The number of details seeded. */
+	private int					details;
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see liquibase.change.custom.CustomTaskChange#execute(liquibase.database.Database)
+	 */
+	@Override
+	public void execute(Database __database) throws CustomChangeException {
+		JdbcConnection _connection = (JdbcConnection) __database.getConnection();
+		this.seed(new JdbcTemplate(new SingleConnectionDataSource(_connection.getUnderlyingConnection(), true)));
+	}
+
+	/**
+	 * Add the rollups of all transactions with an open date.
+	 *
+	 * @param __jdbcTemplate the jdbc template
+	 */
+	public void seed(JdbcTemplate __jdbcTemplate) {
+		Map<List<Object>, PnlRollup> _sums = new LinkedHashMap<>();
+		this.details = 0;
+		__jdbcTemplate.query(PnlRollupSeed.SELECT_DETAILS, __rs -> {
+			PnlRollup _rollup = PnlRollupSeed.rollupOf(__rs);
+			_sums.merge(_rollup.getKey(), _rollup, PnlRollup::add);
+			this.details++;
+		});
+		new PnlRollupRepository(__jdbcTemplate).add(_sums.values());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see liquibase.change.custom.CustomChange#getConfirmationMessage()
+	 */
+	@Override
+	public String getConfirmationMessage() {
+		return "Rolled up " + this.details + " transaction details";
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see liquibase.change.custom.CustomChange#setUp()
+	 */
+	@Override
+	public void setUp() throws SetupException {
+		// Nothing to set up
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see liquibase.change.custom.CustomChange#setFileOpener(liquibase.resource.ResourceAccessor)
+	 */
+	@Override
+	public void setFileOpener(ResourceAccessor __resourceAccessor) {
+		// No file read
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see liquibase.change.custom.CustomChange#validate(liquibase.database.Database)
+	 */
+	@Override
+	public ValidationErrors validate(Database __database) {
+		return new ValidationErrors();
+	}
+
+	/**
+	 * Roll up a detail read with its transaction.
+	 *
+	 * @param __rs the result set
+	 * @return the rollup
+	 * @throws SQLException the SQL exception
+	 */
+	private static PnlRollup rollupOf(ResultSet __rs) throws SQLException {
+		Transactions _transactions = new Transactions().openDate(
+		        ZonedDateTime.ofInstant(__rs.getTimestamp(1).toInstant(), DateFormatterUtil.systemZoneId()));
+		Long _usersId = PnlRollupSeed.getLong(__rs, 2);
+		if (_usersId != null) {
+			User _user = new User();
+			_user.setId(_usersId);
+			_transactions.setUsers(_user);
+		}
+		TransactionDetails _details = new TransactionDetails();
+		Long _channelsId = PnlRollupSeed.getLong(__rs, 3);
+		if (_channelsId != null) {
+			Channel _channel = new Channel();
+			_channel.setId(_channelsId);
+			_details.setChannels(_channel);
+		}
+		Long _factorsId = PnlRollupSeed.getLong(__rs, 4);
+		if (_factorsId != null) {
+			Factor _factor = new Factor();
+			_factor.setId(_factorsId);
+			_details.setFactors(_factor);
+		}
+		Long _stylesId = PnlRollupSeed.getLong(__rs, 5);
+		if (_stylesId != null) {
+			Style _style = new Style();
+			_style.setId(_stylesId);
+			_details.setStyles(_style);
+		}
+		Long _typesId = PnlRollupSeed.getLong(__rs, 6);
+		if (_typesId != null) {
+			Types _types = new Types();
+			_types.setId(_typesId);
+			_details.setTypes(_types);
+		}
+		_details.setAmount(PnlRollupSeed.getLong(__rs, 7));
+		_details.setProfit(PnlRollupSeed.getLong(__rs, 8));
+		_details.setCosts(PnlRollupSeed.getLong(__rs, 9));
+		return PnlRollup.of(_transactions, _details, 1);
+	}
+
+	/**
+	 * Gets a nullable long column.
+	 *
+	 * @param __rs the result set
+	 * @param __column the column
+	 * @return the value, null if SQL null
+	 * @throws SQLException the SQL exception
+	 */
+	private static Long getLong(ResultSet __rs, int __column) throws SQLException {
+		long _value = __rs.getLong(__column);
+		return __rs.wasNull() ? null : _value;
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * Liquibase specific code.
+ */
+package logia.quanlyso.config.liquibase;
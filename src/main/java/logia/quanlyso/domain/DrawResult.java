@@ -0,0 +1,249 @@
+package logia.quanlyso.domain;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The results of one draw: the winning numbers of a channel on a day, by prize tier.
+ * <p>
+ * Results saved as a draw name the tier of each prize in page order, so the top and bottom
+ * numbers are read from their tiers. Results read back from {@link Code} rows only have numbers,
+ * held in a single prize without tier.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+public final class DrawResult implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long	serialVersionUID	= 1L;
+
+	/** The tier of the special prize. */
+	public static final String	SPECIAL_TIER		= "giaidb";
+
+	/** The prefix of the tier names, followed by the prize rank or db. */
+	public static final String	TIER_PREFIX			= "giai";
+
+	/** The channel id. */
+	private final Long			channelId;
+
+	/** The open date. */
+	private final ZonedDateTime	openDate;
+
+	/** The prizes, in page order. */
+	private final List<Prize>	prizes;
+
+	/**
+	 * Instantiates a new draw result.
+	 *
+	 * @param __channelId the channel id
+	 * @param __openDate the open date
+	 * @param __prizes the prizes, in page order
+	 */
+	public DrawResult(Long __channelId, ZonedDateTime __openDate, List<Prize> __prizes) {
+		this.channelId = __channelId;
+		this.openDate = __openDate;
+		this.prizes = Collections.unmodifiableList(new ArrayList<>(__prizes));
+	}
+
+	/**
+	 * Creates the results of a draw from its numbers only, such as its {@link Code} rows.
+	 *
+	 * @param __channelId the channel id
+	 * @param __openDate the open date
+	 * @param __codes the numbers
+	 * @return the draw result, without prize when there is no number
+	 */
+	public static DrawResult ofCodes(Long __channelId, ZonedDateTime __openDate, List<String> __codes) {
+		if (__codes.isEmpty()) {
+			return new DrawResult(__channelId, __openDate, Collections.emptyList());
+		}
+		return new DrawResult(__channelId, __openDate, Collections.singletonList(new Prize(null, __codes)));
+	}
+
+	/**
+	 * Gets the channel id.
+	 *
+	 * @return the channel id
+	 */
+	public Long getChannelId() {
+		return this.channelId;
+	}
+
+	/**
+	 * Gets the open date.
+	 *
+	 * @return the open date
+	 */
+	public ZonedDateTime getOpenDate() {
+		return this.openDate;
+	}
+
+	/**
+	 * Gets the prizes.
+	 *
+	 * @return the prizes, in page order
+	 */
+	public List<Prize> getPrizes() {
+		return this.prizes;
+	}
+
+	/**
+	 * Checks if the draw has no result.
+	 *
+	 * @return true, if empty
+	 */
+	public boolean isEmpty() {
+		return this.prizes.isEmpty();
+	}
+
+	/**
+	 * Gets all the numbers of the draw.
+	 *
+	 * @return the numbers, in page order
+	 */
+	public List<String> getCodes() {
+		List<String> _codes = new ArrayList<>();
+		for (Prize _prize : this.prizes) {
+			_codes.addAll(_prize.getCodes());
+		}
+		return _codes;
+	}
+
+	/**
+	 * Gets the numbers of a tier.
+	 *
+	 * @param __tier the tier, such as giaidb or giai8
+	 * @return the numbers, empty if the draw has no such tier
+	 */
+	public List<String> getCodes(String __tier) {
+		for (Prize _prize : this.prizes) {
+			if (Objects.equals(__tier, _prize.getTier())) {
+				return _prize.getCodes();
+			}
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Gets the top numbers: the lowest prize, giai8 in the south and giai7 in the north.
+	 *
+	 * @return the numbers, empty if the tiers are unknown
+	 */
+	public List<String> getTop() {
+		Prize _top = null;
+		for (Prize _prize : this.prizes) {
+			if (_prize.getRank() > 0 && (_top == null || _prize.getRank() > _top.getRank())) {
+				_top = _prize;
+			}
+		}
+		return _top == null ? Collections.emptyList() : _top.getCodes();
+	}
+
+	/**
+	 * Gets the bottom numbers: the special prize.
+	 *
+	 * @return the numbers, empty if the tiers are unknown
+	 */
+	public List<String> getBottom() {
+		return this.getCodes(DrawResult.SPECIAL_TIER);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "DrawResult{channelId=" + this.channelId + ", openDate=" + this.openDate + ", prizes=" + this.prizes
+		        + "}";
+	}
+
+	/**
+	 * A prize of a draw: its tier and numbers.
+	 */
+	public static final class Prize implements Serializable {
+
+		/** The Constant serialVersionUID. */
+		private static final long	serialVersionUID	= 1L;
+
+		/** The tier, null when unknown. */
+		private final String		tier;
+
+		/** The numbers, in page order. */
+		private final List<String>	codes;
+
+		/**
+		 * Instantiates a new prize.
+		 *
+		 * @param __tier the tier, null when unknown
+		 * @param __codes the numbers, in page order
+		 */
+		public Prize(String __tier, List<String> __codes) {
+			this.tier = __tier;
+			this.codes = Collections.unmodifiableList(new ArrayList<>(__codes));
+		}
+
+		/**
+		 * Gets the tier.
+		 *
+		 * @return the tier, null when unknown
+		 */
+		public String getTier() {
+			return this.tier;
+		}
+
+		/**
+		 * Gets the numbers.
+		 *
+		 * @return the numbers, in page order
+		 */
+		public List<String> getCodes() {
+			return this.codes;
+		}
+
+		/**
+		 * Gets the rank of the prize.
+		 *
+		 * @return 0 for the special prize, the rank for giai1 to giai8, -1 for any other tier
+		 */
+		public int getRank() {
+			return DrawResult.rankOf(this.tier);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return "Prize{tier=" + this.tier + ", codes=" + this.codes + "}";
+		}
+	}
+
+	/**
+	 * Gets the rank of a tier.
+	 *
+	 * @param __tier the tier, may be null
+	 * @return 0 for the special prize, the rank for giai1 to giai8, -1 for any other tier
+	 */
+	public static int rankOf(String __tier) {
+		if (DrawResult.SPECIAL_TIER.equals(__tier)) {
+			return 0;
+		}
+		if (__tier != null && __tier.length() == DrawResult.TIER_PREFIX.length() + 1
+		        && __tier.startsWith(DrawResult.TIER_PREFIX)) {
+			char _rank = __tier.charAt(DrawResult.TIER_PREFIX.length());
+			if (_rank >= '1' && _rank <= '8') {
+				return _rank - '0';
+			}
+		}
+		return -1;
+	}
+}
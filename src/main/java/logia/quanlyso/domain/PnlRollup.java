@@ -0,0 +1,305 @@
+package logia.quanlyso.domain;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * The sums of the transaction details of one day, user, channel, factor, style and type: one
+ * {@code pnl_rollup} row.
+ * <p>
+ * Saving, settling or deleting a transaction adds the rollups of its details, positive for the
+ * details saved and negative for the details replaced, to the rollups of their keys. Missing ids
+ * are 0. Amounts are in thousandths, as in the details.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+public final class PnlRollup implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long	serialVersionUID	= 1L;
+
+	/** The day of the draw. */
+	private final LocalDate		pnlDate;
+
+	/** The users id. */
+	private final long			usersId;
+
+	/** The channels id. */
+	private final long			channelsId;
+
+	/** The factors id. */
+	private final long			factorsId;
+
+	/** The styles id. */
+	private final long			stylesId;
+
+	/** The types id. */
+	private final long			typesId;
+
+	/** The number of details. */
+	private int					details;
+
+	/** The number of settled details. */
+	private int					settled;
+
+	/** The amount. */
+	private long				amount;
+
+	/** The profit. */
+	private long				profit;
+
+	/** The costs. */
+	private long				costs;
+
+	/**
+	 * Instantiates a new pnl rollup.
+	 *
+	 * @param __pnlDate the day of the draw
+	 * @param __usersId the users id
+	 * @param __channelsId the channels id
+	 * @param __factorsId the factors id
+	 * @param __stylesId the styles id
+	 * @param __typesId the types id
+	 * @param __details the number of details
+	 * @param __settled the number of settled details
+	 * @param __amount the amount
+	 * @param __profit the profit
+	 * @param __costs the costs
+	 */
+	public PnlRollup(LocalDate __pnlDate, long __usersId, long __channelsId, long __factorsId, long __stylesId,
+	        long __typesId, int __details, int __settled, long __amount, long __profit, long __costs) {
+		this.pnlDate = __pnlDate;
+		this.usersId = __usersId;
+		this.channelsId = __channelsId;
+		this.factorsId = __factorsId;
+		this.stylesId = __stylesId;
+		this.typesId = __typesId;
+		this.details = __details;
+		this.settled = __settled;
+		this.amount = __amount;
+		this.profit = __profit;
+		this.costs = __costs;
+	}
+
+	/**
+	 * Creates the rollups of the details of a transaction, as they are now.
+	 *
+	 * @param __transactions the transactions
+	 * @param __sign 1 to add the details, -1 to remove them
+	 * @return the rollups, one per detail; none if the transaction has no open date
+	 */
+	public static List<PnlRollup> of(Transactions __transactions, int __sign) {
+		List<PnlRollup> _rollups = new ArrayList<>();
+		if (__transactions == null || __transactions.getOpenDate() == null) {
+			return _rollups;
+		}
+		for (TransactionDetails _details : __transactions.getTransactionDetails()) {
+			_rollups.add(PnlRollup.of(__transactions, _details, __sign));
+		}
+		return _rollups;
+	}
+
+	/**
+	 * Creates the rollup of a detail of a transaction, as it is now.
+	 *
+	 * @param __transactions the transactions
+	 * @param __details the details
+	 * @param __sign 1 to add the detail, -1 to remove it
+	 * @return the rollup
+	 */
+	public static PnlRollup of(Transactions __transactions, TransactionDetails __details, int __sign) {
+		LocalDate _pnlDate = __transactions.getOpenDate().withZoneSameInstant(DateFormatterUtil.systemZoneId())
+		        .toLocalDate();
+		return new PnlRollup(_pnlDate, PnlRollup.idOf(__transactions.getUsers(), User::getId),
+		        PnlRollup.idOf(__details.getChannels(), Channel::getId),
+		        PnlRollup.idOf(__details.getFactors(), Factor::getId),
+		        PnlRollup.idOf(__details.getStyles(), Style::getId), PnlRollup.idOf(__details.getTypes(), Types::getId),
+		        __sign,
+		        __details.getProfit() == null ? 0 : __sign, __sign * PnlRollup.valueOf(__details.getAmount()),
+		        __sign * PnlRollup.valueOf(__details.getProfit()), __sign * PnlRollup.valueOf(__details.getCosts()));
+	}
+
+	/**
+	 * Gets the key of the rollup.
+	 *
+	 * @return the day and ids
+	 */
+	public List<Object> getKey() {
+		return Arrays.asList(this.pnlDate, this.usersId, this.channelsId, this.factorsId, this.stylesId,
+		        this.typesId);
+	}
+
+	/**
+	 * Add the sums of another rollup.
+	 *
+	 * @param __other the other rollup
+	 * @return this rollup
+	 */
+	public PnlRollup add(PnlRollup __other) {
+		this.details += __other.details;
+		this.settled += __other.settled;
+		this.amount += __other.amount;
+		this.profit += __other.profit;
+		this.costs += __other.costs;
+		return this;
+	}
+
+	/**
+	 * Checks if the rollup adds nothing.
+	 *
+	 * @return true, if all sums are 0
+	 */
+	public boolean isZero() {
+		return this.details == 0 && this.settled == 0 && this.amount == 0L && this.profit == 0L
+		        && this.costs == 0L;
+	}
+
+	/**
+	 * Gets the day of the draw.
+	 *
+	 * @return the day
+	 */
+	public LocalDate getPnlDate() {
+		return this.pnlDate;
+	}
+
+	/**
+	 * Gets the users id.
+	 *
+	 * @return the users id, 0 if none
+	 */
+	public long getUsersId() {
+		return this.usersId;
+	}
+
+	/**
+	 * Gets the channels id.
+	 *
+	 * @return the channels id, 0 if none
+	 */
+	public long getChannelsId() {
+		return this.channelsId;
+	}
+
+	/**
+	 * Gets the factors id.
+	 *
+	 * @return the factors id, 0 if none
+	 */
+	public long getFactorsId() {
+		return this.factorsId;
+	}
+
+	/**
+	 * Gets the styles id.
+	 *
+	 * @return the styles id, 0 if none
+	 */
+	public long getStylesId() {
+		return this.stylesId;
+	}
+
+	/**
+	 * Gets the types id.
+	 *
+	 * @return the types id, 0 if none
+	 */
+	public long getTypesId() {
+		return this.typesId;
+	}
+
+	/**
+	 * Gets the number of details.
+	 *
+	 * @return the number of details
+	 */
+	public int getDetails() {
+		return this.details;
+	}
+
+	/**
+	 * Gets the number of settled details.
+	 *
+	 * @return the number of settled details
+	 */
+	public int getSettled() {
+		return this.settled;
+	}
+
+	/**
+	 * Gets the amount.
+	 *
+	 * @return the amount, in thousandths
+	 */
+	public long getAmount() {
+		return this.amount;
+	}
+
+	/**
+	 * Gets the profit.
+	 *
+	 * @return the profit, in thousandths
+	 */
+	public long getProfit() {
+		return this.profit;
+	}
+
+	/**
+	 * Gets the costs.
+	 *
+	 * @return the costs, in thousandths
+	 */
+	public long getCosts() {
+		return this.costs;
+	}
+
+	/**
+	 * Gets the net value, the profit less the costs.
+	 *
+	 * @return the net value, in thousandths
+	 */
+	public long getNet() {
+		return this.profit - this.costs;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "PnlRollup{key=" + this.getKey() + ", details=" + this.details + ", settled=" + this.settled
+		        + ", amount=" + this.amount + ", profit=" + this.profit + ", costs=" + this.costs + "}";
+	}
+
+	/**
+	 * Gets the id of an entity.
+	 *
+	 * @param <T> the type of the entity
+	 * @param __entity the entity, may be null
+	 * @param __id the id getter
+	 * @return the id, 0 if none
+	 */
+	private static <T> long idOf(T __entity, Function<T, Long> __id) {
+		Long _id = __entity == null ? null : __id.apply(__entity);
+		return _id == null ? 0L : _id;
+	}
+
+	/**
+	 * Gets a value.
+	 *
+	 * @param __value the value, may be null
+	 * @return the value, 0 if none
+	 */
+	private static long valueOf(Long __value) {
+		return __value == null ? 0L : __value;
+	}
+}
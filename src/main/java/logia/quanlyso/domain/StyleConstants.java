@@ -14,6 +14,9 @@ public enum StyleConstants {
 	/** The four num. */
 	FOUR_NUM(3);
 
+	/** The constants, cached to look them up without copying values(). */
+	private static final StyleConstants[]	VALUES	= StyleConstants.values();
+
 	/** The style id. */
 	long styleId;
 
@@ -34,4 +37,21 @@ public enum StyleConstants {
 	public Long getId() {
 		return this.styleId;
 	}
+
+	/**
+	 * Gets the constant of a style id.
+	 *
+	 * @param __id the style id
+	 * @return the style constant, or null if the id is unknown
+	 */
+	public static StyleConstants fromId(Long __id) {
+		if (__id != null) {
+			for (StyleConstants _constant : StyleConstants.VALUES) {
+				if (_constant.styleId == __id) {
+					return _constant;
+				}
+			}
+		}
+		return null;
+	}
 }
@@ -32,17 +32,17 @@ public class TransactionDetails implements Serializable {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long				id;
 
-	/** The amount. */
+	/** The amount, in thousandths. */
 	@Column(name = "amount")
-	private Float				amount;
+	private Long				amount;
 
-	/** The profit. */
+	/** The profit, in thousandths. */
 	@Column(name = "profit")
-	private Float				profit;
+	private Long				profit;
 
-	/** The costs. */
+	/** The costs, in thousandths. */
 	@Column(name = "costs")
-	private Float				costs;
+	private Long				costs;
 
 	/** The transactions. */
 	@ManyToOne
@@ -85,19 +85,19 @@ public class TransactionDetails implements Serializable {
 	/**
 	 * Gets the amount.
 	 *
-	 * @return the amount
+	 * @return the amount, in thousandths
 	 */
-	public Float getAmount() {
+	public Long getAmount() {
 		return this.amount;
 	}
 
 	/**
 	 * Amount.
 	 *
-	 * @param amount the amount
+	 * @param amount the amount, in thousandths
 	 * @return the transaction details
 	 */
-	public TransactionDetails amount(Float amount) {
+	public TransactionDetails amount(Long amount) {
 		this.amount = amount;
 		return this;
 	}
@@ -105,28 +105,28 @@ public class TransactionDetails implements Serializable {
 	/**
 	 * Sets the amount.
 	 *
-	 * @param amount the new amount
+	 * @param amount the new amount, in thousandths
 	 */
-	public void setAmount(Float amount) {
+	public void setAmount(Long amount) {
 		this.amount = amount;
 	}
 
 	/**
 	 * Gets the profit.
 	 *
-	 * @return the profit
+	 * @return the profit, in thousandths
 	 */
-	public Float getProfit() {
+	public Long getProfit() {
 		return this.profit;
 	}
 
 	/**
 	 * Profit.
 	 *
-	 * @param profit the profit
+	 * @param profit the profit, in thousandths
 	 * @return the transaction details
 	 */
-	public TransactionDetails profit(Float profit) {
+	public TransactionDetails profit(Long profit) {
 		this.profit = profit;
 		return this;
 	}
@@ -134,28 +134,28 @@ public class TransactionDetails implements Serializable {
 	/**
 	 * Sets the profit.
 	 *
-	 * @param profit the new profit
+	 * @param profit the new profit, in thousandths
 	 */
-	public void setProfit(Float profit) {
+	public void setProfit(Long profit) {
 		this.profit = profit;
 	}
 
 	/**
 	 * Gets the costs.
 	 *
-	 * @return the costs
+	 * @return the costs, in thousandths
 	 */
-	public Float getCosts() {
+	public Long getCosts() {
 		return this.costs;
 	}
 
 	/**
 	 * Costs.
 	 *
-	 * @param costs the costs
+	 * @param costs the costs, in thousandths
 	 * @return the transaction details
 	 */
-	public TransactionDetails costs(Float costs) {
+	public TransactionDetails costs(Long costs) {
 		this.costs = costs;
 		return this;
 	}
@@ -163,9 +163,9 @@ public class TransactionDetails implements Serializable {
 	/**
 	 * Sets the costs.
 	 *
-	 * @param costs the new costs
+	 * @param costs the new costs, in thousandths
 	 */
-	public void setCosts(Float costs) {
+	public void setCosts(Long costs) {
 		this.costs = costs;
 	}
 
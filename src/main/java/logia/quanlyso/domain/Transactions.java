@@ -42,9 +42,9 @@ public class Transactions extends AbstractAuditingEntity implements Serializable
 	@Column(name = "chosen_number")
 	private String					chosenNumber;
 
-	/** The net value. */
+	/** The net value, in thousandths. */
 	@Column(name = "net_value")
-	private Float					netValue;
+	private Long					netValue;
 	
 	/** The open date. */
 	@Column(name = "open_date")
@@ -110,19 +110,19 @@ public class Transactions extends AbstractAuditingEntity implements Serializable
 	/**
 	 * Gets the net value.
 	 *
-	 * @return the net value
+	 * @return the net value, in thousandths
 	 */
-	public Float getNetValue() {
+	public Long getNetValue() {
 		return this.netValue;
 	}
 
 	/**
 	 * Net value.
 	 *
-	 * @param netValue the net value
+	 * @param netValue the net value, in thousandths
 	 * @return the transactions
 	 */
-	public Transactions netValue(Float netValue) {
+	public Transactions netValue(Long netValue) {
 		this.setNetValue(netValue);;
 		return this;
 	}
@@ -130,9 +130,9 @@ public class Transactions extends AbstractAuditingEntity implements Serializable
 	/**
 	 * Sets the net value.
 	 *
-	 * @param netValue the new net value
+	 * @param netValue the new net value, in thousandths
 	 */
-	public void setNetValue(Float netValue) {
+	public void setNetValue(Long netValue) {
 		this.netValue = netValue;
 	}
 
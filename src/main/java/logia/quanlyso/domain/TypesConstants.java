@@ -16,6 +16,9 @@ public enum TypesConstants {
 	/** The roll. */
 	ROLL(4);
 
+	/** The constants, cached to look them up without copying values(). */
+	private static final TypesConstants[]	VALUES	= TypesConstants.values();
+
 	/** The types id. */
 	long typesId;
 
@@ -36,4 +39,21 @@ public enum TypesConstants {
 	public long getId() {
 		return this.typesId;
 	}
+
+	/**
+	 * Gets the constant of a types id.
+	 *
+	 * @param __id the types id
+	 * @return the types constant, or null if the id is unknown
+	 */
+	public static TypesConstants fromId(Long __id) {
+		if (__id != null) {
+			for (TypesConstants _constant : TypesConstants.VALUES) {
+				if (_constant.typesId == __id) {
+					return _constant;
+				}
+			}
+		}
+		return null;
+	}
 }
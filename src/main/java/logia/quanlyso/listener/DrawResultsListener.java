@@ -0,0 +1,95 @@
+package logia.quanlyso.listener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import logia.quanlyso.service.ExposureService;
+import logia.quanlyso.service.NumberStatsService;
+import logia.quanlyso.service.SettlementService;
+
+/**
+ * Settles the transactions of a draw once its results are committed: the open ones, and the
+ * settled ones affected by a correction; closes its exposure and counts its numbers.
+ *
+ * @author Dai Mai
+ * @see DrawResultsSavedEvent
+ */
+@Component
+public class DrawResultsListener {
+
+	/** The log. */
+	private final Logger				log	= LoggerFactory.getLogger(DrawResultsListener.class);
+
+	/** The settlement service. */
+	private final SettlementService		settlementService;
+
+	/** The exposure service. */
+	private final ExposureService		exposureService;
+
+	/** The number stats service. */
+	private final NumberStatsService	numberStatsService;
+
+	/**
+	 * Instantiates a new draw results listener.
+	 *
+	 * @param __settlementService the settlement service
+	 * @param __exposureService the exposure service
+	 * @param __numberStatsService the number stats service
+	 */
+	public DrawResultsListener(SettlementService __settlementService, ExposureService __exposureService,
+	        NumberStatsService __numberStatsService) {
+		this.settlementService = __settlementService;
+		this.exposureService = __exposureService;
+		this.numberStatsService = __numberStatsService;
+	}
+
+	/**
+	 * Close the exposure of a draw whose results are known.
+	 *
+	 * @param __event the event
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void closeExposure(DrawResultsSavedEvent __event) {
+		this.exposureService.close(__event.getDrawKey());
+	}
+
+	/**
+	 * Count the numbers of a draw in the statistics of its channel, in place of its previous ones.
+	 *
+	 * @param __event the event
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void countNumbers(DrawResultsSavedEvent __event) {
+		try {
+			this.numberStatsService.count(__event.getDrawKey());
+		}
+		catch (Exception e) {
+			this.log.error("Cannot count the numbers of " + __event.getDrawKey(), e);
+		}
+	}
+
+	/**
+	 * On draw results saved.
+	 *
+	 * @param __event the event
+	 */
+	@Async
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onDrawResultsSaved(DrawResultsSavedEvent __event) {
+		try {
+			if (__event.getCorrection() != null) {
+				int _resettled = this.settlementService.resettleTransactions(__event.getDrawKey(),
+				        __event.getCorrection());
+				this.log.debug("Resettled {} transactions of {}", _resettled, __event.getDrawKey());
+			}
+			int _settled = this.settlementService.settleOpenTransactions(__event.getDrawKey());
+			this.log.debug("Settled {} open transactions of {}", _settled, __event.getDrawKey());
+		}
+		catch (Exception e) {
+			this.log.error("Cannot settle open transactions of " + __event.getDrawKey(), e);
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package logia.quanlyso.listener;
+
+import java.util.Collection;
+
+import logia.quanlyso.service.settlement.DrawCorrection;
+import logia.quanlyso.service.settlement.DrawKey;
+
+/**
+ * Published when the results of a draw have been crawled and saved, or crawled again and
+ * replaced.
+ *
+ * @author Dai Mai
+ */
+public class DrawResultsSavedEvent {
+
+	/** The draw key. */
+	private final DrawKey			drawKey;
+
+	/** The correction of the previous results, null if the draw had none. */
+	private final DrawCorrection	correction;
+
+	/**
+	 * Instantiates a new draw results saved event.
+	 *
+	 * @param __drawKey the draw key
+	 * @param __previousCodes the replaced codes, null if the draw had none
+	 * @param __codes the saved codes
+	 */
+	public DrawResultsSavedEvent(DrawKey __drawKey, Collection<String> __previousCodes,
+	        Collection<String> __codes) {
+		this.drawKey = __drawKey;
+		this.correction = __previousCodes == null ? null : DrawCorrection.of(__previousCodes, __codes);
+	}
+
+	/**
+	 * Gets the draw key.
+	 *
+	 * @return the draw key
+	 */
+	public DrawKey getDrawKey() {
+		return this.drawKey;
+	}
+
+	/**
+	 * Gets the correction of the previous results.
+	 *
+	 * @return the correction, null if the draw had no results before
+	 */
+	public DrawCorrection getCorrection() {
+		return this.correction;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "DrawResultsSavedEvent{" + "drawKey=" + this.drawKey + ", correction="
+		        + (this.correction == null ? null : this.correction.getChangedCodes()) + "}";
+	}
+}
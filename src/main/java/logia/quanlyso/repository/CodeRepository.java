@@ -1,9 +1,12 @@
 package logia.quanlyso.repository;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import logia.quanlyso.domain.Channel;
 import logia.quanlyso.domain.Code;
@@ -12,7 +15,7 @@ import logia.quanlyso.domain.Code;
  * Spring Data JPA repository for the Code entity.
  */
 @SuppressWarnings("unused")
-public interface CodeRepository extends JpaRepository<Code, Long> {
+public interface CodeRepository extends JpaRepository<Code, Long>, CodeRepositoryCustom {
 
 	/**
 	 * Find all by open day.
@@ -22,4 +25,55 @@ public interface CodeRepository extends JpaRepository<Code, Long> {
 	 * @return the list
 	 */
 	List<Code> findAllByChannelsAndOpenDate(Channel channels, ZonedDateTime openDate);
+
+	/**
+	 * Find all by channel id and open day.
+	 *
+	 * @param channelsId the channels id
+	 * @param openDate the open date
+	 * @return the list
+	 */
+	List<Code> findAllByChannelsIdAndOpenDate(Long channelsId, ZonedDateTime openDate);
+
+	/**
+	 * Find all the codes of a channel over a window of days, in one scan of the channel and date
+	 * index.
+	 *
+	 * @param channelsId the channels id
+	 * @param fromDate the first open date, inclusive
+	 * @param toDate the last open date, inclusive
+	 * @return the list, by open date
+	 */
+	List<Code> findAllByChannelsIdAndOpenDateBetweenOrderByOpenDateAscIdAsc(Long channelsId, ZonedDateTime fromDate,
+	        ZonedDateTime toDate);
+
+	/**
+	 * Find all the codes of channels over a window of days, in one scan of the channel and date index.
+	 *
+	 * @param channelsIds the channels ids
+	 * @param fromDate the first open date, inclusive
+	 * @param toDate the last open date, inclusive
+	 * @return the list, by channel and open date
+	 */
+	@Query("select c from Code c where c.channels.id in :channelsIds and c.openDate between :fromDate and :toDate"
+	        + " order by c.channels.id, c.openDate, c.id")
+	List<Code> findAllByChannelsIdInAndOpenDateBetween(@Param("channelsIds") Collection<Long> channelsIds,
+	        @Param("fromDate") ZonedDateTime fromDate, @Param("toDate") ZonedDateTime toDate);
+
+	/**
+	 * Find a code of the last draw of a channel before a date.
+	 *
+	 * @param channelsId the channels id
+	 * @param openDate the date, exclusive
+	 * @return the code, null if the channel has no draw before the date
+	 */
+	Code findFirstByChannelsIdAndOpenDateBeforeOrderByOpenDateDesc(Long channelsId, ZonedDateTime openDate);
+
+	/**
+	 * Find the code of the oldest draw in the code table before a date.
+	 *
+	 * @param openDate the date, exclusive
+	 * @return the code, null if the table has no draw before the date
+	 */
+	Code findFirstByOpenDateBeforeOrderByOpenDateAsc(ZonedDateTime openDate);
 }
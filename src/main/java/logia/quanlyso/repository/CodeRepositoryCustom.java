@@ -0,0 +1,77 @@
+package logia.quanlyso.repository;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import logia.quanlyso.domain.Code;
+
+/**
+ * Bulk operations of the Code repository, out of the JPA session, and lookups of draws across the
+ * code table and its archive.
+ * <p>
+ * Draws older than the archive horizon are moved to {@code code_archive} every night. The draw
+ * lookups read the archive for days before the horizon and the code table for all days, since a
+ * backfilled or re-crawled old draw stays there until the next night.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+public interface CodeRepositoryCustom {
+
+	/**
+	 * Insert codes in JDBC batches.
+	 * <p>
+	 * {@code Code} ids are generated by the database, so Hibernate must send one insert per code to
+	 * read each id back. Crawled codes are never read back by id, their ids are left unset and their
+	 * inserts are sent in batches, rewritten as multi-row inserts by MySQL. Pending changes of the
+	 * session must be flushed first to keep them before the inserts.
+	 * </p>
+	 *
+	 * @param codes the codes
+	 */
+	void insertAll(Collection<Code> codes);
+
+	/**
+	 * Find the codes of a draw, archived or not.
+	 *
+	 * @param channelsId the channels id
+	 * @param openDate the open date
+	 * @return the codes, archived ones detached
+	 */
+	List<Code> findDraw(Long channelsId, ZonedDateTime openDate);
+
+	/**
+	 * Find the codes of the draws of channels over a window of days, archived or not.
+	 *
+	 * @param channelsIds the channels ids
+	 * @param fromDate the first open date, inclusive
+	 * @param toDate the last open date, inclusive
+	 * @return the codes, by channel and open date, archived ones detached
+	 */
+	List<Code> findDraws(Collection<Long> channelsIds, ZonedDateTime fromDate, ZonedDateTime toDate);
+
+	/**
+	 * Delete the codes of a draw, archived or not.
+	 *
+	 * @param channelsId the channels id
+	 * @param openDate the open date
+	 */
+	void deleteDraw(Long channelsId, ZonedDateTime openDate);
+
+	/**
+	 * Move the codes of a window of days of one month to the archive.
+	 *
+	 * @param fromDate the first open date, inclusive
+	 * @param toDate the last open date, exclusive, in the same month
+	 * @return the number of codes moved
+	 */
+	int archive(ZonedDateTime fromDate, ZonedDateTime toDate);
+
+	/**
+	 * Gets the archive horizon: draws before it are archived, or will be on the next night.
+	 *
+	 * @return the start of the first day kept in the code table
+	 */
+	ZonedDateTime getArchiveHorizon();
+}
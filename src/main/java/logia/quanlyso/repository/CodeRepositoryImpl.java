@@ -0,0 +1,259 @@
+package logia.quanlyso.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import logia.quanlyso.config.ApplicationProperties;
+import logia.quanlyso.domain.Channel;
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * JDBC implementation of the bulk operations of the Code repository, and of the lookups of draws
+ * across the code table and its archive.
+ *
+ * @author Dai Mai
+ */
+public class CodeRepositoryImpl implements CodeRepositoryCustom {
+
+	/** The Constant INSERT_CODE. */
+	static final String							INSERT_CODE				= "insert into code (code, open_date, channels_id) values (?, ?, ?)";
+
+	/** The Constant SELECT_DRAW. */
+	private static final String					SELECT_DRAW				= "select c from Code c where c.channels.id = :channelsId"
+	        + " and c.openDate = :openDate order by c.id";
+
+	/** The Constant SELECT_DRAWS. */
+	private static final String					SELECT_DRAWS			= "select c from Code c where c.channels.id in :channelsIds"
+	        + " and c.openDate between :fromDate and :toDate";
+
+	/** The Constant DELETE_DRAW. */
+	private static final String					DELETE_DRAW				= "delete from Code c where c.channels.id = :channelsId"
+	        + " and c.openDate = :openDate";
+
+	/** The Constant DELETE_CODES. */
+	private static final String					DELETE_CODES			= "delete from Code c where c.openDate >= :fromDate"
+	        + " and c.openDate < :toDate";
+
+	/** The Constant SELECT_ARCHIVED_DRAW. */
+	private static final String					SELECT_ARCHIVED_DRAW	= "select id, code, open_date, channels_id from code_archive"
+	        + " where open_month = ? and channels_id = ? and open_date = ? order by id";
+
+	/** The Constant SELECT_ARCHIVED_DRAWS. */
+	private static final String					SELECT_ARCHIVED_DRAWS	= "select id, code, open_date, channels_id from code_archive"
+	        + " where open_month between :fromMonth and :toMonth and channels_id in (:channelsIds)"
+	        + " and open_date between :fromDate and :toDate";
+
+	/** The Constant DELETE_ARCHIVED_DRAW. */
+	private static final String					DELETE_ARCHIVED_DRAW	= "delete from code_archive"
+	        + " where open_month = ? and channels_id = ? and open_date = ?";
+
+	/** The Constant ARCHIVE_CODES. */
+	private static final String					ARCHIVE_CODES			= "insert into code_archive (open_month, id, code, open_date, channels_id)"
+	        + " select ?, id, code, open_date, channels_id from code where open_date >= ? and open_date < ?";
+
+	/** The number of codes sent per batch. */
+	static final int							BATCH_SIZE				= 1000;
+
+	/** The order of the codes of many draws. */
+	private static final Comparator<Code>		DRAW_ORDER				= Comparator
+	        .comparing((Code __code) -> __code.getChannels().getId()).thenComparing(Code::getOpenDate)
+	        .thenComparing(Code::getId);
+
+	/** The jdbc template. */
+	private final JdbcTemplate					jdbcTemplate;
+
+	/** The named parameter jdbc template, for lists of channels. */
+	private final NamedParameterJdbcTemplate	namedParameterJdbcTemplate;
+
+	/** The number of days draws stay in the code table. */
+	private final int							horizonDays;
+
+	/** The entity manager. */
+	@PersistenceContext
+	private EntityManager						entityManager;
+
+	/**
+	 * Instantiates a new code repository impl.
+	 *
+	 * @param __jdbcTemplate the jdbc template
+	 * @param __applicationProperties the application properties
+	 */
+	public CodeRepositoryImpl(JdbcTemplate __jdbcTemplate, ApplicationProperties __applicationProperties) {
+		this.jdbcTemplate = __jdbcTemplate;
+		this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(__jdbcTemplate);
+		this.horizonDays = __applicationProperties.getArchive().getHorizonDays();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.repository.CodeRepositoryCustom#insertAll(java.util.Collection)
+	 */
+	@Override
+	public void insertAll(Collection<Code> __codes) {
+		if (__codes.isEmpty()) {
+			return;
+		}
+		this.jdbcTemplate.batchUpdate(CodeRepositoryImpl.INSERT_CODE, __codes, CodeRepositoryImpl.BATCH_SIZE,
+		        CodeRepositoryImpl::setValues);
+		this.evictCodes();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.repository.CodeRepositoryCustom#findDraw(java.lang.Long,
+	 * java.time.ZonedDateTime)
+	 */
+	@Override
+	public List<Code> findDraw(Long __channelsId, ZonedDateTime __openDate) {
+		List<Code> _codes = new ArrayList<>();
+		if (__openDate.isBefore(this.getArchiveHorizon())) {
+			_codes.addAll(this.jdbcTemplate.query(CodeRepositoryImpl.SELECT_ARCHIVED_DRAW,
+			        CodeRepositoryImpl::mapArchived, CodeRepositoryImpl.monthOf(__openDate), __channelsId,
+			        Timestamp.from(__openDate.toInstant())));
+		}
+		if (_codes.isEmpty()) {
+			_codes.addAll(this.entityManager.createQuery(CodeRepositoryImpl.SELECT_DRAW, Code.class)
+			        .setParameter("channelsId", __channelsId).setParameter("openDate", __openDate).getResultList());
+		}
+		return _codes;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.repository.CodeRepositoryCustom#findDraws(java.util.Collection,
+	 * java.time.ZonedDateTime, java.time.ZonedDateTime)
+	 */
+	@Override
+	public List<Code> findDraws(Collection<Long> __channelsIds, ZonedDateTime __fromDate, ZonedDateTime __toDate) {
+		if (__channelsIds.isEmpty()) {
+			return new ArrayList<>();
+		}
+		List<Code> _codes = new ArrayList<>(this.entityManager.createQuery(CodeRepositoryImpl.SELECT_DRAWS, Code.class)
+		        .setParameter("channelsIds", __channelsIds).setParameter("fromDate", __fromDate)
+		        .setParameter("toDate", __toDate).getResultList());
+		if (__fromDate.isBefore(this.getArchiveHorizon())) {
+			MapSqlParameterSource _parameters = new MapSqlParameterSource("channelsIds", __channelsIds)
+			        .addValue("fromMonth", CodeRepositoryImpl.monthOf(__fromDate))
+			        .addValue("toMonth", CodeRepositoryImpl.monthOf(__toDate))
+			        .addValue("fromDate", Timestamp.from(__fromDate.toInstant()))
+			        .addValue("toDate", Timestamp.from(__toDate.toInstant()));
+			_codes.addAll(this.namedParameterJdbcTemplate.query(CodeRepositoryImpl.SELECT_ARCHIVED_DRAWS,
+			        _parameters, CodeRepositoryImpl::mapArchived));
+		}
+		_codes.sort(CodeRepositoryImpl.DRAW_ORDER);
+		return _codes;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.repository.CodeRepositoryCustom#deleteDraw(java.lang.Long,
+	 * java.time.ZonedDateTime)
+	 */
+	@Override
+	public void deleteDraw(Long __channelsId, ZonedDateTime __openDate) {
+		this.entityManager.createQuery(CodeRepositoryImpl.DELETE_DRAW).setParameter("channelsId", __channelsId)
+		        .setParameter("openDate", __openDate).executeUpdate();
+		this.jdbcTemplate.update(CodeRepositoryImpl.DELETE_ARCHIVED_DRAW, CodeRepositoryImpl.monthOf(__openDate),
+		        __channelsId, Timestamp.from(__openDate.toInstant()));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.repository.CodeRepositoryCustom#archive(java.time.ZonedDateTime,
+	 * java.time.ZonedDateTime)
+	 */
+	@Override
+	public int archive(ZonedDateTime __fromDate, ZonedDateTime __toDate) {
+		int _moved = this.jdbcTemplate.update(CodeRepositoryImpl.ARCHIVE_CODES, CodeRepositoryImpl.monthOf(__fromDate),
+		        Timestamp.from(__fromDate.toInstant()), Timestamp.from(__toDate.toInstant()));
+		// A bulk delete, so that the cached codes are evicted too
+		this.entityManager.createQuery(CodeRepositoryImpl.DELETE_CODES).setParameter("fromDate", __fromDate)
+		        .setParameter("toDate", __toDate).executeUpdate();
+		return _moved;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.repository.CodeRepositoryCustom#getArchiveHorizon()
+	 */
+	@Override
+	public ZonedDateTime getArchiveHorizon() {
+		ZoneId _zoneId = DateFormatterUtil.systemZoneId();
+		return LocalDate.now(_zoneId).minusDays(this.horizonDays).atStartOfDay(_zoneId);
+	}
+
+	/**
+	 * Evict the cached codes, as a bulk statement of Hibernate would, the JDBC writes bypassing the
+	 * second level cache.
+	 */
+	private void evictCodes() {
+		if (this.entityManager != null) {
+			this.entityManager.getEntityManagerFactory().getCache().evict(Code.class);
+		}
+	}
+
+	/**
+	 * Gets the month of a draw, as archived.
+	 *
+	 * @param __openDate the open date
+	 * @return the month, yyyyMM
+	 */
+	static int monthOf(ZonedDateTime __openDate) {
+		ZonedDateTime _openDate = __openDate.withZoneSameInstant(DateFormatterUtil.systemZoneId());
+		return _openDate.getYear() * 100 + _openDate.getMonthValue();
+	}
+
+	/**
+	 * Sets the values of a code insert.
+	 *
+	 * @param __statement the statement
+	 * @param __code the code
+	 * @throws SQLException the SQL exception
+	 */
+	private static void setValues(PreparedStatement __statement, Code __code) throws SQLException {
+		__statement.setString(1, __code.getCode());
+		__statement.setTimestamp(2, Timestamp.from(__code.getOpenDate().toInstant()));
+		__statement.setLong(3, __code.getChannels().getId());
+	}
+
+	/**
+	 * Map an archived code.
+	 *
+	 * @param __rs the result set
+	 * @param __row the row
+	 * @return the code, detached
+	 * @throws SQLException the SQL exception
+	 */
+	private static Code mapArchived(ResultSet __rs, int __row) throws SQLException {
+		Channel _channel = new Channel();
+		_channel.setId(__rs.getLong(4));
+		Code _code = new Code().code(__rs.getString(2))
+		        .openDate(ZonedDateTime.ofInstant(__rs.getTimestamp(3).toInstant(), DateFormatterUtil.systemZoneId()))
+		        .channels(_channel);
+		_code.setId(__rs.getLong(1));
+		return _code;
+	}
+}
@@ -0,0 +1,161 @@
+package logia.quanlyso.repository;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import logia.quanlyso.domain.DrawResult;
+
+/**
+ * Packs the numbers of a complete draw in a few bytes.
+ * <p>
+ * The packed draw starts with the number of prizes, then a header of 4 bytes per prize: its rank
+ * (0 for the special prize), its number count, its digit count per number and the position of its
+ * digits after the headers. Digits follow as binary-coded decimal, two per byte, each prize starting
+ * on a byte. A southern draw of 18 numbers takes 80 bytes, a northern one of 27 numbers 88 bytes.
+ * </p>
+ * Only draws whose prizes are all ranked, with numbers of digits only and of the same length
+ * within a prize, can be packed: draws still being drawn are left to their {@code Code} rows.
+ *
+ * @author Dai Mai
+ */
+final class DrawResultCodec {
+
+	/** The bytes of a prize header. */
+	private static final int	HEADER_SIZE	= 4;
+
+	/** The most of any count held in a byte. */
+	private static final int	MAX_BYTE	= 0xFF;
+
+	/** The most bytes of a packed draw, the size of its column. */
+	static final int			MAX_SIZE	= 255;
+
+	/** The most digits of a number. */
+	private static final int	MAX_DIGITS	= 9;
+
+	/**
+	 * Instantiates a new draw result codec.
+	 */
+	private DrawResultCodec() {
+	}
+
+	/**
+	 * Pack the prizes of a draw.
+	 *
+	 * @param __drawResult the draw result
+	 * @return the packed prizes, null if the draw cannot be packed
+	 */
+	static byte[] pack(DrawResult __drawResult) {
+		List<DrawResult.Prize> _prizes = __drawResult.getPrizes();
+		if (_prizes.isEmpty() || _prizes.size() > DrawResultCodec.MAX_BYTE) {
+			return null;
+		}
+		int _headersSize = 1 + _prizes.size() * DrawResultCodec.HEADER_SIZE;
+		int _dataSize = 0;
+		for (DrawResult.Prize _prize : _prizes) {
+			int _digits = DrawResultCodec.digitsOf(_prize);
+			if (_digits < 0) {
+				return null;
+			}
+			_dataSize += (_prize.getCodes().size() * _digits + 1) / 2;
+		}
+		if (_headersSize + _dataSize > DrawResultCodec.MAX_SIZE) {
+			return null;
+		}
+
+		byte[] _packed = new byte[_headersSize + _dataSize];
+		_packed[0] = (byte) _prizes.size();
+		int _header = 1;
+		int _offset = 0;
+		for (DrawResult.Prize _prize : _prizes) {
+			int _digits = _prize.getCodes().get(0).length();
+			_packed[_header] = (byte) _prize.getRank();
+			_packed[_header + 1] = (byte) _prize.getCodes().size();
+			_packed[_header + 2] = (byte) _digits;
+			_packed[_header + 3] = (byte) _offset;
+			_header += DrawResultCodec.HEADER_SIZE;
+
+			int _nibble = 0;
+			for (String _code : _prize.getCodes()) {
+				for (int _i = 0; _i < _digits; _i++, _nibble++) {
+					int _digit = _code.charAt(_i) - '0';
+					int _index = _headersSize + _offset + _nibble / 2;
+					_packed[_index] |= (_nibble % 2 == 0) ? _digit << 4 : _digit;
+				}
+			}
+			_offset += (_nibble + 1) / 2;
+		}
+		return _packed;
+	}
+
+	/**
+	 * Unpack the prizes of a draw.
+	 *
+	 * @param __channelId the channel id
+	 * @param __openDate the open date
+	 * @param __packed the packed prizes
+	 * @return the draw result
+	 */
+	static DrawResult unpack(Long __channelId, ZonedDateTime __openDate, byte[] __packed) {
+		int _count = __packed[0] & DrawResultCodec.MAX_BYTE;
+		int _headersSize = 1 + _count * DrawResultCodec.HEADER_SIZE;
+		List<DrawResult.Prize> _prizes = new ArrayList<>(_count);
+		for (int _header = 1; _header < _headersSize; _header += DrawResultCodec.HEADER_SIZE) {
+			int _rank = __packed[_header];
+			int _codes = __packed[_header + 1] & DrawResultCodec.MAX_BYTE;
+			int _digits = __packed[_header + 2];
+			int _start = _headersSize + (__packed[_header + 3] & DrawResultCodec.MAX_BYTE);
+
+			List<String> _numbers = new ArrayList<>(_codes);
+			char[] _number = new char[_digits];
+			int _nibble = 0;
+			for (int _i = 0; _i < _codes; _i++) {
+				for (int _j = 0; _j < _digits; _j++, _nibble++) {
+					int _byte = __packed[_start + _nibble / 2];
+					_number[_j] = (char) ('0' + ((_nibble % 2 == 0) ? (_byte >> 4) & 0xF : _byte & 0xF));
+				}
+				_numbers.add(new String(_number));
+			}
+			_prizes.add(new DrawResult.Prize(DrawResultCodec.tierOf(_rank), _numbers));
+		}
+		return new DrawResult(__channelId, __openDate, _prizes);
+	}
+
+	/**
+	 * Gets the digit count of the numbers of a prize.
+	 *
+	 * @param __prize the prize
+	 * @return the digit count, -1 if the prize cannot be packed
+	 */
+	private static int digitsOf(DrawResult.Prize __prize) {
+		List<String> _codes = __prize.getCodes();
+		if (__prize.getRank() < 0 || _codes.isEmpty() || _codes.size() > DrawResultCodec.MAX_BYTE) {
+			return -1;
+		}
+		int _digits = _codes.get(0).length();
+		if (_digits == 0 || _digits > DrawResultCodec.MAX_DIGITS) {
+			return -1;
+		}
+		for (String _code : _codes) {
+			if (_code.length() != _digits) {
+				return -1;
+			}
+			for (int _i = 0; _i < _digits; _i++) {
+				if (_code.charAt(_i) < '0' || _code.charAt(_i) > '9') {
+					return -1;
+				}
+			}
+		}
+		return _digits;
+	}
+
+	/**
+	 * Gets the tier of a rank.
+	 *
+	 * @param __rank the rank
+	 * @return the tier
+	 */
+	private static String tierOf(int __rank) {
+		return __rank == 0 ? DrawResult.SPECIAL_TIER : DrawResult.TIER_PREFIX + __rank;
+	}
+}
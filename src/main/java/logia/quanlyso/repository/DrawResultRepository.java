@@ -0,0 +1,181 @@
+package logia.quanlyso.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.domain.DrawResult;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Repository of the results of whole draws, one {@code draw_result} row per channel and day.
+ * <p>
+ * A complete draw is saved packed by {@link DrawResultCodec} next to its {@link Code} rows, and read
+ * back in a single key lookup. Draws without a packed row, crawled before it existed, still being
+ * drawn or edited code by code, are read back from their {@link Code} rows.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+@Repository
+public class DrawResultRepository {
+
+	/** The Constant SELECT_NUMBERS. */
+	private static final String		SELECT_NUMBERS	= "select numbers from draw_result where channels_id = ? and open_date = ?";
+
+	/** The Constant SELECT_RESULTS. */
+	private static final String		SELECT_RESULTS	= "select channels_id, open_date, numbers from draw_result"
+	        + " where channels_id in (:channelsIds) and open_date between :fromDate and :toDate";
+
+	/** The Constant INSERT_RESULT. */
+	private static final String		INSERT_RESULT	= "insert into draw_result (channels_id, open_date, numbers) values (?, ?, ?)";
+
+	/** The Constant DELETE_RESULT. */
+	private static final String		DELETE_RESULT	= "delete from draw_result where channels_id = ? and open_date = ?";
+
+	/** The jdbc template. */
+	private final JdbcTemplate					jdbcTemplate;
+
+	/** The named parameter jdbc template, for lists of channels. */
+	private final NamedParameterJdbcTemplate	namedParameterJdbcTemplate;
+
+	/** The code repository. */
+	private final CodeRepository				codeRepository;
+
+	/**
+	 * Instantiates a new draw result repository.
+	 *
+	 * @param __jdbcTemplate the jdbc template
+	 * @param __codeRepository the code repository
+	 */
+	public DrawResultRepository(JdbcTemplate __jdbcTemplate, CodeRepository __codeRepository) {
+		this.jdbcTemplate = __jdbcTemplate;
+		this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(__jdbcTemplate);
+		this.codeRepository = __codeRepository;
+	}
+
+	/**
+	 * Find the results of a draw.
+	 *
+	 * @param __channelId the channel id
+	 * @param __openDate the open date
+	 * @return the draw result, empty if the draw has no result yet
+	 */
+	public DrawResult findOne(Long __channelId, ZonedDateTime __openDate) {
+		List<byte[]> _numbers = this.jdbcTemplate.query(DrawResultRepository.SELECT_NUMBERS,
+		        (__rs, __row) -> __rs.getBytes(1), __channelId, Timestamp.from(__openDate.toInstant()));
+		if (!_numbers.isEmpty()) {
+			return DrawResultCodec.unpack(__channelId, __openDate, _numbers.get(0));
+		}
+		return DrawResult.ofCodes(__channelId, __openDate,
+		        this.codeRepository.findDraw(__channelId, __openDate).stream()
+		                .map(Code::getCode).collect(Collectors.toList()));
+	}
+
+	/**
+	 * Find the results of the draws of channels over a window of days, in one scan of the packed rows
+	 * and one of the code rows for the draws without packed row.
+	 *
+	 * @param __channelIds the channel ids
+	 * @param __fromDate the first open date, inclusive
+	 * @param __toDate the last open date, inclusive
+	 * @return the draw results with any result, by channel and open date
+	 */
+	public List<DrawResult> findAll(Collection<Long> __channelIds, ZonedDateTime __fromDate,
+	        ZonedDateTime __toDate) {
+		if (__channelIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		Map<Long, Map<Instant, DrawResult>> _drawResults = new TreeMap<>();
+		MapSqlParameterSource _parameters = new MapSqlParameterSource("channelsIds", __channelIds)
+		        .addValue("fromDate", Timestamp.from(__fromDate.toInstant()))
+		        .addValue("toDate", Timestamp.from(__toDate.toInstant()));
+		this.namedParameterJdbcTemplate.query(DrawResultRepository.SELECT_RESULTS, _parameters, __rs -> {
+			Long _channelId = __rs.getLong(1);
+			Instant _openDate = __rs.getTimestamp(2).toInstant();
+			_drawResults.computeIfAbsent(_channelId, __id -> new TreeMap<>()).put(_openDate,
+			        DrawResultCodec.unpack(_channelId,
+			                ZonedDateTime.ofInstant(_openDate, DateFormatterUtil.systemZoneId()), __rs.getBytes(3)));
+		});
+
+		Map<Long, Map<Instant, List<String>>> _codes = new HashMap<>();
+		Map<Instant, ZonedDateTime> _openDates = new HashMap<>();
+		for (Code _code : this.codeRepository.findDraws(__channelIds, __fromDate, __toDate)) {
+			Long _channelId = _code.getChannels().getId();
+			Instant _openDate = _code.getOpenDate().toInstant();
+			if (!_drawResults.getOrDefault(_channelId, Collections.emptyMap()).containsKey(_openDate)) {
+				_openDates.putIfAbsent(_openDate, _code.getOpenDate());
+				_codes.computeIfAbsent(_channelId, __id -> new HashMap<>())
+				        .computeIfAbsent(_openDate, __date -> new ArrayList<>()).add(_code.getCode());
+			}
+		}
+		_codes.forEach((__channelId, __draws) -> __draws.forEach((__openDate, __numbers) -> _drawResults
+		        .computeIfAbsent(__channelId, __id -> new TreeMap<>())
+		        .put(__openDate, DrawResult.ofCodes(__channelId, _openDates.get(__openDate), __numbers))));
+
+		List<DrawResult> _result = new ArrayList<>();
+		_drawResults.values().forEach(__draws -> _result.addAll(__draws.values()));
+		return _result;
+	}
+
+	/**
+	 * Save the results of a draw, replacing its packed row.
+	 *
+	 * @param __drawResult the draw result
+	 * @return true, if packed; false if the draw cannot be packed and is left to its code rows
+	 */
+	public boolean save(DrawResult __drawResult) {
+		this.delete(__drawResult.getChannelId(), __drawResult.getOpenDate());
+		byte[] _numbers = DrawResultCodec.pack(__drawResult);
+		if (_numbers == null) {
+			return false;
+		}
+		this.jdbcTemplate.update(DrawResultRepository.INSERT_RESULT, __drawResult.getChannelId(),
+		        Timestamp.from(__drawResult.getOpenDate().toInstant()), _numbers);
+		return true;
+	}
+
+	/**
+	 * Insert the results of draws without packed row yet, in one batch.
+	 *
+	 * @param __drawResults the draw results
+	 */
+	public void insertAll(Collection<DrawResult> __drawResults) {
+		List<Object[]> _rows = new ArrayList<>(__drawResults.size());
+		for (DrawResult _drawResult : __drawResults) {
+			byte[] _numbers = DrawResultCodec.pack(_drawResult);
+			if (_numbers != null) {
+				_rows.add(new Object[] { _drawResult.getChannelId(),
+				        Timestamp.from(_drawResult.getOpenDate().toInstant()), _numbers });
+			}
+		}
+		if (!_rows.isEmpty()) {
+			this.jdbcTemplate.batchUpdate(DrawResultRepository.INSERT_RESULT, _rows);
+		}
+	}
+
+	/**
+	 * Delete the packed row of a draw, its results are read back from its code rows.
+	 *
+	 * @param __channelId the channel id
+	 * @param __openDate the open date
+	 */
+	public void delete(Long __channelId, ZonedDateTime __openDate) {
+		this.jdbcTemplate.update(DrawResultRepository.DELETE_RESULT, __channelId,
+		        Timestamp.from(__openDate.toInstant()));
+	}
+}
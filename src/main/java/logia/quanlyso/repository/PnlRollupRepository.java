@@ -0,0 +1,170 @@
+package logia.quanlyso.repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import logia.quanlyso.domain.PnlRollup;
+
+/**
+ * Repository of the daily P&amp;L rollups, one {@code pnl_rollup} row per day, user, channel,
+ * factor, style and type.
+ * <p>
+ * Rollups are added as deltas: each key is updated in place, and inserted when it has no row yet.
+ * A report reads at most one row per key and day, however many tickets were sold.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+@Repository
+public class PnlRollupRepository {
+
+	/** The Constant UPDATE_ROLLUP. */
+	private static final String	UPDATE_ROLLUP	= "update pnl_rollup set details = details + ?, settled = settled + ?,"
+	        + " amount = amount + ?, profit = profit + ?, costs = costs + ? where pnl_date = ? and users_id = ?"
+	        + " and channels_id = ? and factors_id = ? and styles_id = ? and types_id = ?";
+
+	/** The Constant INSERT_ROLLUP. */
+	private static final String	INSERT_ROLLUP	= "insert into pnl_rollup (details, settled, amount, profit, costs,"
+	        + " pnl_date, users_id, channels_id, factors_id, styles_id, types_id)"
+	        + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	/** The Constant SELECT_DAYS. */
+	private static final String	SELECT_DAYS		= "select pnl_date, sum(details), sum(settled), sum(amount), sum(profit),"
+	        + " sum(costs) from pnl_rollup where pnl_date between ? and ?";
+
+	/** The Constant GROUP_BY_DAY. */
+	private static final String	GROUP_BY_DAY	= " group by pnl_date having sum(details) <> 0 order by pnl_date";
+
+	/** The jdbc template. */
+	private final JdbcTemplate	jdbcTemplate;
+
+	/**
+	 * Instantiates a new pnl rollup repository.
+	 *
+	 * @param __jdbcTemplate the jdbc template
+	 */
+	public PnlRollupRepository(JdbcTemplate __jdbcTemplate) {
+		this.jdbcTemplate = __jdbcTemplate;
+	}
+
+	/**
+	 * Add rollups to the stored ones, those of a same key summed first.
+	 * <p>
+	 * An update then an insert rather than a database specific upsert: a concurrent insert of the
+	 * same key fails on the primary key, and is retried as an update.
+	 * </p>
+	 *
+	 * @param __rollups the rollups
+	 */
+	public void add(Collection<PnlRollup> __rollups) {
+		Map<List<Object>, PnlRollup> _sums = new LinkedHashMap<>();
+		for (PnlRollup _rollup : __rollups) {
+			PnlRollup _sum = _sums.get(_rollup.getKey());
+			if (_sum == null) {
+				_sums.put(_rollup.getKey(), PnlRollupRepository.copyOf(_rollup));
+			}
+			else {
+				_sum.add(_rollup);
+			}
+		}
+		for (PnlRollup _sum : _sums.values()) {
+			if (_sum.isZero() || this.update(_sum)) {
+				continue;
+			}
+			try {
+				this.jdbcTemplate.update(PnlRollupRepository.INSERT_ROLLUP, PnlRollupRepository.valuesOf(_sum));
+			}
+			catch (DuplicateKeyException _e) {
+				this.update(_sum);
+			}
+		}
+	}
+
+	/**
+	 * Find the sums of the rollups of each day over a window of days.
+	 *
+	 * @param __fromDate the first day, inclusive
+	 * @param __toDate the last day, inclusive
+	 * @param __usersId the users id, all users if null
+	 * @param __channelsId the channels id, all channels if null
+	 * @return the sums of the days with any detail, by day, with the ids given and 0 for the others
+	 */
+	public List<PnlRollup> findDays(LocalDate __fromDate, LocalDate __toDate, Long __usersId, Long __channelsId) {
+		StringBuilder _sql = new StringBuilder(PnlRollupRepository.SELECT_DAYS);
+		List<Object> _args = new ArrayList<>();
+		_args.add(Date.valueOf(__fromDate));
+		_args.add(Date.valueOf(__toDate));
+		if (__usersId != null) {
+			_sql.append(" and users_id = ?");
+			_args.add(__usersId);
+		}
+		if (__channelsId != null) {
+			_sql.append(" and channels_id = ?");
+			_args.add(__channelsId);
+		}
+		_sql.append(PnlRollupRepository.GROUP_BY_DAY);
+		long _usersId = __usersId == null ? 0L : __usersId;
+		long _channelsId = __channelsId == null ? 0L : __channelsId;
+		return this.jdbcTemplate.query(_sql.toString(),
+		        (__rs, __row) -> PnlRollupRepository.mapDay(__rs, _usersId, _channelsId), _args.toArray());
+	}
+
+	/**
+	 * Add a rollup to its row.
+	 *
+	 * @param __rollup the rollup
+	 * @return true, if the row exists
+	 */
+	private boolean update(PnlRollup __rollup) {
+		return this.jdbcTemplate.update(PnlRollupRepository.UPDATE_ROLLUP, PnlRollupRepository.valuesOf(__rollup)) > 0;
+	}
+
+	/**
+	 * Gets the values of a rollup update or insert: the sums, then the key.
+	 *
+	 * @param __rollup the rollup
+	 * @return the values
+	 */
+	private static Object[] valuesOf(PnlRollup __rollup) {
+		return new Object[] { __rollup.getDetails(), __rollup.getSettled(), __rollup.getAmount(),
+		        __rollup.getProfit(), __rollup.getCosts(), Date.valueOf(__rollup.getPnlDate()), __rollup.getUsersId(),
+		        __rollup.getChannelsId(), __rollup.getFactorsId(), __rollup.getStylesId(), __rollup.getTypesId() };
+	}
+
+	/**
+	 * Copy a rollup, to sum others into it.
+	 *
+	 * @param __rollup the rollup
+	 * @return the copy
+	 */
+	private static PnlRollup copyOf(PnlRollup __rollup) {
+		return new PnlRollup(__rollup.getPnlDate(), __rollup.getUsersId(), __rollup.getChannelsId(),
+		        __rollup.getFactorsId(), __rollup.getStylesId(), __rollup.getTypesId(), __rollup.getDetails(),
+		        __rollup.getSettled(), __rollup.getAmount(), __rollup.getProfit(), __rollup.getCosts());
+	}
+
+	/**
+	 * Map the sums of a day.
+	 *
+	 * @param __rs the result set
+	 * @param __usersId the users id
+	 * @param __channelsId the channels id
+	 * @return the rollup of the day, its factor, style and type 0
+	 * @throws SQLException the SQL exception
+	 */
+	private static PnlRollup mapDay(ResultSet __rs, long __usersId, long __channelsId) throws SQLException {
+		return new PnlRollup(__rs.getDate(1).toLocalDate(), __usersId, __channelsId, 0L, 0L, 0L, __rs.getInt(2),
+		        __rs.getInt(3), __rs.getLong(4), __rs.getLong(5), __rs.getLong(6));
+	}
+}
@@ -1,6 +1,11 @@
 package logia.quanlyso.repository;
 
+import java.time.ZonedDateTime;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import logia.quanlyso.domain.TransactionDetails;
 
@@ -12,4 +17,16 @@ import logia.quanlyso.domain.TransactionDetails;
 @SuppressWarnings("unused")
 public interface TransactionDetailsRepository extends JpaRepository<TransactionDetails, Long> {
 
+	/**
+	 * Find the details of the unsettled transactions playing a channel in a period.
+	 *
+	 * @param channelsId the channels id
+	 * @param from the start of the period, inclusive
+	 * @param to the end of the period, exclusive
+	 * @return the list
+	 */
+	@Query("select d from TransactionDetails d join fetch d.transactions t where d.channels.id = :channelsId"
+	        + " and t.openDate >= :from and t.openDate < :to and t.netValue is null")
+	List<TransactionDetails> findOpenByChannelsIdAndOpenDateBetween(@Param("channelsId") Long channelsId,
+	        @Param("from") ZonedDateTime from, @Param("to") ZonedDateTime to);
 }
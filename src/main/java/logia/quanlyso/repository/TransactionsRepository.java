@@ -1,6 +1,13 @@
 package logia.quanlyso.repository;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import logia.quanlyso.domain.Transactions;
 
@@ -12,4 +19,50 @@ import logia.quanlyso.domain.Transactions;
 @SuppressWarnings("unused")
 public interface TransactionsRepository extends JpaRepository<Transactions, Long> {
 
+	/**
+	 * Find the ids of the unsettled transactions playing a channel in a period, after a given id.
+	 *
+	 * @param channelsId the channels id
+	 * @param from the start of the period, inclusive
+	 * @param to the end of the period, exclusive
+	 * @param afterId the last id of the previous page
+	 * @param pageable the page size
+	 * @return the ids, in ascending order
+	 */
+	@Query("select distinct t.id from Transactions t join t.transactionDetails d"
+	        + " where d.channels.id = :channelsId and t.openDate >= :from and t.openDate < :to"
+	        + " and t.netValue is null and t.id > :afterId order by t.id")
+	List<Long> findOpenIdsByChannelsIdAndOpenDateBetween(@Param("channelsId") Long channelsId,
+	        @Param("from") ZonedDateTime from, @Param("to") ZonedDateTime to,
+	        @Param("afterId") Long afterId, Pageable pageable);
+
+	/**
+	 * Find the ids of the settled transactions playing a channel in a period with one of the given
+	 * chosen numbers, after a given id.
+	 *
+	 * @param channelsId the channels id
+	 * @param from the start of the period, inclusive
+	 * @param to the end of the period, exclusive
+	 * @param chosenNumbers the chosen numbers
+	 * @param afterId the last id of the previous page
+	 * @param pageable the page size
+	 * @return the ids, in ascending order
+	 */
+	@Query("select distinct t.id from Transactions t join t.transactionDetails d"
+	        + " where d.channels.id = :channelsId and t.openDate >= :from and t.openDate < :to"
+	        + " and t.netValue is not null and t.chosenNumber in :chosenNumbers and t.id > :afterId"
+	        + " order by t.id")
+	List<Long> findSettledIdsByChannelsIdAndOpenDateBetweenAndChosenNumberIn(
+	        @Param("channelsId") Long channelsId, @Param("from") ZonedDateTime from,
+	        @Param("to") ZonedDateTime to, @Param("chosenNumbers") Collection<String> chosenNumbers,
+	        @Param("afterId") Long afterId, Pageable pageable);
+
+	/**
+	 * Find transactions with their details.
+	 *
+	 * @param ids the ids
+	 * @return the list
+	 */
+	@Query("select distinct t from Transactions t left join fetch t.transactionDetails where t.id in :ids")
+	List<Transactions> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,45 @@
+package logia.quanlyso.service;
+
+import logia.quanlyso.service.dto.BackfillRequestDTO;
+import logia.quanlyso.service.dto.BackfillStatusDTO;
+
+/**
+ * Service Interface for backfilling the history of channels.
+ *
+ * @author Dai Mai
+ */
+public interface BackfillService {
+
+	/**
+	 * Start backfilling channels over a range of days, continuing from the checkpoint of a channel
+	 * whose range is unchanged. The range of a channel still walked cannot be changed before the
+	 * channel is paused.
+	 *
+	 * @param backfillRequestDTO the channels and days to backfill
+	 * @return the backfill status
+	 * @throws IllegalArgumentException if the range of days is not valid
+	 * @throws IllegalStateException if the range of a channel still walked is changed
+	 */
+	BackfillStatusDTO start(BackfillRequestDTO backfillRequestDTO);
+
+	/**
+	 * Pause the backfill, the channels stopping at their next checkpoint.
+	 *
+	 * @return the backfill status
+	 */
+	BackfillStatusDTO pause();
+
+	/**
+	 * Resume the channels not done, from their checkpoint.
+	 *
+	 * @return the backfill status
+	 */
+	BackfillStatusDTO resume();
+
+	/**
+	 * Gets the backfill status.
+	 *
+	 * @return the backfill status
+	 */
+	BackfillStatusDTO getStatus();
+}
@@ -0,0 +1,17 @@
+package logia.quanlyso.service;
+
+/**
+ * Service Interface for archiving the codes of old draws.
+ *
+ * @author Dai Mai
+ */
+public interface CodeArchiveService {
+
+	/**
+	 * Move the codes of the draws older than the archive horizon to the archive, one month per
+	 * transaction.
+	 *
+	 * @return the number of codes moved
+	 */
+	int archive();
+}
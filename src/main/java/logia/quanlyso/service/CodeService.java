@@ -1,12 +1,16 @@
 package logia.quanlyso.service;
 
+import java.time.LocalDate;
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import logia.quanlyso.domain.Transactions;
 import logia.quanlyso.service.dto.CodeDTO;
+import logia.quanlyso.service.dto.CrawlJobDTO;
 import logia.quanlyso.service.dto.ProcessingDTO;
 
 /**
@@ -54,12 +58,20 @@ public interface CodeService {
 	Transactions calculate(Transactions transactions);
 
 	/**
-	 * Crawl lotteries from minh ngoc site.
+	 * Calculate the value of many transactions, loading each draw and each rate once.
+	 *
+	 * @param transactions the transactions
+	 * @return the transactions, in input order
+	 */
+	List<Transactions> calculateAll(List<Transactions> transactions);
+
+	/**
+	 * Start crawling lotteries from minh ngoc site in the background, tracked as a crawl job.
 	 *
 	 * @param __channelCodes the channel codes
-	 * @throws Exception the exception
+	 * @return the crawl job, just started
 	 */
-	void crawlLotteriesFromMinhNgocSite(Collection<String> __channelCodes) throws Exception;
+	CrawlJobDTO startCrawl(Collection<String> __channelCodes);
 	
 	/**
 	 * Crawl lotteries from minh ngoc site.
@@ -79,6 +91,17 @@ public interface CodeService {
 	 */
 	void crawlLotteriesFromMinhNgocSite(String __channelCode, String __date, boolean __forceUpdate)
 	        throws Exception;
+
+	/**
+	 * Crawl the latest results of a channel, saved only once complete for the given draw date.
+	 *
+	 * @param __channelCode the channel code
+	 * @param __drawDate the draw date
+	 * @param __codes the number of numbers of complete results
+	 * @return true if the results of the draw are saved, now or before
+	 * @throws Exception the exception
+	 */
+	boolean crawlCompleteResults(String __channelCode, LocalDate __drawDate, int __codes) throws Exception;
 	
 	/**
 	 * Gets the crawl processing.
@@ -87,4 +110,24 @@ public interface CodeService {
 	 */
 	ProcessingDTO getCrawlProcessing();
 
+	/**
+	 * Gets a crawl job.
+	 *
+	 * @param __id the id of the job
+	 * @return the crawl job, null if unknown
+	 */
+	CrawlJobDTO getCrawlJob(String __id);
+
+	/**
+	 * Wait for a crawl job to progress, without blocking.
+	 *
+	 * @param __id the id of the job
+	 * @param __processed the number of channels processed known to the caller
+	 * @param __callback called with the crawl job once more channels are processed, or the job is
+	 *        done
+	 * @return the cancel of the wait, to run once the caller gives up, or null if the job is
+	 *         unknown, the callback never called
+	 */
+	Runnable awaitCrawlJob(String __id, int __processed, Consumer<CrawlJobDTO> __callback);
+
 }
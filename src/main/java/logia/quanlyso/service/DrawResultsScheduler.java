@@ -0,0 +1,214 @@
+package logia.quanlyso.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import logia.quanlyso.config.ApplicationProperties;
+import logia.quanlyso.service.dto.ChannelDTO;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Crawls the results of each channel open today as soon as they are published.
+ * <p>
+ * Every day, the channels open that day are planned at the draw time of their region. From then,
+ * a channel is polled until its results are complete, the delay between polls doubling up to a
+ * maximum, and given up some hours after the draw. Nothing is polled between the draws.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+@Service
+public class DrawResultsScheduler {
+
+	/** The log. */
+	private final Logger								log		= LoggerFactory.getLogger(DrawResultsScheduler.class);
+
+	/** The task scheduler. */
+	private final TaskScheduler							taskScheduler;
+
+	/** The code service. */
+	private final CodeService							codeService;
+
+	/** The channel service. */
+	private final ChannelService						channelService;
+
+	/** The schedule. */
+	private final ApplicationProperties.Crawler.Schedule	schedule;
+
+	/** The clock. */
+	private final Clock									clock;
+
+	/** The last day planned, by channel code. */
+	private final Map<String, LocalDate>				planned	= new ConcurrentHashMap<>();
+
+	/**
+	 * Instantiates a new draw results scheduler.
+	 *
+	 * @param __taskScheduler the task scheduler
+	 * @param __codeService the code service
+	 * @param __channelService the channel service
+	 * @param __applicationProperties the application properties
+	 */
+	@Autowired
+	public DrawResultsScheduler(@Qualifier("crawlScheduler") TaskScheduler __taskScheduler,
+	        CodeService __codeService, ChannelService __channelService,
+	        ApplicationProperties __applicationProperties) {
+		this(__taskScheduler, __codeService, __channelService, __applicationProperties,
+		        Clock.system(DateFormatterUtil.systemZoneId()));
+	}
+
+	/**
+	 * Instantiates a new draw results scheduler.
+	 *
+	 * @param __taskScheduler the task scheduler
+	 * @param __codeService the code service
+	 * @param __channelService the channel service
+	 * @param __applicationProperties the application properties
+	 * @param __clock the clock
+	 */
+	DrawResultsScheduler(TaskScheduler __taskScheduler, CodeService __codeService,
+	        ChannelService __channelService, ApplicationProperties __applicationProperties, Clock __clock) {
+		this.taskScheduler = __taskScheduler;
+		this.codeService = __codeService;
+		this.channelService = __channelService;
+		this.schedule = __applicationProperties.getCrawler().getSchedule();
+		this.clock = __clock;
+	}
+
+	/**
+	 * Plan the draws left today once started.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		this.planToday();
+	}
+
+	/**
+	 * Plan the draws of the day.
+	 * <p>
+	 * This is scheduled to get fired everyday, at 00:05 (am) in the system zone.
+	 * </p>
+	 */
+	@Scheduled(cron = "0 5 0 * * ?", zone = DateFormatterUtil.SYSTEM_ZONE)
+	public void planToday() {
+		if (!this.schedule.isEnabled()) {
+			return;
+		}
+		LocalDate _today = LocalDate.now(this.clock);
+		for (ChannelDTO _channel : this.channelService.findAllByOpenDay(_today.getDayOfWeek())) {
+			this.plan(_channel.getCode(), _today);
+		}
+	}
+
+	/**
+	 * Plan the polling of a channel from its draw time.
+	 *
+	 * @param __channelCode the channel code
+	 * @param __drawDate the draw date
+	 */
+	private void plan(String __channelCode, LocalDate __drawDate) {
+		ApplicationProperties.Crawler.Region _region = this.schedule.regionOf(__channelCode);
+		if (_region == null) {
+			this.log.warn("No region configured for channel {}, not polled", __channelCode);
+			return;
+		}
+		if (__drawDate.equals(this.planned.put(__channelCode, __drawDate))) {
+			return;
+		}
+		Instant _drawTime = __drawDate.atTime(LocalTime.parse(_region.getDrawTime()))
+		        .atZone(this.clock.getZone()).toInstant();
+		Instant _deadline = _drawTime.plus(Duration.ofMinutes(this.schedule.getGiveUpMinutes()));
+		Instant _now = this.clock.instant();
+		if (_now.isAfter(_deadline)) {
+			return;
+		}
+		this.log.debug("Poll results of {} from {}", __channelCode, _drawTime);
+		this.taskScheduler.schedule(new Poll(__channelCode, __drawDate, _region.getCodes(), _deadline),
+		        Date.from(_now.isAfter(_drawTime) ? _now : _drawTime));
+	}
+
+	/**
+	 * The polling of the results of a draw.
+	 */
+	private final class Poll implements Runnable {
+
+		/** The channel code. */
+		private final String	channelCode;
+
+		/** The draw date. */
+		private final LocalDate	drawDate;
+
+		/** The number of numbers of complete results. */
+		private final int		codes;
+
+		/** The time polling stops. */
+		private final Instant	deadline;
+
+		/** The delay before the next poll. */
+		private Duration		delay;
+
+		/**
+		 * Instantiates a new poll.
+		 *
+		 * @param __channelCode the channel code
+		 * @param __drawDate the draw date
+		 * @param __codes the number of numbers of complete results
+		 * @param __deadline the time polling stops
+		 */
+		Poll(String __channelCode, LocalDate __drawDate, int __codes, Instant __deadline) {
+			this.channelCode = __channelCode;
+			this.drawDate = __drawDate;
+			this.codes = __codes;
+			this.deadline = __deadline;
+			this.delay = Duration
+			        .ofSeconds(Math.max(1, DrawResultsScheduler.this.schedule.getInitialDelaySeconds()));
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+			try {
+				if (DrawResultsScheduler.this.codeService.crawlCompleteResults(this.channelCode, this.drawDate,
+				        this.codes)) {
+					DrawResultsScheduler.this.log.info("Results of {} on {} saved", this.channelCode,
+					        this.drawDate);
+					return;
+				}
+			}
+			catch (Exception __ex) {
+				DrawResultsScheduler.this.log.warn("Error when poll results of " + this.channelCode, __ex);
+			}
+
+			Instant _next = DrawResultsScheduler.this.clock.instant().plus(this.delay);
+			if (_next.isAfter(this.deadline)) {
+				DrawResultsScheduler.this.log.warn("Results of {} on {} not complete, polling given up",
+				        this.channelCode, this.drawDate);
+				return;
+			}
+			Duration _maxDelay = Duration.ofSeconds(DrawResultsScheduler.this.schedule.getMaxDelaySeconds());
+			this.delay = this.delay.multipliedBy(2).compareTo(_maxDelay) < 0 ? this.delay.multipliedBy(2)
+			        : _maxDelay;
+			DrawResultsScheduler.this.taskScheduler.schedule(this, Date.from(_next));
+		}
+	}
+}
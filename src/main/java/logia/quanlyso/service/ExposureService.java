@@ -0,0 +1,48 @@
+package logia.quanlyso.service;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import logia.quanlyso.domain.Transactions;
+import logia.quanlyso.service.dto.ExposureDTO;
+import logia.quanlyso.service.settlement.DrawKey;
+
+/**
+ * Service Interface for the liability of open transactions per number.
+ *
+ * @author Dai Mai
+ */
+public interface ExposureService {
+
+	/**
+	 * Get the numbers of highest worst-case payout in a draw.
+	 *
+	 * @param channelId the channel id
+	 * @param openDate the open date of the draw
+	 * @param size the number of numbers
+	 * @return the numbers, highest liability first
+	 */
+	List<ExposureDTO> findTopExposures(Long channelId, ZonedDateTime openDate, int size);
+
+	/**
+	 * Count the stakes of an open transaction, once the current transaction commits.
+	 *
+	 * @param transactions the transactions
+	 */
+	void add(Transactions transactions);
+
+	/**
+	 * Stop counting the stakes of an open transaction, once the current transaction commits. The
+	 * stakes are read now, so the transaction may be changed or deleted afterwards.
+	 *
+	 * @param transactions the transactions
+	 */
+	void remove(Transactions transactions);
+
+	/**
+	 * Forget a draw, its results are known.
+	 *
+	 * @param drawKey the draw key
+	 */
+	void close(DrawKey drawKey);
+}
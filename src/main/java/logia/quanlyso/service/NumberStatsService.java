@@ -0,0 +1,55 @@
+package logia.quanlyso.service;
+
+import java.util.List;
+
+import logia.quanlyso.service.analytics.NumberStats;
+import logia.quanlyso.service.dto.NumberStatsDTO;
+import logia.quanlyso.service.settlement.DrawKey;
+
+/**
+ * Service Interface for the frequency and overdue days of the number suffixes of each channel.
+ *
+ * @author Dai Mai
+ */
+public interface NumberStatsService {
+
+	/**
+	 * Get how often the suffixes of a length were drawn over the last days.
+	 *
+	 * @param channelId the channel id
+	 * @param position the position in the draws
+	 * @param digits the suffix length, 2 or 3
+	 * @param days the number of days up to today
+	 * @return the suffixes, most drawn first
+	 */
+	List<NumberStatsDTO> findFrequencies(Long channelId, NumberStats.Position position, int digits, int days);
+
+	/**
+	 * Get how often a suffix was drawn over the last days.
+	 *
+	 * @param channelId the channel id
+	 * @param position the position in the draws
+	 * @param number the suffix, its length of 2 or 3 digits
+	 * @param days the number of days up to today
+	 * @return the suffix stats
+	 */
+	NumberStatsDTO findFrequency(Long channelId, NumberStats.Position position, String number, int days);
+
+	/**
+	 * Get the suffixes of a length not drawn for the longest time.
+	 *
+	 * @param channelId the channel id
+	 * @param position the position in the draws
+	 * @param digits the suffix length, 2 or 3
+	 * @param size the number of suffixes
+	 * @return the suffixes, never drawn then longest overdue first
+	 */
+	List<NumberStatsDTO> findOverdue(Long channelId, NumberStats.Position position, int digits, int size);
+
+	/**
+	 * Count the saved results of a draw, in place of its previous ones.
+	 *
+	 * @param drawKey the draw key
+	 */
+	void count(DrawKey drawKey);
+}
@@ -0,0 +1,50 @@
+package logia.quanlyso.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import logia.quanlyso.domain.PnlRollup;
+import logia.quanlyso.service.dto.PnlDTO;
+
+/**
+ * Service Interface for the profit and loss of the transactions, read from their daily rollups.
+ *
+ * @author Dai Mai
+ */
+public interface PnlService {
+
+	/**
+	 * The period a profit and loss is reported by.
+	 */
+	enum Period {
+
+		/** One day. */
+		DAILY,
+
+		/** A week, from Monday. */
+		WEEKLY,
+
+		/** A calendar month. */
+		MONTHLY
+	}
+
+	/**
+	 * Get the profit and loss of each period over a window of days.
+	 *
+	 * @param period the period
+	 * @param fromDate the first day, inclusive
+	 * @param toDate the last day, inclusive
+	 * @param userId the user id, all users if null
+	 * @param channelId the channel id, all channels if null
+	 * @return the periods with any detail, in order, the first and last cut to the window
+	 */
+	List<PnlDTO> findPnl(Period period, LocalDate fromDate, LocalDate toDate, Long userId, Long channelId);
+
+	/**
+	 * Add rollups to the stored ones, in the current transaction.
+	 *
+	 * @param rollups the rollups, negative for the details removed or replaced
+	 */
+	void add(Collection<PnlRollup> rollups);
+}
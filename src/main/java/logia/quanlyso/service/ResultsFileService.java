@@ -0,0 +1,34 @@
+package logia.quanlyso.service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import logia.quanlyso.service.history.ResultsFile;
+
+/**
+ * Service Interface for the file of the results of all draws, scanned by the analytics.
+ *
+ * @author Dai Mai
+ */
+public interface ResultsFileService {
+
+	/**
+	 * Export the results of all draws of all channels to the results file, and map it in place of
+	 * the previous one.
+	 *
+	 * @return the number of numbers exported
+	 * @throws IOException Signals that the file cannot be written.
+	 */
+	int export() throws IOException;
+
+	/**
+	 * Scan the numbers of a channel over a window of days, as of the last export.
+	 *
+	 * @param channelId the channel id
+	 * @param fromDate the first day, inclusive
+	 * @param toDate the last day, inclusive
+	 * @param visitor the visitor, called once per number
+	 * @return the number of numbers visited, or -1 if no results file is exported yet
+	 */
+	int scan(Long channelId, LocalDate fromDate, LocalDate toDate, ResultsFile.NumberVisitor visitor);
+}
@@ -0,0 +1,31 @@
+package logia.quanlyso.service;
+
+import logia.quanlyso.service.settlement.DrawCorrection;
+import logia.quanlyso.service.settlement.DrawKey;
+
+/**
+ * Service Interface for settling stored transactions.
+ *
+ * @author Dai Mai
+ */
+public interface SettlementService {
+
+	/**
+	 * Settle the unsettled transactions playing a draw, page by page, and store the results.
+	 * Transactions also playing draws whose results are not known yet stay unsettled.
+	 *
+	 * @param __drawKey the draw key
+	 * @return the number of transactions settled
+	 */
+	int settleOpenTransactions(DrawKey __drawKey);
+
+	/**
+	 * Settle again the settled transactions of a draw whose results were corrected. Only the
+	 * transactions whose chosen number is contained in an added or removed code are read.
+	 *
+	 * @param __drawKey the draw key
+	 * @param __correction the correction of the draw results
+	 * @return the number of transactions settled
+	 */
+	int resettleTransactions(DrawKey __drawKey, DrawCorrection __correction);
+}
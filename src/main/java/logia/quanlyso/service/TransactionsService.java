@@ -1,5 +1,7 @@
 package logia.quanlyso.service;
 
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -50,4 +52,12 @@ public interface TransactionsService {
 	 * @return the transactions DTO
 	 */
 	TransactionsDTO calculate(TransactionsDTO transactionsDTO);
+
+	/**
+	 * Calculate value of many transactions at once.
+	 *
+	 * @param transactionsDTOs the transactions DTOs
+	 * @return the transactions DTOs, in input order
+	 */
+	List<TransactionsDTO> calculateAll(List<TransactionsDTO> transactionsDTOs);
 }
@@ -0,0 +1,307 @@
+package logia.quanlyso.service.analytics;
+
+import java.util.Arrays;
+
+import logia.quanlyso.domain.DrawResult;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * The draw days of every 2 and 3 digit suffix of one channel, by position in the draws.
+ * <p>
+ * For each position and suffix, the days the suffix was drawn are kept sorted in an {@code int}
+ * array, once per number ending with it. The frequency of a suffix over any window of days is two
+ * binary searches, its last day the last element, so the statistics of all 1000 suffixes of a
+ * length are read without touching any draw. Appending a draw of a later day is one array write
+ * per number and position; replacing a draw removes its day from every suffix first.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+public final class NumberStats {
+
+	/**
+	 * The position of a number in a draw.
+	 */
+	public enum Position {
+
+		/** Any prize. */
+		ANY,
+
+		/** The special prize. */
+		BOTTOM,
+
+		/** The lowest prize: giai8 in the south, giai7 in the north. */
+		TOP
+	}
+
+	/** The shortest suffix kept. */
+	public static final int			MIN_LENGTH	= 2;
+
+	/** The longest suffix kept. */
+	public static final int			MAX_LENGTH	= 3;
+
+	/** The day of a suffix never drawn. */
+	public static final int			NEVER		= Integer.MIN_VALUE;
+
+	/** The numbers of a length, by length. */
+	private static final int[]		MODULUS		= { 1, 10, 100, 1000 };
+
+	/** The suffixes written with their leading zeros, by length then by suffix. */
+	private static final String[][]	LABELS		= new String[NumberStats.MAX_LENGTH + 1][];
+
+	static {
+		for (int _length = NumberStats.MIN_LENGTH; _length <= NumberStats.MAX_LENGTH; _length++) {
+			NumberStats.LABELS[_length] = new String[NumberStats.MODULUS[_length]];
+			for (int _suffix = 0; _suffix < NumberStats.MODULUS[_length]; _suffix++) {
+				NumberStats.LABELS[_length][_suffix] = String.format("%0" + _length + "d", _suffix);
+			}
+		}
+	}
+
+	/** The days of each suffix, by position, then by length, then by suffix. */
+	private final Days[][][]		days		= new Days[Position.values().length][NumberStats.MAX_LENGTH + 1][];
+
+	/**
+	 * Instantiates new number stats, no draw counted.
+	 */
+	public NumberStats() {
+		for (Position _position : Position.values()) {
+			for (int _length = NumberStats.MIN_LENGTH; _length <= NumberStats.MAX_LENGTH; _length++) {
+				Days[] _suffixes = new Days[NumberStats.MODULUS[_length]];
+				for (int _suffix = 0; _suffix < _suffixes.length; _suffix++) {
+					_suffixes[_suffix] = new Days();
+				}
+				this.days[_position.ordinal()][_length] = _suffixes;
+			}
+		}
+	}
+
+	/**
+	 * Count the numbers of a draw, of a day after any draw counted, or of a day not counted yet.
+	 *
+	 * @param __epochDay the epoch day of the draw
+	 * @param __count the number count
+	 * @param __ranks the prize rank of each number: 0 for the special prize, -1 when unknown
+	 * @param __digits the digit count of each number
+	 * @param __numbers the numbers
+	 */
+	public synchronized void append(int __epochDay, int __count, int[] __ranks, int[] __digits, int[] __numbers) {
+		int _topRank = 0;
+		for (int _i = 0; _i < __count; _i++) {
+			_topRank = Math.max(_topRank, __ranks[_i]);
+		}
+		for (int _i = 0; _i < __count; _i++) {
+			for (int _length = NumberStats.MIN_LENGTH; _length <= Math.min(__digits[_i],
+			        NumberStats.MAX_LENGTH); _length++) {
+				int _suffix = __numbers[_i] % NumberStats.MODULUS[_length];
+				this.days[Position.ANY.ordinal()][_length][_suffix].add(__epochDay);
+				if (__ranks[_i] == 0) {
+					this.days[Position.BOTTOM.ordinal()][_length][_suffix].add(__epochDay);
+				}
+				else if (_topRank > 0 && __ranks[_i] == _topRank) {
+					this.days[Position.TOP.ordinal()][_length][_suffix].add(__epochDay);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Count the numbers of a draw in place of those counted for its day.
+	 *
+	 * @param __drawResult the draw result
+	 */
+	public synchronized void replace(DrawResult __drawResult) {
+		int _epochDay = DateFormatterUtil.toEpochDay(__drawResult.getOpenDate());
+		for (Days[][] _lengths : this.days) {
+			for (int _length = NumberStats.MIN_LENGTH; _length <= NumberStats.MAX_LENGTH; _length++) {
+				for (Days _suffix : _lengths[_length]) {
+					_suffix.remove(_epochDay);
+				}
+			}
+		}
+		int _count = __drawResult.getCodes().size();
+		int[] _ranks = new int[_count];
+		int[] _digits = new int[_count];
+		int[] _numbers = new int[_count];
+		int _i = 0;
+		for (DrawResult.Prize _prize : __drawResult.getPrizes()) {
+			for (String _code : _prize.getCodes()) {
+				if (NumberStats.isNumber(_code)) {
+					_ranks[_i] = _prize.getRank();
+					_digits[_i] = _code.length();
+					_numbers[_i] = Integer.parseInt(_code);
+					_i++;
+				}
+			}
+		}
+		this.append(_epochDay, _i, _ranks, _digits, _numbers);
+	}
+
+	/**
+	 * Read the statistics of all suffixes of a length over a window of days.
+	 *
+	 * @param __position the position
+	 * @param __length the suffix length, 2 or 3
+	 * @param __fromDay the first epoch day, inclusive
+	 * @param __toDay the last epoch day, inclusive
+	 * @param __counts the times each suffix was drawn in the window, filled by suffix
+	 * @param __lastDays the last day each suffix was drawn up to the last day, {@link #NEVER} if not,
+	 *            filled by suffix
+	 */
+	public synchronized void read(Position __position, int __length, int __fromDay, int __toDay, int[] __counts,
+	        int[] __lastDays) {
+		Days[] _suffixes = this.days[__position.ordinal()][__length];
+		for (int _suffix = 0; _suffix < _suffixes.length; _suffix++) {
+			__counts[_suffix] = _suffixes[_suffix].count(__fromDay, __toDay);
+			__lastDays[_suffix] = _suffixes[_suffix].last(__toDay);
+		}
+	}
+
+	/**
+	 * Gets the number of suffixes of a length.
+	 *
+	 * @param __length the suffix length, 2 or 3
+	 * @return the number of suffixes
+	 */
+	public static int suffixes(int __length) {
+		return NumberStats.MODULUS[__length];
+	}
+
+	/**
+	 * Gets a suffix written with its leading zeros.
+	 *
+	 * @param __length the suffix length, 2 or 3
+	 * @param __suffix the suffix
+	 * @return the suffix written
+	 */
+	public static String label(int __length, int __suffix) {
+		return NumberStats.LABELS[__length][__suffix];
+	}
+
+	/**
+	 * Checks if a code is a number held by an int.
+	 *
+	 * @param __code the code
+	 * @return true, if made of 1 to 9 digits
+	 */
+	private static boolean isNumber(String __code) {
+		if (__code.isEmpty() || __code.length() > 9) {
+			return false;
+		}
+		for (int _i = 0; _i < __code.length(); _i++) {
+			if (__code.charAt(_i) < '0' || __code.charAt(_i) > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The sorted days of a suffix, with repeats.
+	 */
+	private static final class Days {
+
+		/** The days, sorted. */
+		private int[]	days	= new int[0];
+
+		/** The number of days. */
+		private int		size;
+
+		/**
+		 * Add a day.
+		 *
+		 * @param __day the day
+		 */
+		void add(int __day) {
+			if (this.size == this.days.length) {
+				this.days = Arrays.copyOf(this.days, Math.max(8, this.size * 2));
+			}
+			int _index = this.upperBound(__day);
+			System.arraycopy(this.days, _index, this.days, _index + 1, this.size - _index);
+			this.days[_index] = __day;
+			this.size++;
+		}
+
+		/**
+		 * Remove all the occurrences of a day.
+		 *
+		 * @param __day the day
+		 */
+		void remove(int __day) {
+			int _from = this.lowerBound(__day);
+			int _to = this.upperBound(__day);
+			if (_from < _to) {
+				System.arraycopy(this.days, _to, this.days, _from, this.size - _to);
+				this.size -= _to - _from;
+			}
+		}
+
+		/**
+		 * Count the days within a window.
+		 *
+		 * @param __fromDay the first day, inclusive
+		 * @param __toDay the last day, inclusive
+		 * @return the count
+		 */
+		int count(int __fromDay, int __toDay) {
+			return Math.max(0, this.upperBound(__toDay) - this.lowerBound(__fromDay));
+		}
+
+		/**
+		 * Gets the last day up to a day.
+		 *
+		 * @param __toDay the last day, inclusive
+		 * @return the day, {@link NumberStats#NEVER} if none
+		 */
+		int last(int __toDay) {
+			int _index = this.upperBound(__toDay);
+			return _index == 0 ? NumberStats.NEVER : this.days[_index - 1];
+		}
+
+		/**
+		 * Find the first index of a day after a day.
+		 *
+		 * @param __day the day
+		 * @return the index
+		 */
+		private int upperBound(int __day) {
+			if (this.size == 0 || this.days[this.size - 1] <= __day) {
+				// Days are mostly added in order
+				return this.size;
+			}
+			int _low = 0;
+			int _high = this.size;
+			while (_low < _high) {
+				int _middle = (_low + _high) >>> 1;
+				if (this.days[_middle] <= __day) {
+					_low = _middle + 1;
+				}
+				else {
+					_high = _middle;
+				}
+			}
+			return _low;
+		}
+
+		/**
+		 * Find the first index of a day on or after a day.
+		 *
+		 * @param __day the day
+		 * @return the index
+		 */
+		private int lowerBound(int __day) {
+			int _low = 0;
+			int _high = this.size;
+			while (_low < _high) {
+				int _middle = (_low + _high) >>> 1;
+				if (this.days[_middle] < __day) {
+					_low = _middle + 1;
+				}
+				else {
+					_high = _middle;
+				}
+			}
+			return _low;
+		}
+	}
+}
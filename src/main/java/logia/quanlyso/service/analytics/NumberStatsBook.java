@@ -0,0 +1,193 @@
+package logia.quanlyso.service.analytics;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import logia.quanlyso.domain.DrawResult;
+import logia.quanlyso.repository.DrawResultRepository;
+import logia.quanlyso.service.ResultsFileService;
+import logia.quanlyso.service.history.ResultsFile;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Number statistics of the channels, loaded from the results file on first use then kept up to
+ * date draw by draw.
+ * <p>
+ * The results file holds the draws up to its last export, the last days are read again from the
+ * database. Without a results file, history disabled or not exported yet, all draws are read from
+ * the database. Draws backfilled after a channel is loaded are counted once loaded again, after the
+ * next export.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+@Component
+public class NumberStatsBook {
+
+	/** The days read again from the database, the results file being exported every night. */
+	private static final int						RECENT_DAYS	= 2;
+
+	/** The log. */
+	private final Logger							log			= LoggerFactory.getLogger(NumberStatsBook.class);
+
+	/** The statistics by channel id. */
+	private final ConcurrentMap<Long, NumberStats>	channels	= new ConcurrentHashMap<>();
+
+	/** The results file service. */
+	private final ResultsFileService				resultsFileService;
+
+	/** The draw result repository. */
+	private final DrawResultRepository				drawResultRepository;
+
+	/**
+	 * Instantiates a new number stats book.
+	 *
+	 * @param __resultsFileService the results file service
+	 * @param __drawResultRepository the draw result repository
+	 */
+	public NumberStatsBook(ResultsFileService __resultsFileService, DrawResultRepository __drawResultRepository) {
+		this.resultsFileService = __resultsFileService;
+		this.drawResultRepository = __drawResultRepository;
+	}
+
+	/**
+	 * Gets the statistics of a channel, loading them on first use.
+	 *
+	 * @param __channelId the channel id
+	 * @return the number stats
+	 */
+	public NumberStats get(Long __channelId) {
+		return this.channels.computeIfAbsent(__channelId, this::load);
+	}
+
+	/**
+	 * Count a draw in place of its previous results, if its channel is loaded. A channel not loaded
+	 * yet reads the draw when it is.
+	 *
+	 * @param __drawResult the draw result
+	 */
+	public void replace(DrawResult __drawResult) {
+		this.channels.computeIfPresent(__drawResult.getChannelId(), (__channelId, __stats) -> {
+			__stats.replace(__drawResult);
+			return __stats;
+		});
+	}
+
+	/**
+	 * Forget the statistics of all channels, to load them again from the results file just exported,
+	 * with the draws backfilled since.
+	 * <p>
+	 * This is scheduled to get fired everyday, at 04:30 (am), after the export of the results file.
+	 * </p>
+	 */
+	@Scheduled(cron = "0 30 4 * * ?")
+	public void evictAll() {
+		this.channels.clear();
+	}
+
+	/**
+	 * Load the statistics of a channel.
+	 *
+	 * @param __channelId the channel id
+	 * @return the number stats
+	 */
+	private NumberStats load(Long __channelId) {
+		long _start = System.currentTimeMillis();
+		NumberStats _stats = new NumberStats();
+		ZoneId _zoneId = DateFormatterUtil.systemZoneId();
+		LocalDate _today = LocalDate.now(_zoneId);
+		LocalDate _recent = _today.minusDays(NumberStatsBook.RECENT_DAYS);
+
+		DrawBuffer _buffer = new DrawBuffer(_stats);
+		int _numbers = this.resultsFileService.scan(__channelId, LocalDate.ofEpochDay(0), _recent.minusDays(1),
+		        _buffer);
+		_buffer.flush();
+		if (_numbers < 0) {
+			// No results file, the whole history is read from the database
+			_recent = LocalDate.ofEpochDay(0);
+			_numbers = 0;
+		}
+		for (DrawResult _drawResult : this.drawResultRepository.findAll(Collections.singleton(__channelId),
+		        _recent.atStartOfDay(_zoneId), _today.atStartOfDay(_zoneId))) {
+			_numbers += _drawResult.getCodes().size();
+			_stats.replace(_drawResult);
+		}
+		this.log.debug("Loaded number stats of channel {} from {} numbers in {} ms", __channelId, _numbers,
+		        System.currentTimeMillis() - _start);
+		return _stats;
+	}
+
+	/**
+	 * Gathers the numbers of a draw scanned from the results file, to count them draw by draw.
+	 */
+	private static final class DrawBuffer implements ResultsFile.NumberVisitor {
+
+		/** The number stats. */
+		private final NumberStats	stats;
+
+		/** The epoch day of the draw. */
+		private int					epochDay;
+
+		/** The number count. */
+		private int					count;
+
+		/** The ranks. */
+		private int[]				ranks	= new int[32];
+
+		/** The digits. */
+		private int[]				digits	= new int[32];
+
+		/** The numbers. */
+		private int[]				numbers	= new int[32];
+
+		/**
+		 * Instantiates a new draw buffer.
+		 *
+		 * @param __stats the number stats
+		 */
+		DrawBuffer(NumberStats __stats) {
+			this.stats = __stats;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see logia.quanlyso.service.history.ResultsFile.NumberVisitor#visit(int, int, int, int)
+		 */
+		@Override
+		public void visit(int __epochDay, int __rank, int __digits, int __number) {
+			if (__epochDay != this.epochDay) {
+				this.flush();
+				this.epochDay = __epochDay;
+			}
+			if (this.count == this.numbers.length) {
+				this.ranks = Arrays.copyOf(this.ranks, this.count * 2);
+				this.digits = Arrays.copyOf(this.digits, this.count * 2);
+				this.numbers = Arrays.copyOf(this.numbers, this.count * 2);
+			}
+			this.ranks[this.count] = __rank;
+			this.digits[this.count] = __digits;
+			this.numbers[this.count] = __number;
+			this.count++;
+		}
+
+		/**
+		 * Count the numbers of the draw gathered.
+		 */
+		void flush() {
+			if (this.count > 0) {
+				this.stats.append(this.epochDay, this.count, this.ranks, this.digits, this.numbers);
+				this.count = 0;
+			}
+		}
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * In-memory statistics of the drawn numbers per channel, kept up to date draw by draw.
+ */
+package logia.quanlyso.service.analytics;
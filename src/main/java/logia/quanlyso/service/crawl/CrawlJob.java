@@ -0,0 +1,353 @@
+package logia.quanlyso.service.crawl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import logia.quanlyso.service.dto.CrawlChannelDTO;
+import logia.quanlyso.service.dto.CrawlJobDTO;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * A crawl of some channels, updated by the crawl threads and read by any number of requests.
+ * <p>
+ * The channels are fixed when the job is created. Each channel moves forward through its states
+ * and stops at the first of {@link State#SAVED} or {@link State#FAILED}, the job counting it as
+ * processed exactly once. Callers waiting for progress are called back as soon as a channel is
+ * processed, instead of polling the job.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+public class CrawlJob {
+
+	/**
+	 * The states of a channel in a job.
+	 */
+	public enum State {
+
+		/** Waiting for a crawl thread. */
+		QUEUED,
+
+		/** The page is being fetched. */
+		FETCHING,
+
+		/** The page is being read into codes. */
+		PARSING,
+
+		/** The codes are saved, or were saved before. */
+		SAVED,
+
+		/** The channel could not be crawled. */
+		FAILED
+	}
+
+	/** The id. */
+	private final String					id;
+
+	/** The start time. */
+	private final Instant					startTime;
+
+	/** The channels, by code, in crawl order. */
+	private final Map<String, ChannelProgress>	channels;
+
+	/** The number of channels saved or failed. */
+	private final AtomicInteger				processed	= new AtomicInteger();
+
+	/** The number of channels failed. */
+	private final AtomicInteger				failed		= new AtomicInteger();
+
+	/** The end time, null while running. */
+	private volatile Instant				endTime;
+
+	/** The callbacks waiting for the next channel processed. */
+	private final List<Consumer<CrawlJob>>	waiting		= new ArrayList<>();
+
+	/**
+	 * Instantiates a new crawl job.
+	 *
+	 * @param __id the id
+	 * @param __channelCodes the channel codes
+	 */
+	CrawlJob(String __id, Collection<String> __channelCodes) {
+		this.id = __id;
+		this.startTime = Instant.now();
+		Map<String, ChannelProgress> _channels = new LinkedHashMap<>();
+		for (String _channelCode : __channelCodes) {
+			_channels.put(_channelCode, new ChannelProgress(_channelCode));
+		}
+		this.channels = Collections.unmodifiableMap(_channels);
+		if (_channels.isEmpty()) {
+			this.endTime = this.startTime;
+		}
+	}
+
+	/**
+	 * Gets the id.
+	 *
+	 * @return the id
+	 */
+	public String getId() {
+		return this.id;
+	}
+
+	/**
+	 * Gets the progress of a channel of the job.
+	 *
+	 * @param __channelCode the channel code
+	 * @return the channel
+	 * @throws NullPointerException if the channel is not part of the job
+	 */
+	public ChannelProgress channel(String __channelCode) throws NullPointerException {
+		ChannelProgress _channel = this.channels.get(__channelCode);
+		if (_channel == null) {
+			throw new NullPointerException("Channel " + __channelCode + " not found in crawl job " + this.id);
+		}
+		return _channel;
+	}
+
+	/**
+	 * Gets the number of channels.
+	 *
+	 * @return the number of channels
+	 */
+	public int getTotal() {
+		return this.channels.size();
+	}
+
+	/**
+	 * Gets the number of channels saved or failed.
+	 *
+	 * @return the number of channels saved or failed
+	 */
+	public int getProcessed() {
+		return this.processed.get();
+	}
+
+	/**
+	 * Checks if every channel is saved or failed.
+	 *
+	 * @return true, if done
+	 */
+	public boolean isDone() {
+		return this.endTime != null;
+	}
+
+	/**
+	 * Gets the end time.
+	 *
+	 * @return the end time, null while running
+	 */
+	public Instant getEndTime() {
+		return this.endTime;
+	}
+
+	/**
+	 * Call back once more channels than given are processed, or the job is done.
+	 * <p>
+	 * The callback is run at once if so already, else by the thread processing the next channel.
+	 * </p>
+	 *
+	 * @param __processed the number of channels processed known to the caller
+	 * @param __callback the callback
+	 */
+	public void onProgress(int __processed, Consumer<CrawlJob> __callback) {
+		synchronized (this.waiting) {
+			if (this.processed.get() <= __processed && !this.isDone()) {
+				this.waiting.add(__callback);
+				return;
+			}
+		}
+		__callback.accept(this);
+	}
+
+	/**
+	 * Stop waiting for progress, for a caller that gave up before being called back.
+	 *
+	 * @param __callback the callback given to {@link #onProgress(int, Consumer)}
+	 */
+	public void removeProgress(Consumer<CrawlJob> __callback) {
+		synchronized (this.waiting) {
+			this.waiting.remove(__callback);
+		}
+	}
+
+	/**
+	 * Snapshot the job.
+	 * <p>
+	 * The time left is the mean time per channel processed so far, times the channels left.
+	 * </p>
+	 *
+	 * @return the crawl job DTO
+	 */
+	public CrawlJobDTO toDTO() {
+		Instant _endTime = this.endTime;
+		int _processed = this.processed.get();
+		CrawlJobDTO _dto = new CrawlJobDTO();
+		_dto.setId(this.id);
+		_dto.setStartTime(CrawlJob.toZonedDateTime(this.startTime));
+		_dto.setEndTime(CrawlJob.toZonedDateTime(_endTime));
+		_dto.setTotal(this.channels.size());
+		_dto.setProcessed(_processed);
+		_dto.setFailed(this.failed.get());
+		if (_endTime != null) {
+			_dto.setEtaSeconds(0L);
+		}
+		else if (_processed > 0) {
+			long _elapsed = Duration.between(this.startTime, Instant.now()).toMillis();
+			_dto.setEtaSeconds(_elapsed * (this.channels.size() - _processed) / _processed / 1000L);
+		}
+		List<CrawlChannelDTO> _channels = new ArrayList<>(this.channels.size());
+		for (ChannelProgress _channel : this.channels.values()) {
+			_channels.add(_channel.toDTO());
+		}
+		_dto.setChannels(_channels);
+		return _dto;
+	}
+
+	/**
+	 * Count a channel saved or failed, ending the job with the last one, and call back the
+	 * waiting callers.
+	 *
+	 * @param __failed whether the channel failed
+	 */
+	private void onProcessed(boolean __failed) {
+		if (__failed) {
+			this.failed.incrementAndGet();
+		}
+		if (this.processed.incrementAndGet() == this.channels.size()) {
+			this.endTime = Instant.now();
+		}
+		List<Consumer<CrawlJob>> _callbacks;
+		synchronized (this.waiting) {
+			_callbacks = new ArrayList<>(this.waiting);
+			this.waiting.clear();
+		}
+		for (Consumer<CrawlJob> _callback : _callbacks) {
+			_callback.accept(this);
+		}
+	}
+
+	/**
+	 * To zoned date time.
+	 *
+	 * @param __instant the instant
+	 * @return the zoned date time, null if the instant is null
+	 */
+	private static ZonedDateTime toZonedDateTime(Instant __instant) {
+		return __instant == null ? null : __instant.atZone(DateFormatterUtil.systemZoneId());
+	}
+
+	/**
+	 * The progress of a channel in the job.
+	 */
+	public final class ChannelProgress {
+
+		/** The channel code. */
+		private final String	channelCode;
+
+		/** The state. */
+		private State			state	= State.QUEUED;
+
+		/** The time the page started to be fetched. */
+		private Instant			startTime;
+
+		/** The time the channel was saved or failed. */
+		private Instant			endTime;
+
+		/** The error. */
+		private String			error;
+
+		/**
+		 * Instantiates a new channel progress.
+		 *
+		 * @param __channelCode the channel code
+		 */
+		ChannelProgress(String __channelCode) {
+			this.channelCode = __channelCode;
+		}
+
+		/**
+		 * The page is being fetched.
+		 */
+		public void fetching() {
+			this.moveTo(State.FETCHING, null);
+		}
+
+		/**
+		 * The page is being read into codes.
+		 */
+		public void parsing() {
+			this.moveTo(State.PARSING, null);
+		}
+
+		/**
+		 * The codes are saved.
+		 */
+		public void saved() {
+			this.moveTo(State.SAVED, null);
+		}
+
+		/**
+		 * The channel could not be crawled.
+		 *
+		 * @param __cause the cause
+		 */
+		public void failed(Throwable __cause) {
+			this.moveTo(State.FAILED, String.valueOf(__cause));
+		}
+
+		/**
+		 * Move forward to a state, unless saved or failed already.
+		 *
+		 * @param __state the state
+		 * @param __error the error
+		 */
+		private void moveTo(State __state, String __error) {
+			synchronized (this) {
+				if (this.state == State.SAVED || this.state == State.FAILED || __state.compareTo(this.state) < 0) {
+					return;
+				}
+				Instant _now = Instant.now();
+				if (this.startTime == null && __state != State.QUEUED) {
+					this.startTime = _now;
+				}
+				this.state = __state;
+				if (__state == State.SAVED || __state == State.FAILED) {
+					this.endTime = _now;
+					this.error = __error;
+				}
+				else {
+					return;
+				}
+			}
+			CrawlJob.this.onProcessed(__state == State.FAILED);
+		}
+
+		/**
+		 * Snapshot the channel.
+		 *
+		 * @return the crawl channel DTO
+		 */
+		private synchronized CrawlChannelDTO toDTO() {
+			CrawlChannelDTO _dto = new CrawlChannelDTO();
+			_dto.setChannelCode(this.channelCode);
+			_dto.setState(this.state.name());
+			_dto.setStartTime(CrawlJob.toZonedDateTime(this.startTime));
+			_dto.setEndTime(CrawlJob.toZonedDateTime(this.endTime));
+			if (this.startTime != null && this.endTime != null) {
+				_dto.setDurationMillis(Duration.between(this.startTime, this.endTime).toMillis());
+			}
+			_dto.setError(this.error);
+			return _dto;
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package logia.quanlyso.service.crawl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * The crawl jobs, running or recently done, by id.
+ * <p>
+ * Only the latest jobs are kept: once more than {@link #MAX_JOBS} are registered, the oldest done
+ * jobs are forgotten.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+@Component
+public class CrawlJobRegistry {
+
+	/** The Constant MAX_JOBS. */
+	static final int						MAX_JOBS	= 100;
+
+	/** The jobs, by id. */
+	private final Map<String, CrawlJob>		jobs		= new ConcurrentHashMap<>();
+
+	/** The job ids, oldest first. */
+	private final ConcurrentLinkedQueue<String>	ids			= new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Register a new job of some channels.
+	 *
+	 * @param __channelCodes the channel codes
+	 * @return the job
+	 */
+	public CrawlJob create(Collection<String> __channelCodes) {
+		CrawlJob _job = new CrawlJob(UUID.randomUUID().toString(), __channelCodes);
+		this.jobs.put(_job.getId(), _job);
+		this.ids.add(_job.getId());
+		this.evict();
+		return _job;
+	}
+
+	/**
+	 * Find a job.
+	 *
+	 * @param __id the id
+	 * @return the job, null if unknown or forgotten
+	 */
+	public CrawlJob find(String __id) {
+		return this.jobs.get(__id);
+	}
+
+	/**
+	 * Find the jobs still running.
+	 *
+	 * @return the running jobs
+	 */
+	public List<CrawlJob> findRunning() {
+		List<CrawlJob> _running = new ArrayList<>();
+		for (CrawlJob _job : this.jobs.values()) {
+			if (!_job.isDone()) {
+				_running.add(_job);
+			}
+		}
+		return _running;
+	}
+
+	/**
+	 * Forget the oldest done jobs beyond the maximum.
+	 */
+	private void evict() {
+		int _excess = this.jobs.size() - CrawlJobRegistry.MAX_JOBS;
+		for (String _id : this.ids) {
+			if (_excess <= 0) {
+				return;
+			}
+			CrawlJob _job = this.jobs.get(_id);
+			if (_job == null || _job.isDone()) {
+				if (this.ids.remove(_id) && this.jobs.remove(_id) != null) {
+					_excess--;
+				}
+			}
+		}
+	}
+}
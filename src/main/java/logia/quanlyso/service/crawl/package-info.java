@@ -0,0 +1,4 @@
+/**
+ * In-memory tracking of the crawl jobs and the progress of their channels.
+ */
+package logia.quanlyso.service.crawl;
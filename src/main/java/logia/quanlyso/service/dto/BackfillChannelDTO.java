@@ -0,0 +1,183 @@
+package logia.quanlyso.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * The Class BackfillChannelDTO, the checkpoint of a channel.
+ *
+ * @author Dai Mai
+ */
+public class BackfillChannelDTO implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long	serialVersionUID	= 1L;
+
+	/** The channel code. */
+	private String	channelCode;
+
+	/** The first day, inclusive. */
+	private LocalDate	fromDate;
+
+	/** The last day, inclusive. */
+	private LocalDate	toDate;
+
+	/** The next day to crawl. */
+	private LocalDate	nextDate;
+
+	/** The status. */
+	private String	status;
+
+	/** The days crawled. */
+	private int	crawled;
+
+	/** The days without draw or already saved. */
+	private int	skipped;
+
+	/** The days failed. */
+	private int	failed;
+
+	/**
+	 * Gets the channel code.
+	 *
+	 * @return the channel code
+	 */
+	public String getChannelCode() {
+		return this.channelCode;
+	}
+
+	/**
+	 * Sets the channel code.
+	 *
+	 * @param channelCode the new channel code
+	 */
+	public void setChannelCode(String channelCode) {
+		this.channelCode = channelCode;
+	}
+
+	/**
+	 * Gets the first day, inclusive.
+	 *
+	 * @return the first day, inclusive
+	 */
+	public LocalDate getFromDate() {
+		return this.fromDate;
+	}
+
+	/**
+	 * Sets the first day, inclusive.
+	 *
+	 * @param fromDate the new first day, inclusive
+	 */
+	public void setFromDate(LocalDate fromDate) {
+		this.fromDate = fromDate;
+	}
+
+	/**
+	 * Gets the last day, inclusive.
+	 *
+	 * @return the last day, inclusive
+	 */
+	public LocalDate getToDate() {
+		return this.toDate;
+	}
+
+	/**
+	 * Sets the last day, inclusive.
+	 *
+	 * @param toDate the new last day, inclusive
+	 */
+	public void setToDate(LocalDate toDate) {
+		this.toDate = toDate;
+	}
+
+	/**
+	 * Gets the next day to crawl.
+	 *
+	 * @return the next day to crawl
+	 */
+	public LocalDate getNextDate() {
+		return this.nextDate;
+	}
+
+	/**
+	 * Sets the next day to crawl.
+	 *
+	 * @param nextDate the new next day to crawl
+	 */
+	public void setNextDate(LocalDate nextDate) {
+		this.nextDate = nextDate;
+	}
+
+	/**
+	 * Gets the status.
+	 *
+	 * @return the status
+	 */
+	public String getStatus() {
+		return this.status;
+	}
+
+	/**
+	 * Sets the status.
+	 *
+	 * @param status the new status
+	 */
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	/**
+	 * Gets the days crawled.
+	 *
+	 * @return the days crawled
+	 */
+	public int getCrawled() {
+		return this.crawled;
+	}
+
+	/**
+	 * Sets the days crawled.
+	 *
+	 * @param crawled the new days crawled
+	 */
+	public void setCrawled(int crawled) {
+		this.crawled = crawled;
+	}
+
+	/**
+	 * Gets the days without draw or already saved.
+	 *
+	 * @return the days without draw or already saved
+	 */
+	public int getSkipped() {
+		return this.skipped;
+	}
+
+	/**
+	 * Sets the days without draw or already saved.
+	 *
+	 * @param skipped the new days without draw or already saved
+	 */
+	public void setSkipped(int skipped) {
+		this.skipped = skipped;
+	}
+
+	/**
+	 * Gets the days failed.
+	 *
+	 * @return the days failed
+	 */
+	public int getFailed() {
+		return this.failed;
+	}
+
+	/**
+	 * Sets the days failed.
+	 *
+	 * @param failed the new days failed
+	 */
+	public void setFailed(int failed) {
+		this.failed = failed;
+	}
+}
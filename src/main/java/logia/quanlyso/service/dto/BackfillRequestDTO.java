@@ -0,0 +1,79 @@
+package logia.quanlyso.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * The Class BackfillRequestDTO, the channels and days to backfill.
+ *
+ * @author Dai Mai
+ */
+public class BackfillRequestDTO implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long	serialVersionUID	= 1L;
+
+	/** The channel codes, all channels if null. */
+	private Set<String>	channelCodes;
+
+	/** The first day, inclusive. */
+	private LocalDate	fromDate;
+
+	/** The last day, inclusive. */
+	private LocalDate	toDate;
+
+	/**
+	 * Gets the channel codes, all channels if null.
+	 *
+	 * @return the channel codes, all channels if null
+	 */
+	public Set<String> getChannelCodes() {
+		return this.channelCodes;
+	}
+
+	/**
+	 * Sets the channel codes, all channels if null.
+	 *
+	 * @param channelCodes the new channel codes, all channels if null
+	 */
+	public void setChannelCodes(Set<String> channelCodes) {
+		this.channelCodes = channelCodes;
+	}
+
+	/**
+	 * Gets the first day, inclusive.
+	 *
+	 * @return the first day, inclusive
+	 */
+	public LocalDate getFromDate() {
+		return this.fromDate;
+	}
+
+	/**
+	 * Sets the first day, inclusive.
+	 *
+	 * @param fromDate the new first day, inclusive
+	 */
+	public void setFromDate(LocalDate fromDate) {
+		this.fromDate = fromDate;
+	}
+
+	/**
+	 * Gets the last day, inclusive.
+	 *
+	 * @return the last day, inclusive
+	 */
+	public LocalDate getToDate() {
+		return this.toDate;
+	}
+
+	/**
+	 * Sets the last day, inclusive.
+	 *
+	 * @param toDate the new last day, inclusive
+	 */
+	public void setToDate(LocalDate toDate) {
+		this.toDate = toDate;
+	}
+}
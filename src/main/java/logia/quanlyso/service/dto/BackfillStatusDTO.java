@@ -0,0 +1,78 @@
+package logia.quanlyso.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * The Class BackfillStatusDTO, the progress of the backfill.
+ *
+ * @author Dai Mai
+ */
+public class BackfillStatusDTO implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long	serialVersionUID	= 1L;
+
+	/** The running. */
+	private boolean	running;
+
+	/** The days walked per minute since the backfill was started or resumed. */
+	private float	daysPerMinute;
+
+	/** The checkpoints of the channels. */
+	private List<BackfillChannelDTO>	channels;
+
+	/**
+	 * Gets the running.
+	 *
+	 * @return the running
+	 */
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	/**
+	 * Sets the running.
+	 *
+	 * @param running the new running
+	 */
+	public void setRunning(boolean running) {
+		this.running = running;
+	}
+
+	/**
+	 * Gets the days walked per minute since the backfill was started or resumed.
+	 *
+	 * @return the days walked per minute since the backfill was started or resumed
+	 */
+	public float getDaysPerMinute() {
+		return this.daysPerMinute;
+	}
+
+	/**
+	 * Sets the days walked per minute since the backfill was started or resumed.
+	 *
+	 * @param daysPerMinute the new days walked per minute since the backfill was started or resumed
+	 */
+	public void setDaysPerMinute(float daysPerMinute) {
+		this.daysPerMinute = daysPerMinute;
+	}
+
+	/**
+	 * Gets the checkpoints of the channels.
+	 *
+	 * @return the checkpoints of the channels
+	 */
+	public List<BackfillChannelDTO> getChannels() {
+		return this.channels;
+	}
+
+	/**
+	 * Sets the checkpoints of the channels.
+	 *
+	 * @param channels the new checkpoints of the channels
+	 */
+	public void setChannels(List<BackfillChannelDTO> channels) {
+		this.channels = channels;
+	}
+}
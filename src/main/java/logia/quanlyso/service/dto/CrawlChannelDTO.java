@@ -0,0 +1,141 @@
+package logia.quanlyso.service.dto;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * A DTO for the progress of a channel in a crawl job.
+ *
+ * @author Dai Mai
+ */
+public class CrawlChannelDTO implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long	serialVersionUID	= 1L;
+
+	/** The channel code. */
+	private String	channelCode;
+
+	/** The state. */
+	private String	state;
+
+	/** The time the channel started to be fetched. */
+	private ZonedDateTime	startTime;
+
+	/** The time the channel was saved or failed. */
+	private ZonedDateTime	endTime;
+
+	/** The milliseconds from fetch to save or failure. */
+	private Long	durationMillis;
+
+	/** The error, if failed. */
+	private String	error;
+
+	/**
+	 * Gets the channel code.
+	 *
+	 * @return the channel code
+	 */
+	public String getChannelCode() {
+		return this.channelCode;
+	}
+
+	/**
+	 * Sets the channel code.
+	 *
+	 * @param channelCode the new channel code
+	 */
+	public void setChannelCode(String channelCode) {
+		this.channelCode = channelCode;
+	}
+
+	/**
+	 * Gets the state.
+	 *
+	 * @return the state
+	 */
+	public String getState() {
+		return this.state;
+	}
+
+	/**
+	 * Sets the state.
+	 *
+	 * @param state the new state
+	 */
+	public void setState(String state) {
+		this.state = state;
+	}
+
+	/**
+	 * Gets the time the channel started to be fetched.
+	 *
+	 * @return the time the channel started to be fetched
+	 */
+	public ZonedDateTime getStartTime() {
+		return this.startTime;
+	}
+
+	/**
+	 * Sets the time the channel started to be fetched.
+	 *
+	 * @param startTime the new time the channel started to be fetched
+	 */
+	public void setStartTime(ZonedDateTime startTime) {
+		this.startTime = startTime;
+	}
+
+	/**
+	 * Gets the time the channel was saved or failed.
+	 *
+	 * @return the time the channel was saved or failed
+	 */
+	public ZonedDateTime getEndTime() {
+		return this.endTime;
+	}
+
+	/**
+	 * Sets the time the channel was saved or failed.
+	 *
+	 * @param endTime the new time the channel was saved or failed
+	 */
+	public void setEndTime(ZonedDateTime endTime) {
+		this.endTime = endTime;
+	}
+
+	/**
+	 * Gets the milliseconds from fetch to save or failure.
+	 *
+	 * @return the milliseconds from fetch to save or failure
+	 */
+	public Long getDurationMillis() {
+		return this.durationMillis;
+	}
+
+	/**
+	 * Sets the milliseconds from fetch to save or failure.
+	 *
+	 * @param durationMillis the new milliseconds from fetch to save or failure
+	 */
+	public void setDurationMillis(Long durationMillis) {
+		this.durationMillis = durationMillis;
+	}
+
+	/**
+	 * Gets the error, if failed.
+	 *
+	 * @return the error, if failed
+	 */
+	public String getError() {
+		return this.error;
+	}
+
+	/**
+	 * Sets the error, if failed.
+	 *
+	 * @param error the new error, if failed
+	 */
+	public void setError(String error) {
+		this.error = error;
+	}
+}
@@ -0,0 +1,184 @@
+package logia.quanlyso.service.dto;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * A DTO for the progress of a crawl job.
+ *
+ * @author Dai Mai
+ */
+public class CrawlJobDTO implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long	serialVersionUID	= 1L;
+
+	/** The id. */
+	private String	id;
+
+	/** The start time. */
+	private ZonedDateTime	startTime;
+
+	/** The end time, null while running. */
+	private ZonedDateTime	endTime;
+
+	/** The number of channels. */
+	private int	total;
+
+	/** The number of channels saved or failed. */
+	private int	processed;
+
+	/** The number of channels failed. */
+	private int	failed;
+
+	/** The estimated seconds left, null until a channel is processed. */
+	private Long	etaSeconds;
+
+	/** The progress of the channels. */
+	private List<CrawlChannelDTO>	channels;
+
+	/**
+	 * Gets the id.
+	 *
+	 * @return the id
+	 */
+	public String getId() {
+		return this.id;
+	}
+
+	/**
+	 * Sets the id.
+	 *
+	 * @param id the new id
+	 */
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	/**
+	 * Gets the start time.
+	 *
+	 * @return the start time
+	 */
+	public ZonedDateTime getStartTime() {
+		return this.startTime;
+	}
+
+	/**
+	 * Sets the start time.
+	 *
+	 * @param startTime the new start time
+	 */
+	public void setStartTime(ZonedDateTime startTime) {
+		this.startTime = startTime;
+	}
+
+	/**
+	 * Gets the end time, null while running.
+	 *
+	 * @return the end time, null while running
+	 */
+	public ZonedDateTime getEndTime() {
+		return this.endTime;
+	}
+
+	/**
+	 * Sets the end time, null while running.
+	 *
+	 * @param endTime the new end time, null while running
+	 */
+	public void setEndTime(ZonedDateTime endTime) {
+		this.endTime = endTime;
+	}
+
+	/**
+	 * Gets the number of channels.
+	 *
+	 * @return the number of channels
+	 */
+	public int getTotal() {
+		return this.total;
+	}
+
+	/**
+	 * Sets the number of channels.
+	 *
+	 * @param total the new number of channels
+	 */
+	public void setTotal(int total) {
+		this.total = total;
+	}
+
+	/**
+	 * Gets the number of channels saved or failed.
+	 *
+	 * @return the number of channels saved or failed
+	 */
+	public int getProcessed() {
+		return this.processed;
+	}
+
+	/**
+	 * Sets the number of channels saved or failed.
+	 *
+	 * @param processed the new number of channels saved or failed
+	 */
+	public void setProcessed(int processed) {
+		this.processed = processed;
+	}
+
+	/**
+	 * Gets the number of channels failed.
+	 *
+	 * @return the number of channels failed
+	 */
+	public int getFailed() {
+		return this.failed;
+	}
+
+	/**
+	 * Sets the number of channels failed.
+	 *
+	 * @param failed the new number of channels failed
+	 */
+	public void setFailed(int failed) {
+		this.failed = failed;
+	}
+
+	/**
+	 * Gets the estimated seconds left, null until a channel is processed.
+	 *
+	 * @return the estimated seconds left, null until a channel is processed
+	 */
+	public Long getEtaSeconds() {
+		return this.etaSeconds;
+	}
+
+	/**
+	 * Sets the estimated seconds left, null until a channel is processed.
+	 *
+	 * @param etaSeconds the new estimated seconds left, null until a channel is processed
+	 */
+	public void setEtaSeconds(Long etaSeconds) {
+		this.etaSeconds = etaSeconds;
+	}
+
+	/**
+	 * Gets the progress of the channels.
+	 *
+	 * @return the progress of the channels
+	 */
+	public List<CrawlChannelDTO> getChannels() {
+		return this.channels;
+	}
+
+	/**
+	 * Sets the progress of the channels.
+	 *
+	 * @param channels the new progress of the channels
+	 */
+	public void setChannels(List<CrawlChannelDTO> channels) {
+		this.channels = channels;
+	}
+}
@@ -0,0 +1,83 @@
+package logia.quanlyso.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO for the worst-case payout of a chosen number in a draw.
+ *
+ * @author Dai Mai
+ */
+public class ExposureDTO implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long	serialVersionUID	= 1L;
+
+	/** The chosen number. */
+	private String				number;
+
+	/** The liability. */
+	private Float				liability;
+
+	/**
+	 * Instantiates a new exposure DTO.
+	 */
+	public ExposureDTO() {
+	}
+
+	/**
+	 * Instantiates a new exposure DTO.
+	 *
+	 * @param number the chosen number
+	 * @param liability the liability
+	 */
+	public ExposureDTO(String number, Float liability) {
+		this.number = number;
+		this.liability = liability;
+	}
+
+	/**
+	 * Gets the chosen number.
+	 *
+	 * @return the chosen number
+	 */
+	public String getNumber() {
+		return this.number;
+	}
+
+	/**
+	 * Sets the chosen number.
+	 *
+	 * @param number the new chosen number
+	 */
+	public void setNumber(String number) {
+		this.number = number;
+	}
+
+	/**
+	 * Gets the liability.
+	 *
+	 * @return the liability
+	 */
+	public Float getLiability() {
+		return this.liability;
+	}
+
+	/**
+	 * Sets the liability.
+	 *
+	 * @param liability the new liability
+	 */
+	public void setLiability(Float liability) {
+		this.liability = liability;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ExposureDTO{" + "number='" + this.number + "'" + ", liability='" + this.liability + "'" + "}";
+	}
+}
@@ -0,0 +1,132 @@
+package logia.quanlyso.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * A DTO for the frequency of a number suffix in the draws of a channel, and the days since it was
+ * last drawn.
+ *
+ * @author Dai Mai
+ */
+public class NumberStatsDTO implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long	serialVersionUID	= 1L;
+
+	/** The number suffix. */
+	private String				number;
+
+	/** The times drawn in the window. */
+	private Integer				count;
+
+	/** The last day drawn, null if never. */
+	private LocalDate			lastSeen;
+
+	/** The days since last drawn, null if never. */
+	private Integer				overdueDays;
+
+	/**
+	 * Instantiates a new number stats DTO.
+	 */
+	public NumberStatsDTO() {
+	}
+
+	/**
+	 * Instantiates a new number stats DTO.
+	 *
+	 * @param number the number suffix
+	 * @param count the times drawn in the window
+	 * @param lastSeen the last day drawn, null if never
+	 * @param overdueDays the days since last drawn, null if never
+	 */
+	public NumberStatsDTO(String number, Integer count, LocalDate lastSeen, Integer overdueDays) {
+		this.number = number;
+		this.count = count;
+		this.lastSeen = lastSeen;
+		this.overdueDays = overdueDays;
+	}
+
+	/**
+	 * Gets the number suffix.
+	 *
+	 * @return the number suffix
+	 */
+	public String getNumber() {
+		return this.number;
+	}
+
+	/**
+	 * Sets the number suffix.
+	 *
+	 * @param number the new number suffix
+	 */
+	public void setNumber(String number) {
+		this.number = number;
+	}
+
+	/**
+	 * Gets the times drawn in the window.
+	 *
+	 * @return the count
+	 */
+	public Integer getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Sets the times drawn in the window.
+	 *
+	 * @param count the new count
+	 */
+	public void setCount(Integer count) {
+		this.count = count;
+	}
+
+	/**
+	 * Gets the last day drawn.
+	 *
+	 * @return the last day drawn, null if never
+	 */
+	public LocalDate getLastSeen() {
+		return this.lastSeen;
+	}
+
+	/**
+	 * Sets the last day drawn.
+	 *
+	 * @param lastSeen the new last day drawn
+	 */
+	public void setLastSeen(LocalDate lastSeen) {
+		this.lastSeen = lastSeen;
+	}
+
+	/**
+	 * Gets the days since last drawn.
+	 *
+	 * @return the days since last drawn, null if never
+	 */
+	public Integer getOverdueDays() {
+		return this.overdueDays;
+	}
+
+	/**
+	 * Sets the days since last drawn.
+	 *
+	 * @param overdueDays the new days since last drawn
+	 */
+	public void setOverdueDays(Integer overdueDays) {
+		this.overdueDays = overdueDays;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "NumberStatsDTO{" + "number='" + this.number + "'" + ", count='" + this.count + "'" + ", lastSeen='"
+		        + this.lastSeen + "'" + ", overdueDays='" + this.overdueDays + "'" + "}";
+	}
+}
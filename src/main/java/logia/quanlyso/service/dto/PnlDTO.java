@@ -0,0 +1,195 @@
+package logia.quanlyso.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * A DTO for the profit and loss of a period: the sums of the transaction details of its days.
+ *
+ * @author Dai Mai
+ */
+public class PnlDTO implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long	serialVersionUID	= 1L;
+
+	/** The first day of the period. */
+	private LocalDate			fromDate;
+
+	/** The last day of the period. */
+	private LocalDate			toDate;
+
+	/** The number of details. */
+	private Integer				details;
+
+	/** The number of settled details. */
+	private Integer				settled;
+
+	/** The amount. */
+	private Float				amount;
+
+	/** The profit. */
+	private Float				profit;
+
+	/** The costs. */
+	private Float				costs;
+
+	/** The net value, the profit less the costs. */
+	private Float				net;
+
+	/**
+	 * Gets the first day of the period.
+	 *
+	 * @return the first day
+	 */
+	public LocalDate getFromDate() {
+		return this.fromDate;
+	}
+
+	/**
+	 * Sets the first day of the period.
+	 *
+	 * @param fromDate the new first day
+	 */
+	public void setFromDate(LocalDate fromDate) {
+		this.fromDate = fromDate;
+	}
+
+	/**
+	 * Gets the last day of the period.
+	 *
+	 * @return the last day
+	 */
+	public LocalDate getToDate() {
+		return this.toDate;
+	}
+
+	/**
+	 * Sets the last day of the period.
+	 *
+	 * @param toDate the new last day
+	 */
+	public void setToDate(LocalDate toDate) {
+		this.toDate = toDate;
+	}
+
+	/**
+	 * Gets the number of details.
+	 *
+	 * @return the number of details
+	 */
+	public Integer getDetails() {
+		return this.details;
+	}
+
+	/**
+	 * Sets the number of details.
+	 *
+	 * @param details the new number of details
+	 */
+	public void setDetails(Integer details) {
+		this.details = details;
+	}
+
+	/**
+	 * Gets the number of settled details.
+	 *
+	 * @return the number of settled details
+	 */
+	public Integer getSettled() {
+		return this.settled;
+	}
+
+	/**
+	 * Sets the number of settled details.
+	 *
+	 * @param settled the new number of settled details
+	 */
+	public void setSettled(Integer settled) {
+		this.settled = settled;
+	}
+
+	/**
+	 * Gets the amount.
+	 *
+	 * @return the amount
+	 */
+	public Float getAmount() {
+		return this.amount;
+	}
+
+	/**
+	 * Sets the amount.
+	 *
+	 * @param amount the new amount
+	 */
+	public void setAmount(Float amount) {
+		this.amount = amount;
+	}
+
+	/**
+	 * Gets the profit.
+	 *
+	 * @return the profit
+	 */
+	public Float getProfit() {
+		return this.profit;
+	}
+
+	/**
+	 * Sets the profit.
+	 *
+	 * @param profit the new profit
+	 */
+	public void setProfit(Float profit) {
+		this.profit = profit;
+	}
+
+	/**
+	 * Gets the costs.
+	 *
+	 * @return the costs
+	 */
+	public Float getCosts() {
+		return this.costs;
+	}
+
+	/**
+	 * Sets the costs.
+	 *
+	 * @param costs the new costs
+	 */
+	public void setCosts(Float costs) {
+		this.costs = costs;
+	}
+
+	/**
+	 * Gets the net value, the profit less the costs.
+	 *
+	 * @return the net value
+	 */
+	public Float getNet() {
+		return this.net;
+	}
+
+	/**
+	 * Sets the net value.
+	 *
+	 * @param net the new net value
+	 */
+	public void setNet(Float net) {
+		this.net = net;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "PnlDTO{" + "fromDate='" + this.fromDate + "'" + ", toDate='" + this.toDate + "'" + ", details='"
+		        + this.details + "'" + ", settled='" + this.settled + "'" + ", amount='" + this.amount + "'"
+		        + ", profit='" + this.profit + "'" + ", costs='" + this.costs + "'" + ", net='" + this.net + "'" + "}";
+	}
+}
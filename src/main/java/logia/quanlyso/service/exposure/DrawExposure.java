@@ -0,0 +1,204 @@
+package logia.quanlyso.service.exposure;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import logia.quanlyso.domain.StyleConstants;
+import logia.quanlyso.domain.TypesConstants;
+import logia.quanlyso.service.settlement.DrawIndex;
+
+/**
+ * The liability of the open transactions of one draw, per chosen number.
+ * <p>
+ * For each style and type of play, the payout of one hit (amount × profit rate) is summed into a
+ * {@code long} array indexed by the chosen number, one array per number length: 100 for 2 digits,
+ * 1000 for 3 and 10000 for 4. Adding or removing a stake is one array write. The worst case of a
+ * number is the payout of one hit times the most hits the play can get, summed over every style
+ * and type; ranking a draw reads at most 11100 numbers and allocates only the top ones.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+public final class DrawExposure {
+
+	/** The shortest chosen number kept. */
+	private static final int		MIN_LENGTH	= 2;
+
+	/** The longest chosen number kept. */
+	private static final int		MAX_LENGTH	= 4;
+
+	/** The number of chosen numbers kept, of all lengths. */
+	public static final int			NUMBERS		= 100 + 1000 + 10000;
+
+	/** The number of types of play. */
+	private static final int		TYPES		= TypesConstants.values().length;
+
+	/** The number of style and type pairs. */
+	private static final int		SLOTS		= StyleConstants.values().length * DrawExposure.TYPES;
+
+	/** The payout of one hit, by style and type pair, then by length, then by number. */
+	private final long[][][]		perHit		= new long[DrawExposure.SLOTS][DrawExposure.MAX_LENGTH + 1][];
+
+	/** The most hits, by style and type pair. */
+	private final int[]				maxHits;
+
+	/**
+	 * Instantiates a new draw exposure.
+	 *
+	 * @param __maxHits the most hits, by style and type pair
+	 */
+	private DrawExposure(int[] __maxHits) {
+		this.maxHits = __maxHits;
+	}
+
+	/**
+	 * Creates the exposure of a draw whose prizes are laid out like a reference draw of the same
+	 * channel. Without a reference draw, liabilities are the payout of one hit.
+	 *
+	 * @param __reference the reference draw, may be empty
+	 * @return the draw exposure
+	 */
+	public static DrawExposure of(DrawIndex __reference) {
+		int[] _maxHits = new int[DrawExposure.SLOTS];
+		for (StyleConstants _style : StyleConstants.values()) {
+			for (TypesConstants _types : TypesConstants.values()) {
+				int _slot = DrawExposure.slot(_style, _types);
+				_maxHits[_slot] = __reference.isEmpty() ? 1 : __reference.maxHits(_style, _types);
+			}
+		}
+		return new DrawExposure(_maxHits);
+	}
+
+	/**
+	 * Adds the payout of one hit of a stake, or removes it when negative.
+	 *
+	 * @param __chosenNumber the chosen number
+	 * @param __style the style
+	 * @param __types the types
+	 * @param __perHit the payout of one hit, in thousandths
+	 * @return true, if the stake is kept; false if the chosen number is not of 2 to 4 digits
+	 */
+	public synchronized boolean add(String __chosenNumber, StyleConstants __style, TypesConstants __types,
+	        long __perHit) {
+		int _number = DrawExposure.toNumber(__chosenNumber);
+		if (_number < 0 || __style == null || __types == null) {
+			return false;
+		}
+		long[][] _byLength = this.perHit[DrawExposure.slot(__style, __types)];
+		int _length = __chosenNumber.length();
+		if (_byLength[_length] == null) {
+			_byLength[_length] = new long[DrawExposure.capacity(_length)];
+		}
+		_byLength[_length][_number] += __perHit;
+		return true;
+	}
+
+	/**
+	 * Gets the numbers of highest liability.
+	 *
+	 * @param __size the number of numbers, cut to {@link #NUMBERS}
+	 * @return the numbers with a liability, highest first
+	 */
+	public synchronized List<NumberExposure> top(int __size) {
+		if (__size <= 0) {
+			return Collections.emptyList();
+		}
+		int _size = Math.min(__size, DrawExposure.NUMBERS);
+		Comparator<NumberExposure> _byLiability = Comparator.comparingLong(NumberExposure::getLiability);
+		PriorityQueue<NumberExposure> _top = new PriorityQueue<>(_size + 1, _byLiability);
+		long[][] _tables = new long[DrawExposure.SLOTS][];
+		int[] _hits = new int[DrawExposure.SLOTS];
+		for (int _length = DrawExposure.MIN_LENGTH; _length <= DrawExposure.MAX_LENGTH; _length++) {
+			int _count = 0;
+			for (int _slot = 0; _slot < DrawExposure.SLOTS; _slot++) {
+				if (this.perHit[_slot][_length] != null) {
+					_tables[_count] = this.perHit[_slot][_length];
+					_hits[_count++] = this.maxHits[_slot];
+				}
+			}
+			int _capacity = DrawExposure.capacity(_length);
+			for (int _number = 0; _number < _capacity; _number++) {
+				long _liability = 0L;
+				for (int _i = 0; _i < _count; _i++) {
+					_liability += _tables[_i][_number] * _hits[_i];
+				}
+				if (_liability > 0 && (_top.size() < _size || _liability > _top.peek().getLiability())) {
+					_top.add(new NumberExposure(DrawExposure.toChosenNumber(_number, _length), _liability));
+					if (_top.size() > _size) {
+						_top.poll();
+					}
+				}
+			}
+		}
+		List<NumberExposure> _result = new ArrayList<>(_top);
+		_result.sort(_byLiability.reversed());
+		return _result;
+	}
+
+	/**
+	 * Gets the slot of a style and type pair.
+	 *
+	 * @param __style the style
+	 * @param __types the types
+	 * @return the slot
+	 */
+	private static int slot(StyleConstants __style, TypesConstants __types) {
+		return __style.ordinal() * DrawExposure.TYPES + __types.ordinal();
+	}
+
+	/**
+	 * Gets a chosen number of 2 to 4 digits as a number.
+	 *
+	 * @param __chosenNumber the chosen number
+	 * @return the number, or -1 if it is not of 2 to 4 digits
+	 */
+	private static int toNumber(String __chosenNumber) {
+		if (__chosenNumber == null || __chosenNumber.length() < DrawExposure.MIN_LENGTH
+		        || __chosenNumber.length() > DrawExposure.MAX_LENGTH) {
+			return -1;
+		}
+		int _number = 0;
+		for (int _i = 0; _i < __chosenNumber.length(); _i++) {
+			char _digit = __chosenNumber.charAt(_i);
+			if (_digit < '0' || _digit > '9') {
+				return -1;
+			}
+			_number = _number * 10 + (_digit - '0');
+		}
+		return _number;
+	}
+
+	/**
+	 * Gets a number as a chosen number of a length, zero padded.
+	 *
+	 * @param __number the number
+	 * @param __length the length
+	 * @return the chosen number
+	 */
+	private static String toChosenNumber(int __number, int __length) {
+		char[] _digits = new char[__length];
+		int _number = __number;
+		for (int _i = __length - 1; _i >= 0; _i--) {
+			_digits[_i] = (char) ('0' + _number % 10);
+			_number /= 10;
+		}
+		return new String(_digits);
+	}
+
+	/**
+	 * Gets the number of chosen numbers of a length.
+	 *
+	 * @param __length the length
+	 * @return the capacity
+	 */
+	private static int capacity(int __length) {
+		int _capacity = 1;
+		for (int _i = 0; _i < __length; _i++) {
+			_capacity *= 10;
+		}
+		return _capacity;
+	}
+}
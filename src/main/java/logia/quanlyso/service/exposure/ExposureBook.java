@@ -0,0 +1,248 @@
+package logia.quanlyso.service.exposure;
+
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.domain.ProfitFactor;
+import logia.quanlyso.domain.StyleConstants;
+import logia.quanlyso.domain.TransactionDetails;
+import logia.quanlyso.domain.TypesConstants;
+import logia.quanlyso.repository.CodeRepository;
+import logia.quanlyso.repository.ProfitFactorRepository;
+import logia.quanlyso.repository.TransactionDetailsRepository;
+import logia.quanlyso.service.settlement.DrawIndex;
+import logia.quanlyso.service.settlement.DrawIndexCache;
+import logia.quanlyso.service.settlement.DrawKey;
+import logia.quanlyso.service.settlement.RateKey;
+import logia.quanlyso.service.util.MoneyUtil;
+
+/**
+ * Exposure of the draws being played, loaded from the open transactions on first use then kept up
+ * to date stake by stake.
+ * <p>
+ * Stakes are announced before their transaction commits, and applied or cancelled once it
+ * completes. A draw is loaded outside the map, then cached only if none of its stakes was announced
+ * or pending during the load: the load may or may not have read such a stake, so it is loaded again.
+ * A draw still changing after a few loads is returned uncached.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+@Component
+public class ExposureBook {
+
+	/** The log. */
+	private final Logger							log			= LoggerFactory.getLogger(ExposureBook.class);
+
+	/** The times a draw is loaded before its exposure is returned uncached. */
+	private static final int						MAX_LOADS	= 3;
+
+	/** The exposures by draw. */
+	private final ConcurrentMap<DrawKey, DrawExposure>	draws		= new ConcurrentHashMap<>();
+
+	/** The updates of each draw, changed under the lock of its exposure in the map. */
+	private final ConcurrentMap<DrawKey, Updates>		updates		= new ConcurrentHashMap<>();
+
+	/** The transaction details repository. */
+	private final TransactionDetailsRepository		transactionDetailsRepository;
+
+	/** The profit factor repository. */
+	private final ProfitFactorRepository			profitFactorRepository;
+
+	/** The code repository. */
+	private final CodeRepository					codeRepository;
+
+	/** The draw index cache. */
+	private final DrawIndexCache					drawIndexCache;
+
+	/**
+	 * Instantiates a new exposure book.
+	 *
+	 * @param __transactionDetailsRepository the transaction details repository
+	 * @param __profitFactorRepository the profit factor repository
+	 * @param __codeRepository the code repository
+	 * @param __drawIndexCache the draw index cache
+	 */
+	public ExposureBook(TransactionDetailsRepository __transactionDetailsRepository,
+	        ProfitFactorRepository __profitFactorRepository, CodeRepository __codeRepository,
+	        DrawIndexCache __drawIndexCache) {
+		this.transactionDetailsRepository = __transactionDetailsRepository;
+		this.profitFactorRepository = __profitFactorRepository;
+		this.codeRepository = __codeRepository;
+		this.drawIndexCache = __drawIndexCache;
+	}
+
+	/**
+	 * Gets the exposure of a draw, loading it on first use.
+	 *
+	 * @param __key the draw key
+	 * @return the draw exposure
+	 */
+	public DrawExposure get(DrawKey __key) {
+		DrawExposure _exposure = this.draws.get(__key);
+		if (_exposure != null) {
+			return _exposure;
+		}
+		Updates _updates = this.updates.computeIfAbsent(__key, __drawKey -> new Updates());
+		for (int _load = 0; _load < ExposureBook.MAX_LOADS; _load++) {
+			long _version = _updates.version;
+			DrawExposure _loaded = this.load(__key);
+			_exposure = this.draws.compute(__key, (__drawKey, __current) -> __current != null ? __current
+			        : _updates.pending == 0 && _updates.version == _version ? _loaded : null);
+			if (_exposure != null) {
+				return _exposure;
+			}
+			this.log.debug("Exposure of {} updated while loaded, loading again", __key);
+			_exposure = _loaded;
+		}
+		return _exposure;
+	}
+
+	/**
+	 * Announce an update of a draw, before the transaction making it commits.
+	 *
+	 * @param __key the draw key
+	 */
+	public void begin(DrawKey __key) {
+		Updates _updates = this.updates.computeIfAbsent(__key, __drawKey -> new Updates());
+		this.draws.compute(__key, (__drawKey, __exposure) -> {
+			_updates.pending++;
+			_updates.version++;
+			return __exposure;
+		});
+	}
+
+	/**
+	 * Apply an announced update to the exposure of a draw, if loaded. A draw not loaded yet reads the
+	 * update from the database when it is.
+	 *
+	 * @param __key the draw key
+	 * @param __update the update
+	 */
+	public void update(DrawKey __key, Consumer<DrawExposure> __update) {
+		this.end(__key, __update);
+	}
+
+	/**
+	 * Drop an announced update, its transaction rolled back.
+	 *
+	 * @param __key the draw key
+	 */
+	public void cancel(DrawKey __key) {
+		this.end(__key, null);
+	}
+
+	/**
+	 * Forget the exposure of a draw.
+	 *
+	 * @param __key the draw key
+	 */
+	public void evict(DrawKey __key) {
+		this.draws.remove(__key);
+		this.updates.remove(__key);
+	}
+
+	/**
+	 * Gets the payout of one hit of a detail.
+	 *
+	 * @param __details the details
+	 * @return the payout of one hit in thousandths, null if it has no amount or no profit rate
+	 */
+	public Long perHit(TransactionDetails __details) {
+		return this.perHit(__details, new HashMap<>());
+	}
+
+	/**
+	 * Gets the payout of one hit of a detail, looking up each rate once.
+	 *
+	 * @param __details the details
+	 * @param __rates the rates already looked up
+	 * @return the payout of one hit in thousandths, null if it has no amount or no profit rate
+	 */
+	private Long perHit(TransactionDetails __details, Map<RateKey, Long> __rates) {
+		if (__details.getAmount() == null) {
+			return null;
+		}
+		Long _rate = __rates.computeIfAbsent(RateKey.of(__details), __key -> {
+			ProfitFactor _profitFactor = this.profitFactorRepository.findOneByFactorsAndStylesAndTypes(
+			        __details.getFactors(), __details.getStyles(), __details.getTypes());
+			return _profitFactor == null || _profitFactor.getRate() == null ? null
+			        : MoneyUtil.toRateUnits(_profitFactor.getRate());
+		});
+		if (_rate == null) {
+			this.log.warn("No profit rate for {}, not counted in exposure", __details);
+			return null;
+		}
+		return MoneyUtil.multiply(__details.getAmount(), _rate);
+	}
+
+	/**
+	 * End an announced update of a draw, applying it if given and the draw is loaded.
+	 *
+	 * @param __key the draw key
+	 * @param __update the update, null if cancelled
+	 */
+	private void end(DrawKey __key, Consumer<DrawExposure> __update) {
+		Updates _updates = this.updates.get(__key);
+		this.draws.compute(__key, (__drawKey, __exposure) -> {
+			if (_updates != null && _updates.pending > 0) {
+				_updates.pending--;
+				_updates.version++;
+			}
+			if (__exposure != null && __update != null) {
+				__update.accept(__exposure);
+			}
+			return __exposure;
+		});
+	}
+
+	/**
+	 * Load the exposure of a draw from its open transactions.
+	 *
+	 * @param __key the draw key
+	 * @return the draw exposure
+	 */
+	private DrawExposure load(DrawKey __key) {
+		ZonedDateTime _from = __key.getOpenDate();
+		ZonedDateTime _to = _from.plusDays(1);
+		Code _last = this.codeRepository.findFirstByChannelsIdAndOpenDateBeforeOrderByOpenDateDesc(
+		        __key.getChannelId(), _to);
+		DrawIndex _reference = _last == null ? DrawIndex.EMPTY
+		        : this.drawIndexCache.get(DrawKey.of(__key.getChannelId(), _last.getOpenDate()));
+		DrawExposure _exposure = DrawExposure.of(_reference);
+
+		Map<RateKey, Long> _rates = new HashMap<>();
+		for (TransactionDetails _details : this.transactionDetailsRepository
+		        .findOpenByChannelsIdAndOpenDateBetween(__key.getChannelId(), _from, _to)) {
+			Long _perHit = this.perHit(_details, _rates);
+			if (_perHit != null) {
+				_exposure.add(_details.getTransactions().getChosenNumber(),
+				        StyleConstants.fromId(_details.getStyles().getId()),
+				        TypesConstants.fromId(_details.getTypes().getId()), _perHit);
+			}
+		}
+		this.log.debug("Loaded exposure of {}", __key);
+		return _exposure;
+	}
+
+	/**
+	 * The updates of a draw, written under the lock of its exposure in the map.
+	 */
+	private static final class Updates {
+
+		/** The updates announced, not applied nor cancelled yet. */
+		private volatile int	pending;
+
+		/** The number of updates announced and ended. */
+		private volatile long	version;
+	}
+}
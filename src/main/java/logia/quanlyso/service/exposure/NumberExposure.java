@@ -0,0 +1,54 @@
+package logia.quanlyso.service.exposure;
+
+/**
+ * The worst-case payout of one chosen number in a draw.
+ *
+ * @author Dai Mai
+ */
+public final class NumberExposure {
+
+	/** The chosen number. */
+	private final String	number;
+
+	/** The liability, in thousandths. */
+	private final long		liability;
+
+	/**
+	 * Instantiates a new number exposure.
+	 *
+	 * @param __number the chosen number
+	 * @param __liability the liability, in thousandths
+	 */
+	public NumberExposure(String __number, long __liability) {
+		this.number = __number;
+		this.liability = __liability;
+	}
+
+	/**
+	 * Gets the chosen number.
+	 *
+	 * @return the chosen number
+	 */
+	public String getNumber() {
+		return this.number;
+	}
+
+	/**
+	 * Gets the liability.
+	 *
+	 * @return the liability, in thousandths
+	 */
+	public long getLiability() {
+		return this.liability;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "NumberExposure{" + "number='" + this.number + "'" + ", liability=" + this.liability + "}";
+	}
+}
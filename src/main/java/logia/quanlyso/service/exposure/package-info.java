@@ -0,0 +1,4 @@
+/**
+ * In-memory liability of open transactions per number, for draws not yet closed.
+ */
+package logia.quanlyso.service.exposure;
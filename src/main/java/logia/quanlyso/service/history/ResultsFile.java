@@ -0,0 +1,316 @@
+package logia.quanlyso.service.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import logia.quanlyso.domain.DrawResult;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * A file of the numbers of all draws, read through a {@link MappedByteBuffer}.
+ * <p>
+ * The file starts with a header of 16 bytes: a magic number, the version, the record size and the
+ * record count. Each record holds one number in 16 bytes: the channel id, the epoch day of the
+ * draw in the system zone, the rank of its prize (0 for the special prize, -1 when unknown), its
+ * digit count, 2 unused bytes and the number itself. Records are sorted by channel and day, in
+ * page order within a draw, so the draws of a channel are found by a binary search and scanned in
+ * one pass.
+ * </p>
+ * A scan hands each number to a {@link NumberVisitor} as primitives: it allocates nothing per
+ * number, whatever the number of draws scanned.
+ *
+ * @author Dai Mai
+ */
+public final class ResultsFile {
+
+	/** The Constant MAGIC, QLSR. */
+	static final int				MAGIC			= 0x514C5352;
+
+	/** The Constant VERSION. */
+	static final int				VERSION			= 1;
+
+	/** The bytes of the header. */
+	static final int				HEADER_SIZE		= 16;
+
+	/** The bytes of a record. */
+	static final int				RECORD_SIZE		= 16;
+
+	/** The offset of the day in a record. */
+	private static final int		DAY_OFFSET		= 4;
+
+	/** The offset of the rank in a record. */
+	private static final int		RANK_OFFSET		= 8;
+
+	/** The offset of the digit count in a record. */
+	private static final int		DIGITS_OFFSET	= 9;
+
+	/** The offset of the number in a record. */
+	private static final int		NUMBER_OFFSET	= 12;
+
+	/** The most digits of a number held in an int. */
+	private static final int		MAX_DIGITS		= 9;
+
+	/** The buffer, read with absolute gets only so that scans may run at the same time. */
+	private final MappedByteBuffer	buffer;
+
+	/** The record count. */
+	private final int				size;
+
+	/**
+	 * Instantiates a new results file.
+	 *
+	 * @param __buffer the buffer
+	 * @param __size the record count
+	 */
+	private ResultsFile(MappedByteBuffer __buffer, int __size) {
+		this.buffer = __buffer;
+		this.size = __size;
+	}
+
+	/**
+	 * Map a results file.
+	 *
+	 * @param __path the path
+	 * @return the results file
+	 * @throws IOException Signals that the file cannot be read, or is not a results file.
+	 */
+	public static ResultsFile open(Path __path) throws IOException {
+		try (FileChannel _channel = FileChannel.open(__path, StandardOpenOption.READ)) {
+			long _length = _channel.size();
+			if (_length < ResultsFile.HEADER_SIZE || _length > Integer.MAX_VALUE) {
+				throw new IOException("Results file " + __path + " has an invalid size " + _length);
+			}
+			MappedByteBuffer _buffer = _channel.map(FileChannel.MapMode.READ_ONLY, 0, _length);
+			_buffer.order(ByteOrder.BIG_ENDIAN);
+			if (_buffer.getInt(0) != ResultsFile.MAGIC || _buffer.getInt(4) != ResultsFile.VERSION
+			        || _buffer.getInt(8) != ResultsFile.RECORD_SIZE) {
+				throw new IOException("Results file " + __path + " has an unknown format");
+			}
+			int _size = _buffer.getInt(12);
+			if (ResultsFile.HEADER_SIZE + (long) _size * ResultsFile.RECORD_SIZE != _length) {
+				throw new IOException("Results file " + __path + " is truncated");
+			}
+			// The mapping stays valid once the channel is closed
+			return new ResultsFile(_buffer, _size);
+		}
+	}
+
+	/**
+	 * Gets the record count, the number of numbers in the file.
+	 *
+	 * @return the record count
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Scan the numbers of a channel over a window of days.
+	 *
+	 * @param __channelId the channel id
+	 * @param __fromEpochDay the first epoch day, inclusive
+	 * @param __toEpochDay the last epoch day, inclusive
+	 * @param __visitor the visitor
+	 * @return the number of numbers visited
+	 */
+	public int scan(long __channelId, long __fromEpochDay, long __toEpochDay, NumberVisitor __visitor) {
+		int _record = this.firstRecord(__channelId, __fromEpochDay);
+		int _visited = 0;
+		for (; _record < this.size; _record++) {
+			int _position = ResultsFile.HEADER_SIZE + _record * ResultsFile.RECORD_SIZE;
+			int _day = this.buffer.getInt(_position + ResultsFile.DAY_OFFSET);
+			if (this.buffer.getInt(_position) != __channelId || _day > __toEpochDay) {
+				break;
+			}
+			__visitor.visit(_day, this.buffer.get(_position + ResultsFile.RANK_OFFSET),
+			        this.buffer.get(_position + ResultsFile.DIGITS_OFFSET),
+			        this.buffer.getInt(_position + ResultsFile.NUMBER_OFFSET));
+			_visited++;
+		}
+		return _visited;
+	}
+
+	/**
+	 * Scan all the numbers of a channel.
+	 *
+	 * @param __channelId the channel id
+	 * @param __visitor the visitor
+	 * @return the number of numbers visited
+	 */
+	public int scan(long __channelId, NumberVisitor __visitor) {
+		return this.scan(__channelId, Integer.MIN_VALUE, Integer.MAX_VALUE, __visitor);
+	}
+
+	/**
+	 * Find the first record of a channel on or after a day.
+	 *
+	 * @param __channelId the channel id
+	 * @param __epochDay the epoch day
+	 * @return the index of the record, the record count if there is none
+	 */
+	private int firstRecord(long __channelId, long __epochDay) {
+		int _low = 0;
+		int _high = this.size;
+		while (_low < _high) {
+			int _middle = (_low + _high) >>> 1;
+			int _position = ResultsFile.HEADER_SIZE + _middle * ResultsFile.RECORD_SIZE;
+			int _channelId = this.buffer.getInt(_position);
+			if (_channelId < __channelId
+			        || (_channelId == __channelId && this.buffer.getInt(_position + ResultsFile.DAY_OFFSET) < __epochDay)) {
+				_low = _middle + 1;
+			}
+			else {
+				_high = _middle;
+			}
+		}
+		return _low;
+	}
+
+	/**
+	 * Receives the numbers of a scan, one call per number.
+	 */
+	@FunctionalInterface
+	public interface NumberVisitor {
+
+		/**
+		 * Visit a number.
+		 *
+		 * @param epochDay the epoch day of the draw
+		 * @param rank the rank of the prize: 0 for the special prize, -1 when unknown
+		 * @param digits the digit count of the number, with its leading zeros
+		 * @param number the number
+		 */
+		void visit(int epochDay, int rank, int digits, int number);
+	}
+
+	/**
+	 * Writes a results file, the draws given in order of channel and day.
+	 * <p>
+	 * Numbers are written through a buffer, and the record count in the header when closed. Numbers
+	 * that are not made of digits only, still being drawn, are skipped.
+	 * </p>
+	 */
+	public static final class Writer implements Closeable {
+
+		/** The bytes written at once. */
+		private static final int	BUFFER_SIZE	= 64 * 1024;
+
+		/** The channel. */
+		private final FileChannel	channel;
+
+		/** The buffer. */
+		private final ByteBuffer	buffer		= ByteBuffer.allocateDirect(Writer.BUFFER_SIZE);
+
+		/** The record count. */
+		private int					size;
+
+		/** The channel id of the last draw written. */
+		private long				lastChannelId	= Long.MIN_VALUE;
+
+		/** The epoch day of the last draw written. */
+		private long				lastEpochDay	= Long.MIN_VALUE;
+
+		/**
+		 * Create a results file, replacing any file at the path.
+		 *
+		 * @param __path the path
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		public Writer(Path __path) throws IOException {
+			this.channel = FileChannel.open(__path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+			        StandardOpenOption.TRUNCATE_EXISTING);
+			this.buffer.putInt(ResultsFile.MAGIC).putInt(ResultsFile.VERSION).putInt(ResultsFile.RECORD_SIZE)
+			        .putInt(0);
+		}
+
+		/**
+		 * Append the numbers of a draw.
+		 *
+		 * @param __drawResult the draw result, of a channel and day after the last ones appended
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		public void append(DrawResult __drawResult) throws IOException {
+			long _channelId = __drawResult.getChannelId();
+			long _epochDay = DateFormatterUtil.toEpochDay(__drawResult.getOpenDate());
+			if (_channelId > Integer.MAX_VALUE || _channelId < this.lastChannelId
+			        || (_channelId == this.lastChannelId && _epochDay <= this.lastEpochDay)) {
+				throw new IllegalArgumentException("Draw results out of order: " + __drawResult);
+			}
+			this.lastChannelId = _channelId;
+			this.lastEpochDay = _epochDay;
+			for (DrawResult.Prize _prize : __drawResult.getPrizes()) {
+				int _rank = _prize.getRank();
+				for (String _code : _prize.getCodes()) {
+					int _number = Writer.parse(_code);
+					if (_number < 0) {
+						continue;
+					}
+					if (this.buffer.remaining() < ResultsFile.RECORD_SIZE) {
+						this.flush();
+					}
+					this.buffer.putInt((int) _channelId).putInt((int) _epochDay).put((byte) _rank)
+					        .put((byte) _code.length()).putShort((short) 0).putInt(_number);
+					this.size++;
+				}
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.io.Closeable#close()
+		 */
+		@Override
+		public void close() throws IOException {
+			try {
+				this.flush();
+				ByteBuffer _size = ByteBuffer.allocate(4).putInt(0, this.size);
+				this.channel.write(_size, 12);
+				this.channel.force(false);
+			}
+			finally {
+				this.channel.close();
+			}
+		}
+
+		/**
+		 * Write the buffered records.
+		 *
+		 * @throws IOException Signals that an I/O exception has occurred.
+		 */
+		private void flush() throws IOException {
+			this.buffer.flip();
+			while (this.buffer.hasRemaining()) {
+				this.channel.write(this.buffer);
+			}
+			this.buffer.clear();
+		}
+
+		/**
+		 * Parse a number.
+		 *
+		 * @param __code the code
+		 * @return the number, -1 if the code is not made of digits only
+		 */
+		private static int parse(String __code) {
+			if (__code == null || __code.isEmpty() || __code.length() > ResultsFile.MAX_DIGITS) {
+				return -1;
+			}
+			int _number = 0;
+			for (int _i = 0; _i < __code.length(); _i++) {
+				char _digit = __code.charAt(_i);
+				if (_digit < '0' || _digit > '9') {
+					return -1;
+				}
+				_number = _number * 10 + (_digit - '0');
+			}
+			return _number;
+		}
+	}
+}
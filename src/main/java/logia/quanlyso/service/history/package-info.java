@@ -0,0 +1,4 @@
+/**
+ * Files of the results of all draws, scanned by the analytics without loading any entity.
+ */
+package logia.quanlyso.service.history;
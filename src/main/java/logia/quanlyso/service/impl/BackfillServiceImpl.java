@@ -0,0 +1,680 @@
+package logia.quanlyso.service.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import logia.quanlyso.client.LotteryPage;
+import logia.quanlyso.client.LotteryPageCrawler;
+import logia.quanlyso.config.ApplicationProperties;
+import logia.quanlyso.domain.Channel;
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.domain.DrawResult;
+import logia.quanlyso.repository.ChannelRepository;
+import logia.quanlyso.repository.CodeRepository;
+import logia.quanlyso.repository.DrawResultRepository;
+import logia.quanlyso.service.BackfillService;
+import logia.quanlyso.service.dto.BackfillChannelDTO;
+import logia.quanlyso.service.dto.BackfillRequestDTO;
+import logia.quanlyso.service.dto.BackfillStatusDTO;
+import logia.quanlyso.service.settlement.DrawIndexCache;
+import logia.quanlyso.service.settlement.DrawKey;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Service Implementation for backfilling the history of channels.
+ * <p>
+ * Each channel walks its range of days on the backfill executor, the pages of all channels
+ * fetched at a limited rate. The codes are inserted with JDBC batches, each batch in the same
+ * transaction as the checkpoint of the channel, so a paused or interrupted backfill resumes from
+ * the last day saved. The checkpoint never moves past a day that failed to be fetched: the walk goes
+ * on, and a resumed or repeated backfill starts again from the first failed day, skipping the days
+ * saved since.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+@Service
+public class BackfillServiceImpl implements BackfillService {
+
+	/** The Constant RUNNING. */
+	static final String						RUNNING				= "RUNNING";
+
+	/** The Constant PAUSED. */
+	static final String						PAUSED				= "PAUSED";
+
+	/** The Constant DONE. */
+	static final String						DONE				= "DONE";
+
+	/** The Constant FAILED, the range walked but some days not fetched. */
+	static final String						FAILED				= "FAILED";
+
+	/** The Constant SELECT_CHECKPOINTS. */
+	private static final String				SELECT_CHECKPOINTS	= "select c.code, b.channels_id, b.from_date, b.to_date, b.next_date, b.status, b.crawled, b.skipped, b.failed from backfill_checkpoint b join channel c on c.id = b.channels_id";
+
+	/** The Constant INSERT_CHECKPOINT. */
+	private static final String				INSERT_CHECKPOINT	= "insert into backfill_checkpoint (from_date, to_date, next_date, status, crawled, skipped, failed, last_modified_date, channels_id) values (?, ?, ?, ?, 0, 0, 0, ?, ?)";
+
+	/** The Constant RESTART_CHECKPOINT. */
+	private static final String				RESTART_CHECKPOINT	= "update backfill_checkpoint set from_date = ?, to_date = ?, next_date = ?, status = ?, crawled = 0, skipped = 0, failed = 0, last_modified_date = ? where channels_id = ?";
+
+	/** The Constant UPDATE_STATUS. */
+	private static final String				UPDATE_STATUS		= "update backfill_checkpoint set status = ?, last_modified_date = ? where channels_id = ?";
+
+	/** The Constant ADVANCE_CHECKPOINT. */
+	private static final String				ADVANCE_CHECKPOINT	= "update backfill_checkpoint set next_date = ?, status = ?, crawled = crawled + ?, skipped = skipped + ?, failed = failed + ?, last_modified_date = ? where channels_id = ?";
+
+	/** The Constant SELECT_SAVED_DATES. */
+	private static final String				SELECT_SAVED_DATES	= "select distinct open_date from code where channels_id = ? and open_date between ? and ?"
+	        + " union select distinct open_date from code_archive where channels_id = ? and open_date between ? and ?";
+
+	/** The log. */
+	private final Logger					log					= LoggerFactory.getLogger(BackfillServiceImpl.class);
+
+	/** The channel repository. */
+	private final ChannelRepository			channelRepository;
+
+	/** The code repository. */
+	private final CodeRepository			codeRepository;
+
+	/** The draw result repository. */
+	private final DrawResultRepository		drawResultRepository;
+
+	/** The crawler reading results pages. */
+	private final LotteryPageCrawler		lotteryPageCrawler;
+
+	/** The draw index cache. */
+	private final DrawIndexCache			drawIndexCache;
+
+	/** The jdbc template. */
+	private final JdbcTemplate				jdbcTemplate;
+
+	/** The transaction template, one transaction per checkpoint. */
+	private final TransactionTemplate		transactionTemplate;
+
+	/** The executor walking channels. */
+	private final TaskExecutor				backfillExecutor;
+
+	/** The url of the results pages. */
+	private final String					baseUrl;
+
+	/** The number of days walked between two checkpoints. */
+	private final int						batchDays;
+
+	/** The rate limiter of page fetches. */
+	private final RateLimiter				rateLimiter;
+
+	/** The ids of the channels being walked. */
+	private final Set<Long>					active				= ConcurrentHashMap.newKeySet();
+
+	/** The days walked since the backfill was started or resumed. */
+	private final AtomicLong				walkedDays			= new AtomicLong();
+
+	/** The time the backfill was started or resumed, in nanoseconds. */
+	private volatile long					runStart			= System.nanoTime();
+
+	/** Whether the backfill is paused. */
+	private volatile boolean				paused;
+
+	/**
+	 * The lock of the pause flag and of the walks stopping: a walk writes its last checkpoint and
+	 * leaves the active channels at once, so a resume either lets it go on or walks again from it.
+	 */
+	private final Object					lock				= new Object();
+
+	/**
+	 * Instantiates a new backfill service impl.
+	 *
+	 * @param __channelRepository the channel repository
+	 * @param __codeRepository the code repository
+	 * @param __drawResultRepository the draw result repository
+	 * @param __lotteryPageCrawler the crawler reading results pages
+	 * @param __drawIndexCache the draw index cache
+	 * @param __jdbcTemplate the jdbc template
+	 * @param __transactionManager the transaction manager
+	 * @param __backfillExecutor the executor walking channels
+	 * @param __applicationProperties the application properties
+	 */
+	public BackfillServiceImpl(ChannelRepository __channelRepository, CodeRepository __codeRepository,
+	        DrawResultRepository __drawResultRepository, LotteryPageCrawler __lotteryPageCrawler,
+	        DrawIndexCache __drawIndexCache, JdbcTemplate __jdbcTemplate, PlatformTransactionManager __transactionManager,
+	        @Qualifier("backfillExecutor") TaskExecutor __backfillExecutor,
+	        ApplicationProperties __applicationProperties) {
+		this.channelRepository = __channelRepository;
+		this.codeRepository = __codeRepository;
+		this.drawResultRepository = __drawResultRepository;
+		this.lotteryPageCrawler = __lotteryPageCrawler;
+		this.drawIndexCache = __drawIndexCache;
+		this.jdbcTemplate = __jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(__transactionManager);
+		this.backfillExecutor = __backfillExecutor;
+		ApplicationProperties.Crawler _crawler = __applicationProperties.getCrawler();
+		this.baseUrl = _crawler.getBaseUrl();
+		this.batchDays = Math.max(1, _crawler.getBackfill().getBatchDays());
+		this.rateLimiter = new RateLimiter(_crawler.getBackfill().getPermitsPerSecond());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.service.BackfillService#start(logia.quanlyso.service.dto.BackfillRequestDTO)
+	 */
+	@Override
+	public BackfillStatusDTO start(BackfillRequestDTO __request) {
+		this.log.debug("Request to backfill : {} to {}", __request.getFromDate(), __request.getToDate());
+		if (__request.getFromDate() == null || __request.getToDate() == null
+		        || __request.getFromDate().isAfter(__request.getToDate())) {
+			throw new IllegalArgumentException("Invalid range of days to backfill");
+		}
+		Collection<Channel> _channels;
+		if (__request.getChannelCodes() == null) {
+			_channels = this.channelRepository.findAll();
+		}
+		else {
+			_channels = new ArrayList<>();
+			for (String _channelCode : __request.getChannelCodes()) {
+				_channels.add(this.findChannelByCode(_channelCode));
+			}
+		}
+
+		synchronized (this.lock) {
+			for (Channel _channel : _channels) {
+				if (this.active.contains(_channel.getId()) && !this.hasRange(_channel, __request)) {
+					// Its walk would write the old range over the restarted checkpoint
+					throw new IllegalStateException(
+					        "Channel " + _channel.getCode() + " is still backfilled, pause it before changing its range");
+				}
+			}
+			this.paused = false;
+			for (Channel _channel : _channels) {
+				Checkpoint _checkpoint = this.transactionTemplate.execute(
+				        __status -> this.saveCheckpoint(_channel, __request.getFromDate(), __request.getToDate()));
+				if (!BackfillServiceImpl.DONE.equals(_checkpoint.status)) {
+					this.submit(_checkpoint);
+				}
+			}
+		}
+		return this.getStatus();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.service.BackfillService#pause()
+	 */
+	@Override
+	public BackfillStatusDTO pause() {
+		this.log.debug("Request to pause backfill");
+		synchronized (this.lock) {
+			this.paused = true;
+		}
+		return this.getStatus();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.service.BackfillService#resume()
+	 */
+	@Override
+	public BackfillStatusDTO resume() {
+		this.log.debug("Request to resume backfill");
+		synchronized (this.lock) {
+			this.paused = false;
+			for (Checkpoint _checkpoint : this.jdbcTemplate.query(BackfillServiceImpl.SELECT_CHECKPOINTS,
+			        BackfillServiceImpl::mapCheckpoint)) {
+				if (!BackfillServiceImpl.DONE.equals(_checkpoint.status)) {
+					this.submit(_checkpoint);
+				}
+			}
+		}
+		return this.getStatus();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.service.BackfillService#getStatus()
+	 */
+	@Override
+	public BackfillStatusDTO getStatus() {
+		List<BackfillChannelDTO> _channels = new ArrayList<>();
+		for (Checkpoint _checkpoint : this.jdbcTemplate
+		        .query(BackfillServiceImpl.SELECT_CHECKPOINTS + " order by c.code", BackfillServiceImpl::mapCheckpoint)) {
+			BackfillChannelDTO _dto = new BackfillChannelDTO();
+			_dto.setChannelCode(_checkpoint.channelCode);
+			_dto.setFromDate(_checkpoint.fromDate);
+			_dto.setToDate(_checkpoint.toDate);
+			_dto.setNextDate(_checkpoint.nextDate);
+			_dto.setStatus(_checkpoint.status);
+			_dto.setCrawled(_checkpoint.crawled);
+			_dto.setSkipped(_checkpoint.skipped);
+			_dto.setFailed(_checkpoint.failed);
+			_channels.add(_dto);
+		}
+		BackfillStatusDTO _status = new BackfillStatusDTO();
+		_status.setRunning(!this.active.isEmpty());
+		float _minutes = (System.nanoTime() - this.runStart) / (float) TimeUnit.MINUTES.toNanos(1);
+		_status.setDaysPerMinute(_minutes > 0 ? this.walkedDays.get() / _minutes : 0f);
+		_status.setChannels(_channels);
+		return _status;
+	}
+
+	/**
+	 * Check whether the checkpoint of a channel has the range of a request.
+	 *
+	 * @param __channel the channel
+	 * @param __request the request
+	 * @return true, if the checkpoint has the same range
+	 */
+	private boolean hasRange(Channel __channel, BackfillRequestDTO __request) {
+		List<Checkpoint> _checkpoints = this.jdbcTemplate.query(
+		        BackfillServiceImpl.SELECT_CHECKPOINTS + " where b.channels_id = ?", BackfillServiceImpl::mapCheckpoint,
+		        __channel.getId());
+		return !_checkpoints.isEmpty() && __request.getFromDate().equals(_checkpoints.get(0).fromDate)
+		        && __request.getToDate().equals(_checkpoints.get(0).toDate);
+	}
+
+	/**
+	 * Create the checkpoint of a channel, or restart it if its range changed.
+	 *
+	 * @param __channel the channel
+	 * @param __fromDate the first day
+	 * @param __toDate the last day
+	 * @return the checkpoint
+	 */
+	private Checkpoint saveCheckpoint(Channel __channel, LocalDate __fromDate, LocalDate __toDate) {
+		Timestamp _now = Timestamp.from(Instant.now());
+		List<Checkpoint> _checkpoints = this.jdbcTemplate.query(
+		        BackfillServiceImpl.SELECT_CHECKPOINTS + " where b.channels_id = ?", BackfillServiceImpl::mapCheckpoint,
+		        __channel.getId());
+		if (_checkpoints.isEmpty()) {
+			this.jdbcTemplate.update(BackfillServiceImpl.INSERT_CHECKPOINT, BackfillServiceImpl.toTimestamp(__fromDate),
+			        BackfillServiceImpl.toTimestamp(__toDate), BackfillServiceImpl.toTimestamp(__fromDate),
+			        BackfillServiceImpl.RUNNING, _now, __channel.getId());
+		}
+		else {
+			Checkpoint _checkpoint = _checkpoints.get(0);
+			if (__fromDate.equals(_checkpoint.fromDate) && __toDate.equals(_checkpoint.toDate)) {
+				// Same range, go on from the checkpoint
+				if (!BackfillServiceImpl.DONE.equals(_checkpoint.status)) {
+					this.jdbcTemplate.update(BackfillServiceImpl.UPDATE_STATUS, BackfillServiceImpl.RUNNING, _now,
+					        __channel.getId());
+				}
+				return _checkpoint;
+			}
+			this.jdbcTemplate.update(BackfillServiceImpl.RESTART_CHECKPOINT, BackfillServiceImpl.toTimestamp(__fromDate),
+			        BackfillServiceImpl.toTimestamp(__toDate), BackfillServiceImpl.toTimestamp(__fromDate),
+			        BackfillServiceImpl.RUNNING, _now, __channel.getId());
+		}
+		Checkpoint _checkpoint = new Checkpoint();
+		_checkpoint.channelId = __channel.getId();
+		_checkpoint.channelCode = __channel.getCode();
+		_checkpoint.fromDate = __fromDate;
+		_checkpoint.toDate = __toDate;
+		_checkpoint.nextDate = __fromDate;
+		_checkpoint.status = BackfillServiceImpl.RUNNING;
+		return _checkpoint;
+	}
+
+	/**
+	 * Walk a channel on the backfill executor, unless it is already walked. Called holding the lock.
+	 *
+	 * @param __checkpoint the checkpoint of the channel
+	 */
+	private void submit(Checkpoint __checkpoint) {
+		if (this.active.isEmpty()) {
+			this.walkedDays.set(0L);
+			this.runStart = System.nanoTime();
+		}
+		if (!this.active.add(__checkpoint.channelId)) {
+			return;
+		}
+		this.backfillExecutor.execute(() -> {
+			try {
+				this.walk(__checkpoint);
+			}
+			catch (RuntimeException __ex) {
+				this.log.error("Error when backfill channel " + __checkpoint.channelCode, __ex);
+				synchronized (this.lock) {
+					this.active.remove(__checkpoint.channelId);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Walk the days of a channel from its checkpoint, until done or paused, then leave the active
+	 * channels. The days after a failed day are still crawled, but only counted once walked again
+	 * from the checkpoint, which stays at the failed day.
+	 *
+	 * @param __checkpoint the checkpoint of the channel
+	 */
+	private void walk(Checkpoint __checkpoint) {
+		Channel _channel = this.channelRepository.findOne(__checkpoint.channelId);
+		Set<LocalDate> _savedDates = this.findSavedDates(__checkpoint);
+		Batch _batch = new Batch();
+		LocalDate _day = __checkpoint.nextDate;
+		LocalDate _firstFailed = null;
+		int _walked = 0;
+		boolean _interrupted = false;
+		while (true) {
+			synchronized (this.lock) {
+				if (_interrupted || this.paused || _day.isAfter(__checkpoint.toDate)) {
+					String _status = BackfillServiceImpl.PAUSED;
+					if (!_interrupted && _day.isAfter(__checkpoint.toDate)) {
+						_status = _firstFailed == null ? BackfillServiceImpl.DONE : BackfillServiceImpl.FAILED;
+					}
+					this.checkpoint(_channel, _firstFailed == null ? _day : _firstFailed, _status, _batch);
+					this.active.remove(__checkpoint.channelId);
+					return;
+				}
+			}
+			int _crawled = _batch.crawled;
+			int _skipped = _batch.skipped;
+			int _failed = _batch.failed;
+			if (!BackfillServiceImpl.isOpenOn(_channel, _day.getDayOfWeek()) || _savedDates.contains(_day)) {
+				_batch.skipped++;
+			}
+			else {
+				try {
+					this.rateLimiter.acquire();
+				}
+				catch (InterruptedException __ex) {
+					Thread.currentThread().interrupt();
+					_interrupted = true;
+					continue;
+				}
+				if (!this.crawlDay(_channel, _day, _batch) && _firstFailed == null) {
+					_firstFailed = _day;
+					_failed = _batch.failed;
+				}
+			}
+			if (_firstFailed != null) {
+				// Past the checkpoint, walked and counted again from the failed day
+				_batch.crawled = _crawled;
+				_batch.skipped = _skipped;
+				_batch.failed = _failed;
+			}
+			_day = _day.plusDays(1);
+			this.walkedDays.incrementAndGet();
+			if (++_walked % this.batchDays == 0) {
+				this.checkpoint(_channel, _firstFailed == null ? _day : _firstFailed, BackfillServiceImpl.RUNNING,
+				        _batch);
+				_batch = new Batch();
+			}
+		}
+	}
+
+	/**
+	 * Crawl the results of a channel on a day into a batch.
+	 *
+	 * @param __channel the channel
+	 * @param __day the day
+	 * @param __batch the batch
+	 * @return true, if the page of the day was read, with or without a draw
+	 */
+	private boolean crawlDay(Channel __channel, LocalDate __day, Batch __batch) {
+		ZonedDateTime _openDay = __day.atStartOfDay(DateFormatterUtil.systemZoneId());
+		String _date = DateFormatterUtil.fromDateTimeToStringDDMMYYYY(_openDay);
+		String _url = this.baseUrl + "/" + __channel.getCode() + "/" + _date + ".js";
+		try {
+			LotteryPage _page = this.lotteryPageCrawler.crawl(_url);
+			List<String> _codes = _page.getCodes();
+			if (!_date.equals(_page.getOpenDate()) || _codes.isEmpty()) {
+				// No draw that day, the site shows another one
+				__batch.skipped++;
+				return true;
+			}
+			for (String _code : _codes) {
+				__batch.codes.add(new Code().code(_code).openDate(_openDay).channels(__channel));
+			}
+			__batch.results.add(CodeServiceImpl.toDrawResult(_page, __channel, _openDay));
+			__batch.days.add(_openDay);
+			__batch.crawled++;
+			return true;
+		}
+		catch (Exception __ex) {
+			this.log.warn("Error when backfill channel " + __channel.getCode() + " on " + _date, __ex);
+			__batch.failed++;
+			return false;
+		}
+	}
+
+	/**
+	 * Save a batch of codes with the checkpoint of its channel.
+	 *
+	 * @param __channel the channel
+	 * @param __nextDate the next day to crawl, the first failed day if any
+	 * @param __status the status
+	 * @param __batch the batch
+	 */
+	private void checkpoint(Channel __channel, LocalDate __nextDate, String __status, Batch __batch) {
+		this.transactionTemplate.execute(__transactionStatus -> {
+			this.codeRepository.insertAll(__batch.codes);
+			this.drawResultRepository.insertAll(__batch.results);
+			// Evicted once the batch commits
+			for (ZonedDateTime _openDay : __batch.days) {
+				this.drawIndexCache.evict(DrawKey.of(__channel.getId(), _openDay));
+			}
+			return this.jdbcTemplate.update(BackfillServiceImpl.ADVANCE_CHECKPOINT,
+			        BackfillServiceImpl.toTimestamp(__nextDate), __status, __batch.crawled, __batch.skipped,
+			        __batch.failed, Timestamp.from(Instant.now()), __channel.getId());
+		});
+	}
+
+	/**
+	 * Find the days of a range already saved for a channel.
+	 *
+	 * @param __checkpoint the checkpoint of the channel
+	 * @return the days
+	 */
+	private Set<LocalDate> findSavedDates(Checkpoint __checkpoint) {
+		return new HashSet<>(this.jdbcTemplate.query(BackfillServiceImpl.SELECT_SAVED_DATES,
+		        (__rs, __row) -> BackfillServiceImpl.toLocalDate(__rs.getTimestamp(1)), __checkpoint.channelId,
+		        BackfillServiceImpl.toTimestamp(__checkpoint.nextDate),
+		        BackfillServiceImpl.toTimestamp(__checkpoint.toDate), __checkpoint.channelId,
+		        BackfillServiceImpl.toTimestamp(__checkpoint.nextDate),
+		        BackfillServiceImpl.toTimestamp(__checkpoint.toDate)));
+	}
+
+	/**
+	 * Find channel by code.
+	 *
+	 * @param __code the code
+	 * @return the channel
+	 * @throws NullPointerException the null pointer exception
+	 */
+	private Channel findChannelByCode(String __code) throws NullPointerException {
+		Channel _channel = this.channelRepository.findOneByCode(__code);
+		if (_channel == null) {
+			throw new NullPointerException("Region " + __code + " not found");
+		}
+		return _channel;
+	}
+
+	/**
+	 * Checks if a channel draws on a day of week.
+	 *
+	 * @param __channel the channel
+	 * @param __dayOfWeek the day of week
+	 * @return true, if the channel draws that day
+	 */
+	private static boolean isOpenOn(Channel __channel, DayOfWeek __dayOfWeek) {
+		switch (__dayOfWeek) {
+			case SUNDAY:
+				return Boolean.TRUE.equals(__channel.isSunday());
+			case MONDAY:
+				return Boolean.TRUE.equals(__channel.isMonday());
+			case TUESDAY:
+				return Boolean.TRUE.equals(__channel.isTuesday());
+			case WEDNESDAY:
+				return Boolean.TRUE.equals(__channel.isWednesday());
+			case THURSDAY:
+				return Boolean.TRUE.equals(__channel.isThursday());
+			case FRIDAY:
+				return Boolean.TRUE.equals(__channel.isFriday());
+			default:
+				return Boolean.TRUE.equals(__channel.isSaturday());
+		}
+	}
+
+	/**
+	 * Map a checkpoint row.
+	 *
+	 * @param __rs the result set
+	 * @param __row the row
+	 * @return the checkpoint
+	 * @throws SQLException the SQL exception
+	 */
+	private static Checkpoint mapCheckpoint(ResultSet __rs, int __row) throws SQLException {
+		Checkpoint _checkpoint = new Checkpoint();
+		_checkpoint.channelCode = __rs.getString(1);
+		_checkpoint.channelId = __rs.getLong(2);
+		_checkpoint.fromDate = BackfillServiceImpl.toLocalDate(__rs.getTimestamp(3));
+		_checkpoint.toDate = BackfillServiceImpl.toLocalDate(__rs.getTimestamp(4));
+		_checkpoint.nextDate = BackfillServiceImpl.toLocalDate(__rs.getTimestamp(5));
+		_checkpoint.status = __rs.getString(6);
+		_checkpoint.crawled = __rs.getInt(7);
+		_checkpoint.skipped = __rs.getInt(8);
+		_checkpoint.failed = __rs.getInt(9);
+		return _checkpoint;
+	}
+
+	/**
+	 * To timestamp.
+	 *
+	 * @param __day the day
+	 * @return the timestamp of the start of the day
+	 */
+	private static Timestamp toTimestamp(LocalDate __day) {
+		return Timestamp.from(__day.atStartOfDay(DateFormatterUtil.systemZoneId()).toInstant());
+	}
+
+	/**
+	 * To local date.
+	 *
+	 * @param __timestamp the timestamp
+	 * @return the day
+	 */
+	private static LocalDate toLocalDate(Timestamp __timestamp) {
+		return __timestamp.toInstant().atZone(DateFormatterUtil.systemZoneId()).toLocalDate();
+	}
+
+	/**
+	 * The checkpoint of a channel.
+	 */
+	private static final class Checkpoint {
+
+		/** The channel id. */
+		private long		channelId;
+
+		/** The channel code. */
+		private String		channelCode;
+
+		/** The first day. */
+		private LocalDate	fromDate;
+
+		/** The last day. */
+		private LocalDate	toDate;
+
+		/** The next day to crawl. */
+		private LocalDate	nextDate;
+
+		/** The status. */
+		private String		status;
+
+		/** The days crawled. */
+		private int			crawled;
+
+		/** The days skipped. */
+		private int			skipped;
+
+		/** The days failed. */
+		private int			failed;
+	}
+
+	/**
+	 * The codes and counts of the days walked since the last checkpoint.
+	 */
+	private static final class Batch {
+
+		/** The codes. */
+		private final List<Code>			codes	= new ArrayList<>();
+
+		/** The results of the days saved. */
+		private final List<DrawResult>		results	= new ArrayList<>();
+
+		/** The days saved. */
+		private final List<ZonedDateTime>	days	= new ArrayList<>();
+
+		/** The days crawled. */
+		private int							crawled;
+
+		/** The days skipped. */
+		private int							skipped;
+
+		/** The days failed. */
+		private int							failed;
+	}
+
+	/**
+	 * Spaces out permits evenly, whichever thread takes them.
+	 */
+	private static final class RateLimiter {
+
+		/** The nanoseconds between two permits. */
+		private final long	interval;
+
+		/** The time of the next permit, in nanoseconds. */
+		private long		next	= System.nanoTime();
+
+		/**
+		 * Instantiates a new rate limiter.
+		 *
+		 * @param __permitsPerSecond the permits per second, unlimited if not positive
+		 */
+		RateLimiter(double __permitsPerSecond) {
+			this.interval = __permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / __permitsPerSecond) : 0L;
+		}
+
+		/**
+		 * Wait for a permit.
+		 *
+		 * @throws InterruptedException if interrupted while waiting
+		 */
+		void acquire() throws InterruptedException {
+			long _wait;
+			synchronized (this) {
+				long _now = System.nanoTime();
+				long _at = Math.max(_now, this.next);
+				this.next = _at + this.interval;
+				_wait = _at - _now;
+			}
+			if (_wait > 0) {
+				TimeUnit.NANOSECONDS.sleep(_wait);
+			}
+		}
+	}
+}
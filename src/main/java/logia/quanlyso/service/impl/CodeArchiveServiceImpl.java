@@ -0,0 +1,99 @@
+package logia.quanlyso.service.impl;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import logia.quanlyso.config.ApplicationProperties;
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.repository.CodeRepository;
+import logia.quanlyso.service.CodeArchiveService;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Service Implementation for archiving the codes of old draws.
+ * <p>
+ * The code table only keeps the draws of the last days, those crawled, settled and looked up
+ * every day. Older draws are moved to the month-partitioned {@code code_archive} every night, and
+ * still found by the draw lookups of {@link CodeRepository}.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+@Service
+public class CodeArchiveServiceImpl implements CodeArchiveService {
+
+	/** The log. */
+	private final Logger				log	= LoggerFactory.getLogger(CodeArchiveServiceImpl.class);
+
+	/** The code repository. */
+	private final CodeRepository		codeRepository;
+
+	/** The transaction template, one transaction per month. */
+	private final TransactionTemplate	transactionTemplate;
+
+	/** Whether old draws are archived every night. */
+	private final boolean				enabled;
+
+	/**
+	 * Instantiates a new code archive service impl.
+	 *
+	 * @param __codeRepository the code repository
+	 * @param __transactionManager the transaction manager
+	 * @param __applicationProperties the application properties
+	 */
+	public CodeArchiveServiceImpl(CodeRepository __codeRepository, PlatformTransactionManager __transactionManager,
+	        ApplicationProperties __applicationProperties) {
+		this.codeRepository = __codeRepository;
+		this.transactionTemplate = new TransactionTemplate(__transactionManager);
+		this.enabled = __applicationProperties.getArchive().isEnabled();
+	}
+
+	/**
+	 * Archive the old draws.
+	 * <p>
+	 * This is scheduled to get fired everyday, at 03:30 (am), away from the draws and settlements.
+	 * </p>
+	 */
+	@Scheduled(cron = "0 30 3 * * ?")
+	public void archiveOldDraws() {
+		if (this.enabled) {
+			this.archive();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.service.CodeArchiveService#archive()
+	 */
+	@Override
+	public int archive() {
+		ZonedDateTime _horizon = this.codeRepository.getArchiveHorizon();
+		Code _oldest = this.codeRepository.findFirstByOpenDateBeforeOrderByOpenDateAsc(_horizon);
+		if (_oldest == null) {
+			return 0;
+		}
+		ZoneId _zoneId = DateFormatterUtil.systemZoneId();
+		LocalDate _month = _oldest.getOpenDate().withZoneSameInstant(_zoneId).toLocalDate().withDayOfMonth(1);
+		int _moved = 0;
+		ZonedDateTime _fromDate = _month.atStartOfDay(_zoneId);
+		while (_fromDate.isBefore(_horizon)) {
+			_month = _month.plusMonths(1);
+			ZonedDateTime _nextMonth = _month.atStartOfDay(_zoneId);
+			ZonedDateTime _toDate = _nextMonth.isBefore(_horizon) ? _nextMonth : _horizon;
+			ZonedDateTime _chunkFrom = _fromDate;
+			_moved += this.transactionTemplate.execute(__status -> this.codeRepository.archive(_chunkFrom, _toDate));
+			_fromDate = _nextMonth;
+		}
+		this.log.info("Archived {} codes of the draws before {}", _moved, _horizon.toLocalDate());
+		return _moved;
+	}
+}
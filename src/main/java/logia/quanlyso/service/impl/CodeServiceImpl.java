@@ -1,49 +1,60 @@
 package logia.quanlyso.service.impl;
 
 import java.text.MessageFormat;
-import java.text.ParseException;
-import java.time.ZoneId;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
 
-import com.gargoylesoftware.htmlunit.html.HtmlOption;
-import com.gargoylesoftware.htmlunit.html.HtmlPage;
-import com.gargoylesoftware.htmlunit.html.HtmlSelect;
-import com.gargoylesoftware.htmlunit.html.HtmlTable;
-import com.gargoylesoftware.htmlunit.html.HtmlTableCell;
-import com.gargoylesoftware.htmlunit.html.HtmlTableRow;
-
-import logia.quanlyso.client.HttpUnitRequest;
+import logia.quanlyso.client.LotteryPage;
+import logia.quanlyso.client.LotteryPageCrawler;
+import logia.quanlyso.config.ApplicationProperties;
 import logia.quanlyso.domain.Channel;
 import logia.quanlyso.domain.Code;
-import logia.quanlyso.domain.CostFactor;
-import logia.quanlyso.domain.Factor;
-import logia.quanlyso.domain.ProfitFactor;
-import logia.quanlyso.domain.Style;
-import logia.quanlyso.domain.StyleConstants;
-import logia.quanlyso.domain.TransactionDetails;
+import logia.quanlyso.domain.DrawResult;
 import logia.quanlyso.domain.Transactions;
-import logia.quanlyso.domain.Types;
-import logia.quanlyso.domain.TypesConstants;
-import logia.quanlyso.listener.ProcessingListener;
+import logia.quanlyso.listener.DrawResultsSavedEvent;
 import logia.quanlyso.repository.ChannelRepository;
 import logia.quanlyso.repository.CodeRepository;
-import logia.quanlyso.repository.CostFactorRepository;
-import logia.quanlyso.repository.ProfitFactorRepository;
+import logia.quanlyso.repository.DrawResultRepository;
 import logia.quanlyso.service.CodeService;
+import logia.quanlyso.service.crawl.CrawlJob;
+import logia.quanlyso.service.crawl.CrawlJobRegistry;
 import logia.quanlyso.service.dto.CodeDTO;
+import logia.quanlyso.service.dto.CrawlJobDTO;
 import logia.quanlyso.service.dto.ProcessingDTO;
 import logia.quanlyso.service.mapper.CodeMapper;
+import logia.quanlyso.service.settlement.DrawIndexCache;
+import logia.quanlyso.service.settlement.DrawKey;
+import logia.quanlyso.service.settlement.SettlementContext;
+import logia.quanlyso.service.settlement.SettlementContextLoader;
+import logia.quanlyso.service.settlement.SettlementEngine;
 import logia.quanlyso.service.util.DateFormatterUtil;
 
 /**
@@ -65,41 +76,91 @@ public class CodeServiceImpl implements CodeService {
 	/** The code mapper. */
 	private final CodeMapper					codeMapper;
 
-	/** The cost factor repository. */
-	private final CostFactorRepository			costFactorRepository;
-
-	/** The profit factor repository. */
-	private final ProfitFactorRepository		profitFactorRepository;
-
 	/** The channel repository. */
 	private final ChannelRepository			channelRepository;
 
+	/** The draw result repository. */
+	private final DrawResultRepository		drawResultRepository;
+
 	/** The base url. */
 	private final String					baseUrl;
 	
-	/** The processing listener. */
-	private final ProcessingListener processingListener;
+	/** The crawl jobs. */
+	private final CrawlJobRegistry			crawlJobRegistry;
+
+	/** The draw index cache. */
+	private final DrawIndexCache			drawIndexCache;
+
+	/** The settlement context loader. */
+	private final SettlementContextLoader	settlementContextLoader;
+
+	/** The settlement engine. */
+	private final SettlementEngine			settlementEngine;
+
+	/** The application event publisher. */
+	private final ApplicationEventPublisher	applicationEventPublisher;
+
+	/** The crawler reading results pages. */
+	private final LotteryPageCrawler		lotteryPageCrawler;
+
+	/** The executor crawling channels. */
+	private final AsyncTaskExecutor			crawlExecutor;
+
+	/** The executor running crawl jobs, each waiting for its channels. */
+	private final Executor					crawlJobExecutor;
+
+	/** The transaction manager. */
+	private final PlatformTransactionManager	transactionManager;
+
+	/** The transaction of a channel crawl, one per channel. */
+	private final TransactionDefinition		crawlTransaction;
+
+	/** The milliseconds the channels of a job may take to be crawled and saved. */
+	private final long						crawlTimeout;
 
 	/**
 	 * Instantiates a new code service impl.
 	 *
 	 * @param codeRepository the code repository
 	 * @param codeMapper the code mapper
-	 * @param costFactorRepository the cost factor repository
-	 * @param profitFactorRepository the profit factor repository
 	 * @param channelRepository the channel repository
-	 * @param __processingListener the processing listener
+	 * @param __drawResultRepository the draw result repository
+	 * @param __crawlJobRegistry the crawl jobs
+	 * @param __drawIndexCache the draw index cache
+	 * @param __settlementContextLoader the settlement context loader
+	 * @param __settlementEngine the settlement engine
+	 * @param __applicationEventPublisher the application event publisher
+	 * @param __lotteryPageCrawler the crawler reading results pages
+	 * @param __crawlExecutor the executor crawling channels
+	 * @param __crawlJobExecutor the executor running crawl jobs, each waiting for its channels
+	 * @param __transactionManager the transaction manager
+	 * @param __applicationProperties the application properties
 	 */
 	public CodeServiceImpl(CodeRepository codeRepository, CodeMapper codeMapper,
-			CostFactorRepository costFactorRepository,
-	        ProfitFactorRepository profitFactorRepository, ChannelRepository channelRepository, ProcessingListener __processingListener) {
+	        ChannelRepository channelRepository, DrawResultRepository __drawResultRepository,
+	        CrawlJobRegistry __crawlJobRegistry,
+	        DrawIndexCache __drawIndexCache, SettlementContextLoader __settlementContextLoader,
+	        SettlementEngine __settlementEngine, ApplicationEventPublisher __applicationEventPublisher,
+	        LotteryPageCrawler __lotteryPageCrawler, @Qualifier("crawlExecutor") AsyncTaskExecutor __crawlExecutor,
+	        @Qualifier("crawlJobExecutor") Executor __crawlJobExecutor, PlatformTransactionManager __transactionManager, ApplicationProperties __applicationProperties) {
 		this.codeRepository = codeRepository;
 		this.codeMapper = codeMapper;
-		this.costFactorRepository = costFactorRepository;
-		this.profitFactorRepository = profitFactorRepository;
 		this.channelRepository = channelRepository;
-		this.baseUrl = "http://www.minhngoc.net.vn/getkqxs";
-		this.processingListener = __processingListener;
+		this.drawResultRepository = __drawResultRepository;
+		this.baseUrl = __applicationProperties.getCrawler().getBaseUrl();
+		this.crawlJobRegistry = __crawlJobRegistry;
+		this.drawIndexCache = __drawIndexCache;
+		this.settlementContextLoader = __settlementContextLoader;
+		this.settlementEngine = __settlementEngine;
+		this.applicationEventPublisher = __applicationEventPublisher;
+		this.lotteryPageCrawler = __lotteryPageCrawler;
+		this.crawlExecutor = __crawlExecutor;
+		this.crawlJobExecutor = __crawlJobExecutor;
+		this.transactionManager = __transactionManager;
+		this.crawlTransaction = new DefaultTransactionDefinition(
+		        TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.crawlTimeout = TimeUnit.SECONDS
+		        .toMillis(__applicationProperties.getCrawler().getTimeoutSeconds());
 	}
 
 	/**
@@ -113,6 +174,7 @@ public class CodeServiceImpl implements CodeService {
 		this.log.debug("Request to save Code : {}", codeDTO);
 		Code code = this.codeMapper.toEntity(codeDTO);
 		code = this.codeRepository.save(code);
+		this.evictDrawIndex(code);
 		CodeDTO result = this.codeMapper.toDto(code);
 		return result;
 	}
@@ -154,9 +216,23 @@ public class CodeServiceImpl implements CodeService {
 	@Override
 	public void delete(Long id) {
 		this.log.debug("Request to delete Code : {}", id);
+		this.evictDrawIndex(this.codeRepository.findOne(id));
 		this.codeRepository.delete(id);
 	}
 
+	/**
+	 * Evict the index of the draw a code belongs to, and its packed results: the draw is read back
+	 * from its code rows. The index is evicted once the change of the code commits.
+	 *
+	 * @param __code the code
+	 */
+	private void evictDrawIndex(Code __code) {
+		if (__code != null && __code.getChannels() != null && __code.getOpenDate() != null) {
+			this.drawResultRepository.delete(__code.getChannels().getId(), __code.getOpenDate());
+			this.drawIndexCache.evict(DrawKey.of(__code.getChannels().getId(), __code.getOpenDate()));
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -164,123 +240,131 @@ public class CodeServiceImpl implements CodeService {
 	 */
 	@Override
 	public Transactions calculate(Transactions __transactions) {
-		String _chosenNumber = __transactions.getChosenNumber();
-		float _netValue = 0f;
-		for (TransactionDetails _details : __transactions.getTransactionDetails()) {
-			// Get all condition
-			Channel _channel = _details.getChannels();
-			Factor _factor = _details.getFactors();
-			Style _style = _details.getStyles();
-			Types _types = _details.getTypes();
-
-			// Get open date
-			ZonedDateTime _openDate = __transactions.getOpenDate();
-			if (_openDate == null) {
-				// If not set, Assume transactions of current date
-				_openDate = ZonedDateTime.now(DateFormatterUtil.systemZoneId());	
-			}
-			else {
-				_openDate = _openDate.withZoneSameInstant(DateFormatterUtil.systemZoneId());
-			}
-			ZonedDateTime _formattedDate = _openDate.withHour(0).withMinute(0).withSecond(0).withNano(0);
-			List<Code> _listCodes = this.codeRepository.findAllByChannelsAndOpenDate(_channel,
-					_formattedDate);
-			_listCodes = this.getMatchCondition(_chosenNumber, _listCodes, _style, _types);
-			CostFactor _costFactor = this.costFactorRepository
-					.findOneByFactorsAndStylesAndTypes(_factor, _style, _types);
-			ProfitFactor _profitFactor = this.profitFactorRepository
-					.findOneByFactorsAndStylesAndTypes(_factor, _style, _types);
-			float _amount = _details.getAmount();
-			_details.costs(_amount * _costFactor.getRate()).profit(_amount * _profitFactor.getRate() * _listCodes.size());
-
-			_netValue = _netValue + _details.getProfit() - _details.getCosts();
-		}
-		__transactions.setNetValue(_netValue);
+		return this.calculateAll(Collections.singletonList(__transactions)).get(0);
+	}
 
-		return __transactions;
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see logia.quanlyso.service.CodeService#calculateAll(java.util.List)
+	 */
+	@Override
+	public List<Transactions> calculateAll(List<Transactions> __transactions) {
+		int[] _drawDays = SettlementContext.drawDaysOf(__transactions);
+		SettlementContext _context = this.settlementContextLoader.load(__transactions, _drawDays);
+		return this.settlementEngine.settle(__transactions, _drawDays, _context);
 	}
 
 	/**
-	 * Gets the match condition.
+	 * Start a crawl job and return at once, the job waiting for its channels on the crawl job
+	 * executor.
 	 *
-	 * @param chosenNumber the chosen number
-	 * @param listCodes the list codes
-	 * @param style the style
-	 * @param types the types
-	 * @return the match condition
+	 * @param __channelCodes the channel codes
+	 * @return the crawl job, just started
 	 */
-	private List<Code> getMatchCondition(String chosenNumber, List<Code> listCodes, Style style,
-			Types types) {
-		List<Code> filtered = new ArrayList<>();
-
-		if (types.getId().equals(TypesConstants.TOP.getId())) {
-			if (style.getId().equals(StyleConstants.TWO_NUM.getId())) {
-				filtered = this.filterCodeOnTop(listCodes, 2);
-			}
-			else if (style.getId().equals(StyleConstants.THREE_NUM.getId())) {
-				filtered = this.filterCodeOnTop(listCodes, 3);
-			}
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public CrawlJobDTO startCrawl(Collection<String> __channelCodes) {
+		CrawlJob _job = this.crawlJobRegistry.create(__channelCodes);
+		try {
+			this.crawlJobExecutor.execute(() -> this.runCrawlJob(_job, __channelCodes));
 		}
-		else if (types.getId().equals(TypesConstants.BOTH.getId())) {
-			if (style.getId().equals(StyleConstants.TWO_NUM.getId())) {
-				filtered = this.filterCodeOnTop(listCodes, 2);
-			}
-			else if (style.getId().equals(StyleConstants.THREE_NUM.getId())) {
-				filtered = this.filterCodeOnTop(listCodes, 3);
+		catch (RejectedExecutionException __ex) {
+			for (String _channelCode : __channelCodes) {
+				this.onCrawlFailed(_job.channel(_channelCode), _channelCode, __ex);
 			}
-			filtered.addAll(this.filterCodeOnBottom(listCodes));
 		}
-		else if (types.getId().equals(TypesConstants.BOTTOM.getId())) {
-			filtered = this.filterCodeOnBottom(listCodes);
-		}
-		else if (types.getId().equals(TypesConstants.ROLL.getId())) {
-			filtered = listCodes;
-		}
-
-		return filtered.stream().filter(code -> code.getCode().contains(chosenNumber))
-		        .collect(Collectors.toList());
+		return _job.toDTO();
 	}
 
 	/**
-	 * Filter code on top.
+	 * Crawl the channels of a job concurrently on the crawl executor, each channel in its own
+	 * transaction.
+	 * <p>
+	 * A channel failing, or not done once the crawl timeout has passed since its submission, is
+	 * logged and abandoned, the other channels are still saved. The channels share one deadline, so
+	 * a job waits for the crawl timeout at most, however many channels are slow.
+	 * </p>
 	 *
-	 * @param codes the codes
-	 * @param length the length
-	 * @return the list
+	 * @param __job the crawl job
+	 * @param __channelCodes the channel codes
 	 */
-	private List<Code> filterCodeOnTop(List<Code> codes, int length) {
-		List<Code> filtered = new ArrayList<>();
-		filtered = codes.stream().filter(code -> code.getCode().length() == length)
-				.collect(Collectors.toList());
-		return filtered;
+	private void runCrawlJob(CrawlJob __job, Collection<String> __channelCodes) {
+		Map<String, Future<?>> _crawls = new LinkedHashMap<>();
+		long _deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.crawlTimeout);
+		try {
+			for (String _channelCode : __channelCodes) {
+				CrawlJob.ChannelProgress _progress = __job.channel(_channelCode);
+				try {
+					_crawls.put(_channelCode, this.crawlExecutor.submit(() -> {
+						this.crawlChannel(_channelCode, _progress);
+						return null;
+					}));
+				}
+				catch (RejectedExecutionException __ex) {
+					this.onCrawlFailed(_progress, _channelCode, __ex);
+				}
+			}
+			for (Map.Entry<String, Future<?>> _crawl : _crawls.entrySet()) {
+				CrawlJob.ChannelProgress _progress = __job.channel(_crawl.getKey());
+				try {
+					_crawl.getValue().get(Math.max(0L, _deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+				}
+				catch (TimeoutException __ex) {
+					_crawl.getValue().cancel(true);
+					this.onCrawlFailed(_progress, _crawl.getKey(), __ex);
+				}
+				catch (ExecutionException __ex) {
+					this.onCrawlFailed(_progress, _crawl.getKey(), __ex.getCause());
+				}
+			}
+		}
+		catch (InterruptedException __ex) {
+			// Interrupted while waiting, do not leave channels crawling
+			_crawls.forEach((__channelCode, __crawl) -> {
+				__crawl.cancel(true);
+				__job.channel(__channelCode).failed(__ex);
+			});
+			Thread.currentThread().interrupt();
+		}
 	}
 
 	/**
-	 * Filter code on bottom.
+	 * Log and record a channel that could not be crawled.
 	 *
-	 * @param codes the codes
-	 * @return the list
+	 * @param __progress the progress of the channel
+	 * @param __channelCode the channel code
+	 * @param __cause the cause
 	 */
-	private List<Code> filterCodeOnBottom(List<Code> codes) {
-		List<Code> filtered = new ArrayList<>();
-		filtered = codes.stream().filter(code -> code.getCode().length() == 6)
-				.collect(Collectors.toList()); // 6 is max length of code
-		return filtered;
+	private void onCrawlFailed(CrawlJob.ChannelProgress __progress, String __channelCode, Throwable __cause) {
+		this.log.error("Error when crawl channel " + __channelCode, __cause);
+		__progress.failed(__cause);
 	}
 
-	/* (non-Javadoc)
-	 * @see logia.quanlyso.service.CodeService#crawlLotteriesFromMinhNgocSite(java.util.Collection)
+	/**
+	 * Crawl a channel in a new transaction, rolled back if the crawl was cancelled meanwhile.
+	 *
+	 * @param __channelCode the channel code
+	 * @param __progress the progress of the channel
+	 * @throws Exception the exception
 	 */
-	@Override
-	public void crawlLotteriesFromMinhNgocSite(Collection<String> __channelCodes) throws Exception {
-		this.processingListener.setTotal(__channelCodes.size());
-		for (String _channelCode : __channelCodes) {
-			this.crawlLotteriesFromMinhNgocSite(_channelCode);
-			this.processingListener.nextProcessing();
+	private void crawlChannel(String __channelCode, CrawlJob.ChannelProgress __progress) throws Exception {
+		TransactionStatus _status = this.transactionManager.getTransaction(this.crawlTransaction);
+		try {
+			this.crawlLatestResults(__channelCode, __progress);
 		}
-		this.processingListener.resetProcessing();
+		catch (Exception | Error __ex) {
+			this.transactionManager.rollback(_status);
+			throw __ex;
+		}
+		if (Thread.currentThread().isInterrupted()) {
+			this.transactionManager.rollback(_status);
+			throw new InterruptedException("Crawl of channel " + __channelCode + " cancelled");
+		}
+		this.transactionManager.commit(_status);
+		__progress.saved();
 	}
-	
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -291,42 +375,47 @@ public class CodeServiceImpl implements CodeService {
 	@Override
 	@Transactional
 	public void crawlLotteriesFromMinhNgocSite(String __channelCode) throws Exception {
+		this.crawlLatestResults(__channelCode, null);
+	}
+
+	/**
+	 * Crawl the latest results of a channel.
+	 *
+	 * @param __channelCode the channel code
+	 * @param __progress the progress of the channel in a crawl job, null if not part of a job
+	 * @throws Exception the exception
+	 */
+	private void crawlLatestResults(String __channelCode, CrawlJob.ChannelProgress __progress)
+	        throws Exception {
 		// Get channel by code
 		Channel _channel = this.findChannelByCode(__channelCode);
 
 		String _url = this.baseUrl + "/{0}.js";
 		_url = MessageFormat.format(_url, __channelCode);
-		try (HttpUnitRequest _httpUnitRequest = new HttpUnitRequest(_url);) {
-			HtmlPage _page = _httpUnitRequest.crawl();
-
-			ZonedDateTime _openDay;
-
-			List<HtmlSelect> _selectTags = _page.getByXPath("//*[@id=\"box_kqxs_ngay\"]");
-			if (_selectTags.size() > 0) {
-				HtmlSelect _htmlSelect = _selectTags.get(0);
-				HtmlOption _optionTag = _htmlSelect.getSelectedOptions().get(0);
-				String _lastSubmidDate = _optionTag.getValueAttribute();
-				_openDay = DateFormatterUtil.fromDDMMYYYYStringToZonedDateTime(_lastSubmidDate);
-			}
-			else {
-				throw new NullPointerException("ID box_kqxs_ngay not found");
-			}
-			List<Code> _codes = this.codeRepository.findAllByChannelsAndOpenDate(_channel,
-			        _openDay);
-			if (_codes.size() > 0) {
-				// Data was crawl before, skip and run next region
-				return;
-			}
-
-			// Crawl code data and push into list entities
-			this.crawlLotteryData(_page, _channel, _openDay, _codes);
-
-			// Save all entities into db
-			this.codeRepository.save(_codes);
+		if (__progress != null) {
+			__progress.fetching();
 		}
-		catch (Exception __ex) {
-			throw __ex;
+		LotteryPage _page = this.lotteryPageCrawler.crawl(_url);
+		if (__progress != null) {
+			__progress.parsing();
+		}
+		if (_page.getOpenDate() == null) {
+			throw new NullPointerException("ID box_kqxs_ngay not found");
+		}
+		ZonedDateTime _openDay = DateFormatterUtil.fromDDMMYYYYStringToZonedDateTime(_page.getOpenDate());
+		List<Code> _codes = this.codeRepository.findDraw(_channel.getId(), _openDay);
+		if (_codes.size() > 0) {
+			// Data was crawl before, skip and run next region
+			return;
 		}
+
+		// Crawl code data and push into list entities
+		CodeServiceImpl.crawlLotteryData(_page, _channel, _openDay, _codes);
+
+		// Save all entities into db
+		this.codeRepository.insertAll(_codes);
+		this.drawResultRepository.save(CodeServiceImpl.toDrawResult(_page, _channel, _openDay));
+		this.onDrawResultsSaved(DrawKey.of(_channel.getId(), _openDay), null, _codes);
 	}
 
 	/*
@@ -345,10 +434,14 @@ public class CodeServiceImpl implements CodeService {
 
 		// Check update or insert new code
 		ZonedDateTime _openDay = DateFormatterUtil.fromDDMMYYYYStringToZonedDateTime(__date);
-		List<Code> _codes = this.codeRepository.findAllByChannelsAndOpenDate(_channel, _openDay);
+		List<Code> _codes = this.codeRepository.findDraw(_channel.getId(), _openDay);
+		List<String> _previousCodes = null;
 		if (_codes.size() > 0) {
 			if (__forceUpdate) {
-				this.codeRepository.delete(_codes);
+				// Keep the replaced numbers to settle again the affected transactions
+				_previousCodes = _codes.stream().map(Code::getCode).collect(Collectors.toList());
+				// Delete before the batched inserts, sent out of the session, archived or not
+				this.codeRepository.deleteDraw(_channel.getId(), _openDay);
 				_codes.clear();
 			}
 			else {
@@ -365,68 +458,153 @@ public class CodeServiceImpl implements CodeService {
 		}
 		_url = MessageFormat.format(_url, __channelCode, __date);
 		this.log.debug("Trying crawl data from URL " + _url);
-		try (HttpUnitRequest _httpUnitRequest = new HttpUnitRequest(_url);) {
-			HtmlPage _page = _httpUnitRequest.crawl();
+		LotteryPage _page = this.lotteryPageCrawler.crawl(_url);
 
-			// Crawl code data and push into list entities
-			this.crawlLotteryData(_page, _channel, _openDay, _codes);
+		// Crawl code data and push into list entities
+		CodeServiceImpl.crawlLotteryData(_page, _channel, _openDay, _codes);
 
-			// Save all entities into db
-			this.codeRepository.save(_codes);
+		// Save all entities into db
+		this.codeRepository.insertAll(_codes);
+		this.drawResultRepository.save(CodeServiceImpl.toDrawResult(_page, _channel, _openDay));
+		this.onDrawResultsSaved(DrawKey.of(_channel.getId(), _openDay), _previousCodes, _codes);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see logia.quanlyso.service.CodeService#crawlCompleteResults(java.lang.String,
+	 * java.time.LocalDate, int)
+	 */
+	@Override
+	@Transactional
+	public boolean crawlCompleteResults(String __channelCode, LocalDate __drawDate, int __codes)
+	        throws Exception {
+		Channel _channel = this.findChannelByCode(__channelCode);
+		ZonedDateTime _openDay = __drawDate.atStartOfDay(DateFormatterUtil.systemZoneId());
+		List<Code> _codes = this.codeRepository.findDraw(_channel.getId(), _openDay);
+		if (_codes.size() > 0) {
+			return true;
 		}
-		catch (Exception __ex) {
-			throw __ex;
+
+		String _url = MessageFormat.format(this.baseUrl + "/{0}.js", __channelCode);
+		LotteryPage _page = this.lotteryPageCrawler.crawl(_url);
+		if (_page.getOpenDate() == null
+		        || !_openDay.equals(DateFormatterUtil.fromDDMMYYYYStringToZonedDateTime(_page.getOpenDate()))) {
+			// Still the results of the previous draw
+			return false;
 		}
+		List<String> _numbers = _page.getCodes();
+		if (_numbers.size() < __codes || !_numbers.stream().allMatch(CodeServiceImpl::isNumber)) {
+			// Still being drawn
+			return false;
+		}
+
+		CodeServiceImpl.crawlLotteryData(_page, _channel, _openDay, _codes);
+		this.codeRepository.insertAll(_codes);
+		this.drawResultRepository.save(CodeServiceImpl.toDrawResult(_page, _channel, _openDay));
+		this.onDrawResultsSaved(DrawKey.of(_channel.getId(), _openDay), null, _codes);
+		return true;
 	}
-	
+
 	/* (non-Javadoc)
 	 * @see logia.quanlyso.service.CodeService#getCrawlProcessing()
 	 */
 	@Override
 	public ProcessingDTO getCrawlProcessing() {
-		ProcessingDTO _dto = new ProcessingDTO(this.processingListener.getProcessing(),
-		        this.processingListener.getTotal());
-		return _dto;
+		int _processing = 0;
+		int _total = 0;
+		for (CrawlJob _job : this.crawlJobRegistry.findRunning()) {
+			_processing += _job.getProcessed();
+			_total += _job.getTotal();
+		}
+		return new ProcessingDTO(_processing, _total);
+	}
+
+	/* (non-Javadoc)
+	 * @see logia.quanlyso.service.CodeService#awaitCrawlJob(java.lang.String, int, java.util.function.Consumer)
+	 */
+	@Override
+	public Runnable awaitCrawlJob(String __id, int __processed, Consumer<CrawlJobDTO> __callback) {
+		CrawlJob _job = this.crawlJobRegistry.find(__id);
+		if (_job == null) {
+			return null;
+		}
+		Consumer<CrawlJob> _callback = __progressed -> __callback.accept(__progressed.toDTO());
+		_job.onProgress(__processed, _callback);
+		return () -> _job.removeProgress(_callback);
+	}
+
+	/* (non-Javadoc)
+	 * @see logia.quanlyso.service.CodeService#getCrawlJob(java.lang.String)
+	 */
+	@Override
+	public CrawlJobDTO getCrawlJob(String __id) {
+		CrawlJob _job = this.crawlJobRegistry.find(__id);
+		return _job == null ? null : _job.toDTO();
 	}
 
 	/**
 	 * Crawl lottery data.
+	 * <p>
+	 * Package-private for the crawler benchmark.
+	 * </p>
 	 *
 	 * @param __page the page
 	 * @param __channel the channel
 	 * @param __date the date
 	 * @param __codes the codes
-	 * @throws ParseException the parse exception
 	 */
-	private void crawlLotteryData(HtmlPage __page, Channel __channel, ZonedDateTime __date,
-	        List<Code> __codes) throws ParseException {
-		// KQXS mien nam
-		List<HtmlTable> _tableTags = __page.getByXPath("/html/body/div[2]/div[1]/div/div[2]/table");
-		if (_tableTags.size() == 0) {
-			// KQXS mien bac
-			_tableTags = __page.getByXPath("/html/body/div[2]/div/div[2]/table");
-			if (_tableTags.size() == 0) {
-				throw new NullPointerException("KQXS not found");
-			}
+	static void crawlLotteryData(LotteryPage __page, Channel __channel, ZonedDateTime __date,
+	        List<Code> __codes) {
+		if (__page.getPrizes().isEmpty()) {
+			throw new NullPointerException("KQXS not found");
 		}
+		for (String _lotteryCode : __page.getCodes()) {
+			Code _lottery = new Code().code(_lotteryCode).openDate(__date).channels(__channel);
+			__codes.add(_lottery);
+		}
+	}
 
-		for (HtmlTable _tableTag : _tableTags) {
-			List<HtmlTableRow> _rowTags = _tableTag.getRows();
-			for (HtmlTableRow _rowTag : _rowTags) {
-				List<HtmlTableCell> _cells = _rowTag.getCells();
-				for (HtmlTableCell _cell : _cells) {
-					if (_cell.getAttribute("class").toLowerCase().contains("giai")
-					        && !_cell.hasAttribute("nowrap")) {
-						String[] _lotteryCodes = _cell.asText().split("-");
-						for (String _lotteryCode : _lotteryCodes) {
-							Code _lottery = new Code().code(_lotteryCode.trim()).openDate(__date)
-							        .channels(__channel);
-							__codes.add(_lottery);
-						}
-					}
-				}
+	/**
+	 * Gets the results of a draw by prize tier from its results page.
+	 *
+	 * @param __page the results page
+	 * @param __channel the channel
+	 * @param __date the date
+	 * @return the draw result
+	 */
+	static DrawResult toDrawResult(LotteryPage __page, Channel __channel, ZonedDateTime __date) {
+		return new DrawResult(__channel.getId(), __date, __page.getPrizes().stream()
+		        .map(__prize -> new DrawResult.Prize(__prize.getTier(), __prize.getCodes()))
+		        .collect(Collectors.toList()));
+	}
+
+	/**
+	 * Publish the saved results of a draw to settlement.
+	 *
+	 * @param __drawKey the draw key
+	 * @param __previousCodes the replaced codes, null if the draw had none
+	 * @param __codes the saved codes
+	 */
+	private void onDrawResultsSaved(DrawKey __drawKey, List<String> __previousCodes, List<Code> __codes) {
+		this.drawIndexCache.refresh(__drawKey, __codes);
+		this.applicationEventPublisher.publishEvent(new DrawResultsSavedEvent(__drawKey, __previousCodes,
+		        __codes.stream().map(Code::getCode).collect(Collectors.toList())));
+	}
+
+	/**
+	 * Checks if a crawled number is fully drawn.
+	 *
+	 * @param __code the code
+	 * @return true, if only made of digits
+	 */
+	private static boolean isNumber(String __code) {
+		for (int _i = 0; _i < __code.length(); _i++) {
+			if (!Character.isDigit(__code.charAt(_i))) {
+				return false;
 			}
 		}
+		return !__code.isEmpty();
 	}
 
 	/**
@@ -0,0 +1,203 @@
+package logia.quanlyso.service.impl;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import logia.quanlyso.domain.StyleConstants;
+import logia.quanlyso.domain.TransactionDetails;
+import logia.quanlyso.domain.Transactions;
+import logia.quanlyso.domain.TypesConstants;
+import logia.quanlyso.service.ExposureService;
+import logia.quanlyso.service.dto.ExposureDTO;
+import logia.quanlyso.service.exposure.ExposureBook;
+import logia.quanlyso.service.settlement.DrawKey;
+import logia.quanlyso.service.util.MoneyUtil;
+
+/**
+ * Service Implementation for the liability of open transactions per number.
+ *
+ * @author Dai Mai
+ */
+@Service
+@Transactional
+public class ExposureServiceImpl implements ExposureService {
+
+	/** The log. */
+	private final Logger		log	= LoggerFactory.getLogger(ExposureServiceImpl.class);
+
+	/** The exposure book. */
+	private final ExposureBook	exposureBook;
+
+	/**
+	 * Instantiates a new exposure service impl.
+	 *
+	 * @param exposureBook the exposure book
+	 */
+	public ExposureServiceImpl(ExposureBook exposureBook) {
+		this.exposureBook = exposureBook;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see logia.quanlyso.service.ExposureService#findTopExposures(java.lang.Long,
+	 * java.time.ZonedDateTime, int)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<ExposureDTO> findTopExposures(Long channelId, ZonedDateTime openDate, int size) {
+		this.log.debug("Request to get top {} exposures of channel {} on {}", size, channelId, openDate);
+		return this.exposureBook.get(DrawKey.of(channelId, openDate)).top(size).stream()
+		        .map(exposure -> new ExposureDTO(exposure.getNumber(),
+		                MoneyUtil.fromMinorUnits(exposure.getLiability())))
+		        .collect(Collectors.toList());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see logia.quanlyso.service.ExposureService#add(logia.quanlyso.domain.Transactions)
+	 */
+	@Override
+	public void add(Transactions transactions) {
+		this.apply(this.stakesOf(transactions, 1));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see logia.quanlyso.service.ExposureService#remove(logia.quanlyso.domain.Transactions)
+	 */
+	@Override
+	public void remove(Transactions transactions) {
+		this.apply(this.stakesOf(transactions, -1));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see logia.quanlyso.service.ExposureService#close(logia.quanlyso.service.settlement.DrawKey)
+	 */
+	@Override
+	public void close(DrawKey drawKey) {
+		this.log.debug("Request to close exposure of {}", drawKey);
+		this.exposureBook.evict(drawKey);
+	}
+
+	/**
+	 * Read the stakes of an open transaction.
+	 *
+	 * @param transactions the transactions
+	 * @param sign 1 to add the stakes, -1 to remove them
+	 * @return the stakes, empty if the transaction is settled or has no open date
+	 */
+	private List<Stake> stakesOf(Transactions transactions, int sign) {
+		List<Stake> stakes = new ArrayList<>();
+		if (transactions.getNetValue() != null || transactions.getOpenDate() == null) {
+			return stakes;
+		}
+		for (TransactionDetails details : transactions.getTransactionDetails()) {
+			if (details.getChannels() == null || details.getStyles() == null || details.getTypes() == null) {
+				continue;
+			}
+			Long perHit = this.exposureBook.perHit(details);
+			if (perHit != null) {
+				stakes.add(new Stake(DrawKey.of(details.getChannels().getId(), transactions.getOpenDate()),
+				        transactions.getChosenNumber(), StyleConstants.fromId(details.getStyles().getId()),
+				        TypesConstants.fromId(details.getTypes().getId()), sign * perHit));
+			}
+		}
+		return stakes;
+	}
+
+	/**
+	 * Apply stakes to the exposure book, after the current transaction commits if any.
+	 * <p>
+	 * The stakes are announced at once, so that a draw loaded before the commit is loaded again
+	 * rather than counting them twice.
+	 * </p>
+	 *
+	 * @param stakes the stakes
+	 */
+	private void apply(List<Stake> stakes) {
+		if (stakes.isEmpty()) {
+			return;
+		}
+		for (Stake stake : stakes) {
+			this.exposureBook.begin(stake.drawKey);
+		}
+		Runnable update = () -> {
+			for (Stake stake : stakes) {
+				this.exposureBook.update(stake.drawKey, exposure -> exposure.add(stake.chosenNumber,
+				        stake.style, stake.types, stake.perHit));
+			}
+		};
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+				@Override
+				public void afterCompletion(int status) {
+					if (status == TransactionSynchronization.STATUS_COMMITTED) {
+						update.run();
+					}
+					else {
+						for (Stake stake : stakes) {
+							ExposureServiceImpl.this.exposureBook.cancel(stake.drawKey);
+						}
+					}
+				}
+			});
+		}
+		else {
+			update.run();
+		}
+	}
+
+	/**
+	 * The stake of one detail on a draw.
+	 */
+	private static final class Stake {
+
+		/** The draw key. */
+		private final DrawKey			drawKey;
+
+		/** The chosen number. */
+		private final String			chosenNumber;
+
+		/** The style. */
+		private final StyleConstants	style;
+
+		/** The types. */
+		private final TypesConstants	types;
+
+		/** The payout of one hit, negative to remove it. */
+		private final long				perHit;
+
+		/**
+		 * Instantiates a new stake.
+		 *
+		 * @param drawKey the draw key
+		 * @param chosenNumber the chosen number
+		 * @param style the style
+		 * @param types the types
+		 * @param perHit the payout of one hit
+		 */
+		Stake(DrawKey drawKey, String chosenNumber, StyleConstants style, TypesConstants types, long perHit) {
+			this.drawKey = drawKey;
+			this.chosenNumber = chosenNumber;
+			this.style = style;
+			this.types = types;
+			this.perHit = perHit;
+		}
+	}
+}
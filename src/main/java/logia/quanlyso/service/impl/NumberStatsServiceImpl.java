@@ -0,0 +1,135 @@
+package logia.quanlyso.service.impl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import logia.quanlyso.repository.DrawResultRepository;
+import logia.quanlyso.service.NumberStatsService;
+import logia.quanlyso.service.analytics.NumberStats;
+import logia.quanlyso.service.analytics.NumberStatsBook;
+import logia.quanlyso.service.dto.NumberStatsDTO;
+import logia.quanlyso.service.settlement.DrawKey;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Service Implementation for the frequency and overdue days of the number suffixes of each channel.
+ *
+ * @author Dai Mai
+ */
+@Service
+@Transactional(readOnly = true)
+public class NumberStatsServiceImpl implements NumberStatsService {
+
+	/** The log. */
+	private final Logger				log	= LoggerFactory.getLogger(NumberStatsServiceImpl.class);
+
+	/** The number stats book. */
+	private final NumberStatsBook		numberStatsBook;
+
+	/** The draw result repository. */
+	private final DrawResultRepository	drawResultRepository;
+
+	/**
+	 * Instantiates a new number stats service impl.
+	 *
+	 * @param __numberStatsBook the number stats book
+	 * @param __drawResultRepository the draw result repository
+	 */
+	public NumberStatsServiceImpl(NumberStatsBook __numberStatsBook, DrawResultRepository __drawResultRepository) {
+		this.numberStatsBook = __numberStatsBook;
+		this.drawResultRepository = __drawResultRepository;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.service.NumberStatsService#findFrequencies(java.lang.Long,
+	 * logia.quanlyso.service.analytics.NumberStats.Position, int, int)
+	 */
+	@Override
+	public List<NumberStatsDTO> findFrequencies(Long __channelId, NumberStats.Position __position, int __digits,
+	        int __days) {
+		List<NumberStatsDTO> _result = this.read(__channelId, __position, __digits, __days);
+		// Stable, suffixes drawn as often stay in order
+		_result.sort(Comparator.comparing(NumberStatsDTO::getCount).reversed());
+		return _result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.service.NumberStatsService#findFrequency(java.lang.Long,
+	 * logia.quanlyso.service.analytics.NumberStats.Position, java.lang.String, int)
+	 */
+	@Override
+	public NumberStatsDTO findFrequency(Long __channelId, NumberStats.Position __position, String __number,
+	        int __days) {
+		return this.read(__channelId, __position, __number.length(), __days).get(Integer.parseInt(__number));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.service.NumberStatsService#findOverdue(java.lang.Long,
+	 * logia.quanlyso.service.analytics.NumberStats.Position, int, int)
+	 */
+	@Override
+	public List<NumberStatsDTO> findOverdue(Long __channelId, NumberStats.Position __position, int __digits,
+	        int __size) {
+		List<NumberStatsDTO> _result = this.read(__channelId, __position, __digits, Integer.MAX_VALUE);
+		_result.sort(Comparator.comparing(NumberStatsDTO::getLastSeen,
+		        Comparator.nullsFirst(Comparator.naturalOrder())));
+		return _result.subList(0, Math.min(__size, _result.size()));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.service.NumberStatsService#count(logia.quanlyso.service.settlement.DrawKey)
+	 */
+	@Override
+	public void count(DrawKey __drawKey) {
+		this.numberStatsBook
+		        .replace(this.drawResultRepository.findOne(__drawKey.getChannelId(), __drawKey.getOpenDate()));
+		this.log.debug("Counted numbers of {}", __drawKey);
+	}
+
+	/**
+	 * Read the statistics of all suffixes of a length over the last days.
+	 *
+	 * @param __channelId the channel id
+	 * @param __position the position
+	 * @param __digits the suffix length
+	 * @param __days the number of days up to today
+	 * @return the suffixes, in order
+	 */
+	private List<NumberStatsDTO> read(Long __channelId, NumberStats.Position __position, int __digits,
+	        int __days) {
+		if (__digits < NumberStats.MIN_LENGTH || __digits > NumberStats.MAX_LENGTH) {
+			throw new IllegalArgumentException("Suffixes have 2 or 3 digits, not " + __digits);
+		}
+		NumberStats _stats = this.numberStatsBook.get(__channelId);
+		int _today = (int) LocalDate.now(DateFormatterUtil.systemZoneId()).toEpochDay();
+		int _fromDay = (int) Math.max(Integer.MIN_VALUE, (long) _today - __days + 1);
+		int _suffixes = NumberStats.suffixes(__digits);
+		int[] _counts = new int[_suffixes];
+		int[] _lastDays = new int[_suffixes];
+		_stats.read(__position, __digits, _fromDay, _today, _counts, _lastDays);
+
+		List<NumberStatsDTO> _result = new ArrayList<>(_suffixes);
+		for (int _suffix = 0; _suffix < _suffixes; _suffix++) {
+			boolean _never = _lastDays[_suffix] == NumberStats.NEVER;
+			_result.add(new NumberStatsDTO(NumberStats.label(__digits, _suffix), _counts[_suffix],
+			        _never ? null : LocalDate.ofEpochDay(_lastDays[_suffix]),
+			        _never ? null : _today - _lastDays[_suffix]));
+		}
+		return _result;
+	}
+}
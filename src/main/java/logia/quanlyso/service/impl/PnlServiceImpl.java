@@ -0,0 +1,145 @@
+package logia.quanlyso.service.impl;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import logia.quanlyso.domain.PnlRollup;
+import logia.quanlyso.repository.PnlRollupRepository;
+import logia.quanlyso.service.PnlService;
+import logia.quanlyso.service.dto.PnlDTO;
+import logia.quanlyso.service.util.MoneyUtil;
+
+/**
+ * Service Implementation for the profit and loss of the transactions, read from their daily
+ * rollups.
+ * <p>
+ * Weeks and months are summed from the days of the window, so a report reads at most one row per
+ * day and key, whatever the number of tickets.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+@Service
+@Transactional
+public class PnlServiceImpl implements PnlService {
+
+	/** The log. */
+	private final Logger				log	= LoggerFactory.getLogger(PnlServiceImpl.class);
+
+	/** The pnl rollup repository. */
+	private final PnlRollupRepository	pnlRollupRepository;
+
+	/**
+	 * Instantiates a new pnl service impl.
+	 *
+	 * @param __pnlRollupRepository the pnl rollup repository
+	 */
+	public PnlServiceImpl(PnlRollupRepository __pnlRollupRepository) {
+		this.pnlRollupRepository = __pnlRollupRepository;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.service.PnlService#findPnl(logia.quanlyso.service.PnlService.Period,
+	 * java.time.LocalDate, java.time.LocalDate, java.lang.Long, java.lang.Long)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<PnlDTO> findPnl(Period __period, LocalDate __fromDate, LocalDate __toDate, Long __userId,
+	        Long __channelId) {
+		this.log.debug("Request to get {} P&L from {} to {} of user {}, channel {}", __period, __fromDate, __toDate,
+		        __userId, __channelId);
+		Map<LocalDate, PnlRollup> _periods = new LinkedHashMap<>();
+		for (PnlRollup _day : this.pnlRollupRepository.findDays(__fromDate, __toDate, __userId, __channelId)) {
+			_periods.merge(PnlServiceImpl.startOf(__period, _day.getPnlDate()), _day, PnlRollup::add);
+		}
+		List<PnlDTO> _result = new ArrayList<>(_periods.size());
+		for (Map.Entry<LocalDate, PnlRollup> _entry : _periods.entrySet()) {
+			LocalDate _start = _entry.getKey();
+			LocalDate _from = _start.isBefore(__fromDate) ? __fromDate : _start;
+			LocalDate _end = PnlServiceImpl.endOf(__period, _start);
+			LocalDate _to = _end.isAfter(__toDate) ? __toDate : _end;
+			_result.add(PnlServiceImpl.toDto(_from, _to, _entry.getValue()));
+		}
+		return _result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.service.PnlService#add(java.util.Collection)
+	 */
+	@Override
+	public void add(Collection<PnlRollup> __rollups) {
+		this.pnlRollupRepository.add(__rollups);
+	}
+
+	/**
+	 * Gets the first day of the period of a day.
+	 *
+	 * @param __period the period
+	 * @param __day the day
+	 * @return the first day
+	 */
+	private static LocalDate startOf(Period __period, LocalDate __day) {
+		switch (__period) {
+			case WEEKLY:
+				return __day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+			case MONTHLY:
+				return __day.withDayOfMonth(1);
+			default:
+				return __day;
+		}
+	}
+
+	/**
+	 * Gets the last day of a period.
+	 *
+	 * @param __period the period
+	 * @param __start the first day of the period
+	 * @return the last day
+	 */
+	private static LocalDate endOf(Period __period, LocalDate __start) {
+		switch (__period) {
+			case WEEKLY:
+				return __start.plusDays(6);
+			case MONTHLY:
+				return __start.with(TemporalAdjusters.lastDayOfMonth());
+			default:
+				return __start;
+		}
+	}
+
+	/**
+	 * Convert the sums of a period.
+	 *
+	 * @param __fromDate the first day
+	 * @param __toDate the last day
+	 * @param __rollup the sums
+	 * @return the pnl DTO
+	 */
+	private static PnlDTO toDto(LocalDate __fromDate, LocalDate __toDate, PnlRollup __rollup) {
+		PnlDTO _dto = new PnlDTO();
+		_dto.setFromDate(__fromDate);
+		_dto.setToDate(__toDate);
+		_dto.setDetails(__rollup.getDetails());
+		_dto.setSettled(__rollup.getSettled());
+		_dto.setAmount(MoneyUtil.fromMinorUnits(__rollup.getAmount()));
+		_dto.setProfit(MoneyUtil.fromMinorUnits(__rollup.getProfit()));
+		_dto.setCosts(MoneyUtil.fromMinorUnits(__rollup.getCosts()));
+		_dto.setNet(MoneyUtil.fromMinorUnits(__rollup.getNet()));
+		return _dto;
+	}
+}
@@ -0,0 +1,179 @@
+package logia.quanlyso.service.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import logia.quanlyso.config.ApplicationProperties;
+import logia.quanlyso.domain.Channel;
+import logia.quanlyso.domain.DrawResult;
+import logia.quanlyso.repository.ChannelRepository;
+import logia.quanlyso.repository.DrawResultRepository;
+import logia.quanlyso.service.ResultsFileService;
+import logia.quanlyso.service.history.ResultsFile;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Service Implementation for the file of the results of all draws.
+ * <p>
+ * The file is exported every night, after the archive, channel by channel. It is written next to
+ * the current one then moved over it, so scans keep reading the previous mapping until the new one
+ * is swapped in.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+@Service
+public class ResultsFileServiceImpl implements ResultsFileService {
+
+	/** The log. */
+	private final Logger				log	= LoggerFactory.getLogger(ResultsFileServiceImpl.class);
+
+	/** The channel repository. */
+	private final ChannelRepository		channelRepository;
+
+	/** The draw result repository. */
+	private final DrawResultRepository	drawResultRepository;
+
+	/** The transaction template, read only. */
+	private final TransactionTemplate	transactionTemplate;
+
+	/** The path of the results file. */
+	private final Path					path;
+
+	/** Whether the results file is exported every night. */
+	private final boolean				enabled;
+
+	/** The results file, null until exported or opened. */
+	private volatile ResultsFile		resultsFile;
+
+	/**
+	 * Instantiates a new results file service impl.
+	 *
+	 * @param __channelRepository the channel repository
+	 * @param __drawResultRepository the draw result repository
+	 * @param __transactionManager the transaction manager
+	 * @param __applicationProperties the application properties
+	 */
+	public ResultsFileServiceImpl(ChannelRepository __channelRepository, DrawResultRepository __drawResultRepository,
+	        PlatformTransactionManager __transactionManager, ApplicationProperties __applicationProperties) {
+		this.channelRepository = __channelRepository;
+		this.drawResultRepository = __drawResultRepository;
+		this.transactionTemplate = new TransactionTemplate(__transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+		this.path = Paths.get(__applicationProperties.getHistory().getFile());
+		this.enabled = __applicationProperties.getHistory().isEnabled();
+	}
+
+	/**
+	 * Map the results file left by the last export once started, or export it if there is none.
+	 *
+	 * @throws IOException Signals that the file cannot be read nor written.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() throws IOException {
+		if (Files.exists(this.path)) {
+			try {
+				this.resultsFile = ResultsFile.open(this.path);
+				return;
+			}
+			catch (IOException e) {
+				this.log.warn("Exporting the results again: {}", e.getMessage());
+			}
+		}
+		if (this.enabled) {
+			this.export();
+		}
+	}
+
+	/**
+	 * Export the results file again.
+	 * <p>
+	 * This is scheduled to get fired everyday, at 04:00 (am), after the archive.
+	 * </p>
+	 *
+	 * @throws IOException Signals that the file cannot be written.
+	 */
+	@Scheduled(cron = "0 0 4 * * ?")
+	public void exportEveryNight() throws IOException {
+		if (this.enabled) {
+			this.export();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.service.ResultsFileService#export()
+	 */
+	@Override
+	public synchronized int export() throws IOException {
+		long _start = System.currentTimeMillis();
+		Path _parent = this.path.toAbsolutePath().getParent();
+		if (_parent != null) {
+			Files.createDirectories(_parent);
+		}
+		Path _temp = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+		ZoneId _zoneId = DateFormatterUtil.systemZoneId();
+		ZonedDateTime _fromDate = LocalDate.ofEpochDay(0).atStartOfDay(_zoneId);
+		ZonedDateTime _toDate = LocalDate.now(_zoneId).atStartOfDay(_zoneId);
+		try (ResultsFile.Writer _writer = new ResultsFile.Writer(_temp)) {
+			for (Channel _channel : this.channelRepository.findAll(new Sort("id"))) {
+				// One channel at a time, to hold the draws of one channel only
+				this.transactionTemplate.execute(__status -> {
+					try {
+						for (DrawResult _drawResult : this.drawResultRepository
+						        .findAll(Collections.singleton(_channel.getId()), _fromDate, _toDate)) {
+							_writer.append(_drawResult);
+						}
+					}
+					catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+					return null;
+				});
+			}
+		}
+		catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		Files.move(_temp, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		this.resultsFile = ResultsFile.open(this.path);
+		this.log.info("Exported {} numbers to {} in {} ms", this.resultsFile.size(), this.path,
+		        System.currentTimeMillis() - _start);
+		return this.resultsFile.size();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see logia.quanlyso.service.ResultsFileService#scan(java.lang.Long, java.time.LocalDate,
+	 * java.time.LocalDate, logia.quanlyso.service.history.ResultsFile.NumberVisitor)
+	 */
+	@Override
+	public int scan(Long __channelId, LocalDate __fromDate, LocalDate __toDate,
+	        ResultsFile.NumberVisitor __visitor) {
+		ResultsFile _resultsFile = this.resultsFile;
+		if (_resultsFile == null) {
+			return -1;
+		}
+		return _resultsFile.scan(__channelId, __fromDate.toEpochDay(), __toDate.toEpochDay(), __visitor);
+	}
+}
@@ -0,0 +1,228 @@
+package logia.quanlyso.service.impl;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import logia.quanlyso.config.ApplicationProperties;
+import logia.quanlyso.domain.PnlRollup;
+import logia.quanlyso.domain.TransactionDetails;
+import logia.quanlyso.domain.Transactions;
+import logia.quanlyso.repository.TransactionsRepository;
+import logia.quanlyso.service.PnlService;
+import logia.quanlyso.service.SettlementService;
+import logia.quanlyso.service.settlement.DrawCorrection;
+import logia.quanlyso.service.settlement.DrawKey;
+import logia.quanlyso.service.settlement.SettlementContext;
+import logia.quanlyso.service.settlement.SettlementContextLoader;
+import logia.quanlyso.service.settlement.SettlementEngine;
+
+/**
+ * Service Implementation for settling stored transactions.
+ * <p>
+ * Open transactions are read by pages of ids in ascending order, each page in its own transaction,
+ * so a draw with many tickets never holds them all in memory nor one long transaction. The
+ * results are written back with JDBC batch updates instead of dirty checking.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+@Service
+public class SettlementServiceImpl implements SettlementService {
+
+	/** The Constant UPDATE_DETAILS. */
+	private static final String				UPDATE_DETAILS		= "update transaction_details set profit = ?, costs = ? where id = ?";
+
+	/** The Constant UPDATE_TRANSACTIONS. */
+	private static final String				UPDATE_TRANSACTIONS	= "update transactions set net_value = ? where id = ?";
+
+	/** The log. */
+	private final Logger					log					= LoggerFactory.getLogger(SettlementServiceImpl.class);
+
+	/** The transactions repository. */
+	private final TransactionsRepository	transactionsRepository;
+
+	/** The settlement context loader. */
+	private final SettlementContextLoader	settlementContextLoader;
+
+	/** The settlement engine. */
+	private final SettlementEngine			settlementEngine;
+
+	/** The pnl service. */
+	private final PnlService				pnlService;
+
+	/** The jdbc template. */
+	private final JdbcTemplate				jdbcTemplate;
+
+	/** The transaction template, one transaction per page. */
+	private final TransactionTemplate		transactionTemplate;
+
+	/** The number of transactions settled per page. */
+	private final int						chunkSize;
+
+	/** The entity manager. */
+	@PersistenceContext
+	private EntityManager					entityManager;
+
+	/**
+	 * Instantiates a new settlement service impl.
+	 *
+	 * @param __transactionsRepository the transactions repository
+	 * @param __settlementContextLoader the settlement context loader
+	 * @param __settlementEngine the settlement engine
+	 * @param __pnlService the pnl service
+	 * @param __jdbcTemplate the jdbc template
+	 * @param __transactionManager the transaction manager
+	 * @param __applicationProperties the application properties
+	 */
+	public SettlementServiceImpl(TransactionsRepository __transactionsRepository,
+	        SettlementContextLoader __settlementContextLoader, SettlementEngine __settlementEngine,
+	        PnlService __pnlService, JdbcTemplate __jdbcTemplate, PlatformTransactionManager __transactionManager,
+	        ApplicationProperties __applicationProperties) {
+		this.transactionsRepository = __transactionsRepository;
+		this.settlementContextLoader = __settlementContextLoader;
+		this.settlementEngine = __settlementEngine;
+		this.pnlService = __pnlService;
+		this.jdbcTemplate = __jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(__transactionManager);
+		this.chunkSize = Math.max(1, __applicationProperties.getSettlement().getChunkSize());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see logia.quanlyso.service.SettlementService#settleOpenTransactions(logia.quanlyso.service.
+	 * settlement.DrawKey)
+	 */
+	@Override
+	public int settleOpenTransactions(DrawKey __drawKey) {
+		this.log.debug("Request to settle open transactions of : {}", __drawKey);
+		ZonedDateTime _from = __drawKey.getOpenDate();
+		ZonedDateTime _to = _from.plusDays(1);
+		PageRequest _page = new PageRequest(0, this.chunkSize);
+		return this.settlePages(__afterId -> this.transactionsRepository
+		        .findOpenIdsByChannelsIdAndOpenDateBetween(__drawKey.getChannelId(), _from, _to, __afterId, _page));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * logia.quanlyso.service.SettlementService#resettleTransactions(logia.quanlyso.service.settlement
+	 * .DrawKey, logia.quanlyso.service.settlement.DrawCorrection)
+	 */
+	@Override
+	public int resettleTransactions(DrawKey __drawKey, DrawCorrection __correction) {
+		this.log.debug("Request to resettle transactions of : {}, changed codes : {}", __drawKey,
+		        __correction.getChangedCodes());
+		if (__correction.isEmpty()) {
+			return 0;
+		}
+		ZonedDateTime _from = __drawKey.getOpenDate();
+		ZonedDateTime _to = _from.plusDays(1);
+		Set<String> _numbers = __correction.getAffectedNumbers();
+		PageRequest _page = new PageRequest(0, this.chunkSize);
+		return this.settlePages(__afterId -> this.transactionsRepository
+		        .findSettledIdsByChannelsIdAndOpenDateBetweenAndChosenNumberIn(__drawKey.getChannelId(),
+		                _from, _to, _numbers, __afterId, _page));
+	}
+
+	/**
+	 * Settles transactions page by page, each page in its own transaction.
+	 * <p>
+	 * Pages are read by keyset: transactions left unsettled are skipped by id, not read again.
+	 * </p>
+	 *
+	 * @param __pages the ids of the page following an id, in ascending order
+	 * @return the number of transactions settled
+	 */
+	private int settlePages(LongFunction<List<Long>> __pages) {
+		long[] _afterId = { 0L };
+		int _settled = 0;
+		while (true) {
+			Integer _count = this.transactionTemplate.execute(__status -> {
+				List<Long> _ids = __pages.apply(_afterId[0]);
+				if (_ids.isEmpty()) {
+					return null;
+				}
+				_afterId[0] = _ids.get(_ids.size() - 1);
+				return this.settleChunk(_ids);
+			});
+			if (_count == null) {
+				return _settled;
+			}
+			_settled += _count;
+		}
+	}
+
+	/**
+	 * Settles a page of transactions and writes the results back.
+	 *
+	 * @param __ids the ids of the transactions
+	 * @return the number of transactions settled
+	 */
+	private int settleChunk(List<Long> __ids) {
+		List<Transactions> _transactions = this.transactionsRepository.findAllWithDetailsByIdIn(__ids);
+		// Detach, the results are written with JDBC rather than flushed
+		this.entityManager.clear();
+
+		int[] _drawDays = SettlementContext.drawDaysOf(_transactions);
+		SettlementContext _context = this.settlementContextLoader.load(_transactions, _drawDays);
+		List<Transactions> _settleable = new ArrayList<>(_transactions.size());
+		int[] _settleableDays = new int[_transactions.size()];
+		for (int _i = 0; _i < _transactions.size(); _i++) {
+			if (_context.isSettleable(_transactions.get(_i), _drawDays[_i])) {
+				_settleableDays[_settleable.size()] = _drawDays[_i];
+				_settleable.add(_transactions.get(_i));
+			}
+		}
+		if (_settleable.isEmpty()) {
+			return 0;
+		}
+		// Replace the previous results of resettled transactions in the rollups
+		List<PnlRollup> _rollups = new ArrayList<>();
+		for (Transactions _transaction : _settleable) {
+			_rollups.addAll(PnlRollup.of(_transaction, -1));
+		}
+		this.settlementEngine.settle(_settleable, _settleableDays, _context);
+		for (Transactions _transaction : _settleable) {
+			_rollups.addAll(PnlRollup.of(_transaction, 1));
+		}
+
+		List<Object[]> _detailsArgs = new ArrayList<>();
+		List<Object[]> _transactionsArgs = new ArrayList<>(_settleable.size());
+		for (Transactions _transaction : _settleable) {
+			for (TransactionDetails _details : _transaction.getTransactionDetails()) {
+				_detailsArgs.add(new Object[] { _details.getProfit(), _details.getCosts(), _details.getId() });
+			}
+			_transactionsArgs.add(new Object[] { _transaction.getNetValue(), _transaction.getId() });
+		}
+		this.jdbcTemplate.batchUpdate(SettlementServiceImpl.UPDATE_DETAILS, _detailsArgs);
+		this.jdbcTemplate.batchUpdate(SettlementServiceImpl.UPDATE_TRANSACTIONS, _transactionsArgs);
+		this.pnlService.add(_rollups);
+
+		// The second level cache does not see JDBC updates
+		Cache _cache = this.entityManager.getEntityManagerFactory().getCache();
+		for (Transactions _transaction : _settleable) {
+			_cache.evict(Transactions.class, _transaction.getId());
+			for (TransactionDetails _details : _transaction.getTransactionDetails()) {
+				_cache.evict(TransactionDetails.class, _details.getId());
+			}
+		}
+		return _settleable.size();
+	}
+}
@@ -1,5 +1,10 @@
 package logia.quanlyso.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -7,8 +12,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import logia.quanlyso.domain.PnlRollup;
 import logia.quanlyso.domain.TransactionDetails;
+import logia.quanlyso.domain.Transactions;
 import logia.quanlyso.repository.TransactionDetailsRepository;
+import logia.quanlyso.repository.TransactionsRepository;
+import logia.quanlyso.service.PnlService;
 import logia.quanlyso.service.TransactionDetailsService;
 import logia.quanlyso.service.dto.TransactionDetailsDTO;
 import logia.quanlyso.service.mapper.TransactionDetailsMapper;
@@ -32,16 +41,27 @@ public class TransactionDetailsServiceImpl implements TransactionDetailsService
 	/** The transaction details mapper. */
 	private final TransactionDetailsMapper		transactionDetailsMapper;
 
+	/** The transactions repository. */
+	private final TransactionsRepository		transactionsRepository;
+
+	/** The pnl service. */
+	private final PnlService					pnlService;
+
 	/**
 	 * Instantiates a new transaction details service impl.
 	 *
 	 * @param transactionDetailsRepository the transaction details repository
 	 * @param transactionDetailsMapper the transaction details mapper
+	 * @param transactionsRepository the transactions repository
+	 * @param pnlService the pnl service
 	 */
 	public TransactionDetailsServiceImpl(TransactionDetailsRepository transactionDetailsRepository,
-			TransactionDetailsMapper transactionDetailsMapper) {
+			TransactionDetailsMapper transactionDetailsMapper, TransactionsRepository transactionsRepository,
+			PnlService pnlService) {
 		this.transactionDetailsRepository = transactionDetailsRepository;
 		this.transactionDetailsMapper = transactionDetailsMapper;
+		this.transactionsRepository = transactionsRepository;
+		this.pnlService = pnlService;
 	}
 
 	/**
@@ -53,9 +73,19 @@ public class TransactionDetailsServiceImpl implements TransactionDetailsService
 	@Override
 	public TransactionDetailsDTO save(TransactionDetailsDTO transactionDetailsDTO) {
 		this.log.debug("Request to save TransactionDetails : {}", transactionDetailsDTO);
+
+		// Stop counting the previous values of an updated detail, read before the merge changes them
+		List<PnlRollup> rollups = new ArrayList<>();
+		if (transactionDetailsDTO.getId() != null) {
+			this.rollupOf(this.transactionDetailsRepository.findOne(transactionDetailsDTO.getId()), -1)
+					.ifPresent(rollups::add);
+		}
+
 		TransactionDetails transactionDetails = this.transactionDetailsMapper
 				.toEntity(transactionDetailsDTO);
 		transactionDetails = this.transactionDetailsRepository.save(transactionDetails);
+		this.rollupOf(transactionDetails, 1).ifPresent(rollups::add);
+		this.pnlService.add(rollups);
 		TransactionDetailsDTO result = this.transactionDetailsMapper.toDto(transactionDetails);
 		return result;
 	}
@@ -98,6 +128,28 @@ public class TransactionDetailsServiceImpl implements TransactionDetailsService
 	@Override
 	public void delete(Long id) {
 		this.log.debug("Request to delete TransactionDetails : {}", id);
+		this.rollupOf(this.transactionDetailsRepository.findOne(id), -1)
+				.ifPresent(rollup -> this.pnlService.add(Collections.singletonList(rollup)));
 		this.transactionDetailsRepository.delete(id);
 	}
+
+	/**
+	 * Gets the rollup of a detail, from the transaction it belongs to.
+	 *
+	 * @param transactionDetails the transaction details, may be null
+	 * @param sign 1 to add the detail, -1 to remove it
+	 * @return the rollup, empty if the detail belongs to no dated transaction
+	 */
+	private Optional<PnlRollup> rollupOf(TransactionDetails transactionDetails, int sign) {
+		if (transactionDetails == null || transactionDetails.getTransactions() == null) {
+			return Optional.empty();
+		}
+		// The mapper only sets the id of the transaction
+		Transactions transactions = this.transactionsRepository
+				.findOne(transactionDetails.getTransactions().getId());
+		if (transactions == null || transactions.getOpenDate() == null) {
+			return Optional.empty();
+		}
+		return Optional.of(PnlRollup.of(transactions, transactionDetails, sign));
+	}
 }
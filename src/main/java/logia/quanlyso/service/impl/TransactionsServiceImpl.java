@@ -1,5 +1,10 @@
 package logia.quanlyso.service.impl;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -7,12 +12,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import logia.quanlyso.domain.PnlRollup;
 import logia.quanlyso.domain.TransactionDetails;
 import logia.quanlyso.domain.Transactions;
 import logia.quanlyso.repository.TransactionDetailsRepository;
 import logia.quanlyso.repository.TransactionsRepository;
 import logia.quanlyso.repository.UserRepository;
 import logia.quanlyso.service.CodeService;
+import logia.quanlyso.service.ExposureService;
+import logia.quanlyso.service.PnlService;
 import logia.quanlyso.service.TransactionsService;
 import logia.quanlyso.service.dto.TransactionsDTO;
 import logia.quanlyso.service.mapper.TransactionsMapper;
@@ -45,6 +53,12 @@ public class TransactionsServiceImpl implements TransactionsService {
 	/** The code service. */
 	private final CodeService					codeService;
 
+	/** The exposure service. */
+	private final ExposureService				exposureService;
+
+	/** The pnl service. */
+	private final PnlService					pnlService;
+
 	/**
 	 * Instantiates a new transactions service impl.
 	 *
@@ -53,19 +67,24 @@ public class TransactionsServiceImpl implements TransactionsService {
 	 * @param userRepository the user repository
 	 * @param transactionDetailsRepository the transaction details repository
 	 * @param codeService the code service
+	 * @param exposureService the exposure service
+	 * @param pnlService the pnl service
 	 */
 	public TransactionsServiceImpl(TransactionsRepository transactionsRepository,
 			TransactionsMapper transactionsMapper, UserRepository userRepository,
-			TransactionDetailsRepository transactionDetailsRepository, CodeService codeService) {
+			TransactionDetailsRepository transactionDetailsRepository, CodeService codeService,
+			ExposureService exposureService, PnlService pnlService) {
 		this.transactionsRepository = transactionsRepository;
 		this.transactionsMapper = transactionsMapper;
 		this.userRepository = userRepository;
 		this.transactionDetailsRepository = transactionDetailsRepository;
 		this.codeService = codeService;
+		this.exposureService = exposureService;
+		this.pnlService = pnlService;
 	}
 
 	/**
-	 * Save a transactions.
+	 * Save a transactions, deleting the previous details left out of an update.
 	 *
 	 * @param transactionsDTO the entity to save
 	 * @return the persisted entity
@@ -74,7 +93,21 @@ public class TransactionsServiceImpl implements TransactionsService {
 	public TransactionsDTO save(TransactionsDTO transactionsDTO) {
 		this.log.debug("Request to save Transactions : {}", transactionsDTO);
 
+		// Stop counting the previous stakes of an updated transaction, read before the merge changes them
+		List<PnlRollup> rollups = new ArrayList<>();
+		List<TransactionDetails> previousDetails = new ArrayList<>();
+		if (transactionsDTO.getId() != null) {
+			Transactions previous = this.transactionsRepository.findOne(transactionsDTO.getId());
+			if (previous != null) {
+				this.exposureService.remove(previous);
+				rollups.addAll(PnlRollup.of(previous, -1));
+				previousDetails.addAll(previous.getTransactionDetails());
+			}
+		}
+
 		Transactions transactions = this.transactionsMapper.toEntity(transactionsDTO);
+		// Merging the transaction does not cascade to its details, keep the mapped ones to save
+		List<TransactionDetails> mappedDetails = new ArrayList<>(transactions.getTransactionDetails());
 
 		// Get & set user entity to this transaction
 		transactions.setUsers(this.userRepository.getOne(transactionsDTO.getClientsId()));
@@ -82,11 +115,26 @@ public class TransactionsServiceImpl implements TransactionsService {
 		// Save transaction
 		transactions = this.transactionsRepository.save(transactions);
 
-		// Save & set the detail (if have) to this transaction
-		for (TransactionDetails details : transactions.getTransactionDetails()) {
+		// Save & set the detail (if have) to this transaction, counted as persisted
+		List<TransactionDetails> savedDetails = new ArrayList<>();
+		for (TransactionDetails details : mappedDetails) {
 			details.setTransactions(transactions);
-			this.transactionDetailsRepository.save(details);
+			savedDetails.add(this.transactionDetailsRepository.save(details));
+		}
+		transactions.getTransactionDetails().clear();
+		transactions.getTransactionDetails().addAll(savedDetails);
+
+		// Delete the previous details left out of the update, no longer counted
+		Set<Long> detailsIds = transactions.getTransactionDetails().stream().map(TransactionDetails::getId)
+				.collect(Collectors.toSet());
+		for (TransactionDetails details : previousDetails) {
+			if (!detailsIds.contains(details.getId())) {
+				this.transactionDetailsRepository.delete(details);
+			}
 		}
+		this.exposureService.add(transactions);
+		rollups.addAll(PnlRollup.of(transactions, 1));
+		this.pnlService.add(rollups);
 
 		TransactionsDTO result = this.transactionsMapper.toDto(transactions);
 		return result;
@@ -130,6 +178,8 @@ public class TransactionsServiceImpl implements TransactionsService {
 	public void delete(Long id) {
 		this.log.debug("Request to delete Transactions : {}", id);
 		Transactions transactions = this.transactionsRepository.getOne(id);
+		this.exposureService.remove(transactions);
+		this.pnlService.add(PnlRollup.of(transactions, -1));
 
 		// Delete all detail of this transaction
 		for (TransactionDetails transactionDetails : transactions.getTransactionDetails()) {
@@ -162,4 +212,20 @@ public class TransactionsServiceImpl implements TransactionsService {
 		TransactionsDTO result = this.transactionsMapper.toDto(transactions);
 		return result;
 	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see logia.quanlyso.service.TransactionsService#calculateAll(java.util.List)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<TransactionsDTO> calculateAll(List<TransactionsDTO> transactionsDTOs) {
+		this.log.debug("Request to calculate value of {} Transactions", transactionsDTOs.size());
+
+		List<Transactions> transactions = this.transactionsMapper.toEntity(transactionsDTOs);
+		transactions = this.codeService.calculateAll(transactions);
+
+		return this.transactionsMapper.toDto(transactions);
+	}
 }
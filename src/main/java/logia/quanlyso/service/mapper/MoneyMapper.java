@@ -0,0 +1,35 @@
+package logia.quanlyso.service.mapper;
+
+import org.springframework.stereotype.Component;
+
+import logia.quanlyso.service.util.MoneyUtil;
+
+/**
+ * Maps the fixed-point money of the entities to the decimal values of the DTOs.
+ *
+ * @author Dai Mai
+ * @see MoneyUtil
+ */
+@Component
+public class MoneyMapper {
+
+	/**
+	 * From minor units to a decimal value.
+	 *
+	 * @param minorUnits the minor units
+	 * @return the value
+	 */
+	public Float toDecimal(Long minorUnits) {
+		return MoneyUtil.fromMinorUnits(minorUnits);
+	}
+
+	/**
+	 * From a decimal value to minor units.
+	 *
+	 * @param value the value
+	 * @return the minor units
+	 */
+	public Long toMinorUnits(Float value) {
+		return MoneyUtil.toMinorUnits(value);
+	}
+}
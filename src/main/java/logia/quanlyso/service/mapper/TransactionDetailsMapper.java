@@ -12,7 +12,7 @@ import logia.quanlyso.service.dto.TransactionDetailsDTO;
  * @author Dai Mai
  */
 @Mapper(componentModel = "spring", uses = { TransactionsMapper.class, ChannelMapper.class,
-		FactorMapper.class, StyleMapper.class, TypesMapper.class, })
+		FactorMapper.class, StyleMapper.class, TypesMapper.class, MoneyMapper.class, })
 public interface TransactionDetailsMapper
 extends EntityMapper<TransactionDetailsDTO, TransactionDetails> {
 
@@ -11,7 +11,8 @@ import logia.quanlyso.service.dto.TransactionsDTO;
  *
  * @author Dai Mai
  */
-@Mapper(componentModel = "spring", uses = { UserMapper.class, TransactionDetailsMapper.class })
+@Mapper(componentModel = "spring", uses = { UserMapper.class, TransactionDetailsMapper.class,
+		MoneyMapper.class })
 public interface TransactionsMapper extends EntityMapper<TransactionsDTO, Transactions> {
 
 	/*
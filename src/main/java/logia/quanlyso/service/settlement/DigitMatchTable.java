@@ -0,0 +1,139 @@
+package logia.quanlyso.service.settlement;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hit counts of one bucket of codes, folded by digit string.
+ * <p>
+ * Chosen numbers of 2, 3 and 4 digits are answered from fixed {@code int} arrays of size 100, 1000
+ * and 10000 indexed by the number itself, so counting hits is one array read and allocates nothing.
+ * Any other chosen number (1 digit, 5 or more digits, non digits) falls back to a map keyed by the
+ * digit string. A code is counted once for every distinct digit string it contains, so the counts
+ * equal a {@link String#contains(CharSequence)} scan of the codes.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+final class DigitMatchTable {
+
+	/** The shortest chosen number kept in an array. */
+	private static final int			MIN_TABLE_LENGTH	= 2;
+
+	/** The longest chosen number kept in an array. */
+	private static final int			MAX_TABLE_LENGTH	= 4;
+
+	/** The number of codes in the bucket. */
+	private int							size;
+
+	/** The counts of 2, 3 and 4 digit numbers, indexed by length then by number. */
+	private final int[][]				tables				= new int[DigitMatchTable.MAX_TABLE_LENGTH + 1][];
+
+	/** The counts of the other digit strings. */
+	private final Map<String, Integer>	others				= new HashMap<>();
+
+	/**
+	 * Adds a code to the bucket.
+	 *
+	 * @param __code the code
+	 */
+	void add(String __code) {
+		this.size++;
+		Set<String> _distinct = new HashSet<>();
+		for (int _begin = 0; _begin < __code.length(); _begin++) {
+			for (int _end = _begin + 1; _end <= __code.length(); _end++) {
+				_distinct.add(__code.substring(_begin, _end));
+			}
+		}
+		for (String _window : _distinct) {
+			int _number = DigitMatchTable.toTableIndex(_window);
+			if (_number < 0) {
+				this.others.merge(_window, 1, Integer::sum);
+			}
+			else {
+				this.table(_window.length())[_number]++;
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of codes in the bucket.
+	 *
+	 * @return the size
+	 */
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * Counts the codes containing the chosen number.
+	 *
+	 * @param __chosenNumber the chosen number
+	 * @return the number of hits
+	 */
+	int hits(String __chosenNumber) {
+		if (__chosenNumber.isEmpty()) {
+			return this.size;
+		}
+		int _number = DigitMatchTable.toTableIndex(__chosenNumber);
+		if (_number < 0) {
+			Integer _hits = this.others.get(__chosenNumber);
+			return _hits == null ? 0 : _hits;
+		}
+		int[] _table = this.tables[__chosenNumber.length()];
+		return _table == null ? 0 : _table[_number];
+	}
+
+	/**
+	 * Gets the table of a length, allocating it on first use.
+	 *
+	 * @param __length the length
+	 * @return the table
+	 */
+	private int[] table(int __length) {
+		int[] _table = this.tables[__length];
+		if (_table == null) {
+			_table = new int[DigitMatchTable.capacity(__length)];
+			this.tables[__length] = _table;
+		}
+		return _table;
+	}
+
+	/**
+	 * Gets the index of a digit string in the table of its length.
+	 *
+	 * @param __digits the digit string
+	 * @return the number, or -1 if the string has no table
+	 */
+	private static int toTableIndex(String __digits) {
+		int _length = __digits.length();
+		if (_length < DigitMatchTable.MIN_TABLE_LENGTH || _length > DigitMatchTable.MAX_TABLE_LENGTH) {
+			return -1;
+		}
+		int _number = 0;
+		for (int _i = 0; _i < _length; _i++) {
+			char _digit = __digits.charAt(_i);
+			if (_digit < '0' || _digit > '9') {
+				return -1;
+			}
+			_number = _number * 10 + (_digit - '0');
+		}
+		return _number;
+	}
+
+	/**
+	 * Gets the number of distinct digit strings of a length.
+	 *
+	 * @param __length the length
+	 * @return the capacity
+	 */
+	private static int capacity(int __length) {
+		int _capacity = 1;
+		for (int _i = 0; _i < __length; _i++) {
+			_capacity *= 10;
+		}
+		return _capacity;
+	}
+}
@@ -0,0 +1,96 @@
+package logia.quanlyso.service.settlement;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The difference between two result sets of the same draw.
+ * <p>
+ * A transaction is settled by counting the codes containing its chosen number, so correcting a
+ * draw can only change the settlement of a chosen number contained in a code that was added or
+ * removed. Codes are compared as a multiset: a code appearing once more or once less is a change.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+public final class DrawCorrection {
+
+	/** The longest chosen number, the width of the chosen number column. */
+	public static final int		MAX_CHOSEN_LENGTH	= 4;
+
+	/** The codes that were added or removed. */
+	private final Set<String>	changedCodes;
+
+	/**
+	 * Instantiates a new draw correction.
+	 *
+	 * @param __changedCodes the changed codes
+	 */
+	private DrawCorrection(Set<String> __changedCodes) {
+		this.changedCodes = __changedCodes;
+	}
+
+	/**
+	 * Compares the previous and the new codes of a draw.
+	 *
+	 * @param __previousCodes the previous codes
+	 * @param __codes the new codes
+	 * @return the draw correction
+	 */
+	public static DrawCorrection of(Collection<String> __previousCodes, Collection<String> __codes) {
+		Map<String, Integer> _balance = new HashMap<>();
+		for (String _code : __previousCodes) {
+			_balance.merge(_code, 1, Integer::sum);
+		}
+		for (String _code : __codes) {
+			_balance.merge(_code, -1, Integer::sum);
+		}
+		Set<String> _changed = new HashSet<>();
+		_balance.forEach((__code, __count) -> {
+			if (__count != 0) {
+				_changed.add(__code);
+			}
+		});
+		return new DrawCorrection(_changed);
+	}
+
+	/**
+	 * Checks if the results did not change.
+	 *
+	 * @return true, if no code was added or removed
+	 */
+	public boolean isEmpty() {
+		return this.changedCodes.isEmpty();
+	}
+
+	/**
+	 * Gets the codes that were added or removed.
+	 *
+	 * @return the changed codes
+	 */
+	public Set<String> getChangedCodes() {
+		return this.changedCodes;
+	}
+
+	/**
+	 * Gets the chosen numbers whose settlement may have changed: every digit string of at most
+	 * {@link #MAX_CHOSEN_LENGTH} characters contained in a changed code.
+	 *
+	 * @return the affected chosen numbers
+	 */
+	public Set<String> getAffectedNumbers() {
+		Set<String> _numbers = new HashSet<>();
+		for (String _code : this.changedCodes) {
+			for (int _begin = 0; _begin < _code.length(); _begin++) {
+				int _last = Math.min(_code.length(), _begin + DrawCorrection.MAX_CHOSEN_LENGTH);
+				for (int _end = _begin + 1; _end <= _last; _end++) {
+					_numbers.add(_code.substring(_begin, _end));
+				}
+			}
+		}
+		return _numbers;
+	}
+}
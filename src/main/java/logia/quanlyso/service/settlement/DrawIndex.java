@@ -0,0 +1,240 @@
+package logia.quanlyso.service.settlement;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.domain.Style;
+import logia.quanlyso.domain.StyleConstants;
+import logia.quanlyso.domain.Types;
+import logia.quanlyso.domain.TypesConstants;
+
+/**
+ * Immutable index of the winning numbers of one draw.
+ * <p>
+ * Codes are split into the buckets settlement matches against (2-digit and 3-digit codes on top,
+ * 6-digit codes on bottom, every code for roll). Each bucket is folded into a
+ * {@link DigitMatchTable}, so a hit count is a single array read that gives the same result as
+ * scanning the codes with {@link String#contains(CharSequence)}.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+public final class DrawIndex {
+
+	/** The index of a draw without any result. */
+	public static final DrawIndex	EMPTY	= new DrawIndex(Collections.emptyList());
+
+	/**
+	 * The buckets of codes matched by settlement.
+	 */
+	public enum Bucket {
+
+		/** The 2-digit codes. */
+		TOP_TWO,
+		/** The 3-digit codes. */
+		TOP_THREE,
+		/** The 6-digit codes. */
+		BOTTOM,
+		/** All codes. */
+		ROLL
+	}
+
+	/** The match tables, indexed by bucket ordinal. */
+	private final DigitMatchTable[]	tables;
+
+	/**
+	 * Instantiates a new draw index.
+	 *
+	 * @param __codes the winning numbers of the draw
+	 */
+	private DrawIndex(Collection<String> __codes) {
+		this.tables = new DigitMatchTable[Bucket.values().length];
+		for (int _i = 0; _i < this.tables.length; _i++) {
+			this.tables[_i] = new DigitMatchTable();
+		}
+		for (String _code : __codes) {
+			if (_code == null) {
+				continue;
+			}
+			this.table(Bucket.ROLL).add(_code);
+			if (_code.length() == 2) {
+				this.table(Bucket.TOP_TWO).add(_code);
+			}
+			else if (_code.length() == 3) {
+				this.table(Bucket.TOP_THREE).add(_code);
+			}
+			else if (_code.length() == 6) { // 6 is max length of code
+				this.table(Bucket.BOTTOM).add(_code);
+			}
+		}
+	}
+
+	/**
+	 * Builds the index of a draw.
+	 *
+	 * @param __codes the codes of the draw
+	 * @return the draw index
+	 */
+	public static DrawIndex of(Collection<Code> __codes) {
+		if (__codes.isEmpty()) {
+			return DrawIndex.EMPTY;
+		}
+		return new DrawIndex(__codes.stream().map(Code::getCode).collect(Collectors.toList()));
+	}
+
+	/**
+	 * Builds the index of a draw from its raw winning numbers.
+	 *
+	 * @param __codes the winning numbers
+	 * @return the draw index
+	 */
+	public static DrawIndex ofNumbers(Collection<String> __codes) {
+		if (__codes.isEmpty()) {
+			return DrawIndex.EMPTY;
+		}
+		return new DrawIndex(__codes);
+	}
+
+	/**
+	 * Checks if the draw has no result.
+	 *
+	 * @return true, if empty
+	 */
+	public boolean isEmpty() {
+		return this.size(Bucket.ROLL) == 0;
+	}
+
+	/**
+	 * Gets the number of codes in a bucket.
+	 *
+	 * @param __bucket the bucket
+	 * @return the size
+	 */
+	public int size(Bucket __bucket) {
+		return this.table(__bucket).size();
+	}
+
+	/**
+	 * Counts the codes of a bucket containing the chosen number.
+	 *
+	 * @param __chosenNumber the chosen number
+	 * @param __bucket the bucket
+	 * @return the number of hits
+	 */
+	public int hits(String __chosenNumber, Bucket __bucket) {
+		if (__chosenNumber == null) {
+			return 0;
+		}
+		return this.table(__bucket).hits(__chosenNumber);
+	}
+
+	/**
+	 * Counts the hits of the chosen number for a style and type of play.
+	 *
+	 * @param __chosenNumber the chosen number
+	 * @param __style the style
+	 * @param __types the types
+	 * @return the number of hits
+	 */
+	public int hits(String __chosenNumber, Style __style, Types __types) {
+		return this.hits(__chosenNumber, StyleConstants.fromId(__style.getId()),
+		        TypesConstants.fromId(__types.getId()));
+	}
+
+	/**
+	 * Counts the hits of the chosen number for a style and type of play.
+	 *
+	 * @param __chosenNumber the chosen number
+	 * @param __style the style, may be null
+	 * @param __types the types, may be null
+	 * @return the number of hits
+	 */
+	public int hits(String __chosenNumber, StyleConstants __style, TypesConstants __types) {
+		if (__types == null) {
+			return 0;
+		}
+		switch (__types) {
+			case TOP:
+				return this.hitsOnTop(__chosenNumber, __style);
+			case BOTH:
+				return this.hitsOnTop(__chosenNumber, __style) + this.hits(__chosenNumber, Bucket.BOTTOM);
+			case BOTTOM:
+				return this.hits(__chosenNumber, Bucket.BOTTOM);
+			case ROLL:
+				return this.hits(__chosenNumber, Bucket.ROLL);
+			default:
+				return 0;
+		}
+	}
+
+	/**
+	 * Gets the most hits any chosen number can get for a style and type of play: the number of
+	 * codes the play is matched against.
+	 *
+	 * @param __style the style, may be null
+	 * @param __types the types, may be null
+	 * @return the maximum number of hits
+	 */
+	public int maxHits(StyleConstants __style, TypesConstants __types) {
+		if (__types == null) {
+			return 0;
+		}
+		switch (__types) {
+			case TOP:
+				return this.sizeOnTop(__style);
+			case BOTH:
+				return this.sizeOnTop(__style) + this.size(Bucket.BOTTOM);
+			case BOTTOM:
+				return this.size(Bucket.BOTTOM);
+			case ROLL:
+				return this.size(Bucket.ROLL);
+			default:
+				return 0;
+		}
+	}
+
+	/**
+	 * Gets the number of top codes of a style.
+	 *
+	 * @param __style the style
+	 * @return the size
+	 */
+	private int sizeOnTop(StyleConstants __style) {
+		if (__style == StyleConstants.TWO_NUM) {
+			return this.size(Bucket.TOP_TWO);
+		}
+		else if (__style == StyleConstants.THREE_NUM) {
+			return this.size(Bucket.TOP_THREE);
+		}
+		return 0;
+	}
+
+	/**
+	 * Counts the hits of the chosen number on top codes.
+	 *
+	 * @param __chosenNumber the chosen number
+	 * @param __style the style
+	 * @return the number of hits
+	 */
+	private int hitsOnTop(String __chosenNumber, StyleConstants __style) {
+		if (__style == StyleConstants.TWO_NUM) {
+			return this.hits(__chosenNumber, Bucket.TOP_TWO);
+		}
+		else if (__style == StyleConstants.THREE_NUM) {
+			return this.hits(__chosenNumber, Bucket.TOP_THREE);
+		}
+		return 0;
+	}
+
+	/**
+	 * Gets the match table of a bucket.
+	 *
+	 * @param __bucket the bucket
+	 * @return the match table
+	 */
+	private DigitMatchTable table(Bucket __bucket) {
+		return this.tables[__bucket.ordinal()];
+	}
+}
@@ -0,0 +1,188 @@
+package logia.quanlyso.service.settlement;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.domain.DrawResult;
+import logia.quanlyso.repository.DrawResultRepository;
+
+/**
+ * Holds the {@link DrawIndex} of the recently settled or crawled draws.
+ * <p>
+ * An index is built once per draw, either right after its codes are saved by a crawl or on the
+ * first settlement that needs it. Draws without any code are never cached, so settlement keeps
+ * looking them up until their results arrive.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+@Component
+public class DrawIndexCache {
+
+	/** The maximum number of draws kept in memory, about 100 KB of match tables each. */
+	private static final int				MAX_DRAWS	= 256;
+
+	/** The log. */
+	private final Logger					log			= LoggerFactory.getLogger(DrawIndexCache.class);
+
+	/** The draw result repository. */
+	private final DrawResultRepository		drawResultRepository;
+
+	/** The indexes, least recently used first. */
+	private final Map<DrawKey, DrawIndex>	indexes;
+
+	/**
+	 * Instantiates a new draw index cache.
+	 *
+	 * @param __drawResultRepository the draw result repository
+	 */
+	public DrawIndexCache(DrawResultRepository __drawResultRepository) {
+		this.drawResultRepository = __drawResultRepository;
+		this.indexes = Collections.synchronizedMap(new LinkedHashMap<DrawKey, DrawIndex>(64, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<DrawKey, DrawIndex> __eldest) {
+				return this.size() > DrawIndexCache.MAX_DRAWS;
+			}
+		});
+	}
+
+	/**
+	 * Gets the index of a draw, loading its results from the database when not cached yet.
+	 *
+	 * @param __key the draw key
+	 * @return the draw index, {@link DrawIndex#EMPTY} if the draw has no result yet
+	 */
+	public DrawIndex get(DrawKey __key) {
+		DrawIndex _index = this.indexes.get(__key);
+		if (_index != null) {
+			return _index;
+		}
+		_index = DrawIndex.ofNumbers(
+		        this.drawResultRepository.findOne(__key.getChannelId(), __key.getOpenDate()).getCodes());
+		if (!_index.isEmpty()) {
+			this.publish(__key, _index);
+		}
+		return _index;
+	}
+
+	/**
+	 * Gets the indexes of draws, loading the draws not cached yet in one range scan over their
+	 * channels and days.
+	 *
+	 * @param __keys the draw keys
+	 * @return the draw indexes by key, {@link DrawIndex#EMPTY} for the draws without result yet
+	 */
+	public Map<DrawKey, DrawIndex> getAll(Collection<DrawKey> __keys) {
+		Map<DrawKey, DrawIndex> _indexes = new HashMap<>();
+		Set<Long> _channelIds = new HashSet<>();
+		int _fromDay = Integer.MAX_VALUE;
+		int _toDay = Integer.MIN_VALUE;
+		for (DrawKey _key : __keys) {
+			DrawIndex _index = this.indexes.get(_key);
+			if (_index != null) {
+				_indexes.put(_key, _index);
+			}
+			else if (!_indexes.containsKey(_key)) {
+				_indexes.put(_key, DrawIndex.EMPTY);
+				_channelIds.add(_key.getChannelId());
+				_fromDay = Math.min(_fromDay, _key.getDrawDay());
+				_toDay = Math.max(_toDay, _key.getDrawDay());
+			}
+		}
+		if (_channelIds.isEmpty()) {
+			return _indexes;
+		}
+
+		for (DrawResult _drawResult : this.drawResultRepository.findAll(_channelIds,
+		        new DrawKey(0, _fromDay).getOpenDate(), new DrawKey(0, _toDay).getOpenDate())) {
+			DrawKey _key = DrawKey.of(_drawResult.getChannelId(), _drawResult.getOpenDate());
+			if (_indexes.get(_key) == DrawIndex.EMPTY) {
+				DrawIndex _index = DrawIndex.ofNumbers(_drawResult.getCodes());
+				_indexes.put(_key, _index);
+				if (!_index.isEmpty()) {
+					this.publish(_key, _index);
+				}
+			}
+		}
+		return _indexes;
+	}
+
+	/**
+	 * Replaces the index of a draw with its freshly saved codes.
+	 * <p>
+	 * Inside a transaction the index is only published after commit, so a rolled back crawl never
+	 * leaks its codes to settlement.
+	 * </p>
+	 *
+	 * @param __key the draw key
+	 * @param __codes the saved codes of the draw
+	 */
+	public void refresh(DrawKey __key, Collection<Code> __codes) {
+		this.publish(__key, DrawIndex.of(__codes));
+	}
+
+	/**
+	 * Evicts the index of a draw.
+	 * <p>
+	 * Inside a transaction the index is only evicted after commit, so a read racing the transaction
+	 * cannot cache the codes it replaces.
+	 * </p>
+	 *
+	 * @param __key the draw key
+	 */
+	public void evict(DrawKey __key) {
+		this.publish(__key, DrawIndex.EMPTY);
+	}
+
+	/**
+	 * Publishes the index of a draw once the current transaction, if any, has committed.
+	 *
+	 * @param __key the draw key
+	 * @param __index the draw index, evicted when empty
+	 */
+	private void publish(DrawKey __key, DrawIndex __index) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+				@Override
+				public void afterCommit() {
+					DrawIndexCache.this.put(__key, __index);
+				}
+			});
+		}
+		else {
+			this.put(__key, __index);
+		}
+	}
+
+	/**
+	 * Puts the index of a draw, or evicts it when empty.
+	 *
+	 * @param __key the draw key
+	 * @param __index the draw index
+	 */
+	private void put(DrawKey __key, DrawIndex __index) {
+		this.log.debug("Refresh draw index of {}", __key);
+		if (__index.isEmpty()) {
+			this.indexes.remove(__key);
+		}
+		else {
+			this.indexes.put(__key, __index);
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package logia.quanlyso.service.settlement;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Identifies one draw: a channel and the day its results were opened, as an epoch day in the system
+ * zone so that building and comparing keys does no date arithmetic.
+ *
+ * @author Dai Mai
+ */
+public final class DrawKey implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long	serialVersionUID	= 1L;
+
+	/** The channel id. */
+	private final long			channelId;
+
+	/** The draw day, as an epoch day in the system zone. */
+	private final int			drawDay;
+
+	/**
+	 * Instantiates a new draw key.
+	 *
+	 * @param __channelId the channel id
+	 * @param __drawDay the draw day, as an epoch day in the system zone
+	 */
+	public DrawKey(long __channelId, int __drawDay) {
+		this.channelId = __channelId;
+		this.drawDay = __drawDay;
+	}
+
+	/**
+	 * Creates the key of a draw from any instant of its open day.
+	 *
+	 * @param __channelId the channel id
+	 * @param __openDate the open date, in any zone
+	 * @return the draw key
+	 */
+	public static DrawKey of(long __channelId, ZonedDateTime __openDate) {
+		return new DrawKey(__channelId, DateFormatterUtil.toEpochDay(__openDate));
+	}
+
+	/**
+	 * Gets the channel id.
+	 *
+	 * @return the channel id
+	 */
+	public long getChannelId() {
+		return this.channelId;
+	}
+
+	/**
+	 * Gets the draw day.
+	 *
+	 * @return the draw day, as an epoch day in the system zone
+	 */
+	public int getDrawDay() {
+		return this.drawDay;
+	}
+
+	/**
+	 * Gets the draw date.
+	 *
+	 * @return the draw date
+	 */
+	public LocalDate getDrawDate() {
+		return LocalDate.ofEpochDay(this.drawDay);
+	}
+
+	/**
+	 * Gets the open date as stored on {@code Code} rows, start of day in the system zone.
+	 *
+	 * @return the open date
+	 */
+	public ZonedDateTime getOpenDate() {
+		return DateFormatterUtil.fromEpochDay(this.drawDay);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || this.getClass() != o.getClass()) {
+			return false;
+		}
+		DrawKey _other = (DrawKey) o;
+		return this.channelId == _other.channelId && this.drawDay == _other.drawDay;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * Long.hashCode(this.channelId) + this.drawDay;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "DrawKey{" + "channelId=" + this.channelId + ", drawDate='" + this.getDrawDate() + "'" + "}";
+	}
+}
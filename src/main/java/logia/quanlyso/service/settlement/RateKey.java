@@ -0,0 +1,116 @@
+package logia.quanlyso.service.settlement;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import logia.quanlyso.domain.TransactionDetails;
+
+/**
+ * Identifies the cost and profit rates of a play: its factor, style and type.
+ *
+ * @author Dai Mai
+ */
+public final class RateKey implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long	serialVersionUID	= 1L;
+
+	/** The factor id. */
+	private final Long			factorId;
+
+	/** The style id. */
+	private final Long			styleId;
+
+	/** The types id. */
+	private final Long			typesId;
+
+	/**
+	 * Instantiates a new rate key.
+	 *
+	 * @param __factorId the factor id
+	 * @param __styleId the style id
+	 * @param __typesId the types id
+	 */
+	public RateKey(Long __factorId, Long __styleId, Long __typesId) {
+		this.factorId = __factorId;
+		this.styleId = __styleId;
+		this.typesId = __typesId;
+	}
+
+	/**
+	 * Creates the rate key of a transaction detail.
+	 *
+	 * @param __details the transaction details
+	 * @return the rate key
+	 */
+	public static RateKey of(TransactionDetails __details) {
+		return new RateKey(__details.getFactors().getId(), __details.getStyles().getId(),
+		        __details.getTypes().getId());
+	}
+
+	/**
+	 * Gets the factor id.
+	 *
+	 * @return the factor id
+	 */
+	public Long getFactorId() {
+		return this.factorId;
+	}
+
+	/**
+	 * Gets the style id.
+	 *
+	 * @return the style id
+	 */
+	public Long getStyleId() {
+		return this.styleId;
+	}
+
+	/**
+	 * Gets the types id.
+	 *
+	 * @return the types id
+	 */
+	public Long getTypesId() {
+		return this.typesId;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || this.getClass() != o.getClass()) {
+			return false;
+		}
+		RateKey _other = (RateKey) o;
+		return Objects.equals(this.factorId, _other.factorId) && Objects.equals(this.styleId, _other.styleId)
+		        && Objects.equals(this.typesId, _other.typesId);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.factorId, this.styleId, this.typesId);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "RateKey{" + "factorId=" + this.factorId + ", styleId=" + this.styleId + ", typesId="
+		        + this.typesId + "}";
+	}
+}
@@ -0,0 +1,113 @@
+package logia.quanlyso.service.settlement;
+
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import logia.quanlyso.domain.TransactionDetails;
+import logia.quanlyso.domain.Transactions;
+import logia.quanlyso.service.util.DateFormatterUtil;
+import logia.quanlyso.service.util.MoneyUtil;
+
+/**
+ * The draws and rates a batch of transactions is settled against.
+ * <p>
+ * Everything is resolved before settling, so settling a transaction is pure computation: no
+ * database access and no shared mutable state.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+public final class SettlementContext {
+
+	/** The draw indexes. */
+	private final Map<DrawKey, DrawIndex>		draws;
+
+	/** The rates. */
+	private final Map<RateKey, SettlementRate>	rates;
+
+	/**
+	 * Instantiates a new settlement context.
+	 *
+	 * @param __draws the draw indexes
+	 * @param __rates the rates
+	 */
+	public SettlementContext(Map<DrawKey, DrawIndex> __draws, Map<RateKey, SettlementRate> __rates) {
+		this.draws = Collections.unmodifiableMap(__draws);
+		this.rates = Collections.unmodifiableMap(__rates);
+	}
+
+	/**
+	 * Gets the draw days of transactions, assuming the current date when not set.
+	 * <p>
+	 * The days are computed once per settlement and passed to every step, so that a transaction
+	 * without open date is loaded and settled against the same day even across midnight.
+	 * </p>
+	 *
+	 * @param __transactions the transactions
+	 * @return the draw days, as epoch days in the system zone, in the order of the transactions
+	 */
+	public static int[] drawDaysOf(List<Transactions> __transactions) {
+		int _today = DateFormatterUtil.toEpochDay(ZonedDateTime.now(DateFormatterUtil.systemZoneId()));
+		int[] _drawDays = new int[__transactions.size()];
+		for (int _i = 0; _i < _drawDays.length; _i++) {
+			ZonedDateTime _openDate = __transactions.get(_i).getOpenDate();
+			// If not set, Assume transactions of current date
+			_drawDays[_i] = _openDate == null ? _today : DateFormatterUtil.toEpochDay(_openDate);
+		}
+		return _drawDays;
+	}
+
+	/**
+	 * Checks whether the results of every draw a transaction plays are known.
+	 *
+	 * @param __transactions the transactions
+	 * @param __drawDay the draw day of the transaction
+	 * @return true, if the transaction can be settled for good
+	 */
+	public boolean isSettleable(Transactions __transactions, int __drawDay) {
+		for (TransactionDetails _details : __transactions.getTransactionDetails()) {
+			DrawIndex _drawIndex = this.draws.get(new DrawKey(_details.getChannels().getId(), __drawDay));
+			if (_drawIndex == null || _drawIndex.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Settles a transaction: sets the costs and profit of each detail and the net value.
+	 *
+	 * @param __transactions the transactions
+	 * @param __drawDay the draw day of the transaction
+	 * @return the transactions
+	 */
+	public Transactions settle(Transactions __transactions, int __drawDay) {
+		long _netValue = 0L;
+		for (TransactionDetails _details : __transactions.getTransactionDetails()) {
+			_netValue += this.settle(__transactions.getChosenNumber(), __drawDay, _details);
+		}
+		__transactions.setNetValue(_netValue);
+		return __transactions;
+	}
+
+	/**
+	 * Settles one detail: sets its costs and profit.
+	 *
+	 * @param __chosenNumber the chosen number
+	 * @param __drawDay the draw day of the transaction
+	 * @param __details the details
+	 * @return the net value of the detail, in thousandths
+	 */
+	public long settle(String __chosenNumber, int __drawDay, TransactionDetails __details) {
+		DrawIndex _drawIndex = this.draws.get(new DrawKey(__details.getChannels().getId(), __drawDay));
+		SettlementRate _rate = this.rates.get(RateKey.of(__details));
+		int _hits = _drawIndex.hits(__chosenNumber, __details.getStyles(), __details.getTypes());
+		long _amount = __details.getAmount();
+		long _costs = MoneyUtil.multiply(_amount, _rate.getCost());
+		long _profit = MoneyUtil.multiply(Math.multiplyExact(_amount, _hits), _rate.getProfit());
+		__details.costs(_costs).profit(_profit);
+		return _profit - _costs;
+	}
+}
@@ -0,0 +1,102 @@
+package logia.quanlyso.service.settlement;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import logia.quanlyso.domain.CostFactor;
+import logia.quanlyso.domain.Factor;
+import logia.quanlyso.domain.ProfitFactor;
+import logia.quanlyso.domain.Style;
+import logia.quanlyso.domain.TransactionDetails;
+import logia.quanlyso.domain.Transactions;
+import logia.quanlyso.domain.Types;
+import logia.quanlyso.repository.CostFactorRepository;
+import logia.quanlyso.repository.ProfitFactorRepository;
+import logia.quanlyso.service.util.MoneyUtil;
+
+/**
+ * Resolves the draws and rates a batch of transactions needs, each one once.
+ *
+ * @author Dai Mai
+ */
+@Component
+public class SettlementContextLoader {
+
+	/** The draw index cache. */
+	private final DrawIndexCache			drawIndexCache;
+
+	/** The cost factor repository. */
+	private final CostFactorRepository		costFactorRepository;
+
+	/** The profit factor repository. */
+	private final ProfitFactorRepository	profitFactorRepository;
+
+	/**
+	 * Instantiates a new settlement context loader.
+	 *
+	 * @param __drawIndexCache the draw index cache
+	 * @param __costFactorRepository the cost factor repository
+	 * @param __profitFactorRepository the profit factor repository
+	 */
+	public SettlementContextLoader(DrawIndexCache __drawIndexCache,
+	        CostFactorRepository __costFactorRepository, ProfitFactorRepository __profitFactorRepository) {
+		this.drawIndexCache = __drawIndexCache;
+		this.costFactorRepository = __costFactorRepository;
+		this.profitFactorRepository = __profitFactorRepository;
+	}
+
+	/**
+	 * Load the draws and rates needed to settle transactions.
+	 *
+	 * @param __transactions the transactions
+	 * @param __drawDays the draw days of the transactions, from
+	 *            {@link SettlementContext#drawDaysOf(List)}
+	 * @return the settlement context
+	 * @throws NullPointerException if a rate is not configured
+	 */
+	public SettlementContext load(List<Transactions> __transactions, int[] __drawDays)
+	        throws NullPointerException {
+		Set<DrawKey> _drawKeys = new HashSet<>();
+		Map<RateKey, SettlementRate> _rates = new HashMap<>();
+		for (int _i = 0; _i < __transactions.size(); _i++) {
+			for (TransactionDetails _details : __transactions.get(_i).getTransactionDetails()) {
+				_drawKeys.add(new DrawKey(_details.getChannels().getId(), __drawDays[_i]));
+				RateKey _rateKey = RateKey.of(_details);
+				if (!_rates.containsKey(_rateKey)) {
+					_rates.put(_rateKey, this.findRate(_details.getFactors(), _details.getStyles(),
+					        _details.getTypes()));
+				}
+			}
+		}
+		// The draws not cached yet are read in one scan
+		return new SettlementContext(this.drawIndexCache.getAll(_drawKeys), _rates);
+	}
+
+	/**
+	 * Find the cost and profit rates of a play.
+	 *
+	 * @param __factor the factor
+	 * @param __style the style
+	 * @param __types the types
+	 * @return the settlement rate
+	 * @throws NullPointerException if a rate is not configured
+	 */
+	private SettlementRate findRate(Factor __factor, Style __style, Types __types)
+	        throws NullPointerException {
+		CostFactor _costFactor = this.costFactorRepository.findOneByFactorsAndStylesAndTypes(__factor,
+		        __style, __types);
+		ProfitFactor _profitFactor = this.profitFactorRepository
+		        .findOneByFactorsAndStylesAndTypes(__factor, __style, __types);
+		if (_costFactor == null || _profitFactor == null) {
+			throw new NullPointerException("Rate of factor " + __factor.getId() + ", style "
+			        + __style.getId() + ", types " + __types.getId() + " not found");
+		}
+		return new SettlementRate(MoneyUtil.toRateUnits(_costFactor.getRate()),
+		        MoneyUtil.toRateUnits(_profitFactor.getRate()));
+	}
+}
@@ -0,0 +1,223 @@
+package logia.quanlyso.service.settlement;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import logia.quanlyso.config.ApplicationProperties;
+import logia.quanlyso.domain.TransactionDetails;
+import logia.quanlyso.domain.Transactions;
+
+/**
+ * Settles batches of transactions against a resolved {@link SettlementContext}.
+ * <p>
+ * Small batches are settled serially on the calling thread. Large batches are split by draw and
+ * the details of each draw are settled on a bounded {@link ForkJoinPool}; the net values are then
+ * summed on the calling thread. Money is fixed-point, so both paths give identical results.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+@Component
+public class SettlementEngine {
+
+	/** The maximum number of details settled by one task. */
+	private static final int	SLICE_SIZE	= 1024;
+
+	/** The log. */
+	private final Logger		log			= LoggerFactory.getLogger(SettlementEngine.class);
+
+	/** The pool settling the draws of large batches. */
+	private final ForkJoinPool	pool;
+
+	/** The number of details from which a batch is settled in parallel. */
+	private final int			parallelThreshold;
+
+	/**
+	 * Instantiates a new settlement engine.
+	 *
+	 * @param __applicationProperties the application properties
+	 */
+	@Autowired
+	public SettlementEngine(ApplicationProperties __applicationProperties) {
+		this(__applicationProperties.getSettlement().getParallelism(),
+		        __applicationProperties.getSettlement().getParallelThreshold());
+	}
+
+	/**
+	 * Instantiates a new settlement engine.
+	 *
+	 * @param __parallelism the number of settlement threads
+	 * @param __parallelThreshold the number of details from which a batch is settled in parallel
+	 */
+	SettlementEngine(int __parallelism, int __parallelThreshold) {
+		this.pool = new ForkJoinPool(Math.max(1, __parallelism));
+		this.parallelThreshold = __parallelThreshold;
+	}
+
+	/**
+	 * Shutdown the settlement pool.
+	 */
+	@PreDestroy
+	public void destroy() {
+		this.pool.shutdown();
+	}
+
+	/**
+	 * Settles transactions.
+	 *
+	 * @param __transactions the transactions
+	 * @param __drawDays the draw days of the transactions, as loaded in the context
+	 * @param __context the resolved draws and rates
+	 * @return the transactions, in input order
+	 */
+	public List<Transactions> settle(List<Transactions> __transactions, int[] __drawDays,
+	        SettlementContext __context) {
+		int _size = 0;
+		for (Transactions _transactions : __transactions) {
+			_size += _transactions.getTransactionDetails().size();
+		}
+		if (_size < this.parallelThreshold) {
+			for (int _i = 0; _i < __transactions.size(); _i++) {
+				__context.settle(__transactions.get(_i), __drawDays[_i]);
+			}
+			return __transactions;
+		}
+
+		this.log.debug("Settle {} details in parallel", _size);
+		List<List<Settling>> _partitions = SettlementEngine.partitionByDraw(__transactions, __drawDays);
+		this.pool.invoke(new DrawsTask(_partitions, 0, _partitions.size(), __context));
+
+		// Sum the settled details of each transaction
+		for (Transactions _transactions : __transactions) {
+			long _netValue = 0L;
+			for (TransactionDetails _details : _transactions.getTransactionDetails()) {
+				_netValue += _details.getProfit() - _details.getCosts();
+			}
+			_transactions.setNetValue(_netValue);
+		}
+		return __transactions;
+	}
+
+	/**
+	 * Splits the details of the transactions by draw, then each draw in slices.
+	 *
+	 * @param __transactions the transactions
+	 * @param __drawDays the draw days of the transactions
+	 * @return the slices, each holding details of a single draw
+	 */
+	private static List<List<Settling>> partitionByDraw(List<Transactions> __transactions, int[] __drawDays) {
+		Map<DrawKey, List<Settling>> _partitions = new LinkedHashMap<>();
+		for (int _i = 0; _i < __transactions.size(); _i++) {
+			Transactions _transactions = __transactions.get(_i);
+			int _drawDay = __drawDays[_i];
+			for (TransactionDetails _details : _transactions.getTransactionDetails()) {
+				_partitions.computeIfAbsent(new DrawKey(_details.getChannels().getId(), _drawDay),
+				        __key -> new ArrayList<>())
+				        .add(new Settling(_transactions.getChosenNumber(), _drawDay, _details));
+			}
+		}
+		List<List<Settling>> _slices = new ArrayList<>();
+		for (List<Settling> _partition : _partitions.values()) {
+			for (int _from = 0; _from < _partition.size(); _from += SettlementEngine.SLICE_SIZE) {
+				_slices.add(_partition.subList(_from,
+				        Math.min(_from + SettlementEngine.SLICE_SIZE, _partition.size())));
+			}
+		}
+		return _slices;
+	}
+
+	/**
+	 * A detail waiting to be settled.
+	 */
+	private static final class Settling {
+
+		/** The chosen number. */
+		private final String				chosenNumber;
+
+		/** The draw day. */
+		private final int					drawDay;
+
+		/** The details. */
+		private final TransactionDetails	details;
+
+		/**
+		 * Instantiates a new settling.
+		 *
+		 * @param __chosenNumber the chosen number
+		 * @param __drawDay the draw day
+		 * @param __details the details
+		 */
+		Settling(String __chosenNumber, int __drawDay, TransactionDetails __details) {
+			this.chosenNumber = __chosenNumber;
+			this.drawDay = __drawDay;
+			this.details = __details;
+		}
+	}
+
+	/**
+	 * Settles a range of slices, forking until one slice is left.
+	 */
+	private static final class DrawsTask extends RecursiveAction {
+
+		/** The Constant serialVersionUID. */
+		private static final long			serialVersionUID	= 1L;
+
+		/** The slices. */
+		private final List<List<Settling>>	partitions;
+
+		/** The first slice, inclusive. */
+		private final int					from;
+
+		/** The last slice, exclusive. */
+		private final int					to;
+
+		/** The settlement context. */
+		private final SettlementContext		context;
+
+		/**
+		 * Instantiates a new draws task.
+		 *
+		 * @param __partitions the slices
+		 * @param __from the first slice, inclusive
+		 * @param __to the last slice, exclusive
+		 * @param __context the settlement context
+		 */
+		DrawsTask(List<List<Settling>> __partitions, int __from, int __to, SettlementContext __context) {
+			this.partitions = __partitions;
+			this.from = __from;
+			this.to = __to;
+			this.context = __context;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute() {
+			if (this.to - this.from > 1) {
+				int _middle = (this.from + this.to) >>> 1;
+				RecursiveAction.invokeAll(new DrawsTask(this.partitions, this.from, _middle, this.context),
+				        new DrawsTask(this.partitions, _middle, this.to, this.context));
+				return;
+			}
+			for (int _i = this.from; _i < this.to; _i++) {
+				for (Settling _settling : this.partitions.get(_i)) {
+					this.context.settle(_settling.chosenNumber, _settling.drawDay, _settling.details);
+				}
+			}
+		}
+	}
+}
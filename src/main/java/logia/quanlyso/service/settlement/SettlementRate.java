@@ -0,0 +1,49 @@
+package logia.quanlyso.service.settlement;
+
+import java.io.Serializable;
+
+/**
+ * The cost and profit rates of a play, resolved once per settlement, in ten-thousandths.
+ *
+ * @author Dai Mai
+ */
+public final class SettlementRate implements Serializable {
+
+	/** The Constant serialVersionUID. */
+	private static final long	serialVersionUID	= 1L;
+
+	/** The cost rate. */
+	private final long			cost;
+
+	/** The profit rate. */
+	private final long			profit;
+
+	/**
+	 * Instantiates a new settlement rate.
+	 *
+	 * @param __cost the cost rate, in ten-thousandths
+	 * @param __profit the profit rate, in ten-thousandths
+	 */
+	public SettlementRate(long __cost, long __profit) {
+		this.cost = __cost;
+		this.profit = __profit;
+	}
+
+	/**
+	 * Gets the cost rate.
+	 *
+	 * @return the cost rate, in ten-thousandths
+	 */
+	public long getCost() {
+		return this.cost;
+	}
+
+	/**
+	 * Gets the profit rate.
+	 *
+	 * @return the profit rate, in ten-thousandths
+	 */
+	public long getProfit() {
+		return this.profit;
+	}
+}
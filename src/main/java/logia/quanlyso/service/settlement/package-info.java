@@ -0,0 +1,4 @@
+/**
+ * In-memory structures used to settle transactions against crawled draw results.
+ */
+package logia.quanlyso.service.settlement;
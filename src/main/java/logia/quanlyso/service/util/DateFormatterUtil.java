@@ -12,6 +12,18 @@ import java.time.format.DateTimeFormatter;
  */
 public class DateFormatterUtil {
 
+	/** The system zone, for the cron triggers of the draw days. */
+	public static final String				SYSTEM_ZONE		= "Asia/Ho_Chi_Minh";
+
+	/** The system zone id. */
+	private static final ZoneId				SYSTEM_ZONE_ID	= ZoneId.of(DateFormatterUtil.SYSTEM_ZONE);
+
+	/** The dd-MM-yyyy formatter. */
+	private static final DateTimeFormatter	DD_MM_YYYY		= DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+	/** The yyyy-MM-dd formatter. */
+	private static final DateTimeFormatter	YYYY_MM_DD		= DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
 	/**
 	 * From DDMMYYYY string to zoned date time.
 	 *
@@ -19,8 +31,7 @@ public class DateFormatterUtil {
 	 * @return the zoned date time
 	 */
 	public static ZonedDateTime fromDDMMYYYYStringToZonedDateTime(String __stringTime) {
-		DateTimeFormatter _dateFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
-		LocalDate _localDate = LocalDate.parse(__stringTime, _dateFormatter);
+		LocalDate _localDate = LocalDate.parse(__stringTime, DateFormatterUtil.DD_MM_YYYY);
 		return _localDate.atStartOfDay(DateFormatterUtil.systemZoneId());
 	}
 
@@ -31,8 +42,7 @@ public class DateFormatterUtil {
 	 * @return the zoned date time
 	 */
 	public static ZonedDateTime fromYYYYMMDDStringToZonedDateTime(String __stringTime) {
-		DateTimeFormatter _dateFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
-		LocalDate _localDate = LocalDate.parse(__stringTime, _dateFormatter);
+		LocalDate _localDate = LocalDate.parse(__stringTime, DateFormatterUtil.DD_MM_YYYY);
 		return _localDate.atStartOfDay(DateFormatterUtil.systemZoneId());
 	}
 
@@ -43,7 +53,7 @@ public class DateFormatterUtil {
 	 * @return the string
 	 */
 	public static String fromDateTimeToStringDDMMYYYY(ZonedDateTime __time) {
-		return __time.format(DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+		return __time.format(DateFormatterUtil.DD_MM_YYYY);
 	}
 
 	/**
@@ -53,7 +63,7 @@ public class DateFormatterUtil {
 	 * @return the string
 	 */
 	public static String fromDateTimeToStringYYYYMMDD(ZonedDateTime __time) {
-		return __time.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+		return __time.format(DateFormatterUtil.YYYY_MM_DD);
 	}
 
 	/**
@@ -62,6 +72,26 @@ public class DateFormatterUtil {
 	 * @return the zone id
 	 */
 	public static ZoneId systemZoneId() {
-		return ZoneId.of("Asia/Ho_Chi_Minh");
+		return DateFormatterUtil.SYSTEM_ZONE_ID;
+	}
+
+	/**
+	 * From date time to the epoch day of its date in the system zone.
+	 *
+	 * @param __time the time, in any zone
+	 * @return the epoch day
+	 */
+	public static int toEpochDay(ZonedDateTime __time) {
+		return (int) __time.withZoneSameInstant(DateFormatterUtil.SYSTEM_ZONE_ID).toLocalDate().toEpochDay();
+	}
+
+	/**
+	 * From epoch day to the start of that day in the system zone.
+	 *
+	 * @param __epochDay the epoch day
+	 * @return the zoned date time
+	 */
+	public static ZonedDateTime fromEpochDay(int __epochDay) {
+		return LocalDate.ofEpochDay(__epochDay).atStartOfDay(DateFormatterUtil.SYSTEM_ZONE_ID);
 	}
 }
@@ -0,0 +1,75 @@
+package logia.quanlyso.service.util;
+
+/**
+ * Fixed-point money arithmetic.
+ * <p>
+ * Amounts, profits, costs and net values are stored as {@code long} thousandths of the amount
+ * unit, and rates as {@code long} ten-thousandths, so settling a play is exact integer arithmetic
+ * rounded once, half up. Clients keep exchanging decimal values.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+public final class MoneyUtil {
+
+	/** The number of minor units in one amount unit. */
+	public static final long	MINOR_UNITS	= 1000L;
+
+	/** The number of rate units in a rate of one. */
+	public static final long	RATE_UNITS	= 10000L;
+
+	/**
+	 * Instantiates a new money util.
+	 */
+	private MoneyUtil() {
+	}
+
+	/**
+	 * From a decimal value to minor units.
+	 *
+	 * @param __value the value
+	 * @return the minor units, null if the value is null
+	 */
+	public static Long toMinorUnits(Float __value) {
+		if (__value == null) {
+			return null;
+		}
+		return Math.round(__value.doubleValue() * MoneyUtil.MINOR_UNITS);
+	}
+
+	/**
+	 * From minor units to a decimal value.
+	 *
+	 * @param __minorUnits the minor units
+	 * @return the value, null if the minor units are null
+	 */
+	public static Float fromMinorUnits(Long __minorUnits) {
+		if (__minorUnits == null) {
+			return null;
+		}
+		return (float) ((double) __minorUnits / MoneyUtil.MINOR_UNITS);
+	}
+
+	/**
+	 * From a decimal rate to rate units.
+	 *
+	 * @param __rate the rate
+	 * @return the rate units
+	 */
+	public static long toRateUnits(float __rate) {
+		return Math.round((double) __rate * MoneyUtil.RATE_UNITS);
+	}
+
+	/**
+	 * Multiplies an amount by a rate.
+	 *
+	 * @param __minorUnits the amount, in minor units
+	 * @param __rateUnits the rate, in rate units
+	 * @return the product in minor units, rounded half up
+	 * @throws ArithmeticException if the product overflows
+	 */
+	public static long multiply(long __minorUnits, long __rateUnits) throws ArithmeticException {
+		long _product = Math.multiplyExact(__minorUnits, __rateUnits);
+		return Math.floorDiv(_product + MoneyUtil.RATE_UNITS / 2, MoneyUtil.RATE_UNITS);
+	}
+}
@@ -0,0 +1,108 @@
+package logia.quanlyso.web.rest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.codahale.metrics.annotation.Timed;
+
+import logia.quanlyso.service.BackfillService;
+import logia.quanlyso.service.dto.BackfillRequestDTO;
+import logia.quanlyso.service.dto.BackfillStatusDTO;
+import logia.quanlyso.web.rest.util.HeaderUtil;
+
+/**
+ * REST controller for backfilling the history of Codes.
+ *
+ * @author Dai Mai
+ */
+@RestController
+@RequestMapping("/api")
+public class BackfillResource {
+
+	/** The Constant ENTITY_NAME. */
+	private static final String		ENTITY_NAME	= "backfill";
+
+	/** The log. */
+	private final Logger			log			= LoggerFactory.getLogger(BackfillResource.class);
+
+	/** The backfill service. */
+	private final BackfillService	backfillService;
+
+	/**
+	 * Instantiates a new backfill resource.
+	 *
+	 * @param backfillService the backfill service
+	 */
+	public BackfillResource(BackfillService backfillService) {
+		this.backfillService = backfillService;
+	}
+
+	/**
+	 * POST /codes/backfill : start backfilling the codes of channels over a range of days.
+	 *
+	 * @param backfillRequestDTO the channels and days to backfill
+	 * @return the ResponseEntity with status 200 (OK) and the backfill status in body, or with
+	 *         status 400 (Bad Request) if the range of days is not valid, or changes the range of a
+	 *         channel still backfilled
+	 */
+	@PostMapping("/codes/backfill")
+	@Timed
+	public ResponseEntity<BackfillStatusDTO> startBackfill(@RequestBody BackfillRequestDTO backfillRequestDTO) {
+		this.log.debug("REST request to backfill codes : {}", backfillRequestDTO);
+		try {
+			return ResponseEntity.ok(this.backfillService.start(backfillRequestDTO));
+		}
+		catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest()
+			        .headers(HeaderUtil.createFailureAlert(BackfillResource.ENTITY_NAME, "invalidrange", e.getMessage()))
+			        .body(null);
+		}
+		catch (IllegalStateException e) {
+			return ResponseEntity.badRequest()
+			        .headers(HeaderUtil.createFailureAlert(BackfillResource.ENTITY_NAME, "backfillrunning", e.getMessage()))
+			        .body(null);
+		}
+	}
+
+	/**
+	 * POST /codes/backfill/pause : pause backfilling, each channel stopping at its next checkpoint.
+	 *
+	 * @return the ResponseEntity with status 200 (OK) and the backfill status in body
+	 */
+	@PostMapping("/codes/backfill/pause")
+	@Timed
+	public ResponseEntity<BackfillStatusDTO> pauseBackfill() {
+		this.log.debug("REST request to pause backfill");
+		return ResponseEntity.ok(this.backfillService.pause());
+	}
+
+	/**
+	 * POST /codes/backfill/resume : resume backfilling the channels not done from their checkpoint.
+	 *
+	 * @return the ResponseEntity with status 200 (OK) and the backfill status in body
+	 */
+	@PostMapping("/codes/backfill/resume")
+	@Timed
+	public ResponseEntity<BackfillStatusDTO> resumeBackfill() {
+		this.log.debug("REST request to resume backfill");
+		return ResponseEntity.ok(this.backfillService.resume());
+	}
+
+	/**
+	 * GET /codes/backfill : get the progress and throughput of backfilling.
+	 *
+	 * @return the ResponseEntity with status 200 (OK) and the backfill status in body
+	 */
+	@GetMapping("/codes/backfill")
+	@Timed
+	public ResponseEntity<BackfillStatusDTO> getBackfill() {
+		this.log.debug("REST request to get backfill status");
+		return ResponseEntity.ok(this.backfillService.getStatus());
+	}
+}
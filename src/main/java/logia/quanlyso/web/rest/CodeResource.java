@@ -23,7 +23,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import com.codahale.metrics.annotation.Timed;
 
@@ -33,6 +35,7 @@ import logia.quanlyso.service.ChannelService;
 import logia.quanlyso.service.CodeService;
 import logia.quanlyso.service.dto.ChannelDTO;
 import logia.quanlyso.service.dto.CodeDTO;
+import logia.quanlyso.service.dto.CrawlJobDTO;
 import logia.quanlyso.service.dto.CrawlRequestDTO;
 import logia.quanlyso.service.dto.ProcessingDTO;
 import logia.quanlyso.service.util.DateFormatterUtil;
@@ -54,6 +57,9 @@ public class CodeResource {
 	/** The Constant ENTITY_NAME. */
 	private static final String	ENTITY_NAME	= "code";
 
+	/** The milliseconds a long-poll of a crawl job is held, below the timeout of the proxy. */
+	static final long			CRAWL_POLL_TIMEOUT	= 25000L;
+
 	/** The code service. */
 	private final CodeService	codeService;
 
@@ -166,15 +172,19 @@ public class CodeResource {
 	}
 
 	/**
-	 * POST /codes/crawl : Crawl codes data from other website.
+	 * POST /codes/crawl : Start crawling codes data from other website.
+	 * <p>
+	 * The crawl goes on in the background, its progress read from the crawl job.
+	 * </p>
 	 *
 	 * @param __crawlRequestDTO the crawl request DTO
-	 * @return the response entity with status 201 (Created)
-	 * @throws Exception the exception
+	 * @return the response entity with status 202 (Accepted) and the crawl job in body
+	 * @throws URISyntaxException if the Location URI syntax is incorrect
 	 */
 	@PostMapping(value = "/codes/crawl")
-	public ResponseEntity<Void> crawlData(@RequestBody CrawlRequestDTO __crawlRequestDTO)
-	        throws Exception {
+	@Timed
+	public ResponseEntity<CrawlJobDTO> crawlData(@RequestBody CrawlRequestDTO __crawlRequestDTO)
+	        throws URISyntaxException {
 		this.log.debug("REST request to crawl code data from other website");
 		if (__crawlRequestDTO == null) {
 			__crawlRequestDTO = new CrawlRequestDTO();
@@ -190,10 +200,58 @@ public class CodeResource {
 			Set<String> _codes = new HashSet<>();
 			_codes.addAll(channelDTOs.parallelStream().map(_dto -> _dto.getCode())
 			        .collect(Collectors.toSet()));
+			__crawlRequestDTO.setChannelCodes(_codes);
 		}
 
-		this.codeService.crawlLotteriesFromMinhNgocSite(__crawlRequestDTO.getChannelCodes());
-		return ResponseEntity.created(new URI("/api/codes")).build();
+		CrawlJobDTO _result = this.codeService.startCrawl(__crawlRequestDTO.getChannelCodes());
+		return ResponseEntity.accepted().location(new URI("/api/codes/crawl/" + _result.getId())).body(_result);
+	}
+
+	/**
+	 * GET /codes/crawl/:id : get the progress of a crawl job.
+	 *
+	 * @param id the id of the crawl job
+	 * @return the ResponseEntity with status 200 (OK) and the crawl job in body, or with status
+	 *         404 (Not Found)
+	 */
+	@GetMapping("/codes/crawl/{id}")
+	@Timed
+	public ResponseEntity<CrawlJobDTO> getCrawlJob(@PathVariable String id) {
+		this.log.debug("REST request to get crawl job : {}", id);
+		CrawlJobDTO _result = this.codeService.getCrawlJob(id);
+		return ResponseUtil.wrapOrNotFound(Optional.ofNullable(_result));
+	}
+
+	/**
+	 * GET /codes/crawl/:id?processed=:processed : long-poll the progress of a crawl job.
+	 * <p>
+	 * The response is held until more channels than given are processed or the job is done, or
+	 * at most {@link #CRAWL_POLL_TIMEOUT} milliseconds, then answered with the job as it is.
+	 * </p>
+	 *
+	 * @param id the id of the crawl job
+	 * @param processed the number of channels processed known to the client
+	 * @return the ResponseEntity with status 200 (OK) and the crawl job in body, or with status
+	 *         404 (Not Found)
+	 */
+	@GetMapping(value = "/codes/crawl/{id}", params = "processed")
+	@Timed
+	public DeferredResult<ResponseEntity<CrawlJobDTO>> awaitCrawlJob(@PathVariable String id,
+	        @RequestParam int processed) {
+		this.log.debug("REST request to wait for crawl job {} past {} channels", id, processed);
+		DeferredResult<ResponseEntity<CrawlJobDTO>> _result = new DeferredResult<>(CodeResource.CRAWL_POLL_TIMEOUT);
+		Runnable _cancel = this.codeService.awaitCrawlJob(id, processed,
+		        __job -> _result.setResult(ResponseEntity.ok(__job)));
+		if (_cancel == null) {
+			_result.setResult(ResponseEntity.notFound().build());
+			return _result;
+		}
+		_result.onTimeout(() -> {
+			_cancel.run();
+			_result.setResult(this.getCrawlJob(id));
+		});
+		_result.onCompletion(_cancel);
+		return _result;
 	}
 	
 	/**
@@ -0,0 +1,75 @@
+package logia.quanlyso.web.rest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.codahale.metrics.annotation.Timed;
+
+import logia.quanlyso.service.ExposureService;
+import logia.quanlyso.service.dto.ExposureDTO;
+import logia.quanlyso.service.exposure.DrawExposure;
+import logia.quanlyso.service.util.DateFormatterUtil;
+import logia.quanlyso.web.rest.util.HeaderUtil;
+
+/**
+ * REST controller for the liability of open Transactions per number.
+ *
+ * @author Dai Mai
+ */
+@RestController
+@RequestMapping("/api")
+public class ExposureResource {
+
+	/** The Constant ENTITY_NAME. */
+	private static final String		ENTITY_NAME	= "exposure";
+
+	/** The log. */
+	private final Logger			log			= LoggerFactory.getLogger(ExposureResource.class);
+
+	/** The exposure service. */
+	private final ExposureService	exposureService;
+
+	/**
+	 * Instantiates a new exposure resource.
+	 *
+	 * @param exposureService the exposure service
+	 */
+	public ExposureResource(ExposureService exposureService) {
+		this.exposureService = exposureService;
+	}
+
+	/**
+	 * GET /exposures : get the numbers of highest worst-case payout in a draw.
+	 *
+	 * @param channelId the channel id
+	 * @param date the date of the draw, yyyy-MM-dd, today if not set
+	 * @param size the number of numbers, at most the number of chosen numbers
+	 * @return the ResponseEntity with status 200 (OK) and the list of exposures in body, highest
+	 *         liability first, or with status 400 (Bad Request) if the size is not positive
+	 */
+	@GetMapping("/exposures")
+	@Timed
+	public ResponseEntity<List<ExposureDTO>> getTopExposures(@RequestParam(value = "channelId") Long channelId,
+	        @RequestParam(value = "date", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate date,
+	        @RequestParam(value = "size", defaultValue = "20") int size) {
+		this.log.debug("REST request to get top {} exposures of channel {} on {}", size, channelId, date);
+		if (size <= 0) {
+			return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert(ExposureResource.ENTITY_NAME,
+			        "size", "The size must be positive")).body(null);
+		}
+		LocalDate day = date == null ? LocalDate.now(DateFormatterUtil.systemZoneId()) : date;
+		List<ExposureDTO> result = this.exposureService.findTopExposures(channelId,
+		        day.atStartOfDay(DateFormatterUtil.systemZoneId()), Math.min(size, DrawExposure.NUMBERS));
+		return ResponseEntity.ok(result);
+	}
+}
@@ -0,0 +1,115 @@
+package logia.quanlyso.web.rest;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.codahale.metrics.annotation.Timed;
+
+import logia.quanlyso.service.NumberStatsService;
+import logia.quanlyso.service.analytics.NumberStats;
+import logia.quanlyso.service.dto.NumberStatsDTO;
+import logia.quanlyso.web.rest.util.HeaderUtil;
+
+/**
+ * REST controller for the frequency and overdue days of the drawn numbers.
+ *
+ * @author Dai Mai
+ */
+@RestController
+@RequestMapping("/api")
+public class NumberStatsResource {
+
+	/** The Constant ENTITY_NAME. */
+	private static final String			ENTITY_NAME	= "numberStats";
+
+	/** The log. */
+	private final Logger				log			= LoggerFactory.getLogger(NumberStatsResource.class);
+
+	/** The number stats service. */
+	private final NumberStatsService	numberStatsService;
+
+	/**
+	 * Instantiates a new number stats resource.
+	 *
+	 * @param numberStatsService the number stats service
+	 */
+	public NumberStatsResource(NumberStatsService numberStatsService) {
+		this.numberStatsService = numberStatsService;
+	}
+
+	/**
+	 * GET /number-stats/frequencies : get how often the number suffixes of a channel were drawn over
+	 * the last days.
+	 *
+	 * @param channelId the channel id
+	 * @param position ANY, BOTTOM for the special prize or TOP for the lowest prize
+	 * @param digits the suffix length, 2 or 3
+	 * @param number the suffix, all suffixes of the length if not set
+	 * @param days the number of days up to today
+	 * @return the ResponseEntity with status 200 (OK) and the list of suffixes in body, most drawn
+	 *         first, or with status 400 (Bad Request) if the suffix is not of 2 or 3 digits
+	 */
+	@GetMapping("/number-stats/frequencies")
+	@Timed
+	public ResponseEntity<List<NumberStatsDTO>> getFrequencies(@RequestParam(value = "channelId") Long channelId,
+	        @RequestParam(value = "position", defaultValue = "ANY") NumberStats.Position position,
+	        @RequestParam(value = "digits", defaultValue = "2") int digits,
+	        @RequestParam(value = "number", required = false) String number,
+	        @RequestParam(value = "days", defaultValue = "30") int days) {
+		this.log.debug("REST request to get frequencies of {} over {} days of channel {}",
+		        number == null ? digits + " digits" : number, days, channelId);
+		if (number != null) {
+			if (!number.matches("\\d{2,3}")) {
+				return this.badRequest();
+			}
+			return ResponseEntity.ok(Collections
+			        .singletonList(this.numberStatsService.findFrequency(channelId, position, number, days)));
+		}
+		if (digits < NumberStats.MIN_LENGTH || digits > NumberStats.MAX_LENGTH) {
+			return this.badRequest();
+		}
+		return ResponseEntity.ok(this.numberStatsService.findFrequencies(channelId, position, digits, days));
+	}
+
+	/**
+	 * GET /number-stats/overdue : get the number suffixes of a channel not drawn for the longest time.
+	 *
+	 * @param channelId the channel id
+	 * @param position ANY, BOTTOM for the special prize or TOP for the lowest prize
+	 * @param digits the suffix length, 2 or 3
+	 * @param size the number of suffixes
+	 * @return the ResponseEntity with status 200 (OK) and the list of suffixes in body, never drawn
+	 *         then longest overdue first, or with status 400 (Bad Request) if the length is not 2 or 3
+	 */
+	@GetMapping("/number-stats/overdue")
+	@Timed
+	public ResponseEntity<List<NumberStatsDTO>> getOverdue(@RequestParam(value = "channelId") Long channelId,
+	        @RequestParam(value = "position", defaultValue = "ANY") NumberStats.Position position,
+	        @RequestParam(value = "digits", defaultValue = "2") int digits,
+	        @RequestParam(value = "size", defaultValue = "10") int size) {
+		this.log.debug("REST request to get top {} overdue suffixes of {} digits of channel {}", size, digits,
+		        channelId);
+		if (digits < NumberStats.MIN_LENGTH || digits > NumberStats.MAX_LENGTH) {
+			return this.badRequest();
+		}
+		return ResponseEntity.ok(this.numberStatsService.findOverdue(channelId, position, digits, size));
+	}
+
+	/**
+	 * Refuse a suffix length other than 2 or 3 digits.
+	 *
+	 * @return the ResponseEntity with status 400 (Bad Request)
+	 */
+	private ResponseEntity<List<NumberStatsDTO>> badRequest() {
+		return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert(NumberStatsResource.ENTITY_NAME,
+		        "digits", "Suffixes have 2 or 3 digits")).body(null);
+	}
+}
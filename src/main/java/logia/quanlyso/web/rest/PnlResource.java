@@ -0,0 +1,79 @@
+package logia.quanlyso.web.rest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.codahale.metrics.annotation.Timed;
+
+import logia.quanlyso.service.PnlService;
+import logia.quanlyso.service.dto.PnlDTO;
+import logia.quanlyso.service.util.DateFormatterUtil;
+import logia.quanlyso.web.rest.util.HeaderUtil;
+
+/**
+ * REST controller for the profit and loss of the transactions.
+ *
+ * @author Dai Mai
+ */
+@RestController
+@RequestMapping("/api")
+public class PnlResource {
+
+	/** The Constant ENTITY_NAME. */
+	private static final String	ENTITY_NAME	= "pnl";
+
+	/** The log. */
+	private final Logger		log			= LoggerFactory.getLogger(PnlResource.class);
+
+	/** The pnl service. */
+	private final PnlService	pnlService;
+
+	/**
+	 * Instantiates a new pnl resource.
+	 *
+	 * @param pnlService the pnl service
+	 */
+	public PnlResource(PnlService pnlService) {
+		this.pnlService = pnlService;
+	}
+
+	/**
+	 * GET /pnl : get the profit and loss of each day, week or month over a window of days.
+	 *
+	 * @param period DAILY, WEEKLY from Monday or MONTHLY
+	 * @param fromDate the first day, 30 days before the last day if not set
+	 * @param toDate the last day, today if not set
+	 * @param userId the user id, all users if not set
+	 * @param channelId the channel id, all channels if not set
+	 * @return the ResponseEntity with status 200 (OK) and the list of periods with any detail in
+	 *         body, or with status 400 (Bad Request) if the first day is after the last day
+	 */
+	@GetMapping("/pnl")
+	@Timed
+	public ResponseEntity<List<PnlDTO>> getPnl(
+	        @RequestParam(value = "period", defaultValue = "DAILY") PnlService.Period period,
+	        @RequestParam(value = "fromDate", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate fromDate,
+	        @RequestParam(value = "toDate", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate toDate,
+	        @RequestParam(value = "userId", required = false) Long userId,
+	        @RequestParam(value = "channelId", required = false) Long channelId) {
+		this.log.debug("REST request to get {} P&L from {} to {} of user {}, channel {}", period, fromDate, toDate,
+		        userId, channelId);
+		LocalDate lastDay = toDate == null ? LocalDate.now(DateFormatterUtil.systemZoneId()) : toDate;
+		LocalDate firstDay = fromDate == null ? lastDay.minusDays(30) : fromDate;
+		if (firstDay.isAfter(lastDay)) {
+			return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert(PnlResource.ENTITY_NAME,
+			        "dates", "The first day is after the last day")).body(null);
+		}
+		return ResponseEntity.ok(this.pnlService.findPnl(period, firstDay, lastDay, userId, channelId));
+	}
+}
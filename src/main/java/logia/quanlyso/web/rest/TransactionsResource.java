@@ -168,4 +168,20 @@ public class TransactionsResource {
 		return ResponseEntity.ok(result);
 	}
 
+	/**
+	 * POST /transactions/calculate/batch : Calculate value of many transactions at once.
+	 *
+	 * @param transactionsDTOs the transactionsDTOs to calculate
+	 * @return the ResponseEntity with status 200 (Success) and with body the transactionsDTOs with
+	 *         their calculated value, in the same order
+	 */
+	@PostMapping("/transactions/calculate/batch")
+	@Timed
+	public ResponseEntity<List<TransactionsDTO>> calculateAllTransactions(
+			@RequestBody List<TransactionsDTO> transactionsDTOs) {
+		this.log.debug("REST request to calculate value of {} Transactions", transactionsDTOs.size());
+		List<TransactionsDTO> result = this.transactionsService.calculateAll(transactionsDTOs);
+		return ResponseEntity.ok(result);
+	}
+
 }
@@ -0,0 +1,118 @@
+package logia.quanlyso.web.rest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.codahale.metrics.annotation.Timed;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import logia.quanlyso.config.ApplicationProperties;
+import logia.quanlyso.service.TransactionsService;
+import logia.quanlyso.service.dto.TransactionsDTO;
+
+/**
+ * REST controller for settling files of Transactions, one JSON ticket per line.
+ * <p>
+ * Tickets are read from the request as they arrive, settled in chunks and written back to the
+ * response chunk by chunk, so memory does not grow with the size of the file.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+@RestController
+@RequestMapping("/api")
+public class TransactionsStreamResource {
+
+	/** The Constant APPLICATION_NDJSON_VALUE. */
+	public static final String			APPLICATION_NDJSON_VALUE	= "application/x-ndjson";
+
+	/** The log. */
+	private final Logger				log							= LoggerFactory
+	        .getLogger(TransactionsStreamResource.class);
+
+	/** The transactions service. */
+	private final TransactionsService	transactionsService;
+
+	/** The object mapper. */
+	private final ObjectMapper			objectMapper;
+
+	/** The number of tickets settled at once. */
+	private final int					chunkSize;
+
+	/**
+	 * Instantiates a new transactions stream resource.
+	 *
+	 * @param transactionsService the transactions service
+	 * @param objectMapper the object mapper
+	 * @param applicationProperties the application properties
+	 */
+	public TransactionsStreamResource(TransactionsService transactionsService, ObjectMapper objectMapper,
+	        ApplicationProperties applicationProperties) {
+		this.transactionsService = transactionsService;
+		this.objectMapper = objectMapper;
+		this.chunkSize = Math.max(1, applicationProperties.getSettlement().getChunkSize());
+	}
+
+	/**
+	 * POST /transactions/calculate/stream : Calculate value of a stream of transactions.
+	 * <p>
+	 * The request and the response hold one transactionsDTO per line, the response in the order
+	 * of the request.
+	 * </p>
+	 *
+	 * @param request the request, one transactionsDTO per line
+	 * @param response the response, one transactionsDTO with its calculated value per line
+	 * @throws IOException Signals that an I/O exception has occurred, or a line is not a
+	 *         transactionsDTO
+	 */
+	@PostMapping(path = "/transactions/calculate/stream", consumes = TransactionsStreamResource.APPLICATION_NDJSON_VALUE,
+	        produces = TransactionsStreamResource.APPLICATION_NDJSON_VALUE)
+	@Timed
+	public void calculateTransactionsStream(HttpServletRequest request, HttpServletResponse response)
+	        throws IOException {
+		this.log.debug("REST request to calculate value of a stream of Transactions");
+		response.setContentType(TransactionsStreamResource.APPLICATION_NDJSON_VALUE);
+		response.setCharacterEncoding("UTF-8");
+
+		ObjectWriter writer = this.objectMapper.writerFor(TransactionsDTO.class)
+		        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		int count = 0;
+		try (MappingIterator<TransactionsDTO> lines = this.objectMapper.readerFor(TransactionsDTO.class)
+		        .readValues(request.getInputStream());
+		        JsonGenerator generator = this.objectMapper.getFactory()
+		                .createGenerator(response.getOutputStream())) {
+			generator.setRootValueSeparator(new SerializedString("\n"));
+			List<TransactionsDTO> chunk = new ArrayList<>(this.chunkSize);
+			while (lines.hasNextValue()) {
+				chunk.add(lines.nextValue());
+				if (chunk.size() == this.chunkSize || !lines.hasNextValue()) {
+					for (TransactionsDTO result : this.transactionsService.calculateAll(chunk)) {
+						writer.writeValue(generator, result);
+					}
+					count += chunk.size();
+					chunk.clear();
+					generator.flush();
+				}
+			}
+			if (count > 0) {
+				generator.writeRaw('\n');
+			}
+		}
+		this.log.debug("Calculated value of {} streamed Transactions", count);
+	}
+}
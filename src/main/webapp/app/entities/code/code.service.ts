@@ -55,6 +55,12 @@ export class CodeService {
         return this.http.get(`${this.resourceUrl}/crawl/process`);
     }
 
+    awaitCrawlJob(id: string, processed: number): Observable<Response> {
+        const params: URLSearchParams = new URLSearchParams();
+        params.set('processed', String(processed));
+        return this.http.get(`${this.resourceUrl}/crawl/${id}`, { search: params });
+    }
+
     private convertResponse(res: Response): Response {
         const jsonResponse = res.json();
         for (let i = 0; i < jsonResponse.length; i++) {
@@ -17,6 +17,7 @@ import { AlertService, EventManager } from 'ng-jhipster';
 import { Response } from '@angular/http';
 import { DatePipe } from '@angular/common';
 import { Observable } from 'rxjs/Observable';
+import { Subscription } from 'rxjs/Subscription';
 import { StorageService } from '../shared/storage/storage.service';
 import { CrawlDataModel } from '../entities/crawl-data.model';
 import { ProgressModel } from '../entities/progress.model';
@@ -40,7 +41,7 @@ export class QuanLySoToolComponent implements OnInit, OnDestroy {
     transactions: Transactions;
     isCalculate: boolean;
     private DATE_FORMAT = 'yyyy-MM-ddT12:00';
-    private running: any;
+    private crawlJob: Subscription;
 
     constructor(private eventManager: EventManager,
                 private transactionsService: TransactionsService,
@@ -61,11 +62,10 @@ export class QuanLySoToolComponent implements OnInit, OnDestroy {
         this.progress = new ProgressModel(0, 0);
         this.onCrawlOpenDateChange();
         this.onCalculateOpenDateChange();
-        this.checkCrawlProcess();
     }
 
     ngOnDestroy(): void {
-        this.stopCheckCrawlProcess();
+        this.stopCrawlJob();
     }
 
     onCrawlOpenDateChange(): void {
@@ -103,8 +103,10 @@ export class QuanLySoToolComponent implements OnInit, OnDestroy {
     }
 
     crawl(): void {
-        this.subscribeToSaveResponse(this.codeService.crawl(this.crawlData), 'crawl');
-        this.checkCrawlProcess();
+        this.stopCrawlJob();
+        this.crawlJob = this.codeService.crawl(this.crawlData).subscribe(
+            (res: Response) => this.onCrawlJob(res.json()),
+            (res: Response) => this.onSaveError(res));
     }
 
     private initCrawl(openDate: string): void {
@@ -129,25 +131,23 @@ export class QuanLySoToolComponent implements OnInit, OnDestroy {
             (res: Response) => { this.types = res.json(); }, (res: Response) => this.onError(res.json()));
     }
 
-    private checkCrawlProcess(): void {
-        this.running = setInterval(() => {
-            this.getCrawlProcess();
-        }, 100);
-    }
-
-    private stopCheckCrawlProcess(): void {
-        clearInterval(this.running);
+    private onCrawlJob(job: any): void {
+        if (job.endTime) {
+            this.progress = new ProgressModel(0, 0);
+            this.onSaveSuccess(job, 'crawl');
+            return;
+        }
+        this.progress = new ProgressModel(job.processed, job.total);
+        // Held by the server until the next channel is processed
+        this.crawlJob = this.codeService.awaitCrawlJob(job.id, job.processed).subscribe(
+            (res: Response) => this.onCrawlJob(res.json()),
+            (res: Response) => this.onSaveError(res));
     }
 
-    private getCrawlProcess(): void {
-        this.codeService.crawlProcessing().subscribe((res: Response) => {
-            this.progress = res.json();
-                if (this.progress.total === 0) {
-                    this.stopCheckCrawlProcess();
-                }
-            },
-            (res: Response) => this.onError(res.json())
-        );
+    private stopCrawlJob(): void {
+        if (this.crawlJob) {
+            this.crawlJob.unsubscribe();
+        }
     }
 
     private subscribeToSaveResponse(result: Observable<any>, instance: string) {
@@ -0,0 +1,155 @@
+package logia.quanlyso.client;
+
+import java.io.IOException;
+
+import org.assertj.core.api.Assertions;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Test class for the crawler modes, against the recorded result pages.
+ * <p>
+ * Both modes must read the same results from the same page.
+ * </p>
+ *
+ * @see HttpLotteryPageCrawler
+ * @see HtmlUnitLotteryPageCrawler
+ * @see LotteryPageFixtureServer
+ */
+public class LotteryPageCrawlerUnitTest {
+
+	/** The fixture server. */
+	private static LotteryPageFixtureServer		server;
+
+	/** The http crawler. */
+	private static HttpLotteryPageCrawler		httpCrawler;
+
+	/** The html unit crawler. */
+	private static HtmlUnitLotteryPageCrawler	htmlUnitCrawler;
+
+	/**
+	 * Start the fixture server and the crawlers.
+	 *
+	 * @throws Exception the exception
+	 */
+	@BeforeClass
+	public static void setup() throws Exception {
+		LotteryPageCrawlerUnitTest.server = new LotteryPageFixtureServer();
+		LotteryPageCrawlerUnitTest.httpCrawler = new HttpLotteryPageCrawler(2, 5000);
+		LotteryPageCrawlerUnitTest.htmlUnitCrawler = new HtmlUnitLotteryPageCrawler(
+		        new WebClientPool(2, 5000, 5000L, new MetricRegistry()));
+	}
+
+	/**
+	 * Stop the crawlers and the fixture server.
+	 *
+	 * @throws Exception the exception
+	 */
+	@AfterClass
+	public static void tearDown() throws Exception {
+		LotteryPageCrawlerUnitTest.httpCrawler.close();
+		LotteryPageCrawlerUnitTest.htmlUnitCrawler.close();
+		LotteryPageCrawlerUnitTest.server.close();
+	}
+
+	/**
+	 * Test the northern layout.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testNorthernPage() throws Exception {
+		for (LotteryPage _page : LotteryPageCrawlerUnitTest.crawl("/mien-bac/01-07-2017.js")) {
+			Assertions.assertThat(_page.getOpenDate()).isEqualTo("01-07-2017");
+			Assertions.assertThat(_page.getPrizes()).extracting(LotteryPrize::getTier).containsExactly("giaidb",
+			        "giai1", "giai2", "giai3", "giai4", "giai5", "giai6", "giai7");
+			Assertions.assertThat(_page.getCodes()).hasSize(27).startsWith("84152", "30719", "62540")
+			        .endsWith("38", "71", "04", "56");
+		}
+	}
+
+	/**
+	 * Test the southern layout.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testSouthernPage() throws Exception {
+		for (LotteryPage _page : LotteryPageCrawlerUnitTest.crawl("/tp-hcm/01-07-2017.js")) {
+			Assertions.assertThat(_page.getOpenDate()).isEqualTo("01-07-2017");
+			Assertions.assertThat(_page.getPrizes()).extracting(LotteryPrize::getTier).containsExactly("giai8",
+			        "giai7", "giai6", "giai5", "giai4", "giai3", "giai2", "giai1", "giaidb");
+			Assertions.assertThat(_page.getCodes()).hasSize(18).startsWith("47", "390", "5821", "0637", "9154")
+			        .endsWith("725904");
+		}
+	}
+
+	/**
+	 * Test a draw still being drawn is read as it is.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testPartialPage() throws Exception {
+		for (LotteryPage _page : LotteryPageCrawlerUnitTest.crawl("/tp-hcm.js")) {
+			Assertions.assertThat(_page.getOpenDate()).isEqualTo("08-07-2017");
+			Assertions.assertThat(_page.getPrizes()).hasSize(9);
+			Assertions.assertThat(_page.getCodes()).hasSize(10).endsWith("61249", "...");
+		}
+	}
+
+	/**
+	 * Test a page cut in its results is read up to the cut.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testBrokenPage() throws Exception {
+		for (LotteryPage _page : LotteryPageCrawlerUnitTest.crawl("/vung-tau/04-07-2017.js")) {
+			Assertions.assertThat(_page.getOpenDate()).isEqualTo("04-07-2017");
+			Assertions.assertThat(_page.getCodes()).containsExactly("47", "390", "5821", "0637", "9154", "2706",
+			        "41583", "902");
+		}
+	}
+
+	/**
+	 * Test a page without results has neither date nor prizes.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testPageWithoutResults() throws Exception {
+		for (LotteryPage _page : LotteryPageCrawlerUnitTest.crawl("/ca-mau/03-07-2017.js")) {
+			Assertions.assertThat(_page.getOpenDate()).isNull();
+			Assertions.assertThat(_page.getPrizes()).isEmpty();
+		}
+	}
+
+	/**
+	 * Test a page not found fails the http crawler.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testPageNotFound() throws Exception {
+		Assertions.assertThatThrownBy(() -> LotteryPageCrawlerUnitTest.httpCrawler
+		        .crawl(LotteryPageCrawlerUnitTest.server.getBaseUrl() + "/mien-bac/02-07-2017.js"))
+		        .isInstanceOf(IOException.class).hasMessageContaining("404");
+	}
+
+	/**
+	 * Crawl a page with both modes.
+	 *
+	 * @param __path the path of the page, after the base url
+	 * @return the pages read by the http and html unit crawlers
+	 * @throws Exception the exception
+	 */
+	private static LotteryPage[] crawl(String __path) throws Exception {
+		String _url = LotteryPageCrawlerUnitTest.server.getBaseUrl() + __path;
+		return new LotteryPage[] { LotteryPageCrawlerUnitTest.httpCrawler.crawl(_url),
+		        LotteryPageCrawlerUnitTest.htmlUnitCrawler.crawl(_url) };
+	}
+}
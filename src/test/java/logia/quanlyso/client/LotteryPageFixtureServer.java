@@ -0,0 +1,150 @@
+package logia.quanlyso.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local stand-in for the results site, serving the pages recorded under {@code /crawler} on the
+ * test classpath.
+ * <p>
+ * A page is served at the path of its resource, {@code /getkqxs/mien-bac/01-07-2017.js} from
+ * {@code /crawler/getkqxs/mien-bac/01-07-2017.js}, and kept in memory once read. Unknown pages
+ * are answered with 404, like the site does.
+ * </p>
+ * The recorded pages are:
+ * <ul>
+ * <li>{@code mien-bac/01-07-2017.js} and {@code mien-bac.js}: the northern layout, 27 numbers</li>
+ * <li>{@code tp-hcm/01-07-2017.js}: the southern layout, 18 numbers</li>
+ * <li>{@code tp-hcm.js}: a southern draw of 08-07-2017 still being drawn</li>
+ * <li>{@code vung-tau/04-07-2017.js}: a page cut in the middle of its results</li>
+ * <li>{@code ca-mau/03-07-2017.js}: a page without results nor date box</li>
+ * </ul>
+ *
+ * @author Dai Mai
+ */
+public class LotteryPageFixtureServer implements AutoCloseable {
+
+	/** The classpath folder of the recorded pages. */
+	private static final String			RESOURCES	= "/crawler";
+
+	/** The server. */
+	private final HttpServer			server;
+
+	/** The threads answering requests. */
+	private final ExecutorService		executor;
+
+	/** The pages read, by path. */
+	private final Map<String, byte[]>	pages		= new ConcurrentHashMap<>();
+
+	static {
+		// Answer without waiting on Nagle, which holds each page of a kept-alive connection ~40ms
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+	}
+
+	/**
+	 * Start a server on a free port.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public LotteryPageFixtureServer() throws IOException {
+		this(0);
+	}
+
+	/**
+	 * Start a server.
+	 *
+	 * @param __port the port, 0 for a free one
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public LotteryPageFixtureServer(int __port) throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("localhost", __port), 0);
+		this.executor = Executors.newCachedThreadPool();
+		this.server.setExecutor(this.executor);
+		this.server.createContext("/", this::serve);
+		this.server.start();
+	}
+
+	/**
+	 * Gets the url the recorded {@code getkqxs} pages are served under, the base url of the
+	 * crawler.
+	 *
+	 * @return the base url
+	 */
+	public String getBaseUrl() {
+		return "http://localhost:" + this.server.getAddress().getPort() + "/getkqxs";
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public void close() {
+		this.server.stop(0);
+		this.executor.shutdownNow();
+	}
+
+	/**
+	 * Serve a recorded page.
+	 *
+	 * @param __exchange the exchange
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private void serve(HttpExchange __exchange) throws IOException {
+		try {
+			byte[] _page = this.read(__exchange.getRequestURI().getPath());
+			if (_page == null) {
+				__exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+			__exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+			__exchange.sendResponseHeaders(200, _page.length);
+			try (OutputStream _body = __exchange.getResponseBody()) {
+				_body.write(_page);
+			}
+		}
+		finally {
+			__exchange.close();
+		}
+	}
+
+	/**
+	 * Read a recorded page.
+	 *
+	 * @param __path the path
+	 * @return the page, null if not recorded
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private byte[] read(String __path) throws IOException {
+		byte[] _page = this.pages.get(__path);
+		if (_page != null || __path.contains("..")) {
+			return _page;
+		}
+		try (InputStream _in = LotteryPageFixtureServer.class
+		        .getResourceAsStream(LotteryPageFixtureServer.RESOURCES + __path)) {
+			if (_in == null) {
+				return null;
+			}
+			ByteArrayOutputStream _out = new ByteArrayOutputStream();
+			byte[] _buffer = new byte[8192];
+			int _read;
+			while ((_read = _in.read(_buffer)) != -1) {
+				_out.write(_buffer, 0, _read);
+			}
+			_page = _out.toByteArray();
+		}
+		this.pages.put(__path, _page);
+		return _page;
+	}
+}
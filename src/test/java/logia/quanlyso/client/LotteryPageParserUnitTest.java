@@ -0,0 +1,56 @@
+package logia.quanlyso.client;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+/**
+ * Test class for the LotteryPageParser.
+ *
+ * @see LotteryPageParser
+ */
+public class LotteryPageParserUnitTest {
+
+	/** The page. */
+	private static final String PAGE = "<!DOCTYPE html><html><head>"
+	        + "<script>document.write('<td class=\"giai8\">99</td>');</script>"
+	        + "<style>td.giai8 { color: red; }</style></head><body>"
+	        + "<select id=\"box_kqxs_ngay\"><option value=\"01-08-2017\">01/08/2017</option>"
+	        + "<option selected value='02-08-2017'>02/08/2017</option></select>"
+	        + "<!-- <td class=\"giai7\">00</td> -->"
+	        + "<table><tr><td class=\"giai8\" nowrap>Giải 8</td><td class=\"giai8\">12</td></tr>"
+	        + "<tr><td nowrap>Giải 7</td><td class=\"giai7\"><div>345</div></td></tr>"
+	        + "<tr><td class=\"GiaiSau\">1234&nbsp;-&nbsp;5678 - <b>9012</b></td></tr>"
+	        + "<tr><td class=\"giaidb\">123456<tr><td>ignored</td></tr>"
+	        + "</table></body></html>";
+
+	/**
+	 * Test the date box and prize cells are read, the rest skipped.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Test
+	public void testParse() throws IOException {
+		LotteryPage _page = LotteryPageParser.parse(new StringReader(LotteryPageParserUnitTest.PAGE));
+
+		Assertions.assertThat(_page.getOpenDate()).isEqualTo("02-08-2017");
+		Assertions.assertThat(_page.getPrizes()).extracting(LotteryPrize::getTier).containsExactly("giai8",
+		        "giai7", "giaisau", "giaidb");
+		Assertions.assertThat(_page.getCodes()).containsExactly("12", "345", "1234", "5678", "9012", "123456");
+	}
+
+	/**
+	 * Test the first date is taken when none is selected, and a page without date box has none.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Test
+	public void testParseOpenDate() throws IOException {
+		Assertions.assertThat(LotteryPageParser.parse(new StringReader(
+		        "<select id=box_kqxs_ngay><option value=01-08-2017><option value=31-07-2017></select>"))
+		        .getOpenDate()).isEqualTo("01-08-2017");
+		Assertions.assertThat(LotteryPageParser.parse(new StringReader("<p>KQXS</p>")).getOpenDate()).isNull();
+	}
+}
@@ -0,0 +1,108 @@
+package logia.quanlyso.client;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeoutException;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.codahale.metrics.MetricRegistry;
+import com.gargoylesoftware.htmlunit.WebClient;
+import com.gargoylesoftware.htmlunit.util.Cookie;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Test class for the WebClientPool.
+ *
+ * @see WebClientPool
+ */
+public class WebClientPoolUnitTest {
+
+	/** The page. */
+	private static final String	PAGE	= "<html><body><select id=\"box_kqxs_ngay\">"
+	        + "<option selected value=\"02-08-2017\">02/08/2017</option></select><div></div>"
+	        + "<div><div><div></div><div><table><tr><td class=\"giai8\" nowrap>Giải 8</td>"
+	        + "<td class=\"giai8\">12</td></tr><tr><td class=\"giaidb\">123456</td></tr></table>"
+	        + "</div></div></div></body></html>";
+
+	/** The metric registry. */
+	private MetricRegistry		metricRegistry;
+
+	/** The web client pool. */
+	private WebClientPool		webClientPool;
+
+	/** The server. */
+	private HttpServer			server;
+
+	/**
+	 * Setup.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Before
+	public void setup() throws Exception {
+		this.metricRegistry = new MetricRegistry();
+		this.webClientPool = new WebClientPool(1, 5000, 100L, this.metricRegistry);
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/", __exchange -> {
+			byte[] _body = WebClientPoolUnitTest.PAGE.getBytes(StandardCharsets.UTF_8);
+			__exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+			__exchange.sendResponseHeaders(200, _body.length);
+			__exchange.getResponseBody().write(_body);
+			__exchange.close();
+		});
+		this.server.start();
+	}
+
+	/**
+	 * Tear down.
+	 *
+	 * @throws Exception the exception
+	 */
+	@After
+	public void tearDown() throws Exception {
+		this.server.stop(0);
+		this.webClientPool.close();
+	}
+
+	/**
+	 * Test a released client is reset and lent again, and an exhausted pool times out.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testBorrowAndRelease() throws Exception {
+		WebClient _webClient = this.webClientPool.borrow();
+		_webClient.getCookieManager().addCookie(new Cookie("localhost", "session", "1"));
+		Assertions.assertThat(this.metricRegistry.getGauges()
+		        .get(MetricRegistry.name(WebClientPool.class, "idle")).getValue()).isEqualTo(0);
+		Assertions.assertThatThrownBy(() -> this.webClientPool.borrow()).isInstanceOf(TimeoutException.class);
+
+		this.webClientPool.release(_webClient);
+		WebClient _reused = this.webClientPool.borrow();
+		Assertions.assertThat(_reused).isSameAs(_webClient);
+		Assertions.assertThat(_reused.getCookieManager().getCookies()).isEmpty();
+		this.webClientPool.release(_reused);
+		Assertions.assertThat(this.metricRegistry.timer(MetricRegistry.name(WebClientPool.class, "wait"))
+		        .getCount()).isEqualTo(3);
+	}
+
+	/**
+	 * Test a page is crawled through the shared connection and the fetch is timed.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testCrawl() throws Exception {
+		String _url = "http://localhost:" + this.server.getAddress().getPort() + "/xsmb.js";
+		LotteryPage _page = new HtmlUnitLotteryPageCrawler(this.webClientPool).crawl(_url);
+
+		Assertions.assertThat(_page.getOpenDate()).isEqualTo("02-08-2017");
+		Assertions.assertThat(_page.getCodes()).containsExactly("12", "123456");
+		Assertions.assertThat(this.metricRegistry.timer(MetricRegistry.name(WebClientPool.class, "fetch"))
+		        .getCount()).isEqualTo(1);
+	}
+}
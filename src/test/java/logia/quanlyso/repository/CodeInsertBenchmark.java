@@ -0,0 +1,175 @@
+package logia.quanlyso.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import logia.quanlyso.config.ApplicationProperties;
+import logia.quanlyso.domain.Channel;
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Benchmark of saving crawled codes, one insert per code against {@link CodeRepositoryImpl#insertAll}.
+ * <p>
+ * One insert per code reading its generated id back is what Hibernate sends for {@code Code}. Both
+ * save a month of northern draws in one transaction, the score is in rows per second. It runs on
+ * an in-memory H2 by default; to run it on MySQL, give the url of a scratch schema, where the
+ * benchmark creates, empties and drops a {@code code} table:
+ * </p>
+ *
+ * <pre>
+ * ./mvnw -Pdev,benchmark process-test-classes -Dbenchmark="CodeInsertBenchmark
+ *     -p url=jdbc:mysql://localhost:3306/scratch?useSSL=false&amp;rewriteBatchedStatements=true
+ *     -p user=root -p password="
+ * </pre>
+ *
+ * @author Dai Mai
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodeInsertBenchmark {
+
+	/** The rows saved per invocation, 30 northern draws. */
+	private static final int			ROWS	= 30 * 27;
+
+	/** The jdbc url. */
+	@Param("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1")
+	private String						url;
+
+	/** The user. */
+	@Param("sa")
+	private String						user;
+
+	/** The password. */
+	@Param("")
+	private String						password;
+
+	/** The data source, one connection. */
+	private SingleConnectionDataSource	dataSource;
+
+	/** The jdbc template. */
+	private JdbcTemplate				jdbcTemplate;
+
+	/** The transaction template. */
+	private TransactionTemplate			transactionTemplate;
+
+	/** The code repository. */
+	private CodeRepositoryImpl			codeRepository;
+
+	/** The codes. */
+	private final List<Code>			codes	= new ArrayList<>();
+
+	/**
+	 * Create the code table and the codes.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		this.dataSource = new SingleConnectionDataSource(this.url, this.user, this.password, true);
+		this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+		this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(this.dataSource));
+		this.codeRepository = new CodeRepositoryImpl(this.jdbcTemplate, new ApplicationProperties());
+		this.jdbcTemplate.execute("create table if not exists code (id bigint auto_increment primary key, "
+		        + "code varchar(6), open_date timestamp null, channels_id bigint)");
+
+		Channel _channel = new Channel();
+		_channel.setId(1L);
+		ZonedDateTime _openDay = DateFormatterUtil.fromDDMMYYYYStringToZonedDateTime("01-07-2017");
+		for (int _i = 0; _i < CodeInsertBenchmark.ROWS; _i++) {
+			this.codes.add(new Code().code(String.format("%05d", _i)).openDate(_openDay.plusDays(_i / 27))
+			        .channels(_channel));
+		}
+	}
+
+	/**
+	 * Empty the code table.
+	 */
+	@TearDown(Level.Iteration)
+	public void deleteCodes() {
+		this.jdbcTemplate.update("delete from code");
+	}
+
+	/**
+	 * Drop the code table.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.jdbcTemplate.execute("drop table code");
+		this.dataSource.destroy();
+	}
+
+	/**
+	 * Insert one code at a time, reading its id back.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(CodeInsertBenchmark.ROWS)
+	public void insertEach() {
+		this.transactionTemplate.execute(__status -> {
+			for (Code _code : this.codes) {
+				GeneratedKeyHolder _key = new GeneratedKeyHolder();
+				this.jdbcTemplate.update(__connection -> {
+					PreparedStatement _statement = __connection.prepareStatement(CodeRepositoryImpl.INSERT_CODE,
+					        Statement.RETURN_GENERATED_KEYS);
+					_statement.setString(1, _code.getCode());
+					_statement.setTimestamp(2, Timestamp.from(_code.getOpenDate().toInstant()));
+					_statement.setLong(3, _code.getChannels().getId());
+					return _statement;
+				}, _key);
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Insert the codes in batches.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(CodeInsertBenchmark.ROWS)
+	public void insertAll() {
+		this.transactionTemplate.execute(__status -> {
+			this.codeRepository.insertAll(this.codes);
+			return null;
+		});
+	}
+
+	/**
+	 * Run the benchmark.
+	 *
+	 * @param args the arguments
+	 * @throws RunnerException the runner exception
+	 */
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(CodeInsertBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,115 @@
+package logia.quanlyso.repository;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import logia.quanlyso.domain.DrawResult;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Test class for the packing of draw results.
+ *
+ * @see DrawResultCodec
+ */
+public class DrawResultCodecUnitTest {
+
+	/** The open date. */
+	private static final ZonedDateTime OPEN_DATE = DateFormatterUtil.fromDDMMYYYYStringToZonedDateTime("01-07-2017");
+
+	/**
+	 * Test a southern draw is packed and unpacked with its tiers.
+	 */
+	@Test
+	public void testSouthernDraw() {
+		DrawResult _drawResult = DrawResultCodecUnitTest.draw(
+		        new DrawResult.Prize("giai8", Arrays.asList("47")),
+		        new DrawResult.Prize("giai7", Arrays.asList("390")),
+		        new DrawResult.Prize("giai6", Arrays.asList("5821", "0637", "9154")),
+		        new DrawResult.Prize("giai5", Arrays.asList("2706")),
+		        new DrawResult.Prize("giai4", Arrays.asList("41583", "90211", "06479", "12345", "67890", "00000", "99999")),
+		        new DrawResult.Prize("giai3", Arrays.asList("11111", "22222")),
+		        new DrawResult.Prize("giai2", Arrays.asList("33333")),
+		        new DrawResult.Prize("giai1", Arrays.asList("44444")),
+		        new DrawResult.Prize("giaidb", Arrays.asList("725904")));
+
+		byte[] _packed = DrawResultCodec.pack(_drawResult);
+		Assertions.assertThat(_packed).hasSize(80);
+
+		DrawResult _unpacked = DrawResultCodec.unpack(1L, DrawResultCodecUnitTest.OPEN_DATE, _packed);
+		Assertions.assertThat(_unpacked.getCodes()).hasSize(18).isEqualTo(_drawResult.getCodes());
+		Assertions.assertThat(_unpacked.getPrizes()).extracting(DrawResult.Prize::getTier).containsExactly("giai8",
+		        "giai7", "giai6", "giai5", "giai4", "giai3", "giai2", "giai1", "giaidb");
+		Assertions.assertThat(_unpacked.getTop()).containsExactly("47");
+		Assertions.assertThat(_unpacked.getBottom()).containsExactly("725904");
+		Assertions.assertThat(_unpacked.getCodes("giai6")).containsExactly("5821", "0637", "9154");
+	}
+
+	/**
+	 * Test a northern draw, special prize first, is packed and unpacked with its tiers.
+	 */
+	@Test
+	public void testNorthernDraw() {
+		DrawResult _drawResult = DrawResultCodecUnitTest.draw(
+		        new DrawResult.Prize("giaidb", Arrays.asList("84152")),
+		        new DrawResult.Prize("giai1", Arrays.asList("30719")),
+		        new DrawResult.Prize("giai2", Arrays.asList("62540", "11111")),
+		        new DrawResult.Prize("giai3", Arrays.asList("22222", "33333", "44444", "55555", "66666", "77777")),
+		        new DrawResult.Prize("giai4", Arrays.asList("1234", "5678", "9012", "3456")),
+		        new DrawResult.Prize("giai5", Arrays.asList("7890", "1357", "2468", "3579", "4680", "0000")),
+		        new DrawResult.Prize("giai6", Arrays.asList("123", "456", "789")),
+		        new DrawResult.Prize("giai7", Arrays.asList("38", "71", "04", "56")));
+
+		byte[] _packed = DrawResultCodec.pack(_drawResult);
+		Assertions.assertThat(_packed).hasSize(88);
+
+		DrawResult _unpacked = DrawResultCodec.unpack(1L, DrawResultCodecUnitTest.OPEN_DATE, _packed);
+		Assertions.assertThat(_unpacked.getCodes()).hasSize(27).isEqualTo(_drawResult.getCodes());
+		Assertions.assertThat(_unpacked.getTop()).containsExactly("38", "71", "04", "56");
+		Assertions.assertThat(_unpacked.getBottom()).containsExactly("84152");
+	}
+
+	/**
+	 * Test draws still being drawn, or without tiers, are not packed.
+	 */
+	@Test
+	public void testDrawsNotPacked() {
+		Assertions.assertThat(DrawResultCodec.pack(DrawResultCodecUnitTest.draw())).isNull();
+		Assertions.assertThat(DrawResultCodec.pack(
+		        DrawResultCodecUnitTest.draw(new DrawResult.Prize("giai8", Arrays.asList("47")),
+		                new DrawResult.Prize("giai7", Arrays.asList("...")))))
+		        .isNull();
+		Assertions.assertThat(DrawResultCodec
+		        .pack(DrawResultCodecUnitTest.draw(new DrawResult.Prize("giai6", Arrays.asList("5821", "063")))))
+		        .isNull();
+		Assertions.assertThat(DrawResultCodec.pack(DrawResult.ofCodes(1L, DrawResultCodecUnitTest.OPEN_DATE,
+		        Arrays.asList("47", "390")))).isNull();
+	}
+
+	/**
+	 * Test a draw read from its codes has no top nor bottom.
+	 */
+	@Test
+	public void testDrawOfCodes() {
+		List<String> _codes = Arrays.asList("47", "390", "725904");
+		DrawResult _drawResult = DrawResult.ofCodes(1L, DrawResultCodecUnitTest.OPEN_DATE, _codes);
+		Assertions.assertThat(_drawResult.getCodes()).isEqualTo(_codes);
+		Assertions.assertThat(_drawResult.getTop()).isEmpty();
+		Assertions.assertThat(_drawResult.getBottom()).isEmpty();
+		Assertions.assertThat(DrawResult.ofCodes(1L, DrawResultCodecUnitTest.OPEN_DATE, Arrays.asList()).isEmpty())
+		        .isTrue();
+	}
+
+	/**
+	 * Create a draw.
+	 *
+	 * @param __prizes the prizes
+	 * @return the draw result
+	 */
+	private static DrawResult draw(DrawResult.Prize... __prizes) {
+		return new DrawResult(1L, DrawResultCodecUnitTest.OPEN_DATE, Arrays.asList(__prizes));
+	}
+}
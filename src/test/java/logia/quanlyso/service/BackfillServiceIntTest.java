@@ -0,0 +1,285 @@
+package logia.quanlyso.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import logia.quanlyso.QuanlysoApp;
+import logia.quanlyso.client.LotteryPage;
+import logia.quanlyso.client.LotteryPrize;
+import logia.quanlyso.config.ApplicationProperties;
+import logia.quanlyso.domain.Channel;
+import logia.quanlyso.repository.ChannelRepository;
+import logia.quanlyso.repository.CodeRepository;
+import logia.quanlyso.repository.DrawResultRepository;
+import logia.quanlyso.service.dto.BackfillChannelDTO;
+import logia.quanlyso.service.dto.BackfillRequestDTO;
+import logia.quanlyso.service.dto.BackfillStatusDTO;
+import logia.quanlyso.service.impl.BackfillServiceImpl;
+import logia.quanlyso.service.settlement.DrawIndexCache;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Test class for the BackfillService.
+ * <p>
+ * Not transactional: each batch of codes is committed with its checkpoint.
+ * </p>
+ *
+ * @see BackfillService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuanlysoApp.class)
+public class BackfillServiceIntTest {
+
+	/** The Constant CHANNEL_CODE. */
+	private static final String			CHANNEL_CODE	= "BACKFILL";
+
+	/** The Constant FROM_DATE, a Sunday. */
+	private static final LocalDate		FROM_DATE		= LocalDate.of(2017, 7, 2);
+
+	/** The Constant TO_DATE. */
+	private static final LocalDate		TO_DATE			= LocalDate.of(2017, 7, 15);
+
+	/** The channel repository. */
+	@Autowired
+	private ChannelRepository			channelRepository;
+
+	/** The code repository. */
+	@Autowired
+	private CodeRepository				codeRepository;
+
+	/** The draw result repository. */
+	@Autowired
+	private DrawResultRepository		drawResultRepository;
+
+	/** The draw index cache. */
+	@Autowired
+	private DrawIndexCache				drawIndexCache;
+
+	/** The jdbc template. */
+	@Autowired
+	private JdbcTemplate				jdbcTemplate;
+
+	/** The transaction manager. */
+	@Autowired
+	private PlatformTransactionManager	transactionManager;
+
+	/** The channel. */
+	private Channel						channel;
+
+	/** The number of pages crawled. */
+	private final AtomicInteger			crawls			= new AtomicInteger();
+
+	/** The page on which the backfill is paused, never if 0. */
+	private int							pauseOnCrawl	= 3;
+
+	/** The days whose page fails to be fetched, dd-MM-yyyy. */
+	private final Set<String>			failingDates	= ConcurrentHashMap.newKeySet();
+
+	/** The request started again on the first page, never if null. */
+	private BackfillRequestDTO			restartRequest;
+
+	/** The error of the request started again. */
+	private IllegalStateException		restartError;
+
+	/** The backfill service. */
+	private BackfillService				backfillService;
+
+	/**
+	 * Create a channel drawing every day but Sunday, and a backfill service crawling a stub site.
+	 */
+	@Before
+	public void setup() {
+		this.channel = this.channelRepository.saveAndFlush(new Channel().name("Backfill")
+		        .code(BackfillServiceIntTest.CHANNEL_CODE).sunday(false).monday(true).tuesday(true).wednesday(true)
+		        .thursday(true).friday(true).saturday(true));
+
+		ApplicationProperties applicationProperties = new ApplicationProperties();
+		applicationProperties.getCrawler().setBaseUrl("http://backfill.test");
+		applicationProperties.getCrawler().getBackfill().setPermitsPerSecond(0);
+		applicationProperties.getCrawler().getBackfill().setBatchDays(2);
+		this.backfillService = new BackfillServiceImpl(this.channelRepository, this.codeRepository,
+		        this.drawResultRepository, url -> {
+			if (this.crawls.incrementAndGet() == this.pauseOnCrawl) {
+				this.backfillService.pause();
+			}
+			if (this.restartRequest != null && this.crawls.get() == 1) {
+				try {
+					this.backfillService.start(this.restartRequest);
+				}
+				catch (IllegalStateException e) {
+					this.restartError = e;
+				}
+			}
+			String date = url.substring(url.lastIndexOf('/') + 1, url.length() - ".js".length());
+			if (this.failingDates.contains(date)) {
+				throw new IllegalStateException("Page of " + date + " not available");
+			}
+			if (date.startsWith("05-07")) {
+				// No draw that day, the site shows the previous one
+				date = "04-07-2017";
+			}
+			return new LotteryPage(date, Collections.singletonList(new LotteryPrize("giaidb", Arrays.asList("123456"))));
+		}, this.drawIndexCache, this.jdbcTemplate, this.transactionManager, new SyncTaskExecutor(),
+		        applicationProperties);
+	}
+
+	/**
+	 * Remove the channel, its codes, its draw results and its checkpoint.
+	 */
+	@After
+	public void tearDown() {
+		this.jdbcTemplate.update("delete from code where channels_id = ?", this.channel.getId());
+		this.jdbcTemplate.update("delete from draw_result where channels_id = ?", this.channel.getId());
+		this.jdbcTemplate.update("delete from backfill_checkpoint where channels_id = ?", this.channel.getId());
+		this.channelRepository.delete(this.channel.getId());
+	}
+
+	/**
+	 * Backfill a range of days, pausing and resuming from the checkpoint.
+	 */
+	@Test
+	public void backfillPauseAndResume() {
+		BackfillRequestDTO request = new BackfillRequestDTO();
+		request.setChannelCodes(Collections.singleton(BackfillServiceIntTest.CHANNEL_CODE));
+		request.setFromDate(BackfillServiceIntTest.FROM_DATE);
+		request.setToDate(BackfillServiceIntTest.TO_DATE);
+
+		BackfillChannelDTO paused = this.findChannel(this.backfillService.start(request));
+		Assertions.assertThat(paused.getStatus()).isEqualTo("PAUSED");
+		// Sunday skipped, then three pages crawled, one of them without draw
+		Assertions.assertThat(paused.getNextDate()).isEqualTo(LocalDate.of(2017, 7, 6));
+		Assertions.assertThat(paused.getCrawled()).isEqualTo(2);
+		Assertions.assertThat(paused.getSkipped()).isEqualTo(2);
+		Assertions.assertThat(this.countCodes()).isEqualTo(2);
+
+		BackfillStatusDTO status = this.backfillService.resume();
+		BackfillChannelDTO done = this.findChannel(status);
+		Assertions.assertThat(status.isRunning()).isFalse();
+		Assertions.assertThat(done.getStatus()).isEqualTo("DONE");
+		Assertions.assertThat(done.getNextDate()).isEqualTo(BackfillServiceIntTest.TO_DATE.plusDays(1));
+		Assertions.assertThat(done.getCrawled()).isEqualTo(11);
+		Assertions.assertThat(done.getSkipped()).isEqualTo(3);
+		Assertions.assertThat(done.getFailed()).isEqualTo(0);
+		Assertions.assertThat(this.countCodes()).isEqualTo(11);
+		Assertions.assertThat(this.crawls.get()).isEqualTo(12);
+		Assertions.assertThat(this.drawResultRepository
+		        .findOne(this.channel.getId(), LocalDate.of(2017, 7, 4).atStartOfDay(DateFormatterUtil.systemZoneId()))
+		        .getBottom()).containsExactly("123456");
+
+		// Started again on the same range, nothing left to crawl
+		this.findChannel(this.backfillService.start(request));
+		Assertions.assertThat(this.crawls.get()).isEqualTo(12);
+	}
+
+	/**
+	 * Keep the checkpoint at a day that failed to be fetched, and fetch it again on the next run.
+	 */
+	@Test
+	public void backfillRetriesFailedDays() {
+		this.pauseOnCrawl = 0;
+		this.failingDates.add("04-07-2017");
+		BackfillRequestDTO request = new BackfillRequestDTO();
+		request.setChannelCodes(Collections.singleton(BackfillServiceIntTest.CHANNEL_CODE));
+		request.setFromDate(BackfillServiceIntTest.FROM_DATE);
+		request.setToDate(BackfillServiceIntTest.TO_DATE);
+
+		BackfillChannelDTO failed = this.findChannel(this.backfillService.start(request));
+		Assertions.assertThat(failed.getStatus()).isEqualTo("FAILED");
+		Assertions.assertThat(failed.getNextDate()).isEqualTo(LocalDate.of(2017, 7, 4));
+		// Counted up to the checkpoint only
+		Assertions.assertThat(failed.getCrawled()).isEqualTo(1);
+		Assertions.assertThat(failed.getSkipped()).isEqualTo(1);
+		Assertions.assertThat(failed.getFailed()).isEqualTo(1);
+		Assertions.assertThat(this.countCodes()).isEqualTo(10);
+		Assertions.assertThat(this.crawls.get()).isEqualTo(12);
+
+		// The site is back: the failed day and the day without draw are fetched again, no other
+		this.failingDates.clear();
+		BackfillChannelDTO done = this.findChannel(this.backfillService.start(request));
+		Assertions.assertThat(done.getStatus()).isEqualTo("DONE");
+		Assertions.assertThat(done.getNextDate()).isEqualTo(BackfillServiceIntTest.TO_DATE.plusDays(1));
+		// Each day counted once, the days saved past the failed day as skipped
+		Assertions.assertThat(done.getCrawled()).isEqualTo(2);
+		Assertions.assertThat(done.getSkipped()).isEqualTo(12);
+		Assertions.assertThat(done.getFailed()).isEqualTo(1);
+		Assertions.assertThat(this.countCodes()).isEqualTo(11);
+		Assertions.assertThat(this.crawls.get()).isEqualTo(14);
+	}
+
+	/**
+	 * Refuse to change the range of a channel still walked, its walk going on over its range.
+	 */
+	@Test
+	public void startWithNewRangeWhileWalked() {
+		this.pauseOnCrawl = 0;
+		BackfillRequestDTO request = new BackfillRequestDTO();
+		request.setChannelCodes(Collections.singleton(BackfillServiceIntTest.CHANNEL_CODE));
+		request.setFromDate(BackfillServiceIntTest.FROM_DATE);
+		request.setToDate(BackfillServiceIntTest.TO_DATE);
+		this.restartRequest = new BackfillRequestDTO();
+		this.restartRequest.setChannelCodes(request.getChannelCodes());
+		this.restartRequest.setFromDate(BackfillServiceIntTest.FROM_DATE.minusDays(7));
+		this.restartRequest.setToDate(BackfillServiceIntTest.TO_DATE);
+
+		BackfillChannelDTO done = this.findChannel(this.backfillService.start(request));
+		Assertions.assertThat(this.restartError).isNotNull();
+		Assertions.assertThat(done.getStatus()).isEqualTo("DONE");
+		Assertions.assertThat(done.getFromDate()).isEqualTo(BackfillServiceIntTest.FROM_DATE);
+		Assertions.assertThat(done.getCrawled()).isEqualTo(11);
+		Assertions.assertThat(this.countCodes()).isEqualTo(11);
+	}
+
+	/**
+	 * Refuse a range ending before it starts.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void startWithInvalidRange() {
+		BackfillRequestDTO request = new BackfillRequestDTO();
+		request.setFromDate(BackfillServiceIntTest.TO_DATE);
+		request.setToDate(BackfillServiceIntTest.FROM_DATE);
+		this.backfillService.start(request);
+	}
+
+	/**
+	 * Find the status of the test channel.
+	 *
+	 * @param status the backfill status
+	 * @return the status of the channel
+	 */
+	private BackfillChannelDTO findChannel(BackfillStatusDTO status) {
+		return status.getChannels().stream()
+		        .filter(dto -> BackfillServiceIntTest.CHANNEL_CODE.equals(dto.getChannelCode())).findFirst().get();
+	}
+
+	/**
+	 * Count the codes of the test channel in the range.
+	 *
+	 * @return the number of codes
+	 */
+	private int countCodes() {
+		return this.jdbcTemplate.queryForObject(
+		        "select count(*) from code where channels_id = ? and open_date between ? and ?", Integer.class,
+		        this.channel.getId(),
+		        Timestamp.from(BackfillServiceIntTest.FROM_DATE
+		                .atStartOfDay(DateFormatterUtil.systemZoneId()).toInstant()),
+		        Timestamp.from(BackfillServiceIntTest.TO_DATE
+		                .atStartOfDay(DateFormatterUtil.systemZoneId()).toInstant()));
+	}
+}
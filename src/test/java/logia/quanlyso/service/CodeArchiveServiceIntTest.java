@@ -0,0 +1,122 @@
+package logia.quanlyso.service;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import logia.quanlyso.QuanlysoApp;
+import logia.quanlyso.domain.Channel;
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.repository.ChannelRepository;
+import logia.quanlyso.repository.CodeRepository;
+
+/**
+ * Test class for the CodeArchiveService.
+ *
+ * @see CodeArchiveService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuanlysoApp.class)
+@Transactional
+public class CodeArchiveServiceIntTest {
+
+	/** The channel repository. */
+	@Autowired
+	private ChannelRepository	channelRepository;
+
+	/** The code repository. */
+	@Autowired
+	private CodeRepository		codeRepository;
+
+	/** The code archive service. */
+	@Autowired
+	private CodeArchiveService	codeArchiveService;
+
+	/** The jdbc template. */
+	@Autowired
+	private JdbcTemplate		jdbcTemplate;
+
+	/** The channel. */
+	private Channel				channel;
+
+	/** The open date of an old draw, archived. */
+	private ZonedDateTime		oldDate;
+
+	/** The open date of a recent draw, kept in the code table. */
+	private ZonedDateTime		recentDate;
+
+	/**
+	 * Save an old and a recent draw of a channel.
+	 */
+	@Before
+	public void setup() {
+		this.channel = this.channelRepository.saveAndFlush(new Channel().name("Archive").code("ARCHIVE"));
+		ZonedDateTime horizon = this.codeRepository.getArchiveHorizon();
+		this.oldDate = horizon.minusDays(110);
+		this.recentDate = horizon.plusDays(10);
+		this.codeRepository.insertAll(Arrays.asList(this.code("12", this.oldDate), this.code("345", this.oldDate),
+		        this.code("678", this.recentDate)));
+	}
+
+	/**
+	 * Test old draws are moved to the archive, and still found.
+	 */
+	@Test
+	public void assertOldDrawsAreArchived() {
+		Assertions.assertThat(this.codeArchiveService.archive()).isGreaterThanOrEqualTo(2);
+
+		Assertions.assertThat(this.jdbcTemplate.queryForObject(
+		        "select count(*) from code where channels_id = ?", Integer.class, this.channel.getId())).isEqualTo(1);
+		Assertions.assertThat(this.jdbcTemplate.queryForObject(
+		        "select count(*) from code_archive where channels_id = ?", Integer.class, this.channel.getId()))
+		        .isEqualTo(2);
+
+		List<Code> oldDraw = this.codeRepository.findDraw(this.channel.getId(), this.oldDate);
+		Assertions.assertThat(oldDraw).extracting(Code::getCode).containsExactly("12", "345");
+		Assertions.assertThat(oldDraw.get(0).getOpenDate().toInstant()).isEqualTo(this.oldDate.toInstant());
+		Assertions.assertThat(this.codeRepository.findDraw(this.channel.getId(), this.recentDate))
+		        .extracting(Code::getCode).containsExactly("678");
+
+		// Across the horizon, from both tables
+		Assertions.assertThat(this.codeRepository.findDraws(Collections.singleton(this.channel.getId()),
+		        this.oldDate, this.recentDate)).extracting(Code::getCode).containsExactly("12", "345", "678");
+
+		// Nothing left to archive
+		Assertions.assertThat(this.codeArchiveService.archive()).isZero();
+	}
+
+	/**
+	 * Test an archived draw is deleted, to be crawled again.
+	 */
+	@Test
+	public void assertArchivedDrawIsDeleted() {
+		this.codeArchiveService.archive();
+
+		this.codeRepository.deleteDraw(this.channel.getId(), this.oldDate);
+
+		Assertions.assertThat(this.codeRepository.findDraw(this.channel.getId(), this.oldDate)).isEmpty();
+		Assertions.assertThat(this.codeRepository.findDraw(this.channel.getId(), this.recentDate)).hasSize(1);
+	}
+
+	/**
+	 * Create a code of the channel.
+	 *
+	 * @param code the code
+	 * @param openDate the open date
+	 * @return the code
+	 */
+	private Code code(String code, ZonedDateTime openDate) {
+		return new Code().code(code).openDate(openDate).channels(this.channel);
+	}
+}
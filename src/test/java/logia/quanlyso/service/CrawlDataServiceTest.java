@@ -1,10 +1,16 @@
 package logia.quanlyso.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.net.URI;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.List;
 
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,26 +19,60 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
 import logia.quanlyso.QuanlysoApp;
+import logia.quanlyso.client.LotteryPageFixtureServer;
+import logia.quanlyso.config.ApplicationProperties;
 import logia.quanlyso.domain.Channel;
 import logia.quanlyso.domain.Code;
+import logia.quanlyso.domain.DrawResult;
 import logia.quanlyso.repository.ChannelRepository;
 import logia.quanlyso.repository.CodeRepository;
+import logia.quanlyso.repository.DrawResultRepository;
 import logia.quanlyso.service.util.DateFormatterUtil;
 
+/**
+ * Test class for crawling the results pages, served by the fixture server at the base url of the
+ * test configuration.
+ *
+ * @see LotteryPageFixtureServer
+ */
 @RunWith(SpringRunner.class)
 @SpringBootTest(classes = QuanlysoApp.class)
 @Transactional
 public class CrawlDataServiceTest {
-	
+
 	@Autowired
 	private CodeService			codeService;
-	
+
 	@Autowired
 	private ChannelRepository channelRepository;
-	
+
 	@Autowired
 	private CodeRepository codeRepository;
-	
+
+	@Autowired
+	private DrawResultRepository drawResultRepository;
+
+	@Autowired
+	private ApplicationProperties applicationProperties;
+
+	private LotteryPageFixtureServer server;
+
+	/**
+	 * Start the fixture server on the port of the base url.
+	 *
+	 * @throws Exception
+	 */
+	@Before
+	public void setup() throws Exception {
+		this.server = new LotteryPageFixtureServer(
+		        URI.create(this.applicationProperties.getCrawler().getBaseUrl()).getPort());
+	}
+
+	@After
+	public void tearDown() {
+		this.server.close();
+	}
+
 	/**
 	 * @throws Exception
 	 */
@@ -45,9 +85,84 @@ public class CrawlDataServiceTest {
 		ZonedDateTime _openDate = DateFormatterUtil.fromDDMMYYYYStringToZonedDateTime(_date);
 		boolean __forceUpdate = true;
 		this.codeService.crawlLotteriesFromMinhNgocSite(_channelCode, _date, __forceUpdate);
-		
+
 		// Assert value
 		List<Code> _codes = this.codeRepository.findAllByChannelsAndOpenDate(_channel, _openDate);
-		assertThat(_codes).isNotEmpty();
+		assertThat(_codes).hasSize(27);
+	}
+
+	/**
+	 * @throws Exception
+	 */
+	@Test
+	public void assertForceUpdateReplacesCodes() throws Exception {
+		Channel _channel = channelRepository.findOneByCode("mien-bac");
+		ZonedDateTime _openDate = DateFormatterUtil.fromDDMMYYYYStringToZonedDateTime("01-07-2017");
+		this.codeService.crawlLotteriesFromMinhNgocSite(_channel.getCode(), "01-07-2017", false);
+		this.codeService.crawlLotteriesFromMinhNgocSite(_channel.getCode(), "01-07-2017", true);
+
+		List<Code> _codes = this.codeRepository.findAllByChannelsAndOpenDate(_channel, _openDate);
+		assertThat(_codes).hasSize(27).extracting(Code::getId).doesNotContainNull();
+	}
+
+	/**
+	 * @throws Exception
+	 */
+	@Test
+	public void assertCrawlLatestSouthernResults() throws Exception {
+		Channel _channel = channelRepository.findOneByCode("tp-hcm");
+		ZonedDateTime _openDate = DateFormatterUtil.fromDDMMYYYYStringToZonedDateTime("01-07-2017");
+		this.codeService.crawlLotteriesFromMinhNgocSite(_channel.getCode(), "01-07-2017", false);
+
+		List<Code> _codes = this.codeRepository.findAllByChannelsAndOpenDate(_channel, _openDate);
+		assertThat(_codes).extracting(Code::getCode).hasSize(18).contains("47", "725904");
+
+		DrawResult _drawResult = this.drawResultRepository.findOne(_channel.getId(), _openDate);
+		assertThat(_drawResult.getCodes()).hasSize(18);
+		assertThat(_drawResult.getTop()).containsExactly("47");
+		assertThat(_drawResult.getBottom()).containsExactly("725904");
+	}
+
+	/**
+	 * @throws Exception
+	 */
+	@Test
+	public void assertFindDrawsOfChannelsInRange() throws Exception {
+		Channel _northern = channelRepository.findOneByCode("mien-bac");
+		Channel _southern = channelRepository.findOneByCode("tp-hcm");
+		this.codeService.crawlLotteriesFromMinhNgocSite(_northern.getCode(), "01-07-2017", false);
+		this.codeService.crawlLotteriesFromMinhNgocSite(_southern.getCode(), "01-07-2017", false);
+		ZonedDateTime _fromDate = DateFormatterUtil.fromDDMMYYYYStringToZonedDateTime("30-06-2017");
+		ZonedDateTime _toDate = DateFormatterUtil.fromDDMMYYYYStringToZonedDateTime("02-07-2017");
+		List<Long> _channelIds = Arrays.asList(_northern.getId(), _southern.getId());
+
+		assertThat(this.codeRepository.findAllByChannelsIdInAndOpenDateBetween(_channelIds, _fromDate, _toDate))
+		        .hasSize(45);
+		List<DrawResult> _drawResults = this.drawResultRepository.findAll(_channelIds, _fromDate, _toDate);
+		assertThat(_drawResults).extracting(DrawResult::getChannelId).containsOnly(_northern.getId(),
+		        _southern.getId());
+		assertThat(_drawResults).extracting(_drawResult -> _drawResult.getCodes().size()).containsOnly(27, 18);
+	}
+
+	/**
+	 * @throws Exception
+	 */
+	@Test
+	public void assertPartialResultsNotSaved() throws Exception {
+		Channel _channel = channelRepository.findOneByCode("tp-hcm");
+		LocalDate _drawDate = LocalDate.of(2017, 7, 8);
+		assertThat(this.codeService.crawlCompleteResults(_channel.getCode(), _drawDate, 18)).isFalse();
+
+		assertThat(this.codeRepository.findAllByChannelsAndOpenDate(_channel,
+		        _drawDate.atStartOfDay(DateFormatterUtil.systemZoneId()))).isEmpty();
+	}
+
+	/**
+	 * @throws Exception
+	 */
+	@Test
+	public void assertPageWithoutResultsFails() throws Exception {
+		assertThatThrownBy(() -> this.codeService.crawlLotteriesFromMinhNgocSite("ca-mau", "03-07-2017", false))
+		        .isInstanceOf(NullPointerException.class).hasMessage("KQXS not found");
 	}
 }
@@ -0,0 +1,180 @@
+package logia.quanlyso.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.scheduling.TaskScheduler;
+
+import logia.quanlyso.config.ApplicationProperties;
+import logia.quanlyso.service.dto.ChannelDTO;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Test class for the DrawResultsScheduler.
+ *
+ * @see DrawResultsScheduler
+ */
+public class DrawResultsSchedulerUnitTest {
+
+	/** The draw date, a Wednesday. */
+	private static final LocalDate	DRAW_DATE	= LocalDate.of(2017, 8, 2);
+
+	/** The schedule. */
+	private ApplicationProperties.Crawler.Schedule	schedule;
+
+	/** The task scheduler. */
+	private TaskScheduler			taskScheduler;
+
+	/** The code service. */
+	private CodeService				codeService;
+
+	/** The draw results scheduler. */
+	private DrawResultsScheduler	drawResultsScheduler;
+
+	/**
+	 * Setup.
+	 */
+	@Before
+	public void setup() {
+		ApplicationProperties _applicationProperties = new ApplicationProperties();
+		ApplicationProperties.Crawler.Schedule _schedule = _applicationProperties.getCrawler().getSchedule();
+		this.schedule = _schedule;
+		_schedule.setEnabled(true);
+		_schedule.setInitialDelaySeconds(15);
+		_schedule.setMaxDelaySeconds(20);
+		_schedule.setGiveUpMinutes(1);
+		ApplicationProperties.Crawler.Region _north = new ApplicationProperties.Crawler.Region();
+		_north.setDrawTime("18:15");
+		_north.setCodes(27);
+		_north.setChannels(Arrays.asList("mien-bac"));
+		ApplicationProperties.Crawler.Region _south = new ApplicationProperties.Crawler.Region();
+		_south.setDrawTime("16:15");
+		_south.setCodes(18);
+		_schedule.getRegions().put("mien-bac", _north);
+		_schedule.getRegions().put("mien-nam", _south);
+
+		ChannelService _channelService = Mockito.mock(ChannelService.class);
+		Mockito.when(_channelService.findAllByOpenDay(DrawResultsSchedulerUnitTest.DRAW_DATE.getDayOfWeek()))
+		        .thenReturn(Arrays.asList(DrawResultsSchedulerUnitTest.channel("mien-bac"),
+		                DrawResultsSchedulerUnitTest.channel("can-tho")));
+		this.taskScheduler = Mockito.mock(TaskScheduler.class);
+		this.codeService = Mockito.mock(CodeService.class);
+		Clock _clock = Clock.fixed(DrawResultsSchedulerUnitTest.at(16, 15, 0), DateFormatterUtil.systemZoneId());
+		this.drawResultsScheduler = new DrawResultsScheduler(this.taskScheduler, this.codeService,
+		        _channelService, _applicationProperties, _clock);
+	}
+
+	/**
+	 * Test each channel is planned once at the draw time of its region.
+	 */
+	@Test
+	public void testPlanToday() {
+		this.drawResultsScheduler.planToday();
+		this.drawResultsScheduler.planToday();
+
+		ArgumentCaptor<Date> _startTimes = ArgumentCaptor.forClass(Date.class);
+		Mockito.verify(this.taskScheduler, Mockito.times(2)).schedule(Mockito.any(Runnable.class),
+		        _startTimes.capture());
+		Assertions.assertThat(_startTimes.getAllValues()).containsExactly(
+		        Date.from(DrawResultsSchedulerUnitTest.at(18, 15, 0)),
+		        Date.from(DrawResultsSchedulerUnitTest.at(16, 15, 0)));
+	}
+
+	/**
+	 * Test a channel is polled again with growing delays, up to the maximum delay.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testPollBackOff() throws Exception {
+		this.drawResultsScheduler.planToday();
+		ArgumentCaptor<Runnable> _polls = ArgumentCaptor.forClass(Runnable.class);
+		Mockito.verify(this.taskScheduler, Mockito.times(2)).schedule(_polls.capture(), Mockito.any(Date.class));
+		Runnable _poll = _polls.getAllValues().get(1);
+		Mockito.reset(this.taskScheduler);
+		Mockito.when(this.codeService.crawlCompleteResults("can-tho", DrawResultsSchedulerUnitTest.DRAW_DATE, 18))
+		        .thenReturn(false);
+
+		// 15 s, then 20 s capped
+		_poll.run();
+		_poll.run();
+		_poll.run();
+		ArgumentCaptor<Date> _nextTimes = ArgumentCaptor.forClass(Date.class);
+		Mockito.verify(this.taskScheduler, Mockito.times(3)).schedule(Mockito.same(_poll), _nextTimes.capture());
+		List<Date> _expected = Arrays.asList(Date.from(DrawResultsSchedulerUnitTest.at(16, 15, 15)),
+		        Date.from(DrawResultsSchedulerUnitTest.at(16, 15, 20)),
+		        Date.from(DrawResultsSchedulerUnitTest.at(16, 15, 20)));
+		Assertions.assertThat(_nextTimes.getAllValues()).isEqualTo(_expected);
+	}
+
+	/**
+	 * Test a channel is not polled again past the deadline.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testPollGivenUp() throws Exception {
+		this.schedule.setGiveUpMinutes(0);
+		this.drawResultsScheduler.planToday();
+		ArgumentCaptor<Runnable> _polls = ArgumentCaptor.forClass(Runnable.class);
+		Mockito.verify(this.taskScheduler, Mockito.times(2)).schedule(_polls.capture(), Mockito.any(Date.class));
+		Mockito.reset(this.taskScheduler);
+
+		_polls.getAllValues().get(1).run();
+		Mockito.verify(this.codeService).crawlCompleteResults("can-tho", DrawResultsSchedulerUnitTest.DRAW_DATE, 18);
+		Mockito.verifyZeroInteractions(this.taskScheduler);
+	}
+
+	/**
+	 * Test a complete draw is not polled again.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testPollComplete() throws Exception {
+		this.drawResultsScheduler.planToday();
+		ArgumentCaptor<Runnable> _polls = ArgumentCaptor.forClass(Runnable.class);
+		Mockito.verify(this.taskScheduler, Mockito.times(2)).schedule(_polls.capture(), Mockito.any(Date.class));
+		Mockito.reset(this.taskScheduler);
+		Mockito.when(this.codeService.crawlCompleteResults("mien-bac", DrawResultsSchedulerUnitTest.DRAW_DATE, 27))
+		        .thenReturn(true);
+
+		_polls.getAllValues().get(0).run();
+		Mockito.verifyZeroInteractions(this.taskScheduler);
+	}
+
+	/**
+	 * A time of the draw date.
+	 *
+	 * @param __hour the hour
+	 * @param __minute the minute
+	 * @param __second the second
+	 * @return the instant
+	 */
+	private static Instant at(int __hour, int __minute, int __second) {
+		return ZonedDateTime.of(DrawResultsSchedulerUnitTest.DRAW_DATE.atTime(__hour, __minute, __second),
+		        DateFormatterUtil.systemZoneId()).toInstant();
+	}
+
+	/**
+	 * A channel.
+	 *
+	 * @param __code the code
+	 * @return the channel DTO
+	 */
+	private static ChannelDTO channel(String __code) {
+		ChannelDTO _channel = new ChannelDTO();
+		_channel.setCode(__code);
+		return _channel;
+	}
+}
@@ -0,0 +1,119 @@
+package logia.quanlyso.service;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import logia.quanlyso.QuanlysoApp;
+import logia.quanlyso.domain.Channel;
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.domain.DrawResult;
+import logia.quanlyso.repository.ChannelRepository;
+import logia.quanlyso.repository.CodeRepository;
+import logia.quanlyso.repository.DrawResultRepository;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Test class for the ResultsFileService.
+ * <p>
+ * Not transactional: the export reads each channel in its own transaction.
+ * </p>
+ *
+ * @see ResultsFileService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuanlysoApp.class)
+public class ResultsFileServiceIntTest {
+
+	/** The Constant DAY. */
+	private static final LocalDate	DAY	= LocalDate.of(2017, 7, 1);
+
+	/** The channel repository. */
+	@Autowired
+	private ChannelRepository		channelRepository;
+
+	/** The code repository. */
+	@Autowired
+	private CodeRepository			codeRepository;
+
+	/** The draw result repository. */
+	@Autowired
+	private DrawResultRepository	drawResultRepository;
+
+	/** The results file service. */
+	@Autowired
+	private ResultsFileService		resultsFileService;
+
+	/** The jdbc template. */
+	@Autowired
+	private JdbcTemplate			jdbcTemplate;
+
+	/** The channel. */
+	private Channel					channel;
+
+	/**
+	 * Save a packed draw and a draw of codes only.
+	 */
+	@Before
+	public void setup() {
+		this.channel = this.channelRepository.saveAndFlush(new Channel().name("History").code("HISTORY"));
+		ZonedDateTime openDate = ResultsFileServiceIntTest.DAY.atStartOfDay(DateFormatterUtil.systemZoneId());
+		this.codeRepository.insertAll(Arrays.asList(this.code("47", openDate), this.code("725904", openDate),
+		        this.code("390", openDate.plusDays(7))));
+		this.drawResultRepository.save(new DrawResult(this.channel.getId(), openDate,
+		        Arrays.asList(new DrawResult.Prize("giai8", Arrays.asList("47")),
+		                new DrawResult.Prize("giaidb", Arrays.asList("725904")))));
+	}
+
+	/**
+	 * Remove the channel, its codes and its draw results.
+	 */
+	@After
+	public void tearDown() {
+		this.jdbcTemplate.update("delete from draw_result where channels_id = ?", this.channel.getId());
+		this.jdbcTemplate.update("delete from code where channels_id = ?", this.channel.getId());
+		this.channelRepository.delete(this.channel.getId());
+	}
+
+	/**
+	 * Test all draws are exported, and scanned with their ranks.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void assertDrawsAreExported() throws Exception {
+		Assertions.assertThat(this.resultsFileService.export()).isGreaterThanOrEqualTo(3);
+
+		List<String> numbers = new ArrayList<>();
+		int visited = this.resultsFileService.scan(this.channel.getId(), ResultsFileServiceIntTest.DAY,
+		        ResultsFileServiceIntTest.DAY.plusDays(7),
+		        (epochDay, rank, digits, number) -> numbers.add(LocalDate.ofEpochDay(epochDay) + " " + rank + " "
+		                + String.format("%0" + digits + "d", number)));
+		Assertions.assertThat(visited).isEqualTo(3);
+		Assertions.assertThat(numbers).containsExactly("2017-07-01 8 47", "2017-07-01 0 725904",
+		        "2017-07-08 -1 390");
+	}
+
+	/**
+	 * Create a code of the channel.
+	 *
+	 * @param code the code
+	 * @param openDate the open date
+	 * @return the code
+	 */
+	private Code code(String code, ZonedDateTime openDate) {
+		return new Code().code(code).openDate(openDate).channels(this.channel);
+	}
+}
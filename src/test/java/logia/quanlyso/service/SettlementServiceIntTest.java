@@ -0,0 +1,135 @@
+package logia.quanlyso.service;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+import javax.persistence.EntityManager;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import logia.quanlyso.QuanlysoApp;
+import logia.quanlyso.domain.Channel;
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.domain.Factor;
+import logia.quanlyso.domain.Style;
+import logia.quanlyso.domain.TransactionDetails;
+import logia.quanlyso.domain.Transactions;
+import logia.quanlyso.domain.Types;
+import logia.quanlyso.repository.TransactionsRepository;
+import logia.quanlyso.service.settlement.DrawCorrection;
+import logia.quanlyso.service.settlement.DrawKey;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Test class for the SettlementService.
+ *
+ * @see SettlementService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuanlysoApp.class)
+@Transactional
+public class SettlementServiceIntTest {
+
+	/** The draw day. */
+	private static final ZonedDateTime	DRAW_DAY	= ZonedDateTime.of(2017, 7, 1, 0, 0, 0, 0,
+	        DateFormatterUtil.systemZoneId());
+
+	/** The em. */
+	@Autowired
+	private EntityManager				em;
+
+	/** The transactions repository. */
+	@Autowired
+	private TransactionsRepository		transactionsRepository;
+
+	/** The settlement service. */
+	@Autowired
+	private SettlementService			settlementService;
+
+	/**
+	 * Settle the open transactions of a draw.
+	 */
+	@Test
+	public void settleOpenTransactions() {
+		Channel channel = this.em.find(Channel.class, 1L);
+		this.em.persist(new Code().code("01").openDate(SettlementServiceIntTest.DRAW_DAY).channels(channel));
+
+		Transactions winning = this.persistTransactions("01", null, channel);
+		Transactions losing = this.persistTransactions("02", null, channel);
+		Transactions settled = this.persistTransactions("01", 0L, channel);
+		Transactions otherDay = this.persistTransactions("01", null, channel);
+		otherDay.setOpenDate(SettlementServiceIntTest.DRAW_DAY.plusDays(1));
+		Transactions pending = this.persistTransactions("01", null, channel, this.em.find(Channel.class, 2L));
+		this.em.flush();
+
+		int count = this.settlementService.settleOpenTransactions(DrawKey.of(channel.getId(),
+		        SettlementServiceIntTest.DRAW_DAY));
+		this.em.clear();
+
+		Assertions.assertThat(count).isEqualTo(2);
+		Assertions.assertThat(this.transactionsRepository.findOne(winning.getId()).getNetValue()).isEqualTo(74250L);
+		Assertions.assertThat(this.transactionsRepository.findOne(losing.getId()).getNetValue()).isEqualTo(-750L);
+		Assertions.assertThat(this.transactionsRepository.findOne(settled.getId()).getNetValue()).isEqualTo(0L);
+		Assertions.assertThat(this.transactionsRepository.findOne(otherDay.getId()).getNetValue()).isNull();
+		// Channel 2 has no results yet
+		Assertions.assertThat(this.transactionsRepository.findOne(pending.getId()).getNetValue()).isNull();
+
+		TransactionDetails details = this.em.find(TransactionDetails.class,
+		        winning.getTransactionDetails().iterator().next().getId());
+		Assertions.assertThat(details.getCosts()).isEqualTo(750L);
+		Assertions.assertThat(details.getProfit()).isEqualTo(75000L);
+	}
+
+	/**
+	 * Settle again only the transactions affected by a correction of a draw.
+	 */
+	@Test
+	public void resettleTransactions() {
+		Channel channel = this.em.find(Channel.class, 1L);
+		// The draw was corrected from 01 to 02
+		this.em.persist(new Code().code("02").openDate(SettlementServiceIntTest.DRAW_DAY).channels(channel));
+
+		Transactions formerWinning = this.persistTransactions("01", 74250L, channel);
+		Transactions newWinning = this.persistTransactions("02", -750L, channel);
+		Transactions unaffected = this.persistTransactions("03", 5000L, channel);
+		this.em.flush();
+
+		int count = this.settlementService.resettleTransactions(
+		        DrawKey.of(channel.getId(), SettlementServiceIntTest.DRAW_DAY),
+		        DrawCorrection.of(Arrays.asList("01"), Arrays.asList("02")));
+		this.em.clear();
+
+		Assertions.assertThat(count).isEqualTo(2);
+		Assertions.assertThat(this.transactionsRepository.findOne(formerWinning.getId()).getNetValue()).isEqualTo(-750L);
+		Assertions.assertThat(this.transactionsRepository.findOne(newWinning.getId()).getNetValue()).isEqualTo(74250L);
+		Assertions.assertThat(this.transactionsRepository.findOne(unaffected.getId()).getNetValue()).isEqualTo(5000L);
+	}
+
+	/**
+	 * Persist a transaction of the draw day, with one detail of one unit per channel.
+	 *
+	 * @param chosenNumber the chosen number
+	 * @param netValue the net value, in thousandths
+	 * @param channels the channels
+	 * @return the transactions
+	 */
+	private Transactions persistTransactions(String chosenNumber, Long netValue, Channel... channels) {
+		Transactions transactions = new Transactions().chosenNumber(chosenNumber).netValue(netValue)
+		        .openDate(SettlementServiceIntTest.DRAW_DAY.plusHours(10));
+		this.em.persist(transactions);
+		for (Channel channel : channels) {
+			TransactionDetails details = new TransactionDetails().amount(1000L).channels(channel)
+			        .factors(this.em.find(Factor.class, 1L)).styles(this.em.find(Style.class, 1L))
+			        .types(this.em.find(Types.class, 1L));
+			transactions.addTransactionDetails(details);
+			this.em.persist(details);
+		}
+		return transactions;
+	}
+}
@@ -0,0 +1,58 @@
+package logia.quanlyso.service.analytics;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import logia.quanlyso.domain.DrawResult;
+import logia.quanlyso.repository.DrawResultRepository;
+import logia.quanlyso.service.ResultsFileService;
+import logia.quanlyso.service.history.ResultsFile;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Test class for the number statistics of the channels.
+ *
+ * @see NumberStatsBook
+ */
+public class NumberStatsBookUnitTest {
+
+	/**
+	 * Test the whole history is read from the database when no results file is exported.
+	 */
+	@Test
+	public void testLoadWithoutResultsFile() {
+		ZoneId zoneId = DateFormatterUtil.systemZoneId();
+		LocalDate today = LocalDate.now(zoneId);
+		DrawResultRepository drawResultRepository = Mockito.mock(DrawResultRepository.class);
+		Mockito.when(drawResultRepository.findAll(Collections.singleton(1L), LocalDate.ofEpochDay(0).atStartOfDay(zoneId),
+		        today.atStartOfDay(zoneId)))
+		        .thenReturn(Arrays.asList(new DrawResult(1L, today.minusDays(10).atStartOfDay(zoneId),
+		                Arrays.asList(new DrawResult.Prize("giai8", Arrays.asList("27"))))));
+		NumberStatsBook numberStatsBook = new NumberStatsBook(new ResultsFileService() {
+
+			@Override
+			public int export() throws IOException {
+				throw new IOException("History disabled");
+			}
+
+			@Override
+			public int scan(Long channelId, LocalDate fromDate, LocalDate toDate, ResultsFile.NumberVisitor visitor) {
+				return -1;
+			}
+		}, drawResultRepository);
+
+		int[] counts = new int[NumberStats.suffixes(2)];
+		int[] lastDays = new int[NumberStats.suffixes(2)];
+		numberStatsBook.get(1L).read(NumberStats.Position.TOP, 2, Integer.MIN_VALUE, (int) today.toEpochDay(), counts,
+		        lastDays);
+		Assertions.assertThat(counts[27]).isEqualTo(1);
+		Assertions.assertThat(lastDays[27]).isEqualTo((int) today.minusDays(10).toEpochDay());
+	}
+}
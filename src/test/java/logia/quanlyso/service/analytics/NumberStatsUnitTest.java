@@ -0,0 +1,148 @@
+package logia.quanlyso.service.analytics;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import logia.quanlyso.domain.DrawResult;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Test class for the number statistics of a channel.
+ *
+ * @see NumberStats
+ */
+public class NumberStatsUnitTest {
+
+	/** The first day. */
+	private static final LocalDate	DAY	= LocalDate.of(2017, 7, 1);
+
+	/**
+	 * Test suffixes are counted by position, over windows of days.
+	 */
+	@Test
+	public void testCountSuffixes() {
+		NumberStats stats = new NumberStats();
+		stats.replace(NumberStatsUnitTest.draw(0, new DrawResult.Prize("giai8", Arrays.asList("27")),
+		        new DrawResult.Prize("giai1", Arrays.asList("31527")),
+		        new DrawResult.Prize("giaidb", Arrays.asList("725927"))));
+		stats.replace(NumberStatsUnitTest.draw(5, new DrawResult.Prize("giai8", Arrays.asList("05")),
+		        new DrawResult.Prize("giaidb", Arrays.asList("100927"))));
+		// Still being drawn, and of unknown tier
+		stats.replace(DrawResult.ofCodes(1L, NumberStatsUnitTest.openDate(7), Arrays.asList("..", "627")));
+
+		Assertions.assertThat(NumberStatsUnitTest.count(stats, NumberStats.Position.ANY, 2, 27, 0, 7)).isEqualTo(5);
+		Assertions.assertThat(NumberStatsUnitTest.count(stats, NumberStats.Position.ANY, 2, 27, 1, 7)).isEqualTo(2);
+		Assertions.assertThat(NumberStatsUnitTest.count(stats, NumberStats.Position.BOTTOM, 2, 27, 0, 7)).isEqualTo(2);
+		Assertions.assertThat(NumberStatsUnitTest.count(stats, NumberStats.Position.TOP, 2, 27, 0, 7)).isEqualTo(1);
+		Assertions.assertThat(NumberStatsUnitTest.count(stats, NumberStats.Position.TOP, 2, 5, 0, 7)).isEqualTo(1);
+		Assertions.assertThat(NumberStatsUnitTest.count(stats, NumberStats.Position.ANY, 3, 927, 0, 7)).isEqualTo(2);
+		Assertions.assertThat(NumberStatsUnitTest.count(stats, NumberStats.Position.ANY, 3, 27, 0, 7)).isZero();
+
+		Assertions.assertThat(NumberStatsUnitTest.lastDay(stats, NumberStats.Position.ANY, 2, 27, 7)).isEqualTo(7);
+		Assertions.assertThat(NumberStatsUnitTest.lastDay(stats, NumberStats.Position.BOTTOM, 2, 27, 7)).isEqualTo(5);
+		Assertions.assertThat(NumberStatsUnitTest.lastDay(stats, NumberStats.Position.BOTTOM, 2, 27, 4)).isEqualTo(0);
+		Assertions.assertThat(NumberStatsUnitTest.lastDay(stats, NumberStats.Position.ANY, 2, 99, 7))
+		        .isEqualTo(NumberStats.NEVER);
+	}
+
+	/**
+	 * Test a draw crawled again replaces its previous numbers, and a draw of an earlier day is counted
+	 * in order.
+	 */
+	@Test
+	public void testReplaceDraw() {
+		NumberStats stats = new NumberStats();
+		stats.replace(NumberStatsUnitTest.draw(5, new DrawResult.Prize("giaidb", Arrays.asList("725927"))));
+		stats.replace(NumberStatsUnitTest.draw(5, new DrawResult.Prize("giaidb", Arrays.asList("725913"))));
+		stats.replace(NumberStatsUnitTest.draw(2, new DrawResult.Prize("giaidb", Arrays.asList("000027"))));
+
+		Assertions.assertThat(NumberStatsUnitTest.count(stats, NumberStats.Position.BOTTOM, 2, 27, 0, 7)).isEqualTo(1);
+		Assertions.assertThat(NumberStatsUnitTest.lastDay(stats, NumberStats.Position.BOTTOM, 2, 27, 7)).isEqualTo(2);
+		Assertions.assertThat(NumberStatsUnitTest.lastDay(stats, NumberStats.Position.BOTTOM, 2, 13, 7)).isEqualTo(5);
+
+		// The same draw in another zone
+		stats.replace(new DrawResult(1L, NumberStatsUnitTest.openDate(5).withZoneSameInstant(ZoneOffset.UTC),
+		        Arrays.asList(new DrawResult.Prize("giaidb", Arrays.asList("725913")))));
+		Assertions.assertThat(NumberStatsUnitTest.count(stats, NumberStats.Position.BOTTOM, 2, 13, 0, 7)).isEqualTo(1);
+		Assertions.assertThat(NumberStatsUnitTest.lastDay(stats, NumberStats.Position.BOTTOM, 2, 13, 7)).isEqualTo(5);
+
+		// No result any more
+		stats.replace(DrawResult.ofCodes(1L, NumberStatsUnitTest.openDate(5), Arrays.asList()));
+		Assertions.assertThat(NumberStatsUnitTest.count(stats, NumberStats.Position.BOTTOM, 2, 13, 0, 7)).isZero();
+	}
+
+	/**
+	 * Count a suffix.
+	 *
+	 * @param stats the stats
+	 * @param position the position
+	 * @param length the length
+	 * @param suffix the suffix
+	 * @param fromDays the days after the first day of the window
+	 * @param toDays the days after the first day of the end of the window
+	 * @return the count
+	 */
+	private static int count(NumberStats stats, NumberStats.Position position, int length, int suffix, int fromDays,
+	        int toDays) {
+		int[] counts = new int[NumberStats.suffixes(length)];
+		int[] lastDays = new int[NumberStats.suffixes(length)];
+		stats.read(position, length, NumberStatsUnitTest.epochDay(fromDays), NumberStatsUnitTest.epochDay(toDays),
+		        counts, lastDays);
+		return counts[suffix];
+	}
+
+	/**
+	 * Gets the last day of a suffix.
+	 *
+	 * @param stats the stats
+	 * @param position the position
+	 * @param length the length
+	 * @param suffix the suffix
+	 * @param toDays the days after the first day of the end of the window
+	 * @return the days after the first day, NEVER if never drawn
+	 */
+	private static int lastDay(NumberStats stats, NumberStats.Position position, int length, int suffix,
+	        int toDays) {
+		int[] counts = new int[NumberStats.suffixes(length)];
+		int[] lastDays = new int[NumberStats.suffixes(length)];
+		stats.read(position, length, Integer.MIN_VALUE, NumberStatsUnitTest.epochDay(toDays), counts, lastDays);
+		return lastDays[suffix] == NumberStats.NEVER ? NumberStats.NEVER
+		        : lastDays[suffix] - NumberStatsUnitTest.epochDay(0);
+	}
+
+	/**
+	 * Create a draw.
+	 *
+	 * @param days the days after the first day
+	 * @param prizes the prizes
+	 * @return the draw result
+	 */
+	private static DrawResult draw(int days, DrawResult.Prize... prizes) {
+		return new DrawResult(1L, NumberStatsUnitTest.openDate(days), Arrays.asList(prizes));
+	}
+
+	/**
+	 * Gets the open date of a day.
+	 *
+	 * @param days the days after the first day
+	 * @return the open date
+	 */
+	private static ZonedDateTime openDate(int days) {
+		return NumberStatsUnitTest.DAY.plusDays(days).atStartOfDay(DateFormatterUtil.systemZoneId());
+	}
+
+	/**
+	 * Gets the epoch day of a day.
+	 *
+	 * @param days the days after the first day
+	 * @return the epoch day
+	 */
+	private static int epochDay(int days) {
+		return (int) NumberStatsUnitTest.DAY.plusDays(days).toEpochDay();
+	}
+}
@@ -0,0 +1,163 @@
+package logia.quanlyso.service.crawl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import logia.quanlyso.service.dto.CrawlChannelDTO;
+import logia.quanlyso.service.dto.CrawlJobDTO;
+
+/**
+ * Test class for the crawl jobs.
+ *
+ * @see CrawlJob
+ * @see CrawlJobRegistry
+ */
+public class CrawlJobUnitTest {
+
+	/**
+	 * Test the states of the channels and the counters of the job.
+	 */
+	@Test
+	public void testChannelStates() {
+		CrawlJob _job = new CrawlJobRegistry().create(Arrays.asList("XSHCM", "XSDT", "XSCM"));
+		_job.channel("XSHCM").fetching();
+		_job.channel("XSHCM").parsing();
+		_job.channel("XSHCM").saved();
+		_job.channel("XSDT").fetching();
+		_job.channel("XSDT").failed(new IllegalStateException("Boom"));
+		// Terminal states are final
+		_job.channel("XSDT").saved();
+		_job.channel("XSHCM").fetching();
+
+		CrawlJobDTO _dto = _job.toDTO();
+		Assertions.assertThat(_dto.getTotal()).isEqualTo(3);
+		Assertions.assertThat(_dto.getProcessed()).isEqualTo(2);
+		Assertions.assertThat(_dto.getFailed()).isEqualTo(1);
+		Assertions.assertThat(_dto.getEndTime()).isNull();
+		Assertions.assertThat(_dto.getEtaSeconds()).isNotNull();
+		Assertions.assertThat(_dto.getChannels()).extracting(CrawlChannelDTO::getState).containsExactly("SAVED",
+		        "FAILED", "QUEUED");
+		Assertions.assertThat(_dto.getChannels().get(0).getDurationMillis()).isNotNull();
+		Assertions.assertThat(_dto.getChannels().get(1).getError()).contains("Boom");
+		Assertions.assertThat(_dto.getChannels().get(2).getStartTime()).isNull();
+
+		_job.channel("XSCM").saved();
+		Assertions.assertThat(_job.isDone()).isTrue();
+		Assertions.assertThat(_job.toDTO().getEtaSeconds()).isEqualTo(0L);
+	}
+
+	/**
+	 * Test each channel is counted once when threads race to end it.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void testChannelsCountedOnceUnderContention() throws Exception {
+		List<String> _channelCodes = new ArrayList<>();
+		for (int _i = 0; _i < 200; _i++) {
+			_channelCodes.add("CH" + _i);
+		}
+		CrawlJob _job = new CrawlJobRegistry().create(_channelCodes);
+		ExecutorService _executor = Executors.newFixedThreadPool(8);
+		CountDownLatch _start = new CountDownLatch(1);
+		try {
+			for (int _thread = 0; _thread < 8; _thread++) {
+				boolean _fail = _thread % 2 == 0;
+				_executor.execute(() -> {
+					try {
+						_start.await();
+					}
+					catch (InterruptedException __ex) {
+						return;
+					}
+					for (String _channelCode : _channelCodes) {
+						if (_fail) {
+							_job.channel(_channelCode).failed(new Exception());
+						}
+						else {
+							_job.channel(_channelCode).saved();
+						}
+					}
+				});
+			}
+			_start.countDown();
+		}
+		finally {
+			_executor.shutdown();
+			Assertions.assertThat(_executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		}
+
+		CrawlJobDTO _dto = _job.toDTO();
+		Assertions.assertThat(_dto.getProcessed()).isEqualTo(200);
+		Assertions.assertThat(_dto.getFailed()).isEqualTo(
+		        (int) _dto.getChannels().stream().filter(__channel -> "FAILED".equals(__channel.getState())).count());
+		Assertions.assertThat(_dto.getEndTime()).isNotNull();
+	}
+
+	/**
+	 * Test callers waiting for progress are called back once a channel is processed.
+	 */
+	@Test
+	public void testProgressCallbacks() {
+		CrawlJob _job = new CrawlJobRegistry().create(Arrays.asList("XSHCM", "XSDT"));
+		List<Integer> _calls = new ArrayList<>();
+		_job.onProgress(0, __job -> _calls.add(__job.getProcessed()));
+		_job.channel("XSHCM").fetching();
+		Assertions.assertThat(_calls).isEmpty();
+
+		_job.channel("XSHCM").saved();
+		Assertions.assertThat(_calls).containsExactly(1);
+		// Already past, called back at once
+		_job.onProgress(0, __job -> _calls.add(__job.getProcessed()));
+		Assertions.assertThat(_calls).containsExactly(1, 1);
+
+		_job.onProgress(1, __job -> _calls.add(__job.isDone() ? -1 : __job.getProcessed()));
+		_job.channel("XSDT").failed(new Exception());
+		Assertions.assertThat(_calls).containsExactly(1, 1, -1);
+		// Done, called back at once
+		_job.onProgress(5, __job -> _calls.add(0));
+		Assertions.assertThat(_calls).containsExactly(1, 1, -1, 0);
+	}
+
+	/**
+	 * Test callers that gave up waiting are not called back.
+	 */
+	@Test
+	public void testRemovedProgressCallbacks() {
+		CrawlJob _job = new CrawlJobRegistry().create(Arrays.asList("XSHCM", "XSDT"));
+		List<Integer> _calls = new ArrayList<>();
+		Consumer<CrawlJob> _removed = __job -> _calls.add(-1);
+		_job.onProgress(0, _removed);
+		_job.onProgress(0, __job -> _calls.add(__job.getProcessed()));
+		_job.removeProgress(_removed);
+
+		_job.channel("XSHCM").saved();
+		Assertions.assertThat(_calls).containsExactly(1);
+	}
+
+	/**
+	 * Test the registry forgets the oldest done jobs only.
+	 */
+	@Test
+	public void testRegistryForgetsOldestDoneJobs() {
+		CrawlJobRegistry _registry = new CrawlJobRegistry();
+		CrawlJob _running = _registry.create(Arrays.asList("XSHCM"));
+		CrawlJob _oldest = _registry.create(Arrays.<String> asList());
+		for (int _i = 0; _i < CrawlJobRegistry.MAX_JOBS; _i++) {
+			_registry.create(Arrays.<String> asList());
+		}
+
+		Assertions.assertThat(_registry.find(_running.getId())).isSameAs(_running);
+		Assertions.assertThat(_registry.find(_oldest.getId())).isNull();
+		Assertions.assertThat(_registry.findRunning()).containsExactly(_running);
+	}
+}
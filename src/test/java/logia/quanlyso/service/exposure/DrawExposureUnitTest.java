@@ -0,0 +1,59 @@
+package logia.quanlyso.service.exposure;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import logia.quanlyso.domain.StyleConstants;
+import logia.quanlyso.domain.TypesConstants;
+import logia.quanlyso.service.settlement.DrawIndex;
+
+/**
+ * Test class for the DrawExposure.
+ *
+ * @see DrawExposure
+ */
+public class DrawExposureUnitTest {
+
+	/** A draw of one 2-digit, one 3-digit and two 6-digit codes. */
+	private static final DrawIndex REFERENCE = DrawIndex.ofNumbers(Arrays.asList("12", "345", "678901", "234567"));
+
+	/**
+	 * Test the liability is the payout of one hit times the most hits of the play.
+	 */
+	@Test
+	public void testLiabilityByMaxHits() {
+		DrawExposure _exposure = DrawExposure.of(DrawExposureUnitTest.REFERENCE);
+		_exposure.add("01", StyleConstants.TWO_NUM, TypesConstants.TOP, 1000L);
+		_exposure.add("02", StyleConstants.TWO_NUM, TypesConstants.ROLL, 1000L);
+		_exposure.add("03", StyleConstants.TWO_NUM, TypesConstants.BOTH, 1000L);
+		_exposure.add("03", StyleConstants.TWO_NUM, TypesConstants.BOTTOM, 500L);
+
+		List<NumberExposure> _top = _exposure.top(10);
+		Assertions.assertThat(_top).extracting(NumberExposure::getNumber).containsExactly("02", "03", "01");
+		// 4 codes rolled
+		Assertions.assertThat(_top.get(0).getLiability()).isEqualTo(4000L);
+		// 1 top and 2 bottom codes, then 2 bottom codes
+		Assertions.assertThat(_top.get(1).getLiability()).isEqualTo(3000L + 1000L);
+		Assertions.assertThat(_top.get(2).getLiability()).isEqualTo(1000L);
+	}
+
+	/**
+	 * Test removed stakes are not ranked and only the top numbers are returned.
+	 */
+	@Test
+	public void testRemoveAndLimit() {
+		DrawExposure _exposure = DrawExposure.of(DrawIndex.EMPTY);
+		_exposure.add("0001", StyleConstants.FOUR_NUM, TypesConstants.ROLL, 3000L);
+		_exposure.add("999", StyleConstants.THREE_NUM, TypesConstants.ROLL, 2000L);
+		_exposure.add("05", StyleConstants.TWO_NUM, TypesConstants.ROLL, 1000L);
+		_exposure.add("0001", StyleConstants.FOUR_NUM, TypesConstants.ROLL, -3000L);
+
+		Assertions.assertThat(_exposure.add("1", StyleConstants.TWO_NUM, TypesConstants.ROLL, 1000L)).isFalse();
+		Assertions.assertThat(_exposure.add("12a", StyleConstants.THREE_NUM, TypesConstants.ROLL, 1000L)).isFalse();
+		Assertions.assertThat(_exposure.top(1)).extracting(NumberExposure::getNumber).containsExactly("999");
+		Assertions.assertThat(_exposure.top(10)).extracting(NumberExposure::getNumber).containsExactly("999", "05");
+	}
+}
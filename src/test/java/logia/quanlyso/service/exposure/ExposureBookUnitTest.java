@@ -0,0 +1,110 @@
+package logia.quanlyso.service.exposure;
+
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import logia.quanlyso.domain.Channel;
+import logia.quanlyso.domain.Factor;
+import logia.quanlyso.domain.ProfitFactor;
+import logia.quanlyso.domain.Style;
+import logia.quanlyso.domain.StyleConstants;
+import logia.quanlyso.domain.TransactionDetails;
+import logia.quanlyso.domain.Transactions;
+import logia.quanlyso.domain.Types;
+import logia.quanlyso.domain.TypesConstants;
+import logia.quanlyso.repository.CodeRepository;
+import logia.quanlyso.repository.ProfitFactorRepository;
+import logia.quanlyso.repository.TransactionDetailsRepository;
+import logia.quanlyso.service.settlement.DrawIndex;
+import logia.quanlyso.service.settlement.DrawIndexCache;
+import logia.quanlyso.service.settlement.DrawKey;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Test class for the ExposureBook.
+ *
+ * @see ExposureBook
+ */
+public class ExposureBookUnitTest {
+
+	/** The draw. */
+	private static final DrawKey	DRAW_KEY	= DrawKey.of(1L,
+	        ZonedDateTime.of(2017, 7, 1, 0, 0, 0, 0, DateFormatterUtil.systemZoneId()));
+
+	/**
+	 * Test a stake committed while its draw is loaded is counted once, the draw loaded again once the
+	 * stake is applied.
+	 */
+	@Test
+	public void testStakeCommittedDuringLoad() {
+		TransactionDetailsRepository _transactionDetailsRepository = Mockito.mock(TransactionDetailsRepository.class);
+		ProfitFactorRepository _profitFactorRepository = Mockito.mock(ProfitFactorRepository.class);
+		ProfitFactor _profitFactor = new ProfitFactor();
+		_profitFactor.setRate(75f);
+		Mockito.when(_profitFactorRepository.findOneByFactorsAndStylesAndTypes(Mockito.any(), Mockito.any(),
+		        Mockito.any())).thenReturn(_profitFactor);
+		ExposureBook _book = new ExposureBook(_transactionDetailsRepository, _profitFactorRepository,
+		        Mockito.mock(CodeRepository.class), Mockito.mock(DrawIndexCache.class));
+		TransactionDetails _details = ExposureBookUnitTest.details();
+		long _perHit = _book.perHit(_details);
+
+		// The stake is announced, then committed while the draw is loaded
+		AtomicInteger _loads = new AtomicInteger();
+		_book.begin(ExposureBookUnitTest.DRAW_KEY);
+		Mockito.when(_transactionDetailsRepository.findOpenByChannelsIdAndOpenDateBetween(Mockito.any(), Mockito.any(),
+		        Mockito.any())).thenAnswer(__invocation -> {
+			        _loads.incrementAndGet();
+			        return Collections.singletonList(_details);
+		        });
+		Assertions.assertThat(_book.get(ExposureBookUnitTest.DRAW_KEY).top(1)).hasSize(1);
+		_book.update(ExposureBookUnitTest.DRAW_KEY,
+		        __exposure -> __exposure.add("05", StyleConstants.TWO_NUM, TypesConstants.ROLL, _perHit));
+
+		DrawExposure _expected = DrawExposure.of(DrawIndex.EMPTY);
+		_expected.add("05", StyleConstants.TWO_NUM, TypesConstants.ROLL, _perHit);
+		Assertions.assertThat(_book.get(ExposureBookUnitTest.DRAW_KEY).top(1).get(0).getLiability())
+		        .isEqualTo(_expected.top(1).get(0).getLiability());
+		int _loadsWhilePending = _loads.get();
+		// Cached once the stake is applied
+		_book.get(ExposureBookUnitTest.DRAW_KEY);
+		Assertions.assertThat(_loads.get()).isEqualTo(_loadsWhilePending);
+
+		// A stake applied to the cached draw
+		_book.begin(ExposureBookUnitTest.DRAW_KEY);
+		_book.update(ExposureBookUnitTest.DRAW_KEY,
+		        __exposure -> __exposure.add("05", StyleConstants.TWO_NUM, TypesConstants.ROLL, _perHit));
+		Assertions.assertThat(_book.get(ExposureBookUnitTest.DRAW_KEY).top(1).get(0).getLiability())
+		        .isEqualTo(2 * _expected.top(1).get(0).getLiability());
+	}
+
+	/**
+	 * Create an open detail of 1 on 05, rolled.
+	 *
+	 * @return the transaction details
+	 */
+	private static TransactionDetails details() {
+		Transactions _transactions = new Transactions().openDate(ExposureBookUnitTest.DRAW_KEY.getOpenDate());
+		_transactions.setChosenNumber("05");
+		Channel _channel = new Channel();
+		_channel.setId(1L);
+		Factor _factor = new Factor();
+		_factor.setId(1L);
+		Style _style = new Style();
+		_style.setId(StyleConstants.TWO_NUM.getId());
+		Types _types = new Types();
+		_types.setId(TypesConstants.ROLL.getId());
+		TransactionDetails _details = new TransactionDetails();
+		_details.setAmount(1000L);
+		_details.setChannels(_channel);
+		_details.setFactors(_factor);
+		_details.setStyles(_style);
+		_details.setTypes(_types);
+		_transactions.addTransactionDetails(_details);
+		return _details;
+	}
+}
@@ -0,0 +1,158 @@
+package logia.quanlyso.service.history;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import logia.quanlyso.domain.DrawResult;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Test class for the results file.
+ *
+ * @see ResultsFile
+ */
+public class ResultsFileUnitTest {
+
+	/** The first day. */
+	private static final LocalDate	DAY	= LocalDate.of(2017, 7, 1);
+
+	/** The path. */
+	private Path					path;
+
+	/**
+	 * Create the file path.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Before
+	public void setup() throws IOException {
+		this.path = Files.createTempFile("results", ".dat");
+	}
+
+	/**
+	 * Delete the file.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(this.path);
+	}
+
+	/**
+	 * Test the numbers of a channel are scanned by day, with their prize ranks and leading zeros.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Test
+	public void testScanChannel() throws IOException {
+		try (ResultsFile.Writer writer = new ResultsFile.Writer(this.path)) {
+			writer.append(ResultsFileUnitTest.draw(1L, 0, new DrawResult.Prize("giai8", Arrays.asList("47")),
+			        new DrawResult.Prize("giaidb", Arrays.asList("725904"))));
+			writer.append(ResultsFileUnitTest.draw(1L, 7, new DrawResult.Prize("giai8", Arrays.asList("05"))));
+			writer.append(DrawResult.ofCodes(2L, ResultsFileUnitTest.openDate(0), Arrays.asList("390", "...")));
+			writer.append(ResultsFileUnitTest.draw(3L, 1, new DrawResult.Prize("giai7", Arrays.asList("11", "22"))));
+		}
+
+		ResultsFile resultsFile = ResultsFile.open(this.path);
+		Assertions.assertThat(resultsFile.size()).isEqualTo(6);
+
+		List<String> numbers = new ArrayList<>();
+		int visited = resultsFile.scan(1L, (epochDay, rank, digits, number) -> numbers
+		        .add(LocalDate.ofEpochDay(epochDay) + " " + rank + " " + String.format("%0" + digits + "d", number)));
+		Assertions.assertThat(visited).isEqualTo(3);
+		Assertions.assertThat(numbers).containsExactly("2017-07-01 8 47", "2017-07-01 0 725904", "2017-07-08 8 05");
+
+		// Unknown tier, and a number still being drawn skipped
+		numbers.clear();
+		resultsFile.scan(2L, (epochDay, rank, digits, number) -> numbers.add(rank + " " + number));
+		Assertions.assertThat(numbers).containsExactly("-1 390");
+
+		// A window of days
+		long day = ResultsFileUnitTest.DAY.toEpochDay();
+		Assertions.assertThat(resultsFile.scan(1L, day + 1, day + 7, (epochDay, rank, digits, number) -> {
+		})).isEqualTo(1);
+		Assertions.assertThat(resultsFile.scan(3L, day, day, (epochDay, rank, digits, number) -> {
+		})).isZero();
+		Assertions.assertThat(resultsFile.scan(4L, (epochDay, rank, digits, number) -> {
+		})).isZero();
+	}
+
+	/**
+	 * Test draws are filed under their day in the system zone, whatever the zone of their open date.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Test
+	public void testDaysInSystemZone() throws IOException {
+		try (ResultsFile.Writer writer = new ResultsFile.Writer(this.path)) {
+			writer.append(DrawResult.ofCodes(1L, ResultsFileUnitTest.openDate(0).withZoneSameInstant(ZoneOffset.UTC),
+			        Arrays.asList("47")));
+			writer.append(DrawResult.ofCodes(1L, ResultsFileUnitTest.openDate(1).withZoneSameInstant(ZoneOffset.UTC),
+			        Arrays.asList("05")));
+		}
+
+		List<String> numbers = new ArrayList<>();
+		ResultsFile.open(this.path).scan(1L,
+		        (epochDay, rank, digits, number) -> numbers.add(LocalDate.ofEpochDay(epochDay) + " " + number));
+		Assertions.assertThat(numbers).containsExactly("2017-07-01 47", "2017-07-02 5");
+	}
+
+	/**
+	 * Test draws must be appended by channel and day.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testDrawsOutOfOrder() throws IOException {
+		try (ResultsFile.Writer writer = new ResultsFile.Writer(this.path)) {
+			writer.append(ResultsFileUnitTest.draw(2L, 0, new DrawResult.Prize("giai8", Arrays.asList("47"))));
+			writer.append(ResultsFileUnitTest.draw(1L, 1, new DrawResult.Prize("giai8", Arrays.asList("47"))));
+		}
+	}
+
+	/**
+	 * Test a file that is not a results file is refused.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Test(expected = IOException.class)
+	public void testUnknownFormat() throws IOException {
+		Files.write(this.path, new byte[32]);
+		ResultsFile.open(this.path);
+	}
+
+	/**
+	 * Create a draw.
+	 *
+	 * @param channelId the channel id
+	 * @param days the days after the first day
+	 * @param prizes the prizes
+	 * @return the draw result
+	 */
+	private static DrawResult draw(Long channelId, int days, DrawResult.Prize... prizes) {
+		return new DrawResult(channelId, ResultsFileUnitTest.openDate(days), Arrays.asList(prizes));
+	}
+
+	/**
+	 * Gets the open date of a day.
+	 *
+	 * @param days the days after the first day
+	 * @return the open date
+	 */
+	private static ZonedDateTime openDate(int days) {
+		return ResultsFileUnitTest.DAY.plusDays(days).atStartOfDay(DateFormatterUtil.systemZoneId());
+	}
+}
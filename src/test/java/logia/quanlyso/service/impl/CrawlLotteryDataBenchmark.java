@@ -0,0 +1,134 @@
+package logia.quanlyso.service.impl;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.codahale.metrics.MetricRegistry;
+
+import logia.quanlyso.client.HtmlUnitLotteryPageCrawler;
+import logia.quanlyso.client.HttpLotteryPageCrawler;
+import logia.quanlyso.client.LotteryPage;
+import logia.quanlyso.client.LotteryPageCrawler;
+import logia.quanlyso.client.LotteryPageFixtureServer;
+import logia.quanlyso.client.WebClientPool;
+import logia.quanlyso.config.ApplicationProperties;
+import logia.quanlyso.domain.Channel;
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Benchmark of reading a results page into codes, for each crawler mode and page layout.
+ * <p>
+ * A page is crawled from the fixture server and turned into codes by
+ * {@link CodeServiceImpl#crawlLotteryData}, as a channel crawl does before saving. The score is
+ * in pages per second; run with the GC profiler, {@code gc.alloc.rate.norm} is the allocation
+ * per page. Run with {@code ./mvnw -Pdev,benchmark process-test-classes}, or {@link #main}.
+ * </p>
+ *
+ * @author Dai Mai
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CrawlLotteryDataBenchmark {
+
+	/** The crawler mode. */
+	@Param({ "HTTP", "HTMLUNIT" })
+	private ApplicationProperties.Crawler.Mode	mode;
+
+	/** The page, after the base url. */
+	@Param({ "/mien-bac/01-07-2017.js", "/tp-hcm/01-07-2017.js" })
+	private String								page;
+
+	/** The fixture server. */
+	private LotteryPageFixtureServer			server;
+
+	/** The crawler. */
+	private LotteryPageCrawler					crawler;
+
+	/** The url of the page. */
+	private String								url;
+
+	/** The channel. */
+	private final Channel						channel	= new Channel().code("benchmark");
+
+	/** The open day. */
+	private final ZonedDateTime					openDay	= DateFormatterUtil
+	        .fromDDMMYYYYStringToZonedDateTime("01-07-2017");
+
+	/**
+	 * Start the fixture server and the crawler.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		this.server = new LotteryPageFixtureServer();
+		this.url = this.server.getBaseUrl() + this.page;
+		if (this.mode == ApplicationProperties.Crawler.Mode.HTMLUNIT) {
+			this.crawler = new HtmlUnitLotteryPageCrawler(new WebClientPool(1, 5000, 5000L, new MetricRegistry()));
+		}
+		else {
+			this.crawler = new HttpLotteryPageCrawler(1, 5000);
+		}
+	}
+
+	/**
+	 * Stop the crawler and the fixture server.
+	 *
+	 * @throws Exception the exception
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		((AutoCloseable) this.crawler).close();
+		this.server.close();
+	}
+
+	/**
+	 * Crawl the page into codes.
+	 *
+	 * @return the codes
+	 * @throws Exception the exception
+	 */
+	@Benchmark
+	public List<Code> crawlPage() throws Exception {
+		LotteryPage _page = this.crawler.crawl(this.url);
+		List<Code> _codes = new ArrayList<>();
+		CodeServiceImpl.crawlLotteryData(_page, this.channel, this.openDay, _codes);
+		return _codes;
+	}
+
+	/**
+	 * Run the benchmark with the GC profiler.
+	 *
+	 * @param args the arguments
+	 * @throws RunnerException the runner exception
+	 */
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(CrawlLotteryDataBenchmark.class.getSimpleName())
+		        .addProfiler(GCProfiler.class).build()).run();
+	}
+}
@@ -0,0 +1,56 @@
+package logia.quanlyso.service.settlement;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.domain.DrawResult;
+import logia.quanlyso.repository.DrawResultRepository;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Test class for the DrawIndexCache.
+ *
+ * @see DrawIndexCache
+ */
+public class DrawIndexCacheUnitTest {
+
+	/** The draw. */
+	private static final DrawKey DRAW_KEY = DrawKey.of(1L,
+	        ZonedDateTime.of(2017, 7, 1, 0, 0, 0, 0, DateFormatterUtil.systemZoneId()));
+
+	/**
+	 * Test an index evicted inside a transaction stays cached until the transaction commits.
+	 */
+	@Test
+	public void testEvictAfterCommit() {
+		DrawResultRepository _drawResultRepository = Mockito.mock(DrawResultRepository.class);
+		Mockito.when(_drawResultRepository.findOne(Mockito.any(), Mockito.any()))
+		        .thenReturn(new DrawResult(1L, DrawIndexCacheUnitTest.DRAW_KEY.getOpenDate(), Collections.emptyList()));
+		DrawIndexCache _cache = new DrawIndexCache(_drawResultRepository);
+		_cache.refresh(DrawIndexCacheUnitTest.DRAW_KEY, Arrays.asList(new Code().code("123456")));
+		DrawIndex _index = _cache.get(DrawIndexCacheUnitTest.DRAW_KEY);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			_cache.evict(DrawIndexCacheUnitTest.DRAW_KEY);
+			Assertions.assertThat(_cache.get(DrawIndexCacheUnitTest.DRAW_KEY)).isSameAs(_index);
+
+			for (TransactionSynchronization _synchronization : TransactionSynchronizationManager
+			        .getSynchronizations()) {
+				_synchronization.afterCommit();
+			}
+		}
+		finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		Assertions.assertThat(_cache.get(DrawIndexCacheUnitTest.DRAW_KEY).isEmpty()).isTrue();
+	}
+}
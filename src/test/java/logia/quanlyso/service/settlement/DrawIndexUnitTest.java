@@ -0,0 +1,150 @@
+package logia.quanlyso.service.settlement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.domain.Style;
+import logia.quanlyso.domain.StyleConstants;
+import logia.quanlyso.domain.Types;
+import logia.quanlyso.domain.TypesConstants;
+
+/**
+ * Test class for the DrawIndex settlement structure.
+ *
+ * @see DrawIndex
+ */
+public class DrawIndexUnitTest {
+
+	/**
+	 * Test hits match a scan of the codes.
+	 */
+	@Test
+	public void testHitsMatchScanOfCodes() {
+		Random _random = new Random(42L);
+		List<Code> _codes = new ArrayList<>();
+		for (int _length : new int[] { 2, 2, 2, 2, 3, 3, 3, 4, 4, 4, 4, 5, 5, 5, 5, 5, 5, 6 }) {
+			_codes.add(new Code().code(DrawIndexUnitTest.randomNumber(_random, _length)));
+		}
+		DrawIndex _index = DrawIndex.of(_codes);
+
+		for (int _i = 0; _i < 2000; _i++) {
+			String _chosenNumber = DrawIndexUnitTest.randomNumber(_random, 1 + _random.nextInt(4));
+			for (StyleConstants _style : StyleConstants.values()) {
+				for (TypesConstants _types : TypesConstants.values()) {
+					Assertions.assertThat(_index.hits(_chosenNumber, DrawIndexUnitTest.style(_style),
+					        DrawIndexUnitTest.types(_types)))
+					        .as("%s %s %s", _chosenNumber, _style, _types)
+					        .isEqualTo(DrawIndexUnitTest.scan(_codes, _chosenNumber, _style, _types));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Test a code is counted once even if it contains the chosen number twice.
+	 */
+	@Test
+	public void testCodeCountedOnce() {
+		DrawIndex _index = DrawIndex.ofNumbers(Arrays.asList("272727", "27", "127"));
+		Assertions.assertThat(_index.hits("27", DrawIndex.Bucket.ROLL)).isEqualTo(3);
+		Assertions.assertThat(_index.hits("27", DrawIndex.Bucket.BOTTOM)).isEqualTo(1);
+		Assertions.assertThat(_index.hits("27", DrawIndex.Bucket.TOP_TWO)).isEqualTo(1);
+		Assertions.assertThat(_index.hits("27", DrawIndex.Bucket.TOP_THREE)).isEqualTo(1);
+		Assertions.assertThat(_index.hits("99", DrawIndex.Bucket.ROLL)).isEqualTo(0);
+	}
+
+	/**
+	 * Test empty draw.
+	 */
+	@Test
+	public void testEmptyDraw() {
+		Assertions.assertThat(DrawIndex.of(new ArrayList<>())).isSameAs(DrawIndex.EMPTY);
+		Assertions.assertThat(DrawIndex.EMPTY.isEmpty()).isTrue();
+		Assertions.assertThat(DrawIndex.EMPTY.hits("01", DrawIndex.Bucket.ROLL)).isEqualTo(0);
+	}
+
+	/**
+	 * Counts the hits the way settlement used to, by scanning the codes.
+	 *
+	 * @param __codes the codes
+	 * @param __chosenNumber the chosen number
+	 * @param __style the style
+	 * @param __types the types
+	 * @return the number of hits
+	 */
+	private static int scan(List<Code> __codes, String __chosenNumber, StyleConstants __style,
+	        TypesConstants __types) {
+		int _hits = 0;
+		for (Code _code : __codes) {
+			int _length = _code.getCode().length();
+			boolean _top = (__style == StyleConstants.TWO_NUM && _length == 2)
+			        || (__style == StyleConstants.THREE_NUM && _length == 3);
+			boolean _bottom = _length == 6;
+			boolean _candidate;
+			switch (__types) {
+				case TOP:
+					_candidate = _top;
+					break;
+				case BOTH:
+					_candidate = _top || _bottom;
+					break;
+				case BOTTOM:
+					_candidate = _bottom;
+					break;
+				default:
+					_candidate = true;
+					break;
+			}
+			if (_candidate && _code.getCode().contains(__chosenNumber)) {
+				_hits++;
+			}
+		}
+		return _hits;
+	}
+
+	/**
+	 * Random number.
+	 *
+	 * @param __random the random
+	 * @param __length the length
+	 * @return the string
+	 */
+	private static String randomNumber(Random __random, int __length) {
+		StringBuilder _builder = new StringBuilder();
+		for (int _i = 0; _i < __length; _i++) {
+			// Few digits so that chosen numbers often hit
+			_builder.append(__random.nextInt(3));
+		}
+		return _builder.toString();
+	}
+
+	/**
+	 * Style.
+	 *
+	 * @param __constant the constant
+	 * @return the style
+	 */
+	private static Style style(StyleConstants __constant) {
+		Style _style = new Style();
+		_style.setId(__constant.getId());
+		return _style;
+	}
+
+	/**
+	 * Types.
+	 *
+	 * @param __constant the constant
+	 * @return the types
+	 */
+	private static Types types(TypesConstants __constant) {
+		Types _types = new Types();
+		_types.setId(__constant.getId());
+		return _types;
+	}
+}
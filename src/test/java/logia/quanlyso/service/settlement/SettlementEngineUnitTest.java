@@ -0,0 +1,158 @@
+package logia.quanlyso.service.settlement;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import logia.quanlyso.domain.Channel;
+import logia.quanlyso.domain.Factor;
+import logia.quanlyso.domain.Style;
+import logia.quanlyso.domain.StyleConstants;
+import logia.quanlyso.domain.TransactionDetails;
+import logia.quanlyso.domain.Transactions;
+import logia.quanlyso.domain.Types;
+import logia.quanlyso.domain.TypesConstants;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Test class for the SettlementEngine.
+ *
+ * @see SettlementEngine
+ */
+public class SettlementEngineUnitTest {
+
+	/** The number of channels. */
+	private static final int			CHANNELS	= 4;
+
+	/** The number of days. */
+	private static final int			DAYS		= 3;
+
+	/** The first day. */
+	private static final ZonedDateTime	FIRST_DAY	= ZonedDateTime.of(2017, 7, 1, 0, 0, 0, 0,
+	        DateFormatterUtil.systemZoneId());
+
+	/**
+	 * Test parallel settlement is identical to serial settlement.
+	 */
+	@Test
+	public void testParallelSettlementMatchesSerial() {
+		SettlementContext _context = SettlementEngineUnitTest.randomContext(new Random(7L));
+		List<Transactions> _serial = SettlementEngineUnitTest.randomTransactions(new Random(11L), 5000);
+		List<Transactions> _parallel = SettlementEngineUnitTest.randomTransactions(new Random(11L), 5000);
+
+		new SettlementEngine(1, Integer.MAX_VALUE).settle(_serial, SettlementContext.drawDaysOf(_serial), _context);
+		SettlementEngine _engine = new SettlementEngine(4, 0);
+		try {
+			_engine.settle(_parallel, SettlementContext.drawDaysOf(_parallel), _context);
+		}
+		finally {
+			_engine.destroy();
+		}
+
+		for (int _i = 0; _i < _serial.size(); _i++) {
+			Transactions _expected = _serial.get(_i);
+			Transactions _actual = _parallel.get(_i);
+			Assertions.assertThat(_actual.getNetValue()).as("net value of transaction %d", _i)
+			        .isEqualTo(_expected.getNetValue());
+
+			Map<Long, TransactionDetails> _expectedDetails = new HashMap<>();
+			_expected.getTransactionDetails().forEach(__details -> _expectedDetails.put(__details.getId(), __details));
+			for (TransactionDetails _details : _actual.getTransactionDetails()) {
+				TransactionDetails _expectedDetail = _expectedDetails.get(_details.getId());
+				Assertions.assertThat(_details.getCosts()).isEqualTo(_expectedDetail.getCosts());
+				Assertions.assertThat(_details.getProfit()).isEqualTo(_expectedDetail.getProfit());
+			}
+		}
+	}
+
+	/**
+	 * Random context.
+	 *
+	 * @param __random the random
+	 * @return the settlement context
+	 */
+	private static SettlementContext randomContext(Random __random) {
+		Map<DrawKey, DrawIndex> _draws = new HashMap<>();
+		for (long _channelId = 1; _channelId <= SettlementEngineUnitTest.CHANNELS; _channelId++) {
+			for (int _day = 0; _day < SettlementEngineUnitTest.DAYS; _day++) {
+				List<String> _codes = new ArrayList<>();
+				for (int _length : new int[] { 2, 3, 4, 4, 4, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 6 }) {
+					_codes.add(SettlementEngineUnitTest.randomNumber(__random, _length));
+				}
+				_draws.put(DrawKey.of(_channelId, SettlementEngineUnitTest.FIRST_DAY.plusDays(_day)),
+				        DrawIndex.ofNumbers(_codes));
+			}
+		}
+		Map<RateKey, SettlementRate> _rates = new HashMap<>();
+		for (long _factorId = 1; _factorId <= 2; _factorId++) {
+			for (StyleConstants _style : StyleConstants.values()) {
+				for (TypesConstants _types : TypesConstants.values()) {
+					_rates.put(new RateKey(_factorId, _style.getId(), _types.getId()),
+					        new SettlementRate(6000L + __random.nextInt(2000), 100000L + __random.nextInt(7000000)));
+				}
+			}
+		}
+		return new SettlementContext(_draws, _rates);
+	}
+
+	/**
+	 * Random transactions.
+	 *
+	 * @param __random the random
+	 * @param __count the count
+	 * @return the list
+	 */
+	private static List<Transactions> randomTransactions(Random __random, int __count) {
+		List<Transactions> _result = new ArrayList<>();
+		long _detailId = 0;
+		for (int _i = 0; _i < __count; _i++) {
+			Transactions _transactions = new Transactions()
+			        .chosenNumber(SettlementEngineUnitTest.randomNumber(__random, 2 + __random.nextInt(2)))
+			        .openDate(SettlementEngineUnitTest.FIRST_DAY.plusDays(__random.nextInt(SettlementEngineUnitTest.DAYS))
+			                .plusHours(__random.nextInt(24)));
+			int _details = 1 + __random.nextInt(4);
+			for (int _j = 0; _j < _details; _j++) {
+				Channel _channel = new Channel();
+				_channel.setId(1L + __random.nextInt(SettlementEngineUnitTest.CHANNELS));
+				Factor _factor = new Factor();
+				_factor.setId(1L + __random.nextInt(2));
+				Style _style = new Style();
+				_style.setId(StyleConstants.values()[__random.nextInt(StyleConstants.values().length)].getId());
+				Types _types = new Types();
+				_types.setId(TypesConstants.values()[__random.nextInt(TypesConstants.values().length)].getId());
+				TransactionDetails _transactionDetails = new TransactionDetails()
+				        .amount(1000L + __random.nextInt(100000000));
+				_transactionDetails.setId(++_detailId);
+				_transactionDetails.setChannels(_channel);
+				_transactionDetails.setFactors(_factor);
+				_transactionDetails.setStyles(_style);
+				_transactionDetails.setTypes(_types);
+				_transactions.addTransactionDetails(_transactionDetails);
+			}
+			_result.add(_transactions);
+		}
+		return _result;
+	}
+
+	/**
+	 * Random number.
+	 *
+	 * @param __random the random
+	 * @param __length the length
+	 * @return the string
+	 */
+	private static String randomNumber(Random __random, int __length) {
+		StringBuilder _builder = new StringBuilder();
+		for (int _i = 0; _i < __length; _i++) {
+			// Few digits so that chosen numbers often hit
+			_builder.append(__random.nextInt(4));
+		}
+		return _builder.toString();
+	}
+}
@@ -21,11 +21,14 @@ import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.jayway.jsonpath.JsonPath;
+
 import logia.quanlyso.QuanlysoApp;
 import logia.quanlyso.domain.Code;
 import logia.quanlyso.repository.CodeRepository;
@@ -182,6 +185,45 @@ public class CodeResourceIntTest {
 		.andExpect(MockMvcResultMatchers.status().isNotFound());
 	}
 
+	@Test
+	public void startCrawlAndWaitForIt() throws Exception {
+		// Start a crawl of no channel, done at once
+		MvcResult started = this.restCodeMockMvc.perform(MockMvcRequestBuilders.post("/api/codes/crawl")
+				.contentType(TestUtil.APPLICATION_JSON_UTF8)
+				.content("{\"channelCodes\":[]}"))
+		.andExpect(MockMvcResultMatchers.status().isAccepted())
+		.andExpect(MockMvcResultMatchers.header().string("Location", Matchers.startsWith("/api/codes/crawl/")))
+		.andExpect(MockMvcResultMatchers.jsonPath("$.total").value(0))
+		.andReturn();
+		String id = JsonPath.read(started.getResponse().getContentAsString(), "$.id");
+
+		// Long-poll the crawl job
+		MvcResult polled = this.restCodeMockMvc.perform(MockMvcRequestBuilders.get("/api/codes/crawl/{id}", id)
+				.param("processed", "0"))
+		.andExpect(MockMvcResultMatchers.request().asyncStarted())
+		.andReturn();
+		this.restCodeMockMvc.perform(MockMvcRequestBuilders.asyncDispatch(polled))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("$.id").value(id))
+		.andExpect(MockMvcResultMatchers.jsonPath("$.endTime").isNotEmpty());
+	}
+
+	@Test
+	public void awaitNonExistingCrawlJob() throws Exception {
+		MvcResult polled = this.restCodeMockMvc.perform(MockMvcRequestBuilders.get("/api/codes/crawl/{id}", "unknown")
+				.param("processed", "0"))
+		.andReturn();
+		this.restCodeMockMvc.perform(MockMvcRequestBuilders.asyncDispatch(polled))
+		.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+
+	@Test
+	public void getNonExistingCrawlJob() throws Exception {
+		// Get the crawl job
+		this.restCodeMockMvc.perform(MockMvcRequestBuilders.get("/api/codes/crawl/{id}", "unknown"))
+		.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+
 	@Test
 	@Transactional
 	public void updateCode() throws Exception {
@@ -0,0 +1,139 @@
+package logia.quanlyso.web.rest;
+
+import java.time.ZonedDateTime;
+
+import javax.persistence.EntityManager;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import logia.quanlyso.QuanlysoApp;
+import logia.quanlyso.domain.Channel;
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.domain.Factor;
+import logia.quanlyso.domain.Style;
+import logia.quanlyso.domain.TransactionDetails;
+import logia.quanlyso.domain.Transactions;
+import logia.quanlyso.domain.Types;
+import logia.quanlyso.service.ExposureService;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Test class for the ExposureResource REST controller.
+ *
+ * @see ExposureResource
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuanlysoApp.class)
+public class ExposureResourceIntTest {
+
+	/** The draw day, never closed by other tests. */
+	private static final ZonedDateTime				DRAW_DAY	= ZonedDateTime.of(2017, 8, 2, 0, 0, 0, 0,
+	        DateFormatterUtil.systemZoneId());
+
+	/** The exposure service. */
+	@Autowired
+	private ExposureService							exposureService;
+
+	/** The jackson message converter. */
+	@Autowired
+	private MappingJackson2HttpMessageConverter		jacksonMessageConverter;
+
+	/** The em. */
+	@Autowired
+	private EntityManager							em;
+
+	/** The rest exposure mock mvc. */
+	private MockMvc									restExposureMockMvc;
+
+	/**
+	 * Setup.
+	 */
+	@Before
+	public void setup() {
+		ExposureResource exposureResource = new ExposureResource(this.exposureService);
+		this.restExposureMockMvc = MockMvcBuilders.standaloneSetup(exposureResource)
+		        .setMessageConverters(this.jacksonMessageConverter).build();
+	}
+
+	/**
+	 * Get the top exposures of a draw.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	@Transactional
+	public void getTopExposures() throws Exception {
+		// A previous draw of 2 codes gives the most hits of a roll
+		Channel channel = this.em.find(Channel.class, 1L);
+		this.em.persist(new Code().code("12").openDate(ExposureResourceIntTest.DRAW_DAY.minusDays(7)).channels(channel));
+		this.em.persist(new Code().code("345678").openDate(ExposureResourceIntTest.DRAW_DAY.minusDays(7)).channels(channel));
+
+		this.persistTransactions("01", 1000L, channel, 1L);
+		this.persistTransactions("01", 2000L, channel, 1L);
+		this.persistTransactions("02", 2000L, channel, 4L);
+		// Settled, not exposed
+		this.persistTransactions("03", 9000L, channel, 4L).setNetValue(0L);
+		this.em.flush();
+
+		// 75 per unit per hit, top: 1 code; roll: 2 codes
+		this.restExposureMockMvc
+		        .perform(MockMvcRequestBuilders.get("/api/exposures?channelId={channelId}&date={date}&size=5",
+		                channel.getId(), "2017-08-02"))
+		        .andExpect(MockMvcResultMatchers.status().isOk())
+		        .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].number").value("02"))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].liability").value(300.0))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[1].number").value("01"))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[1].liability").value(225.0));
+	}
+
+	/**
+	 * Refuse a size that is not positive, and cut a size above the number of chosen numbers.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	@Transactional
+	public void getTopExposuresWithOutOfRangeSize() throws Exception {
+		this.restExposureMockMvc
+		        .perform(MockMvcRequestBuilders.get("/api/exposures?channelId={channelId}&date={date}&size=0", 1L,
+		                "2017-08-02"))
+		        .andExpect(MockMvcResultMatchers.status().isBadRequest());
+		this.restExposureMockMvc
+		        .perform(MockMvcRequestBuilders.get("/api/exposures?channelId={channelId}&date={date}&size={size}", 1L,
+		                "2017-08-02", Integer.MAX_VALUE))
+		        .andExpect(MockMvcResultMatchers.status().isOk());
+	}
+
+	/**
+	 * Persist an open transaction of the draw day with one detail.
+	 *
+	 * @param chosenNumber the chosen number
+	 * @param amount the amount, in thousandths
+	 * @param channel the channel
+	 * @param typesId the types id
+	 * @return the transactions
+	 */
+	private Transactions persistTransactions(String chosenNumber, Long amount, Channel channel, Long typesId) {
+		Transactions transactions = new Transactions().chosenNumber(chosenNumber)
+		        .openDate(ExposureResourceIntTest.DRAW_DAY.plusHours(10));
+		this.em.persist(transactions);
+		TransactionDetails details = new TransactionDetails().amount(amount).channels(channel)
+		        .factors(this.em.find(Factor.class, 1L)).styles(this.em.find(Style.class, 1L))
+		        .types(this.em.find(Types.class, typesId));
+		transactions.addTransactionDetails(details);
+		this.em.persist(details);
+		return transactions;
+	}
+}
@@ -0,0 +1,202 @@
+package logia.quanlyso.web.rest;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import logia.quanlyso.QuanlysoApp;
+import logia.quanlyso.domain.Channel;
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.domain.DrawResult;
+import logia.quanlyso.repository.ChannelRepository;
+import logia.quanlyso.repository.CodeRepository;
+import logia.quanlyso.repository.DrawResultRepository;
+import logia.quanlyso.service.NumberStatsService;
+import logia.quanlyso.service.ResultsFileService;
+import logia.quanlyso.service.settlement.DrawKey;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Test class for the NumberStatsResource REST controller.
+ * <p>
+ * Not transactional: the results file is exported from committed draws.
+ * </p>
+ *
+ * @see NumberStatsResource
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuanlysoApp.class)
+public class NumberStatsResourceIntTest {
+
+	/** The channel repository. */
+	@Autowired
+	private ChannelRepository					channelRepository;
+
+	/** The code repository. */
+	@Autowired
+	private CodeRepository						codeRepository;
+
+	/** The draw result repository. */
+	@Autowired
+	private DrawResultRepository				drawResultRepository;
+
+	/** The results file service. */
+	@Autowired
+	private ResultsFileService					resultsFileService;
+
+	/** The number stats service. */
+	@Autowired
+	private NumberStatsService					numberStatsService;
+
+	/** The jdbc template. */
+	@Autowired
+	private JdbcTemplate						jdbcTemplate;
+
+	/** The jackson message converter. */
+	@Autowired
+	private MappingJackson2HttpMessageConverter	jacksonMessageConverter;
+
+	/** The rest number stats mock mvc. */
+	private MockMvc								restNumberStatsMockMvc;
+
+	/** The channel. */
+	private Channel								channel;
+
+	/** The today. */
+	private LocalDate							today;
+
+	/**
+	 * Save a draw of 10 days ago, exported to the results file, and a draw of yesterday.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Before
+	public void setup() throws Exception {
+		NumberStatsResource numberStatsResource = new NumberStatsResource(this.numberStatsService);
+		this.restNumberStatsMockMvc = MockMvcBuilders.standaloneSetup(numberStatsResource)
+		        .setMessageConverters(this.jacksonMessageConverter).build();
+
+		this.channel = this.channelRepository.saveAndFlush(new Channel().name("Stats").code("STATS"));
+		this.today = LocalDate.now(DateFormatterUtil.systemZoneId());
+		this.save(this.today.minusDays(10), "27", "725927");
+		this.resultsFileService.export();
+		this.save(this.today.minusDays(1), "13", "100927");
+	}
+
+	/**
+	 * Remove the channel, its codes and its draw results.
+	 */
+	@After
+	public void tearDown() {
+		this.jdbcTemplate.update("delete from draw_result where channels_id = ?", this.channel.getId());
+		this.jdbcTemplate.update("delete from code where channels_id = ?", this.channel.getId());
+		this.channelRepository.delete(this.channel.getId());
+	}
+
+	/**
+	 * Get the frequency of a suffix at the bottom, over windows of days.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void getFrequency() throws Exception {
+		this.restNumberStatsMockMvc
+		        .perform(MockMvcRequestBuilders.get(
+		                "/api/number-stats/frequencies?channelId={channelId}&position=BOTTOM&number=27&days=30",
+		                this.channel.getId()))
+		        .andExpect(MockMvcResultMatchers.status().isOk())
+		        .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].number").value("27"))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].count").value(2))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].overdueDays").value(1));
+		this.restNumberStatsMockMvc
+		        .perform(MockMvcRequestBuilders.get(
+		                "/api/number-stats/frequencies?channelId={channelId}&position=BOTTOM&number=27&days=5",
+		                this.channel.getId()))
+		        .andExpect(MockMvcResultMatchers.status().isOk())
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].count").value(1));
+
+		// All suffixes, most drawn first
+		this.restNumberStatsMockMvc
+		        .perform(MockMvcRequestBuilders.get("/api/number-stats/frequencies?channelId={channelId}&digits=3",
+		                this.channel.getId()))
+		        .andExpect(MockMvcResultMatchers.status().isOk())
+		        .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1000))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].number").value("927"))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].count").value(2));
+
+		this.restNumberStatsMockMvc
+		        .perform(MockMvcRequestBuilders.get("/api/number-stats/frequencies?channelId={channelId}&number=2a",
+		                this.channel.getId()))
+		        .andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+
+	/**
+	 * Get the most overdue suffixes, then count a new draw.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void getOverdue() throws Exception {
+		this.restNumberStatsMockMvc
+		        .perform(MockMvcRequestBuilders.get(
+		                "/api/number-stats/overdue?channelId={channelId}&position=TOP&size=100",
+		                this.channel.getId()))
+		        .andExpect(MockMvcResultMatchers.status().isOk())
+		        .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(100))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].number").value("00"))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].lastSeen").isEmpty())
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[98].number").value("27"))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[98].overdueDays").value(10))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[99].number").value("13"));
+
+		// Crawled today
+		this.save(this.today, "27", "000000");
+		this.numberStatsService.count(DrawKey.of(this.channel.getId(), this.today.atStartOfDay(DateFormatterUtil.systemZoneId())));
+		this.restNumberStatsMockMvc
+		        .perform(MockMvcRequestBuilders.get(
+		                "/api/number-stats/overdue?channelId={channelId}&position=TOP&size=100",
+		                this.channel.getId()))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[99].number").value("27"))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[99].overdueDays").value(0));
+
+		this.restNumberStatsMockMvc
+		        .perform(MockMvcRequestBuilders.get("/api/number-stats/overdue?channelId={channelId}&digits=4",
+		                this.channel.getId()))
+		        .andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+
+	/**
+	 * Save a southern draw of a giai8 and a special prize.
+	 *
+	 * @param day the day
+	 * @param top the giai8 number
+	 * @param bottom the special prize number
+	 */
+	private void save(LocalDate day, String top, String bottom) {
+		ZonedDateTime openDate = day.atStartOfDay(DateFormatterUtil.systemZoneId());
+		List<Code> codes = Arrays.asList(top, bottom).stream()
+		        .map(code -> new Code().code(code).openDate(openDate).channels(this.channel))
+		        .collect(Collectors.toList());
+		this.codeRepository.insertAll(codes);
+		this.drawResultRepository.save(new DrawResult(this.channel.getId(), openDate,
+		        Arrays.asList(new DrawResult.Prize("giai8", Arrays.asList(top)),
+		                new DrawResult.Prize("giaidb", Arrays.asList(bottom)))));
+	}
+}
@@ -0,0 +1,265 @@
+package logia.quanlyso.web.rest;
+
+import java.time.ZonedDateTime;
+
+import javax.persistence.EntityManager;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import logia.quanlyso.QuanlysoApp;
+import logia.quanlyso.config.liquibase.PnlRollupSeed;
+import logia.quanlyso.domain.Channel;
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.service.PnlService;
+import logia.quanlyso.service.SettlementService;
+import logia.quanlyso.service.TransactionDetailsService;
+import logia.quanlyso.service.TransactionsService;
+import logia.quanlyso.service.dto.TransactionDetailsDTO;
+import logia.quanlyso.service.dto.TransactionsDTO;
+import logia.quanlyso.service.settlement.DrawKey;
+import logia.quanlyso.service.util.DateFormatterUtil;
+
+/**
+ * Test class for the PnlResource REST controller.
+ *
+ * @see PnlResource
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuanlysoApp.class)
+public class PnlResourceIntTest {
+
+	/** The first draw day, a Monday. */
+	private static final ZonedDateTime			DRAW_DAY	= ZonedDateTime.of(2017, 5, 1, 0, 0, 0, 0,
+	        DateFormatterUtil.systemZoneId());
+
+	/** The user of the transactions. */
+	private static final Long					USER_ID		= 4L;
+
+	/** The pnl service. */
+	@Autowired
+	private PnlService							pnlService;
+
+	/** The transactions service. */
+	@Autowired
+	private TransactionsService					transactionsService;
+
+	/** The transaction details service. */
+	@Autowired
+	private TransactionDetailsService			transactionDetailsService;
+
+	/** The settlement service. */
+	@Autowired
+	private SettlementService					settlementService;
+
+	/** The jackson message converter. */
+	@Autowired
+	private MappingJackson2HttpMessageConverter	jacksonMessageConverter;
+
+	/** The jdbc template. */
+	@Autowired
+	private JdbcTemplate						jdbcTemplate;
+
+	/** The em. */
+	@Autowired
+	private EntityManager						em;
+
+	/** The rest pnl mock mvc. */
+	private MockMvc								restPnlMockMvc;
+
+	/**
+	 * Setup.
+	 */
+	@Before
+	public void setup() {
+		PnlResource pnlResource = new PnlResource(this.pnlService);
+		this.restPnlMockMvc = MockMvcBuilders.standaloneSetup(pnlResource)
+		        .setMessageConverters(this.jacksonMessageConverter).build();
+	}
+
+	/**
+	 * Get the daily, weekly and monthly P&amp;L of saved, settled, updated and deleted transactions.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	@Transactional
+	public void getPnl() throws Exception {
+		Channel channel = this.em.find(Channel.class, 1L);
+		this.em.persist(new Code().code("01").openDate(PnlResourceIntTest.DRAW_DAY).channels(channel));
+		this.em.flush();
+
+		// Monday: a winning and a losing ticket, settled
+		this.saveTransactions("01", PnlResourceIntTest.DRAW_DAY, 1.0f);
+		this.saveTransactions("02", PnlResourceIntTest.DRAW_DAY, 1.0f);
+		this.settlementService.settleOpenTransactions(DrawKey.of(channel.getId(), PnlResourceIntTest.DRAW_DAY));
+		// Wednesday: a ticket raised from 1 to 2
+		TransactionsDTO updated = this.saveTransactions("03", PnlResourceIntTest.DRAW_DAY.plusDays(2), 1.0f);
+		TransactionDetailsDTO details = updated.getTransactionDetailsDTOs().iterator().next();
+		details.setAmount(2.0f);
+		this.transactionDetailsService.save(details);
+		// Next Tuesday: a ticket deleted
+		TransactionsDTO deleted = this.saveTransactions("04", PnlResourceIntTest.DRAW_DAY.plusDays(8), 5.0f);
+		this.transactionsService.delete(deleted.getId());
+
+		this.restPnlMockMvc
+		        .perform(MockMvcRequestBuilders.get("/api/pnl?period=DAILY&fromDate={from}&toDate={to}&userId={userId}",
+		                "2017-05-01", "2017-05-31", PnlResourceIntTest.USER_ID))
+		        .andExpect(MockMvcResultMatchers.status().isOk())
+		        .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].fromDate").value("2017-05-01"))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].details").value(2))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].settled").value(2))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].amount").value(2.0))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].profit").value(75.0))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].costs").value(1.5))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].net").value(73.5))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[1].fromDate").value("2017-05-03"))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[1].details").value(1))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[1].settled").value(0))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[1].amount").value(2.0));
+
+		this.restPnlMockMvc
+		        .perform(MockMvcRequestBuilders.get("/api/pnl?period=WEEKLY&fromDate={from}&toDate={to}&userId={userId}",
+		                "2017-04-28", "2017-05-31", PnlResourceIntTest.USER_ID))
+		        .andExpect(MockMvcResultMatchers.status().isOk())
+		        .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].fromDate").value("2017-05-01"))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].toDate").value("2017-05-07"))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].details").value(3))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].amount").value(4.0));
+
+		this.restPnlMockMvc
+		        .perform(MockMvcRequestBuilders.get(
+		                "/api/pnl?period=MONTHLY&fromDate={from}&toDate={to}&userId={userId}&channelId={channelId}",
+		                "2017-05-02", "2017-05-20", PnlResourceIntTest.USER_ID, channel.getId()))
+		        .andExpect(MockMvcResultMatchers.status().isOk())
+		        .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].fromDate").value("2017-05-02"))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].toDate").value("2017-05-20"))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].details").value(1))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].net").value(0.0));
+	}
+
+	/**
+	 * Get the P&amp;L of a transaction seeded after midnight, on its day in the system zone.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	@Transactional
+	public void getPnlOfSeededTransactions() throws Exception {
+		this.saveTransactionsAt("05", PnlResourceIntTest.DRAW_DAY.plusMinutes(30), 3.0f);
+		this.saveTransactionsAt("06", PnlResourceIntTest.DRAW_DAY.plusHours(23), 3.0f);
+		this.em.flush();
+		this.jdbcTemplate.update("delete from pnl_rollup");
+
+		new PnlRollupSeed().seed(this.jdbcTemplate);
+
+		this.restPnlMockMvc
+		        .perform(MockMvcRequestBuilders.get("/api/pnl?period=DAILY&fromDate={from}&toDate={to}&userId={userId}",
+		                "2017-04-30", "2017-05-01", PnlResourceIntTest.USER_ID))
+		        .andExpect(MockMvcResultMatchers.status().isOk())
+		        .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].fromDate").value("2017-05-01"))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].details").value(2))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].amount").value(6.0));
+	}
+
+	/**
+	 * Get the P&amp;L of a transaction updated without one of its details, the detail deleted.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	@Transactional
+	public void getPnlOfTransactionsUpdatedWithoutDetails() throws Exception {
+		TransactionsDTO transactions = this.saveTransactions("07", PnlResourceIntTest.DRAW_DAY, 1.0f);
+		Long removedId = transactions.getTransactionDetailsDTOs().iterator().next().getId();
+		TransactionDetailsDTO details = new TransactionDetailsDTO();
+		details.setAmount(2.0f);
+		details.setChannelsId(1L);
+		details.setFactorsId(1L);
+		details.setStylesId(1L);
+		details.setTypesId(1L);
+		transactions.getTransactionDetailsDTOs().add(details);
+		transactions = this.transactionsService.save(transactions);
+		Assertions.assertThat(transactions.getTransactionDetailsDTOs()).hasSize(2);
+
+		// Keep the detail of 2 only
+		transactions.getTransactionDetailsDTOs().removeIf(dto -> removedId.equals(dto.getId()));
+		this.transactionsService.save(transactions);
+		this.em.flush();
+
+		Assertions.assertThat(this.jdbcTemplate.queryForObject(
+		        "select count(*) from transaction_details where transactions_id = ?", Integer.class,
+		        transactions.getId())).isEqualTo(1);
+		this.restPnlMockMvc
+		        .perform(MockMvcRequestBuilders.get("/api/pnl?period=DAILY&fromDate={from}&toDate={to}&userId={userId}",
+		                "2017-05-01", "2017-05-01", PnlResourceIntTest.USER_ID))
+		        .andExpect(MockMvcResultMatchers.status().isOk())
+		        .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].details").value(1))
+		        .andExpect(MockMvcResultMatchers.jsonPath("$[0].amount").value(2.0));
+	}
+
+	/**
+	 * Refuse a window ending before it starts.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	public void getPnlWithInvertedDates() throws Exception {
+		this.restPnlMockMvc
+		        .perform(MockMvcRequestBuilders.get("/api/pnl?fromDate={from}&toDate={to}", "2017-05-31",
+		                "2017-05-01"))
+		        .andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+
+	/**
+	 * Save an open transaction of the user with one detail, in the morning of its draw day.
+	 *
+	 * @param chosenNumber the chosen number
+	 * @param day the draw day
+	 * @param amount the amount
+	 * @return the saved transactions
+	 */
+	private TransactionsDTO saveTransactions(String chosenNumber, ZonedDateTime day, Float amount) {
+		return this.saveTransactionsAt(chosenNumber, day.plusHours(10), amount);
+	}
+
+	/**
+	 * Save an open transaction of the user with one detail.
+	 *
+	 * @param chosenNumber the chosen number
+	 * @param openDate the open date
+	 * @param amount the amount
+	 * @return the saved transactions
+	 */
+	private TransactionsDTO saveTransactionsAt(String chosenNumber, ZonedDateTime openDate, Float amount) {
+		TransactionDetailsDTO details = new TransactionDetailsDTO();
+		details.setAmount(amount);
+		details.setChannelsId(1L);
+		details.setFactorsId(1L);
+		details.setStylesId(1L);
+		details.setTypesId(1L);
+		TransactionsDTO transactions = new TransactionsDTO();
+		transactions.setChosenNumber(chosenNumber);
+		transactions.setOpenDate(openDate);
+		transactions.setClientsId(PnlResourceIntTest.USER_ID);
+		transactions.getTransactionDetailsDTOs().add(details);
+		return this.transactionsService.save(transactions);
+	}
+}
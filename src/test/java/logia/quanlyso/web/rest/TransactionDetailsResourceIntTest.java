@@ -28,6 +28,7 @@ import logia.quanlyso.repository.TransactionDetailsRepository;
 import logia.quanlyso.service.TransactionDetailsService;
 import logia.quanlyso.service.dto.TransactionDetailsDTO;
 import logia.quanlyso.service.mapper.TransactionDetailsMapper;
+import logia.quanlyso.service.util.MoneyUtil;
 import logia.quanlyso.web.rest.errors.ExceptionTranslator;
 
 /**
@@ -39,11 +40,11 @@ import logia.quanlyso.web.rest.errors.ExceptionTranslator;
 @SpringBootTest(classes = QuanlysoApp.class)
 public class TransactionDetailsResourceIntTest {
 
-	/** The Constant DEFAULT_AMOUNT. */
-	static final Float								DEFAULT_AMOUNT	= 1F;
+	/** The Constant DEFAULT_AMOUNT, in thousandths. */
+	static final Long								DEFAULT_AMOUNT	= 1000L;
 
-	/** The Constant UPDATED_AMOUNT. */
-	static final Float								UPDATED_AMOUNT	= 2F;
+	/** The Constant UPDATED_AMOUNT, in thousandths. */
+	static final Long								UPDATED_AMOUNT	= 2000L;
 
 	// /** The Constant DEFAULT_PROFIT. */
 	// static final Float DEFAULT_PROFIT = 1F;
@@ -213,7 +214,7 @@ public class TransactionDetailsResourceIntTest {
 		.andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
 		.andExpect(
 				MockMvcResultMatchers.jsonPath("$.[*].id").value(Matchers.hasItem(this.transactionDetails.getId().intValue())))
-		.andExpect(MockMvcResultMatchers.jsonPath("$.[*].amount").value(Matchers.hasItem(TransactionDetailsResourceIntTest.DEFAULT_AMOUNT.doubleValue())));
+		.andExpect(MockMvcResultMatchers.jsonPath("$.[*].amount").value(Matchers.hasItem(MoneyUtil.fromMinorUnits(TransactionDetailsResourceIntTest.DEFAULT_AMOUNT).doubleValue())));
 	}
 
 	/**
@@ -234,7 +235,7 @@ public class TransactionDetailsResourceIntTest {
 		.andExpect(MockMvcResultMatchers.status().isOk())
 		.andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
 		.andExpect(MockMvcResultMatchers.jsonPath("$.id").value(this.transactionDetails.getId().intValue()))
-		.andExpect(MockMvcResultMatchers.jsonPath("$.amount").value(TransactionDetailsResourceIntTest.DEFAULT_AMOUNT.doubleValue()));
+		.andExpect(MockMvcResultMatchers.jsonPath("$.amount").value(MoneyUtil.fromMinorUnits(TransactionDetailsResourceIntTest.DEFAULT_AMOUNT).doubleValue()));
 	}
 
 	/**
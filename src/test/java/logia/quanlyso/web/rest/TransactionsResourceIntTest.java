@@ -1,5 +1,8 @@
 package logia.quanlyso.web.rest;
 
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.List;
 
 import javax.persistence.EntityManager;
@@ -42,6 +45,7 @@ import logia.quanlyso.repository.UserRepository;
 import logia.quanlyso.service.TransactionsService;
 import logia.quanlyso.service.dto.TransactionsDTO;
 import logia.quanlyso.service.mapper.TransactionsMapper;
+import logia.quanlyso.service.util.DateFormatterUtil;
 import logia.quanlyso.web.rest.errors.ExceptionTranslator;
 
 /**
@@ -59,8 +63,12 @@ public class TransactionsResourceIntTest {
 	/** The Constant UPDATED_CHOSEN_NUMBER. */
 	static final String								UPDATED_CHOSEN_NUMBER	= "02";
 
-	/** The Constant DEFAULT_NET_VALUE. */
-	static final Float								DEFAULT_NET_VALUE		= 0F;
+	/** The Constant DRAW_DATE, the start of today in the system zone. */
+	static final ZonedDateTime						DRAW_DATE				= LocalDate
+			.now(DateFormatterUtil.systemZoneId()).atStartOfDay(DateFormatterUtil.systemZoneId());
+
+	/** The Constant DEFAULT_NET_VALUE, in thousandths. */
+	static final Long								DEFAULT_NET_VALUE		= 0L;
 
 	// /** The Constant UPDATED_NET_VALUE. */
 	// static final Float UPDATED_NET_VALUE = 2F;
@@ -469,7 +477,7 @@ public class TransactionsResourceIntTest {
 		TransactionDetails details = TransactionDetailsResourceIntTest.createEntity(this.em);
 		Channel channel = this.channelRepository.getOne(1L);
 		Code code = CodeResourceIntTest.createEntity(this.em);
-		code.openDate(CodeResourceIntTest.UPDATED_OPEN_DATE).channels(channel);
+		code.openDate(TransactionsResourceIntTest.DRAW_DATE).channels(channel);
 		this.codeRepository.saveAndFlush(code);
 		Factor factor = this.factorRepository.getOne(1L);
 		Style style = this.styleRepository.getOne(1L);
@@ -489,6 +497,47 @@ public class TransactionsResourceIntTest {
 		.andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$.netValue").value(netValue));
 	}
 
+	/**
+	 * Calculate many transactions at once.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	@Transactional
+	public void calculateAllTransactions() throws Exception {
+		// Initialize the database
+		Channel channel = this.channelRepository.getOne(1L);
+		Code code = CodeResourceIntTest.createEntity(this.em);
+		code.openDate(TransactionsResourceIntTest.DRAW_DATE).channels(channel);
+		this.codeRepository.saveAndFlush(code);
+		Factor factor = this.factorRepository.getOne(1L);
+		Style style = this.styleRepository.getOne(1L);
+		Types types = this.typesRepository.getOne(1L);
+
+		Transactions winning = TransactionsResourceIntTest.createEntity(this.em);
+		winning.addTransactionDetails(TransactionDetailsResourceIntTest.createEntity(this.em)
+				.channels(channel).factors(factor).styles(style).types(types));
+		Transactions losing = TransactionsResourceIntTest.createEntity(this.em)
+				.chosenNumber(TransactionsResourceIntTest.UPDATED_CHOSEN_NUMBER);
+		losing.addTransactionDetails(TransactionDetailsResourceIntTest.createEntity(this.em)
+				.channels(channel).factors(factor).styles(style).types(types));
+
+		// Calculate the Transactions, results keep the input order
+		List<TransactionsDTO> transactionsDTOs = this.transactionsMapper
+				.toDto(Arrays.asList(losing, winning, losing));
+		this.restTransactionsMockMvc
+		.perform(MockMvcRequestBuilders.post("/api/transactions/calculate/batch")
+				.contentType(TestUtil.APPLICATION_JSON_UTF8)
+				.content(TestUtil.convertObjectToJsonBytes(transactionsDTOs)))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3))
+		.andExpect(MockMvcResultMatchers.jsonPath("$[0].chosenNumber").value(TransactionsResourceIntTest.UPDATED_CHOSEN_NUMBER))
+		.andExpect(MockMvcResultMatchers.jsonPath("$[0].netValue").value((float) -0.75))
+		.andExpect(MockMvcResultMatchers.jsonPath("$[1].chosenNumber").value(TransactionsResourceIntTest.DEFAULT_CHOSEN_NUMBER))
+		.andExpect(MockMvcResultMatchers.jsonPath("$[1].netValue").value((float) 74.25))
+		.andExpect(MockMvcResultMatchers.jsonPath("$[2].netValue").value((float) -0.75));
+	}
+
 	/**
 	 * Equals verifier.
 	 *
@@ -0,0 +1,144 @@
+package logia.quanlyso.web.rest;
+
+import java.io.ByteArrayOutputStream;
+
+import javax.persistence.EntityManager;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import logia.quanlyso.QuanlysoApp;
+import logia.quanlyso.config.ApplicationProperties;
+import logia.quanlyso.domain.Channel;
+import logia.quanlyso.domain.Code;
+import logia.quanlyso.domain.Factor;
+import logia.quanlyso.domain.Style;
+import logia.quanlyso.domain.Transactions;
+import logia.quanlyso.domain.Types;
+import logia.quanlyso.repository.ChannelRepository;
+import logia.quanlyso.repository.CodeRepository;
+import logia.quanlyso.repository.FactorRepository;
+import logia.quanlyso.repository.StyleRepository;
+import logia.quanlyso.repository.TypesRepository;
+import logia.quanlyso.service.TransactionsService;
+import logia.quanlyso.service.dto.TransactionsDTO;
+import logia.quanlyso.service.mapper.TransactionsMapper;
+
+/**
+ * Test class for the TransactionsStreamResource REST controller.
+ *
+ * @see TransactionsStreamResource
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = QuanlysoApp.class)
+public class TransactionsStreamResourceIntTest {
+
+	/** The channel repository. */
+	@Autowired
+	private ChannelRepository		channelRepository;
+
+	/** The factor repository. */
+	@Autowired
+	private FactorRepository		factorRepository;
+
+	/** The style repository. */
+	@Autowired
+	private StyleRepository			styleRepository;
+
+	/** The types repository. */
+	@Autowired
+	private TypesRepository			typesRepository;
+
+	/** The code repository. */
+	@Autowired
+	private CodeRepository			codeRepository;
+
+	/** The transactions mapper. */
+	@Autowired
+	private TransactionsMapper		transactionsMapper;
+
+	/** The transactions service. */
+	@Autowired
+	private TransactionsService		transactionsService;
+
+	/** The object mapper. */
+	@Autowired
+	private ObjectMapper			objectMapper;
+
+	/** The em. */
+	@Autowired
+	private EntityManager			em;
+
+	/** The rest transactions stream mock mvc. */
+	private MockMvc					restTransactionsStreamMockMvc;
+
+	/**
+	 * Setup.
+	 */
+	@Before
+	public void setup() {
+		ApplicationProperties applicationProperties = new ApplicationProperties();
+		// Smaller than the stream, so that it is settled in several chunks
+		applicationProperties.getSettlement().setChunkSize(2);
+		TransactionsStreamResource transactionsStreamResource = new TransactionsStreamResource(
+		        this.transactionsService, this.objectMapper, applicationProperties);
+		this.restTransactionsStreamMockMvc = MockMvcBuilders.standaloneSetup(transactionsStreamResource).build();
+	}
+
+	/**
+	 * Calculate a stream of transactions.
+	 *
+	 * @throws Exception the exception
+	 */
+	@Test
+	@Transactional
+	public void calculateTransactionsStream() throws Exception {
+		// Initialize the database
+		Channel channel = this.channelRepository.getOne(1L);
+		Code code = CodeResourceIntTest.createEntity(this.em);
+		code.openDate(TransactionsResourceIntTest.DRAW_DATE).channels(channel);
+		this.codeRepository.saveAndFlush(code);
+		Factor factor = this.factorRepository.getOne(1L);
+		Style style = this.styleRepository.getOne(1L);
+		Types types = this.typesRepository.getOne(1L);
+
+		ByteArrayOutputStream lines = new ByteArrayOutputStream();
+		String[] chosenNumbers = { "02", "01", "02" };
+		for (String chosenNumber : chosenNumbers) {
+			Transactions transactions = TransactionsResourceIntTest.createEntity(this.em).chosenNumber(chosenNumber);
+			transactions.addTransactionDetails(TransactionDetailsResourceIntTest.createEntity(this.em)
+			        .channels(channel).factors(factor).styles(style).types(types));
+			lines.write(TestUtil.convertObjectToJsonBytes(this.transactionsMapper.toDto(transactions)));
+			lines.write('\n');
+		}
+
+		// Calculate the Transactions, results keep the input order
+		String content = this.restTransactionsStreamMockMvc
+		        .perform(MockMvcRequestBuilders.post("/api/transactions/calculate/stream")
+		                .contentType(TransactionsStreamResource.APPLICATION_NDJSON_VALUE).content(lines.toByteArray()))
+		        .andExpect(MockMvcResultMatchers.status().isOk())
+		        .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(TransactionsStreamResource.APPLICATION_NDJSON_VALUE))
+		        .andReturn().getResponse().getContentAsString();
+
+		String[] results = content.split("\n");
+		Assertions.assertThat(results).hasSize(chosenNumbers.length);
+		float[] netValues = { -0.75F, 74.25F, -0.75F };
+		for (int i = 0; i < results.length; i++) {
+			TransactionsDTO result = this.objectMapper.readValue(results[i], TransactionsDTO.class);
+			Assertions.assertThat(result.getChosenNumber()).isEqualTo(chosenNumbers[i]);
+			Assertions.assertThat(result.getNetValue()).isEqualTo(netValues[i]);
+		}
+	}
+}
@@ -0,0 +1,16 @@
+<!DOCTYPE html>
+<html>
+<head>
+<meta charset="utf-8">
+<title>Kết quả xổ số Cà Mau</title>
+<style>td.giaidb { color: #f00; font-weight: bold; }</style>
+</head>
+<body>
+<div class="header"><a href="/">Minh Ngọc</a></div>
+<div class="content">
+	<div class="box_kqxs">
+		<p>Chưa có kết quả xổ số Cà Mau ngày 03/07/2017.</p>
+	</div>
+</div>
+</body>
+</html>
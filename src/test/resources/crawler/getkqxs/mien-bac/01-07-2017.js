@@ -0,0 +1,28 @@
+<!DOCTYPE html>
+<html>
+<head>
+<meta charset="utf-8">
+<title>Kết quả xổ số Miền Bắc 01-07-2017</title>
+<style>td.giaidb { color: #f00; font-weight: bold; }</style>
+</head>
+<body>
+<div class="header"><a href="/">Minh Ngọc</a></div>
+<div class="content">
+	<div class="box_kqxs">
+		<div class="box_ngay"><select id="box_kqxs_ngay" name="ngay"><option value="02-07-2017">02/07/2017</option><option value="01-07-2017" selected="selected">01/07/2017</option><option value="30-06-2017">30/06/2017</option></select></div>
+		<div class="box_kqxs_content">
+			<table class="bkqmienbac">
+				<tr><td class="giaidb" nowrap>Giải ĐB</td><td class="giaidb">84152</td></tr>
+				<tr><td class="giai1" nowrap>Giải nhất</td><td class="giai1">30719</td></tr>
+				<tr><td class="giai2" nowrap>Giải nhì</td><td class="giai2">62540 - 07713</td></tr>
+				<tr><td class="giai3" nowrap>Giải ba</td><td class="giai3">29870 - 54103 - 88216 - 40357 - 13592 - 71064</td></tr>
+				<tr><td class="giai4" nowrap>Giải tư</td><td class="giai4">3841 - 0276 - 9153 - 4620</td></tr>
+				<tr><td class="giai5" nowrap>Giải năm</td><td class="giai5">1792 - 5038 - 8614 - 2257 - 6380 - 0945</td></tr>
+				<tr><td class="giai6" nowrap>Giải sáu</td><td class="giai6">417 - 862 - 095</td></tr>
+				<tr><td class="giai7" nowrap>Giải bảy</td><td class="giai7">38 - 71 - 04 - 56</td></tr>
+			</table>
+		</div>
+	</div>
+</div>
+</body>
+</html>
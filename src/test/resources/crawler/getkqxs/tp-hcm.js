@@ -0,0 +1,32 @@
+<!DOCTYPE html>
+<html>
+<head>
+<meta charset="utf-8">
+<title>Kết quả xổ số TP.HCM 08-07-2017</title>
+<style>td.giaidb { color: #f00; font-weight: bold; }</style>
+</head>
+<body>
+<div class="header"><a href="/">Minh Ngọc</a></div>
+<div class="content">
+	<div class="box_kqxs">
+		<div class="box_kqxs_inner">
+			<div class="box_ngay"><select id="box_kqxs_ngay" name="ngay"><option value="08-07-2017" selected="selected">08/07/2017</option><option value="03-07-2017">03/07/2017</option></select></div>
+			<div class="box_kqxs_content">
+			<table class="bkqtinhmiennam">
+				<tr><td class="giai8" nowrap>Giải tám</td><td class="giai8">12</td></tr>
+				<tr><td class="giai7" nowrap>Giải bảy</td><td class="giai7">608</td></tr>
+				<tr><td class="giai6" nowrap>Giải sáu</td><td class="giai6">7431 - 2095 - 8862</td></tr>
+				<tr><td class="giai5" nowrap>Giải năm</td><td class="giai5">3170</td></tr>
+				<tr><td class="giai4" nowrap>Giải tư</td><td class="giai4">52914 - 07385 - 61249 - ...</td></tr>
+				<tr><td class="giai3" nowrap>Giải ba</td><td class="giai3"><img src="/images/loading.gif"></td></tr>
+				<tr><td class="giai2" nowrap>Giải nhì</td><td class="giai2"><img src="/images/loading.gif"></td></tr>
+				<tr><td class="giai1" nowrap>Giải nhất</td><td class="giai1"><img src="/images/loading.gif"></td></tr>
+				<tr><td class="giaidb" nowrap>Giải ĐB</td><td class="giaidb"><img src="/images/loading.gif"></td></tr>
+			</table>
+			</div>
+		</div>
+	</div>
+	<div class="box_quangcao"><!-- <td class="giai8">00</td> --></div>
+</div>
+</body>
+</html>
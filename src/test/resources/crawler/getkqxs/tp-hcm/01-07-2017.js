@@ -0,0 +1,32 @@
+<!DOCTYPE html>
+<html>
+<head>
+<meta charset="utf-8">
+<title>Kết quả xổ số TP.HCM 01-07-2017</title>
+<style>td.giaidb { color: #f00; font-weight: bold; }</style>
+</head>
+<body>
+<div class="header"><a href="/">Minh Ngọc</a></div>
+<div class="content">
+	<div class="box_kqxs">
+		<div class="box_kqxs_inner">
+			<div class="box_ngay"><select id="box_kqxs_ngay" name="ngay"><option value="03-07-2017">03/07/2017</option><option value="01-07-2017" selected="selected">01/07/2017</option></select></div>
+			<div class="box_kqxs_content">
+			<table class="bkqtinhmiennam">
+				<tr><td class="giai8" nowrap>Giải tám</td><td class="giai8">47</td></tr>
+				<tr><td class="giai7" nowrap>Giải bảy</td><td class="giai7">390</td></tr>
+				<tr><td class="giai6" nowrap>Giải sáu</td><td class="giai6">5821&nbsp;-&nbsp;0637&nbsp;-&nbsp;9154</td></tr>
+				<tr><td class="giai5" nowrap>Giải năm</td><td class="giai5">2706</td></tr>
+				<tr><td class="giai4" nowrap>Giải tư</td><td class="giai4">41583 - 90276 - 15348 - 67021 - 38894 - 02615 - 74430</td></tr>
+				<tr><td class="giai3" nowrap>Giải ba</td><td class="giai3">63107 - 28549</td></tr>
+				<tr><td class="giai2" nowrap>Giải nhì</td><td class="giai2">91762</td></tr>
+				<tr><td class="giai1" nowrap>Giải nhất</td><td class="giai1">40318</td></tr>
+				<tr><td class="giaidb" nowrap>Giải ĐB</td><td class="giaidb"><b>725904</b></td></tr>
+			</table>
+			</div>
+		</div>
+	</div>
+	<div class="box_quangcao"><!-- <td class="giai8">00</td> --></div>
+</div>
+</body>
+</html>